@@ -0,0 +1,53 @@
+#!/usr/bin/env sh
+# Mide el tiempo hasta la primera respuesta (time-to-first-request) de un contenedor
+# inventario-app en modo estándar y en modo fast-start (AOT + CDS).
+#
+# Uso: ./scripts/startup-benchmark.sh [repeticiones]
+# Requiere que db y redis estén levantados: docker compose up -d db redis
+set -eu
+
+RUNS=${1:-5}
+cd "$(dirname "$0")/.."
+
+NETWORK=$(docker network ls --format '{{.Name}}' | grep inventario-network | head -n 1)
+ENV_FILE=../.env
+PORT=18080
+URL="http://localhost:$PORT/api/products?size=1"
+
+build() {
+    mode=$1
+    if [ "$mode" = "fast-start" ]; then
+        ./mvnw -q -DskipTests -Pfast-start package
+        docker build -q --build-arg FAST_START=true -t inventario-app:fast-start . > /dev/null
+    else
+        ./mvnw -q -DskipTests package
+        docker build -q -t inventario-app:standard . > /dev/null
+    fi
+}
+
+measure() {
+    mode=$1
+    start=$(date +%s%N)
+    container=$(docker run -d --rm --network "$NETWORK" -p $PORT:8080 --env-file "$ENV_FILE" \
+        -e SPRING_DATASOURCE_URL="jdbc:mysql://db:3306/inventariodb" \
+        -e SPRING_DATASOURCE_USERNAME=inventario_user \
+        -e SPRING_DATASOURCE_PASSWORD="$(grep '^DB_PASSWORD=' "$ENV_FILE" | cut -d= -f2-)" \
+        "inventario-app:$mode")
+    until curl -sf -o /dev/null "$URL"; do
+        sleep 0.05
+    done
+    end=$(date +%s%N)
+    docker stop "$container" > /dev/null
+    echo $(( (end - start) / 1000000 ))
+}
+
+for mode in standard fast-start; do
+    build "$mode"
+    total=0
+    for i in $(seq 1 "$RUNS"); do
+        ms=$(measure "$mode")
+        echo "$mode run $i: ${ms} ms"
+        total=$((total + ms))
+    done
+    echo "$mode average time-to-first-request: $((total / RUNS)) ms"
+done
@@ -0,0 +1,46 @@
+#!/usr/bin/env sh
+# Compara throughput y latencia con muchos clientes concurrentes entre el modelo actual
+# (un hilo de plataforma por request) y el modo de hilos virtuales, con el perfil perf
+# (H2 y caché en memoria) y el LoadGenerator (un hilo virtual por cliente).
+#
+# Uso: ./scripts/virtual-threads-benchmark.sh [clientes] [duración en s]
+# Requiere JDK 21 y suficientes descriptores: ulimit -n 65536
+set -eu
+
+CLIENTS=${1:-10000}
+DURATION=${2:-60}
+cd "$(dirname "$0")/.."
+
+PORT=18080
+URL="http://localhost:$PORT/api/products/1"
+JAR=target/inventario-0.0.1.jar
+
+run() {
+    mode=$1
+    profiles=$2
+    maven_profile=$3
+    ./mvnw -q -DskipTests $maven_profile package
+    # Mismo límite de conexiones en los dos modos: solo cambia el modelo de hilos
+    java -jar "$JAR" --spring.profiles.active="$profiles" --server.port=$PORT \
+        --server.tomcat.max-connections=20000 --server.tomcat.accept-count=1000 > "target/$mode.log" 2>&1 &
+    pid=$!
+    until curl -sf -o /dev/null "$URL"; do
+        sleep 0.5
+    done
+    echo "== $mode: $CLIENTS clientes, $DURATION s"
+    ./mvnw -q -Pload-test test-compile exec:java \
+        -Dexec.args="url=http://localhost:$PORT clients=$CLIENTS duration=$DURATION warmup=15" \
+        | tee "target/virtual-threads-$mode.txt"
+    curl -s "http://localhost:$PORT/api/admin/bulkheads" > "target/virtual-threads-$mode-bulkheads.json"
+    kill "$pid"
+    wait "$pid" || true
+}
+
+run platform perf ""
+run virtual perf,virtual-threads -Pvirtual-threads
+
+echo
+for mode in platform virtual; do
+    printf '%-10s ' "$mode"
+    grep '^total' "target/virtual-threads-$mode.txt"
+done
@@ -0,0 +1,78 @@
+package com.inventario.admission;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.DoubleUnaryOperator;
+
+/**
+ * AIMD concurrency limit. Responses under the target latency grow the limit by 1/limit (about
+ * one per round of requests) while it is being used; a slow or failed response cuts it by 10%,
+ * at most once per target latency so one burst of slow responses counts as one signal.
+ */
+public final class AdaptiveConcurrencyLimit {
+    private static final double BACKOFF = 0.9;
+    private static final long NEVER = Long.MIN_VALUE;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final long targetNanos;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicLong limitBits;
+    private final AtomicLong lastDecrease = new AtomicLong(NEVER);
+    private final LongAdder admitted = new LongAdder();
+    private final LongAdder shed = new LongAdder();
+
+    public AdaptiveConcurrencyLimit(int initialLimit, int minLimit, int maxLimit, long targetNanos) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.targetNanos = targetNanos;
+        this.limitBits = new AtomicLong(Double.doubleToLongBits(Math.max(minLimit, Math.min(maxLimit, initialLimit))));
+    }
+
+    public boolean tryAcquire() {
+        if (inFlight.incrementAndGet() > (int) getLimit()) {
+            inFlight.decrementAndGet();
+            shed.increment();
+            return false;
+        }
+        admitted.increment();
+        return true;
+    }
+
+    public void release(long latencyNanos, boolean failed, long nowNanos) {
+        int inUse = inFlight.getAndDecrement();
+        if (failed || latencyNanos > targetNanos) {
+            long last = lastDecrease.get();
+            if ((last == NEVER || nowNanos - last > targetNanos) && lastDecrease.compareAndSet(last, nowNanos))
+                update(limit -> Math.max(minLimit, limit * BACKOFF));
+        } else if (inUse * 2 >= getLimit()) {
+            update(limit -> Math.min(maxLimit, limit + 1 / limit));
+        }
+    }
+
+    private void update(DoubleUnaryOperator function) {
+        long bits;
+        long next;
+        do {
+            bits = limitBits.get();
+            next = Double.doubleToLongBits(function.applyAsDouble(Double.longBitsToDouble(bits)));
+        } while (!limitBits.compareAndSet(bits, next));
+    }
+
+    public double getLimit() {
+        return Double.longBitsToDouble(limitBits.get());
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    public long getAdmitted() {
+        return admitted.sum();
+    }
+
+    public long getShed() {
+        return shed.sum();
+    }
+}
@@ -0,0 +1,82 @@
+package com.inventario.admission;
+
+import java.io.IOException;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.inventario.enums.EndpointClass;
+import com.inventario.exceptions.ErrorResponse;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Admission control for the product and stock endpoints. Rejections are answered here, before
+ * any controller, transaction or connection is involved.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+@ConditionalOnProperty(prefix = "inventario.admission", name = "enabled", matchIfMissing = true)
+public class AdmissionControlFilter extends OncePerRequestFilter {
+    static final String API_KEY_HEADER = "X-API-Key";
+
+    private final AdmissionGate admissionGate;
+    private final ObjectMapper objectMapper;
+
+    public AdmissionControlFilter(AdmissionGate admissionGate, ObjectMapper objectMapper) {
+        this.admissionGate = admissionGate;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI();
+        return !path.startsWith("/api/products") && !path.startsWith("/api/stock") && !path.startsWith("/api/warehouses");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String apiKey = request.getHeader(API_KEY_HEADER);
+        String client = apiKey != null && !apiKey.isBlank() ? "key:" + apiKey : "ip:" + request.getRemoteAddr();
+        EndpointClass endpointClass = EndpointClass.classify(request.getMethod(), request.getRequestURI());
+
+        AdmissionGate.Decision decision = admissionGate.tryAcquire(client, endpointClass);
+        if (decision.outcome() != AdmissionGate.Outcome.ADMITTED) {
+            reject(request, response, decision);
+            return;
+        }
+        boolean failed = true;
+        try {
+            filterChain.doFilter(request, response);
+            failed = response.getStatus() >= 500;
+        } finally {
+            admissionGate.release(decision, failed);
+        }
+    }
+
+    private void reject(HttpServletRequest request, HttpServletResponse response, AdmissionGate.Decision decision)
+            throws IOException {
+        boolean rateLimited = decision.outcome() == AdmissionGate.Outcome.RATE_LIMITED;
+        HttpStatus status = rateLimited ? HttpStatus.TOO_MANY_REQUESTS : HttpStatus.SERVICE_UNAVAILABLE;
+        long retryAfterSeconds = Math.max(1, (decision.retryAfterNanos() + 999_999_999L) / 1_000_000_000L);
+        String message = rateLimited ? "Rate limit exceeded for this client."
+                : "Server busy, " + decision.endpointClass() + " requests are being shed.";
+
+        response.setStatus(status.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(),
+                new ErrorResponse(message, status.value(), "uri=" + request.getRequestURI()));
+    }
+}
@@ -0,0 +1,105 @@
+package com.inventario.admission;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.inventario.dtos.AdmissionStatsDTO;
+import com.inventario.dtos.EndpointClassStatsDTO;
+import com.inventario.enums.EndpointClass;
+
+/**
+ * In-memory admission decisions, cheapest check first: the client's token bucket (429), the
+ * share of the global concurrency of the endpoint class (503), and the class's adaptive
+ * limit (503).
+ */
+@Component
+public class AdmissionGate {
+    private static final String OVERFLOW_CLIENT = "*";
+
+    public enum Outcome {
+        ADMITTED,
+        RATE_LIMITED,
+        SHED
+    }
+
+    /**
+     * @param retryAfterNanos time until a retry could be admitted, 0 when admitted
+     */
+    public record Decision(Outcome outcome, EndpointClass endpointClass, long retryAfterNanos, long startNanos) {
+    }
+
+    private final AdmissionProperties properties;
+    private final Map<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+    private final Map<EndpointClass, AdaptiveConcurrencyLimit> limits = new EnumMap<>(EndpointClass.class);
+    private final AtomicInteger globalInFlight = new AtomicInteger();
+    private final LongAdder rateLimited = new LongAdder();
+
+    public AdmissionGate(AdmissionProperties properties) {
+        this.properties = properties;
+        limits.put(EndpointClass.STOCK_WRITE, limit(properties.stockWrite()));
+        limits.put(EndpointClass.POINT_READ, limit(properties.pointRead()));
+        limits.put(EndpointClass.REPORT, limit(properties.report()));
+    }
+
+    private static AdaptiveConcurrencyLimit limit(AdmissionProperties.ClassLimit limit) {
+        return new AdaptiveConcurrencyLimit(limit.initialLimit(), limit.minLimit(), limit.maxLimit(),
+                limit.targetLatency().toNanos());
+    }
+
+    public Decision tryAcquire(String client, EndpointClass endpointClass) {
+        long now = System.nanoTime();
+        long wait = bucket(client).tryAcquire(now);
+        if (wait > 0) {
+            rateLimited.increment();
+            return new Decision(Outcome.RATE_LIMITED, endpointClass, wait, now);
+        }
+
+        int allowed = (int) Math.max(1, properties.globalMaxConcurrency() * endpointClass.getShare());
+        if (globalInFlight.incrementAndGet() > allowed) {
+            globalInFlight.decrementAndGet();
+            return new Decision(Outcome.SHED, endpointClass, 1_000_000_000L, now);
+        }
+        if (!limits.get(endpointClass).tryAcquire()) {
+            globalInFlight.decrementAndGet();
+            return new Decision(Outcome.SHED, endpointClass, 1_000_000_000L, now);
+        }
+        return new Decision(Outcome.ADMITTED, endpointClass, 0, now);
+    }
+
+    public void release(Decision decision, boolean failed) {
+        long now = System.nanoTime();
+        globalInFlight.decrementAndGet();
+        limits.get(decision.endpointClass()).release(now - decision.startNanos(), failed, now);
+    }
+
+    private TokenBucket bucket(String client) {
+        TokenBucket bucket = buckets.get(client);
+        if (bucket != null)
+            return bucket;
+        if (buckets.size() >= properties.maxClients())
+            client = OVERFLOW_CLIENT;
+        return buckets.computeIfAbsent(client, key -> new TokenBucket(properties.clientRate(), properties.clientBurst()));
+    }
+
+    @Scheduled(fixedDelay = 60_000)
+    public void dropIdleBuckets() {
+        long now = System.nanoTime();
+        buckets.values().removeIf(bucket -> bucket.isIdle(now));
+    }
+
+    public AdmissionStatsDTO stats() {
+        List<EndpointClassStatsDTO> classes = limits.entrySet().stream()
+                .map(entry -> new EndpointClassStatsDTO(entry.getKey(), entry.getValue().getLimit(),
+                        entry.getValue().getInFlight(), entry.getValue().getAdmitted(), entry.getValue().getShed()))
+                .toList();
+        return new AdmissionStatsDTO(globalInFlight.get(), properties.globalMaxConcurrency(), buckets.size(),
+                rateLimited.sum(), classes);
+    }
+}
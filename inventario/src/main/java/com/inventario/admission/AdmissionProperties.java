@@ -0,0 +1,29 @@
+package com.inventario.admission;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "inventario.admission")
+public record AdmissionProperties(
+        @DefaultValue("true") boolean enabled,
+        // Per X-API-Key (or client IP when missing): sustained requests per second and burst
+        @DefaultValue("50") double clientRate,
+        @DefaultValue("100") int clientBurst,
+        // Buckets kept in memory; clients beyond this share one bucket until idle ones are dropped
+        @DefaultValue("10000") int maxClients,
+        // Requests in flight across all classes, close to the connection pool size
+        @DefaultValue("40") int globalMaxConcurrency,
+        @DefaultValue ClassLimit stockWrite,
+        @DefaultValue ClassLimit pointRead,
+        @DefaultValue ClassLimit report) {
+
+    public record ClassLimit(
+            @DefaultValue("20") int initialLimit,
+            @DefaultValue("2") int minLimit,
+            @DefaultValue("40") int maxLimit,
+            // Responses slower than this shrink the limit
+            @DefaultValue("250ms") Duration targetLatency) {
+    }
+}
@@ -0,0 +1,40 @@
+package com.inventario.admission;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token bucket written as GCRA: the whole state is the theoretical arrival time of the next
+ * request, updated with one CAS. A request is allowed while that time is at most
+ * {@code burst - 1} emission intervals in the future.
+ */
+public final class TokenBucket {
+    private final long intervalNanos;
+    private final long toleranceNanos;
+    private final AtomicLong theoreticalArrival = new AtomicLong(Long.MIN_VALUE);
+
+    public TokenBucket(double ratePerSecond, int burst) {
+        this.intervalNanos = (long) (1_000_000_000L / ratePerSecond);
+        this.toleranceNanos = intervalNanos * (Math.max(1, burst) - 1L);
+    }
+
+    /**
+     * @return 0 if the request is allowed, otherwise the nanoseconds until it would be
+     */
+    public long tryAcquire(long nowNanos) {
+        while (true) {
+            long tat = theoreticalArrival.get();
+            long start = tat == Long.MIN_VALUE || tat - nowNanos < 0 ? nowNanos : tat;
+            long wait = start - toleranceNanos - nowNanos;
+            if (wait > 0)
+                return wait;
+            if (theoreticalArrival.compareAndSet(tat, start + intervalNanos))
+                return 0;
+        }
+    }
+
+    // A full bucket behaves like a new one and can be dropped
+    public boolean isIdle(long nowNanos) {
+        long tat = theoreticalArrival.get();
+        return tat == Long.MIN_VALUE || tat - nowNanos <= 0;
+    }
+}
@@ -0,0 +1,102 @@
+package com.inventario.bulkhead;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.inventario.observability.LatencyHistogram;
+
+/**
+ * Slots of one endpoint class. A request takes a free slot, or waits in a bounded queue for at
+ * most the queue timeout; when the queue is full it is rejected without waiting, so the class
+ * never holds more than {@code maxConcurrent + queueLimit} worker threads.
+ */
+public class Bulkhead {
+
+    public enum Outcome {
+        ADMITTED,
+        QUEUE_FULL,
+        TIMED_OUT
+    }
+
+    private final int maxConcurrent;
+    private final int queueLimit;
+    private final long queueTimeoutNanos;
+    // Fair, so queued requests are served in arrival order
+    private final Semaphore slots;
+    private final AtomicInteger queued = new AtomicInteger();
+    private final LongAdder admitted = new LongAdder();
+    private final LongAdder queueFull = new LongAdder();
+    private final LongAdder timedOut = new LongAdder();
+    private final LatencyHistogram queueWait = new LatencyHistogram();
+
+    public Bulkhead(int maxConcurrent, int queueLimit, long queueTimeoutNanos) {
+        this.maxConcurrent = maxConcurrent;
+        this.queueLimit = queueLimit;
+        this.queueTimeoutNanos = queueTimeoutNanos;
+        this.slots = new Semaphore(maxConcurrent, true);
+    }
+
+    public Outcome acquire() throws InterruptedException {
+        // tryAcquire() would barge ahead of the queue; a zero timeout honours the fairness
+        if (slots.tryAcquire(0, TimeUnit.NANOSECONDS)) {
+            admitted.increment();
+            return Outcome.ADMITTED;
+        }
+        if (queued.incrementAndGet() > queueLimit) {
+            queued.decrementAndGet();
+            queueFull.increment();
+            return Outcome.QUEUE_FULL;
+        }
+        long start = System.nanoTime();
+        try {
+            if (!slots.tryAcquire(queueTimeoutNanos, TimeUnit.NANOSECONDS)) {
+                timedOut.increment();
+                return Outcome.TIMED_OUT;
+            }
+        } finally {
+            queued.decrementAndGet();
+            queueWait.record(System.nanoTime() - start);
+        }
+        admitted.increment();
+        return Outcome.ADMITTED;
+    }
+
+    public void release() {
+        slots.release();
+    }
+
+    public int getMaxConcurrent() {
+        return maxConcurrent;
+    }
+
+    public int getInFlight() {
+        return maxConcurrent - slots.availablePermits();
+    }
+
+    public int getQueueLimit() {
+        return queueLimit;
+    }
+
+    public int getQueued() {
+        return queued.get();
+    }
+
+    public long getAdmitted() {
+        return admitted.sum();
+    }
+
+    public long getQueueFull() {
+        return queueFull.sum();
+    }
+
+    public long getTimedOut() {
+        return timedOut.sum();
+    }
+
+    // Only requests that had to queue are recorded
+    public LatencyHistogram getQueueWait() {
+        return queueWait;
+    }
+}
@@ -0,0 +1,83 @@
+package com.inventario.bulkhead;
+
+import java.io.IOException;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.inventario.enums.EndpointClass;
+import com.inventario.exceptions.ErrorResponse;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Runs each product and stock request inside the bulkhead of its endpoint class, and binds the
+ * class so its transaction takes a connection from the class's own pool. After admission
+ * control: a shed request never queues here.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 20)
+@ConditionalOnProperty(prefix = "inventario.bulkhead", name = "enabled", matchIfMissing = true)
+public class BulkheadFilter extends OncePerRequestFilter {
+    private final BulkheadRegistry bulkheads;
+    private final ObjectMapper objectMapper;
+
+    public BulkheadFilter(BulkheadRegistry bulkheads, ObjectMapper objectMapper) {
+        this.bulkheads = bulkheads;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI();
+        return !path.startsWith("/api/products") && !path.startsWith("/api/stock") && !path.startsWith("/api/warehouses");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        EndpointClass endpointClass = EndpointClass.classify(request.getMethod(), request.getRequestURI());
+        Bulkhead bulkhead = bulkheads.get(endpointClass);
+
+        Bulkhead.Outcome outcome;
+        try {
+            outcome = bulkhead.acquire();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            outcome = Bulkhead.Outcome.TIMED_OUT;
+        }
+        if (outcome != Bulkhead.Outcome.ADMITTED) {
+            reject(request, response, endpointClass, outcome);
+            return;
+        }
+        EndpointClass previous = BulkheadRoutingDataSource.bind(endpointClass);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            BulkheadRoutingDataSource.restore(previous);
+            bulkhead.release();
+        }
+    }
+
+    private void reject(HttpServletRequest request, HttpServletResponse response, EndpointClass endpointClass,
+            Bulkhead.Outcome outcome) throws IOException {
+        String message = outcome == Bulkhead.Outcome.QUEUE_FULL
+                ? "Server busy, the " + endpointClass + " queue is full."
+                : "Server busy, timed out waiting in the " + endpointClass + " queue.";
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(),
+                new ErrorResponse(message, HttpStatus.SERVICE_UNAVAILABLE.value(), "uri=" + request.getRequestURI()));
+    }
+}
@@ -0,0 +1,40 @@
+package com.inventario.bulkhead;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+import com.inventario.enums.EndpointClass;
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * One connection pool per endpoint class plus one for the work outside a request. Kept as its
+ * own bean so the pools are closed on shutdown: the DataSource bean is wrapped by other post
+ * processors and loses its close method.
+ */
+public class BulkheadPools implements AutoCloseable {
+    private final Map<EndpointClass, HikariDataSource> partitions = new EnumMap<>(EndpointClass.class);
+    private final HikariDataSource background;
+
+    public BulkheadPools(Map<EndpointClass, HikariDataSource> partitions, HikariDataSource background) {
+        this.partitions.putAll(partitions);
+        this.background = background;
+    }
+
+    public HikariDataSource get(EndpointClass endpointClass) {
+        return partitions.get(endpointClass);
+    }
+
+    public Map<EndpointClass, HikariDataSource> partitions() {
+        return partitions;
+    }
+
+    public HikariDataSource background() {
+        return background;
+    }
+
+    @Override
+    public void close() {
+        partitions.values().forEach(HikariDataSource::close);
+        background.close();
+    }
+}
@@ -0,0 +1,48 @@
+package com.inventario.bulkhead;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import com.inventario.enums.EndpointClass;
+
+@ConfigurationProperties(prefix = "inventario.bulkhead")
+public record BulkheadProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue Partition stockWrite,
+        @DefaultValue Partition pointRead,
+        @DefaultValue Partition report,
+        // Connections for the work outside a request: scheduled jobs, write-behind, startup
+        @DefaultValue("4") int backgroundPoolSize,
+        // When > 0, caps max-concurrent at pool-size times this: with virtual threads nothing
+        // else bounds how many requests wait on the pool
+        @DefaultValue("0") int maxConcurrentPerConnection) {
+
+    public record Partition(
+            // Worker threads the class may hold at once
+            @DefaultValue("40") int maxConcurrent,
+            // Requests waiting for a slot; beyond this they are rejected at once
+            @DefaultValue("40") int queueLimit,
+            @DefaultValue("500ms") Duration queueTimeout,
+            // Connections of the class's own pool and how long to wait for one
+            @DefaultValue("10") int poolSize,
+            @DefaultValue("2s") Duration connectionTimeout) {
+    }
+
+    // max-concurrent after the per-connection cap
+    public int maxConcurrent(EndpointClass endpointClass) {
+        Partition partition = partition(endpointClass);
+        if (maxConcurrentPerConnection <= 0)
+            return partition.maxConcurrent();
+        return Math.max(1, Math.min(partition.maxConcurrent(), partition.poolSize() * maxConcurrentPerConnection));
+    }
+
+    public Partition partition(EndpointClass endpointClass) {
+        return switch (endpointClass) {
+            case STOCK_WRITE -> stockWrite;
+            case POINT_READ -> pointRead;
+            case REPORT -> report;
+        };
+    }
+}
@@ -0,0 +1,81 @@
+package com.inventario.bulkhead;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import com.inventario.dtos.BulkheadStatsDTO;
+import com.inventario.dtos.BulkheadsStatsDTO;
+import com.inventario.dtos.ConnectionPoolStatsDTO;
+import com.inventario.enums.EndpointClass;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+
+/**
+ * The bulkhead of each endpoint class and the saturation of its slots and connection pool.
+ * With platform threads the classes only stay isolated while their threads fit in Tomcat's
+ * worker pool: if they do not, a burst of reports can still take every worker. With virtual
+ * threads the slots are the only concurrency limit.
+ */
+@Component
+public class BulkheadRegistry {
+    private static final Logger log = LoggerFactory.getLogger(BulkheadRegistry.class);
+
+    private final BulkheadProperties properties;
+    private final ObjectProvider<BulkheadPools> pools;
+    private final Map<EndpointClass, Bulkhead> bulkheads = new EnumMap<>(EndpointClass.class);
+
+    public BulkheadRegistry(BulkheadProperties properties, ObjectProvider<BulkheadPools> pools, Environment environment) {
+        this.properties = properties;
+        this.pools = pools;
+        int threads = 0;
+        for (EndpointClass endpointClass : EndpointClass.values()) {
+            BulkheadProperties.Partition partition = properties.partition(endpointClass);
+            int maxConcurrent = properties.maxConcurrent(endpointClass);
+            bulkheads.put(endpointClass, new Bulkhead(maxConcurrent, partition.queueLimit(),
+                    partition.queueTimeout().toNanos()));
+            threads += maxConcurrent + partition.queueLimit();
+        }
+        // Virtual threads: one per request, the worker pool limit does not apply
+        int workerThreads = environment.getProperty("server.tomcat.threads.max", Integer.class, 200);
+        if (properties.enabled() && !Threading.VIRTUAL.isActive(environment) && threads > workerThreads)
+            log.warn("Bulkheads can hold {} worker threads but Tomcat has {}: the endpoint classes are not isolated",
+                    threads, workerThreads);
+    }
+
+    public Bulkhead get(EndpointClass endpointClass) {
+        return bulkheads.get(endpointClass);
+    }
+
+    public BulkheadsStatsDTO stats() {
+        BulkheadPools current = pools.getIfAvailable();
+        List<BulkheadStatsDTO> stats = bulkheads.entrySet().stream()
+                .map(entry -> {
+                    Bulkhead bulkhead = entry.getValue();
+                    return new BulkheadStatsDTO(entry.getKey(), bulkhead.getMaxConcurrent(), bulkhead.getInFlight(),
+                            bulkhead.getQueueLimit(), bulkhead.getQueued(), bulkhead.getAdmitted(),
+                            bulkhead.getQueueFull(), bulkhead.getTimedOut(),
+                            bulkhead.getQueueWait().percentileMillis(99), bulkhead.getQueueWait().maxMillis(),
+                            current != null ? poolStats(current.get(entry.getKey())) : null);
+                })
+                .toList();
+        return new BulkheadsStatsDTO(properties.enabled(), stats,
+                current != null ? poolStats(current.background()) : null);
+    }
+
+    // The pool MXBean is null until the first connection is requested
+    private static ConnectionPoolStatsDTO poolStats(HikariDataSource dataSource) {
+        HikariPoolMXBean pool = dataSource.getHikariPoolMXBean();
+        if (pool == null)
+            return new ConnectionPoolStatsDTO(dataSource.getPoolName(), dataSource.getMaximumPoolSize(), 0, 0, 0);
+        return new ConnectionPoolStatsDTO(dataSource.getPoolName(), dataSource.getMaximumPoolSize(),
+                pool.getActiveConnections(), pool.getIdleConnections(), pool.getThreadsAwaitingConnection());
+    }
+}
@@ -0,0 +1,46 @@
+package com.inventario.bulkhead;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import com.inventario.enums.EndpointClass;
+
+/**
+ * Hands out connections from the pool of the endpoint class bound to the current thread, and
+ * from the background pool when none is bound. The class must be bound before the transaction
+ * starts: the connection is taken once and kept until it ends.
+ */
+public class BulkheadRoutingDataSource extends AbstractRoutingDataSource {
+    private static final ThreadLocal<EndpointClass> CURRENT = new ThreadLocal<>();
+
+    public BulkheadRoutingDataSource(BulkheadPools pools) {
+        Map<Object, Object> targets = new HashMap<>();
+        pools.partitions().forEach(targets::put);
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(pools.background());
+        setLenientFallback(false);
+    }
+
+    /**
+     * @return the class bound before, to be given back to {@link #restore}
+     */
+    public static EndpointClass bind(EndpointClass endpointClass) {
+        EndpointClass previous = CURRENT.get();
+        CURRENT.set(endpointClass);
+        return previous;
+    }
+
+    public static void restore(EndpointClass previous) {
+        if (previous == null)
+            CURRENT.remove();
+        else
+            CURRENT.set(previous);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return CURRENT.get();
+    }
+}
@@ -0,0 +1,93 @@
+package com.inventario.cache;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.LongSupplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Component;
+
+/**
+ * Totals of the product listings for {@code count=estimate}, keyed by the filter (not by page
+ * or sort). A request never waits for a COUNT: a missing or old total is counted on the
+ * application task executor, whose threads take the background connection pool, and meanwhile
+ * the page reports what its own rows prove (at least one more row when there is a next page).
+ * The last page of a listing gives its exact total for free.
+ */
+@Component
+public class CountEstimateCache {
+    private static final Logger log = LoggerFactory.getLogger(CountEstimateCache.class);
+
+    private record Estimate(long total, long countedAt) {
+    }
+
+    private final CountEstimateProperties properties;
+    private final Executor taskExecutor;
+    private final Map<String, Estimate> estimates = new ConcurrentHashMap<>();
+    private final Set<String> refreshing = ConcurrentHashMap.newKeySet();
+
+    public CountEstimateCache(CountEstimateProperties properties,
+            @Qualifier(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME) Executor taskExecutor) {
+        this.properties = properties;
+        this.taskExecutor = taskExecutor;
+    }
+
+    /**
+     * The slice as a page with the estimated total. The total is kept consistent with the slice,
+     * so the page never claims to be the last one while there are more rows, or the other way round.
+     */
+    public <T> Page<T> toPage(String key, Slice<T> slice, LongSupplier counter) {
+        Pageable pageable = slice.getPageable();
+        long known = (pageable.isPaged() ? pageable.getOffset() : 0) + slice.getNumberOfElements();
+        if (!slice.hasNext()) {
+            if (slice.hasContent() || slice.isFirst())
+                store(key, known);
+            return new PageImpl<>(slice.getContent(), pageable, known);
+        }
+        Estimate estimate = estimates.get(key);
+        if (estimate == null || System.nanoTime() - estimate.countedAt() >= properties.refreshAfter().toNanos())
+            refresh(key, counter);
+        long total = estimate != null ? Math.max(estimate.total(), known + 1) : known + 1;
+        return new PageImpl<>(slice.getContent(), pageable, total);
+    }
+
+    public int size() {
+        return estimates.size();
+    }
+
+    private void refresh(String key, LongSupplier counter) {
+        if (!refreshing.add(key))
+            return;
+        try {
+            CompletableFuture.runAsync(() -> {
+                try {
+                    store(key, counter.getAsLong());
+                } catch (RuntimeException ex) {
+                    log.warn("Count of {} failed, the estimate is kept: {}", key, ex.getMessage());
+                } finally {
+                    refreshing.remove(key);
+                }
+            }, taskExecutor);
+        } catch (RejectedExecutionException ex) {
+            refreshing.remove(key);
+        }
+    }
+
+    // Unbounded filter values (names) would grow the map forever; starting over is cheap
+    private void store(String key, long total) {
+        if (estimates.size() >= properties.maxEntries() && !estimates.containsKey(key))
+            estimates.clear();
+        estimates.put(key, new Estimate(total, System.nanoTime()));
+    }
+}
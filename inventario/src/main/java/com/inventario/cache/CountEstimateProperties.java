@@ -0,0 +1,14 @@
+package com.inventario.cache;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "inventario.count-estimate")
+public record CountEstimateProperties(
+        // Age from which a total is counted again in the background; the stale one is served meanwhile
+        @DefaultValue("5m") Duration refreshAfter,
+        // Distinct listings (filter values) with a total in memory
+        @DefaultValue("10000") int maxEntries) {
+}
@@ -0,0 +1,20 @@
+package com.inventario.cache;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "inventario.entity-cache")
+public record EntityCacheProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("50000") long productMaxEntries,
+        // Upper bound on how long a write Hibernate did not see (other tools, manual SQL) can go unnoticed
+        @DefaultValue("30m") Duration productExpireAfterWrite,
+        // Cached results of findActiveById and the SKU lookup: one id (or none) each
+        @DefaultValue("20000") long lookupMaxEntries,
+        // Redis channel the instances use to evict the products written by the others
+        @DefaultValue("inventario:entity-cache:product") String invalidationChannel,
+        // Hibernate statistics for GET /api/admin/entity-cache; they are kept for every entity and query
+        @DefaultValue("true") boolean statistics) {
+}
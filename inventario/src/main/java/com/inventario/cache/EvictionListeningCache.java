@@ -0,0 +1,89 @@
+package com.inventario.cache;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cache.Cache;
+
+/**
+ * Forwards the evicts and clears of a product cache to the {@link ProductResponseCache}, so
+ * every {@code @CacheEvict} on "products" or "productLists" also drops the stored bodies.
+ */
+public class EvictionListeningCache implements Cache {
+    private final Cache delegate;
+    // Resolved on the first evict: the response cache itself depends on the cache manager
+    private final ObjectProvider<ProductResponseCache> listener;
+
+    public EvictionListeningCache(Cache delegate, ObjectProvider<ProductResponseCache> listener) {
+        this.delegate = delegate;
+        this.listener = listener;
+    }
+
+    @Override
+    public String getName() {
+        return delegate.getName();
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return delegate.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        return delegate.get(key);
+    }
+
+    @Override
+    public <T> T get(Object key, Class<T> type) {
+        return delegate.get(key, type);
+    }
+
+    @Override
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        return delegate.get(key, valueLoader);
+    }
+
+    @Override
+    public CompletableFuture<?> retrieve(Object key) {
+        return delegate.retrieve(key);
+    }
+
+    @Override
+    public <T> CompletableFuture<T> retrieve(Object key, Supplier<CompletableFuture<T>> valueLoader) {
+        return delegate.retrieve(key, valueLoader);
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        delegate.put(key, value);
+    }
+
+    @Override
+    public void evict(Object key) {
+        delegate.evict(key);
+        listener.ifAvailable(responses -> responses.evicted(getName(), key));
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        boolean present = delegate.evictIfPresent(key);
+        listener.ifAvailable(responses -> responses.evicted(getName(), key));
+        return present;
+    }
+
+    @Override
+    public void clear() {
+        delegate.clear();
+        listener.ifAvailable(responses -> responses.cleared(getName()));
+    }
+
+    @Override
+    public boolean invalidate() {
+        boolean invalidated = delegate.invalidate();
+        listener.ifAvailable(responses -> responses.cleared(getName()));
+        return invalidated;
+    }
+}
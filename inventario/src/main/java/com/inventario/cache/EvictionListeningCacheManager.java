@@ -0,0 +1,46 @@
+package com.inventario.cache;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+/**
+ * Wraps the "products" and "productLists" caches of the configured manager in an
+ * {@link EvictionListeningCache}; the rest of the caches are returned as they are.
+ */
+public class EvictionListeningCacheManager implements CacheManager {
+    private static final Set<String> LISTENED = Set.of(ProductCacheStore.CACHE_NAME,
+            ProductCacheInvalidator.LISTS_CACHE_NAME);
+
+    private final CacheManager delegate;
+    private final ObjectProvider<ProductResponseCache> listener;
+    private final Map<String, Cache> wrapped = new ConcurrentHashMap<>();
+
+    public EvictionListeningCacheManager(CacheManager delegate, ObjectProvider<ProductResponseCache> listener) {
+        this.delegate = delegate;
+        this.listener = listener;
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        if (!LISTENED.contains(name))
+            return delegate.getCache(name);
+        Cache cache = wrapped.get(name);
+        if (cache != null)
+            return cache;
+        Cache target = delegate.getCache(name);
+        if (target == null)
+            return null;
+        return wrapped.computeIfAbsent(name, key -> new EvictionListeningCache(target, listener));
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return delegate.getCacheNames();
+    }
+}
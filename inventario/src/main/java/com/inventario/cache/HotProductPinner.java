@@ -0,0 +1,88 @@
+package com.inventario.cache;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.inventario.dtos.NearCacheStatsDTO;
+import com.inventario.dtos.ProductDTO;
+import com.inventario.enums.AccessType;
+import com.inventario.mappers.ProductMapper;
+import com.inventario.observability.HotProductProperties;
+import com.inventario.observability.HotProductTracker;
+import com.inventario.repository.ProductRepository;
+
+/**
+ * Refresh-ahead for the hottest read products: every interval they are reloaded in one query,
+ * rewritten to the shared cache (which restarts their TTL, so they never miss) and pinned in
+ * the {@link NearCache}. Products that cooled down are unpinned by the next refresh.
+ */
+@Component
+public class HotProductPinner {
+    private final HotProductTracker tracker;
+    private final HotProductProperties properties;
+    private final ProductRepository productRepository;
+    private final ProductMapper productMapper;
+    private final ProductCacheStore productCacheStore;
+    private final CacheManager cacheManager;
+    private final LongAdder refreshes = new LongAdder();
+    private volatile LocalDateTime lastRefresh;
+
+    public HotProductPinner(HotProductTracker tracker, HotProductProperties properties,
+            ProductRepository productRepository, ProductMapper productMapper, ProductCacheStore productCacheStore,
+            CacheManager cacheManager) {
+        this.tracker = tracker;
+        this.properties = properties;
+        this.productRepository = productRepository;
+        this.productMapper = productMapper;
+        this.productCacheStore = productCacheStore;
+        this.cacheManager = cacheManager;
+    }
+
+    @Scheduled(fixedDelayString = "${inventario.hot-products.refresh-interval:30s}",
+            initialDelayString = "${inventario.hot-products.refresh-interval:30s}")
+    public void refresh() {
+        List<Long> hotIds = tracker.topIds(AccessType.READ, properties.pinTopK());
+        NearCache nearCache = nearCache();
+        long generation = nearCache != null ? nearCache.generation() : 0;
+
+        List<ProductDTO> products = hotIds.isEmpty() ? List.of()
+                : productRepository.findByIdInAndDeletedFalse(hotIds).stream().map(productMapper::toDTO).toList();
+        // An update committed while loading; its eviction wins and the next round picks it up
+        if (nearCache != null && nearCache.generation() != generation)
+            return;
+
+        Map<Long, ProductDTO> byId = new HashMap<>();
+        Map<String, ProductDTO> bySku = new HashMap<>();
+        for (ProductDTO product : products) {
+            byId.put(product.getId(), product);
+            bySku.put(product.getSku(), product);
+        }
+        if (nearCache != null)
+            nearCache.pin(products, generation);
+        productCacheStore.putAll(byId);
+        productCacheStore.putAll(bySku);
+        refreshes.increment();
+        lastRefresh = LocalDateTime.now();
+    }
+
+    public NearCacheStatsDTO stats() {
+        NearCache nearCache = nearCache();
+        return new NearCacheStatsDTO(nearCache != null,
+                nearCache != null ? nearCache.pinnedIds() : List.of(),
+                nearCache != null ? nearCache.hits() : 0,
+                refreshes.sum(), lastRefresh);
+    }
+
+    private NearCache nearCache() {
+        Cache cache = cacheManager.getCache(ProductCacheStore.CACHE_NAME);
+        return cache instanceof NearCache nearCache ? nearCache : null;
+    }
+}
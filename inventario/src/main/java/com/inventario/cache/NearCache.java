@@ -0,0 +1,194 @@
+package com.inventario.cache;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.SimpleValueWrapper;
+
+import com.inventario.dtos.ProductDTO;
+
+/**
+ * In-process layer in front of the "products" cache for the pinned (hot) products.
+ *
+ * Pinned entries are an immutable snapshot swapped on refresh, so hits take no lock and
+ * allocate nothing but the value wrapper. An evict of a pinned key drops the product from the
+ * snapshot (both its id and SKU keys); every evict bumps the generation, which makes an
+ * in-flight {@link #pin} built from older data give up. Writes on other instances are only
+ * seen on the next refresh. Snapshot swaps take a ReentrantLock rather than a monitor, so an
+ * evict on a virtual thread never pins its carrier.
+ */
+public class NearCache implements Cache {
+    private final Cache delegate;
+    private final AtomicLong generation = new AtomicLong();
+    private final LongAdder hits = new LongAdder();
+    private final ReentrantLock lock = new ReentrantLock();
+    private volatile Map<Object, ProductDTO> pinned = Map.of();
+
+    public NearCache(Cache delegate) {
+        this.delegate = delegate;
+    }
+
+    public long generation() {
+        return generation.get();
+    }
+
+    /**
+     * Replaces the pinned set, unless something was evicted since {@code expectedGeneration}.
+     */
+    public boolean pin(Collection<ProductDTO> products, long expectedGeneration) {
+        Map<Object, ProductDTO> next = new HashMap<>();
+        for (ProductDTO product : products) {
+            next.put(product.getId(), product);
+            next.put(product.getSku(), product);
+        }
+        Map<Object, ProductDTO> snapshot = Map.copyOf(next);
+        lock.lock();
+        try {
+            if (generation.get() != expectedGeneration)
+                return false;
+            pinned = snapshot;
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // The pinned snapshot entry itself: a new object after every refresh or evict of the product
+    public ProductDTO pinned(Object key) {
+        return pinned.get(key);
+    }
+
+    public List<Long> pinnedIds() {
+        return pinned.values().stream().map(ProductDTO::getId).distinct().sorted().toList();
+    }
+
+    public long hits() {
+        return hits.sum();
+    }
+
+    private void unpin(Object key) {
+        unpinAll(List.of(key));
+    }
+
+    // For keys evicted from the shared cache without going through this decorator
+    public void unpinAll(Collection<?> keys) {
+        lock.lock();
+        try {
+            generation.incrementAndGet();
+            Map<Object, ProductDTO> next = null;
+            for (Object key : keys) {
+                ProductDTO product = pinned.get(key);
+                if (product == null)
+                    continue;
+                if (next == null)
+                    next = new HashMap<>(pinned);
+                next.remove(product.getId());
+                next.remove(product.getSku());
+            }
+            if (next != null)
+                pinned = Map.copyOf(next);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public String getName() {
+        return delegate.getName();
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return delegate.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        ProductDTO product = pinned.get(key);
+        if (product != null) {
+            hits.increment();
+            return new SimpleValueWrapper(product);
+        }
+        return delegate.get(key);
+    }
+
+    @Override
+    public <T> T get(Object key, Class<T> type) {
+        ProductDTO product = pinned.get(key);
+        if (product != null && type != null && type.isInstance(product)) {
+            hits.increment();
+            return type.cast(product);
+        }
+        return delegate.get(key, type);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        ProductDTO product = pinned.get(key);
+        if (product != null) {
+            hits.increment();
+            return (T) product;
+        }
+        return delegate.get(key, valueLoader);
+    }
+
+    @Override
+    public CompletableFuture<?> retrieve(Object key) {
+        return delegate.retrieve(key);
+    }
+
+    @Override
+    public <T> CompletableFuture<T> retrieve(Object key, Supplier<CompletableFuture<T>> valueLoader) {
+        return delegate.retrieve(key, valueLoader);
+    }
+
+    // Pinned keys never miss here, so puts come from loads of other keys or from the pinner itself
+    @Override
+    public void put(Object key, Object value) {
+        delegate.put(key, value);
+    }
+
+    @Override
+    public void evict(Object key) {
+        unpin(key);
+        delegate.evict(key);
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        unpin(key);
+        return delegate.evictIfPresent(key);
+    }
+
+    @Override
+    public void clear() {
+        clearPinned();
+        delegate.clear();
+    }
+
+    @Override
+    public boolean invalidate() {
+        clearPinned();
+        return delegate.invalidate();
+    }
+
+    private void clearPinned() {
+        lock.lock();
+        try {
+            generation.incrementAndGet();
+            pinned = Map.of();
+        } finally {
+            lock.unlock();
+        }
+    }
+}
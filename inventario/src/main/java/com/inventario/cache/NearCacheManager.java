@@ -0,0 +1,48 @@
+package com.inventario.cache;
+
+import java.util.Collection;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+/**
+ * Wraps the "products" cache of the configured manager in a {@link NearCache}; the rest
+ * of the caches are returned as they are.
+ */
+public class NearCacheManager implements CacheManager {
+    private final CacheManager delegate;
+    private final ReentrantLock lock = new ReentrantLock();
+    private volatile NearCache products;
+
+    public NearCacheManager(CacheManager delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        if (!ProductCacheStore.CACHE_NAME.equals(name))
+            return delegate.getCache(name);
+        NearCache cache = products;
+        if (cache == null) {
+            lock.lock();
+            try {
+                if (products == null) {
+                    Cache target = delegate.getCache(name);
+                    if (target == null)
+                        return null;
+                    products = new NearCache(target);
+                }
+                cache = products;
+            } finally {
+                lock.unlock();
+            }
+        }
+        return cache;
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return delegate.getCacheNames();
+    }
+}
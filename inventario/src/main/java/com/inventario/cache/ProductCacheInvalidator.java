@@ -0,0 +1,64 @@
+package com.inventario.cache;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+/**
+ * Targeted invalidation for changes made outside the {@code @CacheEvict} methods (set-based
+ * updates): drops the id and SKU entries of the touched products from the shared cache in one
+ * call, unpins them from the near cache and drops their response bodies, after commit. Their
+ * entities are evicted from the second-level cache of every instance by
+ * {@link #evictEntities}, from inside the writing transaction.
+ */
+@Component
+public class ProductCacheInvalidator {
+    static final String LISTS_CACHE_NAME = "productLists";
+
+    private final ProductCacheStore productCacheStore;
+    private final CacheManager cacheManager;
+    private final ProductResponseCache productResponseCache;
+    private final ObjectProvider<ProductEntityCache> entityCache;
+
+    public ProductCacheInvalidator(ProductCacheStore productCacheStore, CacheManager cacheManager,
+            ProductResponseCache productResponseCache, ObjectProvider<ProductEntityCache> entityCache) {
+        this.productCacheStore = productCacheStore;
+        this.cacheManager = cacheManager;
+        this.productResponseCache = productResponseCache;
+        this.entityCache = entityCache;
+    }
+
+    public void evictProducts(Collection<Long> ids, Collection<String> skus) {
+        List<Object> keys = new ArrayList<>(ids.size() + skus.size());
+        keys.addAll(ids);
+        keys.addAll(skus);
+        if (keys.isEmpty())
+            return;
+        productCacheStore.evictAll(keys);
+        if (cacheManager.getCache(ProductCacheStore.CACHE_NAME) instanceof NearCache nearCache)
+            nearCache.unpinAll(keys);
+        productResponseCache.evictAll(keys);
+    }
+
+    // In the transaction the entries stay locked until commit; after it they are only evicted
+    public void evictEntities(Collection<Long> ids) {
+        entityCache.ifAvailable(cache -> cache.evict(ids));
+    }
+
+    // Updates by id range change rows nobody listed; every instance drops its Product region
+    public void evictAllEntities() {
+        entityCache.ifAvailable(ProductEntityCache::evictAll);
+    }
+
+    // Cached pages can hold any product, so they are cleared as a whole
+    public void evictLists() {
+        Cache lists = cacheManager.getCache(LISTS_CACHE_NAME);
+        if (lists != null)
+            lists.clear();
+    }
+}
@@ -0,0 +1,19 @@
+package com.inventario.cache;
+
+import java.util.Collection;
+import java.util.Map;
+
+import com.inventario.dtos.ProductDTO;
+
+/**
+ * Bulk access to the entries of the "products" cache, keyed by product id or SKU.
+ */
+public interface ProductCacheStore {
+    String CACHE_NAME = "products";
+
+    <K> Map<K, ProductDTO> getAll(Collection<K> keys);
+
+    <K> void putAll(Map<K, ProductDTO> entries);
+
+    void evictAll(Collection<?> keys);
+}
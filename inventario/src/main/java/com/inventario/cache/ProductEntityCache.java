@@ -0,0 +1,241 @@
+package com.inventario.cache;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+import org.hibernate.Cache;
+import org.hibernate.StatelessSession;
+import org.hibernate.cache.spi.access.EntityDataAccess;
+import org.hibernate.cache.spi.access.SoftLock;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.event.spi.PostCommitInsertEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.entity.EntityPersister;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.inventario.dtos.CacheRegionStatsDTO;
+import com.inventario.dtos.EntityCacheStatsDTO;
+import com.inventario.model.Product;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * The second-level cache of Product across instances. Every instance has its own bounded
+ * region, kept current by Hibernate for the writes of its sessions. It cannot see the writes of
+ * the other instances nor the set-based SQL run next to the session (stock totals, bulk updates,
+ * purge): those ids are evicted here and published on a Redis channel after commit, and the
+ * other instances evict them from their own region.
+ *
+ * An evicted entry is not removed but replaced by a read-write soft lock, as Hibernate does for
+ * its own updates. In the writing transaction the lock is held until it completes; elsewhere it
+ * is released at once. A released lock reads as a miss and rejects the loads of sessions started
+ * before it was released, so a session that read the old row before the commit cannot put it
+ * back once the eviction has run.
+ *
+ * Session writes (new products, edits, soft deletes) can also change what the id and SKU
+ * lookups return, so the other instances drop their lookup results too, as Hibernate already
+ * did locally. Set-based SQL only changes amounts, prices and minimums, which the lookups
+ * (ids only) do not depend on.
+ */
+public class ProductEntityCache implements MessageListener, PostCommitInsertEventListener, PostCommitUpdateEventListener {
+    private static final Logger log = LoggerFactory.getLogger(ProductEntityCache.class);
+    private static final String ALL = "*";
+    private static final String ENTITIES = "E";
+    private static final String LOOKUPS = "L";
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final SessionFactoryImplementor sessionFactory;
+    private final EntityPersister persister;
+    private final EntityDataAccess access;
+    private final Cache cache;
+    private final Statistics statistics;
+    private final StringRedisTemplate redisTemplate;
+    private final EntityCacheProperties properties;
+    // Messages come back to the instance that published them
+    private final String instanceId = UUID.randomUUID().toString();
+    private final LongAdder published = new LongAdder();
+    private final LongAdder received = new LongAdder();
+
+    /**
+     * @param redisTemplate null without Redis: every instance then only sees its own writes
+     */
+    public ProductEntityCache(EntityManagerFactory entityManagerFactory, StringRedisTemplate redisTemplate,
+            EntityCacheProperties properties) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        this.persister = sessionFactory.getMappingMetamodel().getEntityDescriptor(Product.class);
+        this.access = persister.getCacheAccessStrategy();
+        this.cache = sessionFactory.getCache();
+        this.statistics = sessionFactory.getStatistics();
+        this.redisTemplate = redisTemplate;
+        this.properties = properties;
+    }
+
+    // Products written with SQL outside the session; call it in the writing transaction
+    public void evict(Collection<Long> ids) {
+        if (ids.isEmpty())
+            return;
+        List<Long> evicted = List.copyOf(ids);
+        String message = evicted.stream().map(String::valueOf).collect(Collectors.joining(","));
+        SharedSessionContractImplementor session = transactionSession();
+        if (session == null) {
+            afterCommit(() -> {
+                invalidate(evicted);
+                publish(ENTITIES, message);
+            });
+            return;
+        }
+        Map<Object, SoftLock> locks = lock(session, evicted);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                publish(ENTITIES, message);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                unlock(session, locks);
+            }
+        });
+    }
+
+    private SharedSessionContractImplementor transactionSession() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()
+                && TransactionSynchronizationManager.getResource(entityManagerFactory) instanceof EntityManagerHolder holder)
+            return holder.getEntityManager().unwrap(SharedSessionContractImplementor.class);
+        return null;
+    }
+
+    // Locked and released at once: the release time is what rejects the older loads
+    private void invalidate(List<Long> ids) {
+        try (StatelessSession stateless = sessionFactory.openStatelessSession()) {
+            SharedSessionContractImplementor session = (SharedSessionContractImplementor) stateless;
+            unlock(session, lock(session, ids));
+        }
+    }
+
+    private Map<Object, SoftLock> lock(SharedSessionContractImplementor session, List<Long> ids) {
+        Map<Object, SoftLock> locks = new LinkedHashMap<>();
+        for (Long id : ids) {
+            Object key = access.generateCacheKey(id, persister, sessionFactory, session.getTenantIdentifier());
+            locks.put(key, access.lockItem(session, key, null));
+        }
+        return locks;
+    }
+
+    private void unlock(SharedSessionContractImplementor session, Map<Object, SoftLock> locks) {
+        locks.forEach((key, lock) -> access.unlockItem(session, key, lock));
+    }
+
+    // Set-based updates over id ranges, whose rows are not known
+    public void evictAll() {
+        afterCommit(() -> {
+            cache.evictEntityData(Product.class);
+            publish(ENTITIES, ALL);
+        });
+    }
+
+    // Before commit another instance could reload the old row and cache it again
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private void publish(String scope, String ids) {
+        if (redisTemplate == null)
+            return;
+        try {
+            redisTemplate.convertAndSend(properties.invalidationChannel(), instanceId + "|" + scope + "|" + ids);
+            published.increment();
+        } catch (DataAccessException ex) {
+            // The other instances hold the old rows until productExpireAfterWrite
+            log.warn("Could not publish the eviction of products {}: {}", ids, ex.getMessage());
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String[] parts = new String(message.getBody(), StandardCharsets.UTF_8).split("\\|", 3);
+        if (parts.length != 3 || parts[0].equals(instanceId))
+            return;
+        received.increment();
+        if (ALL.equals(parts[2])) {
+            cache.evictEntityData(Product.class);
+        } else {
+            invalidate(Arrays.stream(parts[2].split(",")).map(Long::valueOf).toList());
+        }
+        if (LOOKUPS.equals(parts[1]))
+            cache.evictQueryRegion(Product.LOOKUP_CACHE_REGION);
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        if (event.getEntity() instanceof Product)
+            publish(LOOKUPS, String.valueOf(event.getId()));
+    }
+
+    @Override
+    public void onPostInsertCommitFailed(PostInsertEvent event) {
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        if (event.getEntity() instanceof Product)
+            publish(LOOKUPS, String.valueOf(event.getId()));
+    }
+
+    @Override
+    public void onPostUpdateCommitFailed(PostUpdateEvent event) {
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return persister.getMappedClass() == Product.class;
+    }
+
+    public EntityCacheStatsDTO stats() {
+        return new EntityCacheStatsDTO(true, statistics.isStatisticsEnabled(), redisTemplate != null,
+                region(Product.CACHE_REGION, statistics.getDomainDataRegionStatistics(Product.CACHE_REGION),
+                        properties.productMaxEntries()),
+                region(Product.LOOKUP_CACHE_REGION, statistics.getQueryRegionStatistics(Product.LOOKUP_CACHE_REGION),
+                        properties.lookupMaxEntries()),
+                published.sum(), received.sum());
+    }
+
+    private static CacheRegionStatsDTO region(String name, CacheRegionStatistics region, long maxEntries) {
+        if (region == null)
+            return new CacheRegionStatsDTO(name, maxEntries, 0, 0, 0, 0);
+        long hits = region.getHitCount();
+        long misses = region.getMissCount();
+        return new CacheRegionStatsDTO(name, maxEntries, hits, misses, region.getPutCount(),
+                hits + misses == 0 ? 0 : (double) hits / (hits + misses));
+    }
+}
@@ -0,0 +1,231 @@
+package com.inventario.cache;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.inventario.dtos.ProductDTO;
+import com.inventario.enums.RequestPhase;
+import com.inventario.exceptions.ProductNotFoundException;
+import com.inventario.observability.PhaseRecorder;
+
+/**
+ * Final JSON bodies of the product reads, so a hit is written to the response without mapping
+ * any object. Bodies by id live in {@value #RESPONSES_CACHE}, list pages in
+ * {@value #PAGES_CACHE}; a SKU is resolved to its id in memory and served from the id body.
+ *
+ * Invalidation follows the "products" and "productLists" caches: their evicts and clears are
+ * forwarded here by {@link EvictionListeningCache}, and {@link ProductCacheInvalidator} calls
+ * {@link #evictAll} for the keys it drops directly. Pinned products (see {@link NearCache}) are
+ * encoded once per pinned snapshot and served from memory.
+ */
+@Component
+public class ProductResponseCache {
+    public static final String RESPONSES_CACHE = "productResponses";
+    public static final String PAGES_CACHE = "productPageResponses";
+
+    public record CachedResponse(Long productId, byte[] body, boolean gzipped) {
+
+        public byte[] plainBody() {
+            return gzipped ? gunzip(body) : body;
+        }
+    }
+
+    private record PinnedBody(ProductDTO source, CachedResponse response) {
+    }
+
+    private final CacheManager cacheManager;
+    private final ObjectMapper objectMapper;
+    private final ResponseCacheProperties properties;
+    private final Map<String, Long> skuIds = new ConcurrentHashMap<>();
+    private final Map<Long, PinnedBody> pinnedBodies = new ConcurrentHashMap<>();
+    // Bumped by every invalidation; a body loaded across one is not stored
+    private final AtomicLong generation = new AtomicLong();
+
+    public ProductResponseCache(CacheManager cacheManager, ObjectMapper objectMapper,
+            ResponseCacheProperties properties) {
+        this.cacheManager = cacheManager;
+        this.objectMapper = objectMapper;
+        this.properties = properties;
+    }
+
+    public boolean isEnabled() {
+        return properties.enabled();
+    }
+
+    public CachedResponse product(Long id, Function<Long, ProductDTO> loader) {
+        if (id == null)
+            throw new IllegalArgumentException("Id is null");
+        ProductDTO pinned = pinnedProduct(id);
+        if (pinned != null)
+            return pinnedBody(id, pinned);
+
+        Cache responses = cacheManager.getCache(RESPONSES_CACHE);
+        byte[] cached = responses.get(id, byte[].class);
+        if (cached != null)
+            return new CachedResponse(id, cached, isGzip(cached));
+        long expected = generation.get();
+        CachedResponse response = encode(id, loader.apply(id));
+        if (generation.get() == expected)
+            responses.put(id, response.body());
+        return response;
+    }
+
+    /**
+     * If the SKU was taken by a new product after the one it pointed to was deleted, the stale
+     * mapping misses and the SKU is resolved again.
+     */
+    public CachedResponse productBySku(String sku, Function<String, ProductDTO> skuLoader,
+            Function<Long, ProductDTO> loader) {
+        if (sku == null)
+            throw new IllegalArgumentException("sku is null");
+        Long id = skuIds.get(sku);
+        if (id != null) {
+            try {
+                return product(id, loader);
+            } catch (ProductNotFoundException ex) {
+                skuIds.remove(sku, id);
+            }
+        }
+        Long resolved = skuLoader.apply(sku).getId();
+        if (skuIds.size() >= properties.maxSkuMappings())
+            skuIds.clear();
+        skuIds.put(sku, resolved);
+        return product(resolved, loader);
+    }
+
+    // Empty pages are not stored, like in the "products" cache
+    public CachedResponse page(String key, Supplier<Slice<?>> loader) {
+        Cache pages = cacheManager.getCache(PAGES_CACHE);
+        byte[] cached = pages.get(key, byte[].class);
+        if (cached != null)
+            return new CachedResponse(null, cached, isGzip(cached));
+        long expected = generation.get();
+        Slice<?> page = loader.get();
+        CachedResponse response = encode(null, page);
+        if (!page.isEmpty() && generation.get() == expected)
+            pages.put(key, response.body());
+        return response;
+    }
+
+    /*
+     * Invalidation
+     */
+
+    // Keys of the "products" cache: ids (Long) and SKUs (String)
+    public void evictAll(Collection<?> keys) {
+        generation.incrementAndGet();
+        Cache responses = cacheManager.getCache(RESPONSES_CACHE);
+        for (Object key : keys) {
+            if (key instanceof Number id) {
+                responses.evict(id.longValue());
+                pinnedBodies.remove(id.longValue());
+            } else if (key instanceof String sku) {
+                skuIds.remove(sku);
+            }
+        }
+        clearPages();
+    }
+
+    void evicted(String cacheName, Object key) {
+        if (ProductCacheStore.CACHE_NAME.equals(cacheName))
+            evictAll(List.of(key));
+        else
+            clearPages();
+    }
+
+    void cleared(String cacheName) {
+        if (ProductCacheStore.CACHE_NAME.equals(cacheName)) {
+            generation.incrementAndGet();
+            cacheManager.getCache(RESPONSES_CACHE).clear();
+            skuIds.clear();
+            pinnedBodies.clear();
+        }
+        clearPages();
+    }
+
+    private void clearPages() {
+        generation.incrementAndGet();
+        cacheManager.getCache(PAGES_CACHE).clear();
+    }
+
+    /*
+     * Encoding
+     */
+
+    private ProductDTO pinnedProduct(Long id) {
+        NearCache nearCache = nearCache();
+        return nearCache != null ? nearCache.pinned(id) : null;
+    }
+
+    private NearCache nearCache() {
+        return cacheManager.getCache(ProductCacheStore.CACHE_NAME) instanceof NearCache nearCache ? nearCache : null;
+    }
+
+    // Valid while the near cache holds the same snapshot object the body was encoded from
+    private CachedResponse pinnedBody(Long id, ProductDTO pinned) {
+        PinnedBody body = pinnedBodies.get(id);
+        if (body != null && body.source() == pinned)
+            return body.response();
+        CachedResponse response = encode(id, pinned);
+        // Once per product and refresh: drop the bodies of snapshots that were replaced
+        NearCache nearCache = nearCache();
+        pinnedBodies.values().removeIf(entry -> nearCache.pinned(entry.source().getId()) != entry.source());
+        pinnedBodies.put(id, new PinnedBody(pinned, response));
+        return response;
+    }
+
+    private CachedResponse encode(Long productId, Object value) {
+        PhaseRecorder.enter(RequestPhase.SERIALIZATION);
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(value);
+            if (!properties.gzip() || json.length < properties.gzipMinSize().toBytes())
+                return new CachedResponse(productId, json, false);
+            return new CachedResponse(productId, gzip(json), true);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Cannot serialize the response.", ex);
+        } finally {
+            PhaseRecorder.exit();
+        }
+    }
+
+    // JSON never starts with the gzip magic number
+    private static boolean isGzip(byte[] body) {
+        return body.length > 1 && body[0] == (byte) 0x1f && body[1] == (byte) 0x8b;
+    }
+
+    private static byte[] gzip(byte[] json) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(json.length / 4 + 32);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(json);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return out.toByteArray();
+    }
+
+    private static byte[] gunzip(byte[] body) {
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(body))) {
+            return gzip.readAllBytes();
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package com.inventario.cache;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.connection.RedisStringCommands.SetOption;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.types.Expiration;
+import org.springframework.stereotype.Component;
+
+import com.inventario.dtos.ProductDTO;
+import com.inventario.enums.RequestPhase;
+import com.inventario.jfr.CacheAccessEvent;
+import com.inventario.observability.PhaseRecorder;
+
+/**
+ * Redis implementation. Uses the same key prefix and value serializer as the Spring cache,
+ * so entries written here are hits for {@code @Cacheable} lookups and the other way around.
+ */
+@Component
+@ConditionalOnProperty(name = "spring.cache.type", havingValue = "redis", matchIfMissing = true)
+public class RedisProductCacheStore implements ProductCacheStore {
+
+    private static final Logger log = LoggerFactory.getLogger(RedisProductCacheStore.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final RedisCacheConfiguration cacheConfiguration;
+
+    public RedisProductCacheStore(StringRedisTemplate redisTemplate, RedisCacheConfiguration cacheConfiguration) {
+        this.redisTemplate = redisTemplate;
+        this.cacheConfiguration = cacheConfiguration;
+    }
+
+    // Single MGET for all the keys. Missing or unreadable entries are left out of the result.
+    @Override
+    public <K> Map<K, ProductDTO> getAll(Collection<K> keys) {
+        Map<K, ProductDTO> found = new HashMap<>();
+        if (keys.isEmpty())
+            return found;
+        List<K> ordered = new ArrayList<>(keys);
+        byte[][] rawKeys = new byte[ordered.size()][];
+        for (int i = 0; i < ordered.size(); i++)
+            rawKeys[i] = rawKey(ordered.get(i));
+
+        // Failed reads are committed too, with the hits found so far
+        CacheAccessEvent event = CacheAccessEvent.start();
+        try {
+            List<byte[]> values;
+            PhaseRecorder.enter(RequestPhase.CACHE);
+            try {
+                values = redisTemplate.execute((RedisCallback<List<byte[]>>) connection -> connection.stringCommands()
+                        .mGet(rawKeys));
+            } catch (DataAccessException ex) {
+                log.warn("Product cache MGET failed, falling back to the database: {}", ex.getMessage());
+                return found;
+            } finally {
+                PhaseRecorder.exit();
+            }
+            if (values == null)
+                return found;
+
+            for (int i = 0; i < values.size(); i++) {
+                byte[] value = values.get(i);
+                if (value == null)
+                    continue;
+                Object cached = cacheConfiguration.getValueSerializationPair().read(ByteBuffer.wrap(value));
+                if (cached instanceof ProductDTO product)
+                    found.put(ordered.get(i), product);
+            }
+            return found;
+        } finally {
+            event.end(CACHE_NAME, CacheAccessEvent.GET, ordered, found.size());
+        }
+    }
+
+    // Writes every entry in one pipelined round trip with the cache TTL.
+    @Override
+    public <K> void putAll(Map<K, ProductDTO> entries) {
+        if (entries.isEmpty())
+            return;
+        CacheAccessEvent event = CacheAccessEvent.start();
+        PhaseRecorder.enter(RequestPhase.CACHE);
+        try {
+            redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                entries.forEach((key, product) -> {
+                    Duration ttl = cacheConfiguration.getTtlFunction().getTimeToLive(key, product);
+                    Expiration expiration = ttl == null || ttl.isZero() || ttl.isNegative()
+                            ? Expiration.persistent()
+                            : Expiration.from(ttl);
+                    connection.stringCommands().set(rawKey(key), rawValue(product), expiration, SetOption.upsert());
+                });
+                return null;
+            });
+        } catch (DataAccessException ex) {
+            log.warn("Product cache backfill failed: {}", ex.getMessage());
+        } finally {
+            PhaseRecorder.exit();
+            event.end(CACHE_NAME, CacheAccessEvent.PUT, entries.keySet(), 0);
+        }
+    }
+
+    // One DEL for all the keys
+    @Override
+    public void evictAll(Collection<?> keys) {
+        if (keys.isEmpty())
+            return;
+        byte[][] rawKeys = keys.stream().map(this::rawKey).toArray(byte[][]::new);
+        CacheAccessEvent event = CacheAccessEvent.start();
+        PhaseRecorder.enter(RequestPhase.CACHE);
+        try {
+            redisTemplate.execute((RedisCallback<Long>) connection -> connection.keyCommands().del(rawKeys));
+        } catch (DataAccessException ex) {
+            log.warn("Product cache eviction failed, entries expire with the TTL: {}", ex.getMessage());
+        } finally {
+            PhaseRecorder.exit();
+            event.end(CACHE_NAME, CacheAccessEvent.EVICT, keys, 0);
+        }
+    }
+
+    private byte[] rawKey(Object key) {
+        return (cacheConfiguration.getKeyPrefixFor(CACHE_NAME) + key).getBytes(StandardCharsets.UTF_8);
+    }
+
+    private byte[] rawValue(ProductDTO product) {
+        ByteBuffer buffer = cacheConfiguration.getValueSerializationPair().write(product);
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.get(bytes);
+        return bytes;
+    }
+}
@@ -0,0 +1,18 @@
+package com.inventario.cache;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+@ConfigurationProperties(prefix = "inventario.response-cache")
+public record ResponseCacheProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("10m") Duration ttl,
+        // Bodies from this size on are stored gzipped and sent as they are to clients that accept gzip
+        @DefaultValue("false") boolean gzip,
+        @DefaultValue("1KB") DataSize gzipMinSize,
+        // SKU -> id entries kept in memory (the id of a SKU never changes while the product is active)
+        @DefaultValue("100000") int maxSkuMappings) {
+}
@@ -0,0 +1,55 @@
+package com.inventario.cache;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+import com.inventario.dtos.ProductDTO;
+
+/**
+ * Fallback for in-process cache providers (perf profile), where a per-key lookup
+ * costs no network round trip.
+ */
+@Component
+@ConditionalOnExpression("'${spring.cache.type:redis}' != 'redis'")
+public class SpringCacheProductCacheStore implements ProductCacheStore {
+
+    private final CacheManager cacheManager;
+
+    public SpringCacheProductCacheStore(CacheManager cacheManager) {
+        this.cacheManager = cacheManager;
+    }
+
+    @Override
+    public <K> Map<K, ProductDTO> getAll(Collection<K> keys) {
+        Map<K, ProductDTO> found = new HashMap<>();
+        Cache cache = cacheManager.getCache(CACHE_NAME);
+        if (cache == null)
+            return found;
+        for (K key : keys) {
+            ProductDTO product = cache.get(key, ProductDTO.class);
+            if (product != null)
+                found.put(key, product);
+        }
+        return found;
+    }
+
+    @Override
+    public <K> void putAll(Map<K, ProductDTO> entries) {
+        Cache cache = cacheManager.getCache(CACHE_NAME);
+        if (cache != null)
+            entries.forEach(cache::put);
+    }
+
+    @Override
+    public void evictAll(Collection<?> keys) {
+        Cache cache = cacheManager.getCache(CACHE_NAME);
+        if (cache != null)
+            keys.forEach(cache::evict);
+    }
+}
@@ -0,0 +1,43 @@
+package com.inventario.changes;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.inventario.enums.ProductChangeType;
+import com.inventario.repository.ProductChangeRepository;
+
+/**
+ * Appends to product_changes inside the transaction of the change, so a token never points to
+ * a change that was rolled back. The rows are copied from products (INSERT ... SELECT): the
+ * SKU stays in the tombstone after the product is purged.
+ */
+@Component
+public class ProductChangeLog {
+    private final ProductChangeRepository repository;
+
+    public ProductChangeLog(ProductChangeRepository repository) {
+        this.repository = repository;
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(Long productId, ProductChangeType changeType) {
+        repository.recordAll(List.of(productId), changeType.name(), LocalDateTime.now());
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordAll(Collection<Long> productIds, ProductChangeType changeType) {
+        if (!productIds.isEmpty())
+            repository.recordAll(productIds, changeType.name(), LocalDateTime.now());
+    }
+
+    // Before the forecast UPDATE of the same range: afterwards stock_min no longer differs
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordReorderPointChanges(long fromId, long toId) {
+        repository.recordReorderPointChanges(fromId, toId, LocalDateTime.now());
+    }
+}
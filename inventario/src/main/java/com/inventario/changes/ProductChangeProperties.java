@@ -0,0 +1,17 @@
+package com.inventario.changes;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "inventario.changes")
+public record ProductChangeProperties(
+        // Changes younger than this are held back: a transaction that took a lower token may still be open
+        @DefaultValue("5s") Duration settleTime,
+        @DefaultValue("500") int defaultLimit,
+        @DefaultValue("5000") int maxLimit,
+        // Clients whose token is older than this have to download the catalog again
+        @DefaultValue("30d") Duration tombstoneRetention,
+        @DefaultValue("1000") int compactionBatchSize) {
+}
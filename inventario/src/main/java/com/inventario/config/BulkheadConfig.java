@@ -0,0 +1,75 @@
+package com.inventario.config;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.jdbc.JdbcConnectionDetails;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.inventario.bulkhead.BulkheadPools;
+import com.inventario.bulkhead.BulkheadProperties;
+import com.inventario.bulkhead.BulkheadRoutingDataSource;
+import com.inventario.enums.EndpointClass;
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * Replaces the auto-configured pool with one pool per endpoint class behind a routing
+ * DataSource. The connection settings are the usual spring.datasource ones (or the service
+ * connection in tests); the pool sizes and timeouts come from inventario.bulkhead.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "inventario.bulkhead", name = "enabled", matchIfMissing = true)
+public class BulkheadConfig {
+    private static final Duration BACKGROUND_CONNECTION_TIMEOUT = Duration.ofSeconds(30);
+
+    @Bean
+    BulkheadPools bulkheadPools(BulkheadProperties properties, DataSourceProperties dataSourceProperties,
+            ObjectProvider<JdbcConnectionDetails> connectionDetails) {
+        JdbcConnectionDetails details = connectionDetails.getIfAvailable();
+        Map<EndpointClass, HikariDataSource> partitions = new EnumMap<>(EndpointClass.class);
+        for (EndpointClass endpointClass : EndpointClass.values()) {
+            BulkheadProperties.Partition partition = properties.partition(endpointClass);
+            partitions.put(endpointClass, pool(dataSourceProperties, details,
+                    "bulkhead-" + endpointClass.name().toLowerCase().replace('_', '-'),
+                    partition.poolSize(), partition.connectionTimeout()));
+        }
+        return new BulkheadPools(partitions, pool(dataSourceProperties, details, "bulkhead-background",
+                properties.backgroundPoolSize(), BACKGROUND_CONNECTION_TIMEOUT));
+    }
+
+    @Bean
+    DataSource dataSource(BulkheadPools bulkheadPools) {
+        return new BulkheadRoutingDataSource(bulkheadPools);
+    }
+
+    private static HikariDataSource pool(DataSourceProperties properties, JdbcConnectionDetails details, String name,
+            int size, Duration connectionTimeout) {
+        DataSourceBuilder<HikariDataSource> builder = DataSourceBuilder.create(properties.getClassLoader())
+                .type(HikariDataSource.class);
+        if (details != null) {
+            builder.url(details.getJdbcUrl())
+                    .username(details.getUsername())
+                    .password(details.getPassword())
+                    .driverClassName(details.getDriverClassName());
+        } else {
+            builder.url(properties.determineUrl())
+                    .username(properties.determineUsername())
+                    .password(properties.determinePassword())
+                    .driverClassName(properties.determineDriverClassName());
+        }
+        HikariDataSource pool = builder.build();
+        pool.setPoolName(name);
+        pool.setMaximumPoolSize(size);
+        pool.setMinimumIdle(Math.min(2, size));
+        pool.setConnectionTimeout(connectionTimeout.toMillis());
+        return pool;
+    }
+}
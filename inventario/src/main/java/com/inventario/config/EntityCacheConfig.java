@@ -0,0 +1,111 @@
+package com.inventario.config;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.cache.spi.CachingProvider;
+
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.spi.RegionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import com.inventario.cache.EntityCacheProperties;
+import com.inventario.cache.ProductEntityCache;
+import com.inventario.model.Product;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Hibernate second-level cache in process memory (Caffeine through JCache), read-write for
+ * Product plus the query cache for its lookups. Every region is created here with its bounds,
+ * and Hibernate fails at startup on a region that is not, instead of creating an unbounded one.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "inventario.entity-cache", name = "enabled", matchIfMissing = true)
+public class EntityCacheConfig {
+
+    // Own manager per application context: the provider hands out one manager per URI
+    @Bean(destroyMethod = "close")
+    CacheManager entityCacheManager(EntityCacheProperties properties) {
+        CachingProvider provider = Caching.getCachingProvider(CaffeineCachingProvider.class.getName());
+        CacheManager manager = provider.getCacheManager(URI.create("inventario:entity-cache:" + UUID.randomUUID()),
+                getClass().getClassLoader());
+        manager.createCache(Product.CACHE_REGION,
+                region(OptionalLong.of(properties.productMaxEntries()), properties.productExpireAfterWrite()));
+        manager.createCache(Product.LOOKUP_CACHE_REGION,
+                region(OptionalLong.of(properties.lookupMaxEntries()), properties.productExpireAfterWrite()));
+        // Opened by Hibernate with the query cache on; no query is cached there
+        manager.createCache(RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME,
+                region(OptionalLong.of(properties.lookupMaxEntries()), properties.productExpireAfterWrite()));
+        // One entry per table: losing one would let a stale query result through
+        manager.createCache(RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME,
+                region(OptionalLong.empty(), null));
+        return manager;
+    }
+
+    // Stored by reference: Hibernate caches its own immutable copy of the state
+    private static CaffeineConfiguration<Object, Object> region(OptionalLong maxEntries, Duration expireAfterWrite) {
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        configuration.setStoreByValue(false);
+        configuration.setMaximumSize(maxEntries);
+        if (expireAfterWrite != null)
+            configuration.setExpireAfterWrite(OptionalLong.of(expireAfterWrite.toNanos()));
+        return configuration;
+    }
+
+    @Bean
+    HibernatePropertiesCustomizer entityCacheHibernateProperties(CacheManager entityCacheManager,
+            EntityCacheProperties properties) {
+        return hibernateProperties -> {
+            hibernateProperties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, true);
+            hibernateProperties.put(AvailableSettings.USE_QUERY_CACHE, true);
+            hibernateProperties.put(AvailableSettings.CACHE_REGION_FACTORY, "jcache");
+            hibernateProperties.put(ConfigSettings.CACHE_MANAGER, entityCacheManager);
+            hibernateProperties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+            hibernateProperties.put(AvailableSettings.GENERATE_STATISTICS, properties.statistics());
+        };
+    }
+
+    @Bean
+    ProductEntityCache productEntityCache(EntityManagerFactory entityManagerFactory, EntityCacheProperties properties,
+            ObjectProvider<StringRedisTemplate> redisTemplate, @Value("${spring.cache.type:redis}") String cacheType) {
+        SessionFactoryImplementor sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        ProductEntityCache entityCache = new ProductEntityCache(entityManagerFactory,
+                "redis".equals(cacheType) ? redisTemplate.getIfAvailable() : null, properties);
+        // Session writes are published after commit; Hibernate already updated the local region
+        EventListenerRegistry listeners = sessionFactory.getServiceRegistry().getService(EventListenerRegistry.class);
+        listeners.appendListeners(EventType.POST_COMMIT_INSERT, entityCache);
+        listeners.appendListeners(EventType.POST_COMMIT_UPDATE, entityCache);
+        return entityCache;
+    }
+
+    @Bean
+    @ConditionalOnExpression("'${spring.cache.type:redis}' == 'redis'")
+    RedisMessageListenerContainer entityCacheInvalidationListener(RedisConnectionFactory connectionFactory,
+            ProductEntityCache productEntityCache, EntityCacheProperties properties) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(productEntityCache, new ChannelTopic(properties.invalidationChannel()));
+        return container;
+    }
+}
@@ -0,0 +1,27 @@
+package com.inventario.config;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.inventario.cache.NearCacheManager;
+
+@Configuration
+@ConditionalOnProperty(prefix = "inventario.hot-products", name = "near-cache-enabled", matchIfMissing = true)
+public class NearCacheConfig {
+
+    // Static: post processors are created before the rest of the beans
+    @Bean
+    static BeanPostProcessor nearCacheManagerPostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof CacheManager cacheManager && !(bean instanceof NearCacheManager))
+                    return new NearCacheManager(cacheManager);
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,97 @@
+package com.inventario.config;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import com.inventario.enums.Category;
+import com.inventario.model.Warehouse;
+
+/**
+ * Seeds the embedded database of the perf profile. Product ids go from 1 to N and the SKU
+ * of each one is {@link #skuOf(long)}, so the load generator can address them directly.
+ */
+@Component
+@Profile("perf")
+public class PerfDataSeeder implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(PerfDataSeeder.class);
+    private static final int BATCH_SIZE = 1_000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int products;
+
+    public PerfDataSeeder(JdbcTemplate jdbcTemplate, @Value("${inventario.perf.seed-products:10000}") int products) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.products = products;
+    }
+
+    public static String skuOf(long id) {
+        long letters = id / 10_000;
+        return String.format("%c%c%c-%04d",
+                (char) ('A' + (letters / 676) % 26),
+                (char) ('A' + (letters / 26) % 26),
+                (char) ('A' + letters % 26),
+                id % 10_000);
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        Integer existing = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM products", Integer.class);
+        if (existing != null && existing > 0)
+            return;
+
+        Category[] categories = Category.values();
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        for (int start = 1; start <= products; start += BATCH_SIZE) {
+            int from = start;
+            int size = Math.min(BATCH_SIZE, products - start + 1);
+            jdbcTemplate.batchUpdate(
+                    "INSERT INTO products (id, name, description, amount, stock_min, price, sku, date_of_creation, deleted, category) "
+                            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)",
+                    new BatchPreparedStatementSetter() {
+                        @Override
+                        public void setValues(PreparedStatement ps, int i) throws SQLException {
+                            long id = from + i;
+                            ps.setLong(1, id);
+                            ps.setString(2, "Producto " + id);
+                            ps.setString(3, "Producto de prueba de carga " + id);
+                            ps.setInt(4, 1_000_000);
+                            ps.setInt(5, 10);
+                            ps.setBigDecimal(6, BigDecimal.valueOf(100 + id % 10_000, 2));
+                            ps.setString(7, skuOf(id));
+                            ps.setTimestamp(8, now);
+                            ps.setBoolean(9, false);
+                            ps.setString(10, categories[(int) (id % categories.length)].name());
+                        }
+
+                        @Override
+                        public int getBatchSize() {
+                            return size;
+                        }
+                    });
+        }
+        // Continue the identity after the explicit ids
+        jdbcTemplate.execute("ALTER TABLE products ALTER COLUMN id RESTART WITH " + (products + 1));
+
+        // Same starting point as the V5 migration: all the stock in the default warehouse
+        jdbcTemplate.update("INSERT INTO warehouses (id, code, name, active, created_at) VALUES (?, ?, ?, ?, ?)",
+                Warehouse.DEFAULT_ID, "CENTRAL", "Depósito central", true, now);
+        jdbcTemplate.execute("ALTER TABLE warehouses ALTER COLUMN id RESTART WITH " + (Warehouse.DEFAULT_ID + 1));
+        jdbcTemplate.update("INSERT INTO warehouse_stock (product_id, warehouse_id, amount, updated_at) "
+                + "SELECT id, ?, amount, ? FROM products", Warehouse.DEFAULT_ID, now);
+        log.info("Perf profile: seeded {} products", products);
+    }
+}
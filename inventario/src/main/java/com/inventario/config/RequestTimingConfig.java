@@ -0,0 +1,71 @@
+package com.inventario.config;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.validation.Validator;
+import org.springframework.validation.beanvalidation.LocalValidatorFactoryBean;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.inventario.mappers.ProductMapper;
+import com.inventario.observability.ObservedCacheManager;
+import com.inventario.observability.ObservedJacksonHttpMessageConverter;
+import com.inventario.observability.ObservedMapper;
+import com.inventario.observability.ObservedValidator;
+
+/**
+ * Phase timing hooks for {@link com.inventario.observability.RequestTimingFilter}. Database
+ * time comes from the ObservedDataSource of {@link SqlObservabilityConfig}.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "inventario.request-timing", name = "enabled", matchIfMissing = true)
+public class RequestTimingConfig {
+    private static final String MAPPERS_PACKAGE = ProductMapper.class.getPackageName();
+
+    /*
+     * Highest precedence: the shared cache is wrapped before the response cache listener and
+     * the near cache, so their in-memory hits are not counted as cache time.
+     */
+    @Bean
+    static BeanPostProcessor requestTimingPostProcessor() {
+        return new OrderedPostProcessor();
+    }
+
+    // Replaces the auto-configured JSON converter, same ObjectMapper
+    @Bean
+    ObservedJacksonHttpMessageConverter observedJacksonHttpMessageConverter(ObjectMapper objectMapper) {
+        return new ObservedJacksonHttpMessageConverter(objectMapper);
+    }
+
+    @Bean
+    WebMvcConfigurer observedValidatorConfigurer(ObjectProvider<LocalValidatorFactoryBean> defaultValidator) {
+        return new WebMvcConfigurer() {
+            @Override
+            public Validator getValidator() {
+                return new ObservedValidator(defaultValidator::getObject);
+            }
+        };
+    }
+
+    private static final class OrderedPostProcessor implements BeanPostProcessor, Ordered {
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (bean instanceof CacheManager cacheManager && !(bean instanceof ObservedCacheManager))
+                return new ObservedCacheManager(cacheManager);
+            if (bean.getClass().getPackageName().equals(MAPPERS_PACKAGE))
+                return ObservedMapper.wrap(bean);
+            return bean;
+        }
+
+        @Override
+        public int getOrder() {
+            return Ordered.HIGHEST_PRECEDENCE;
+        }
+    }
+}
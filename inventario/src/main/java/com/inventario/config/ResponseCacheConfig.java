@@ -0,0 +1,62 @@
+package com.inventario.config;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.cache.RedisCacheManagerBuilderCustomizer;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.serializer.RedisSerializationContext;
+
+import com.inventario.cache.EvictionListeningCacheManager;
+import com.inventario.cache.ProductResponseCache;
+import com.inventario.cache.ResponseCacheProperties;
+
+@Configuration
+@ConditionalOnProperty(prefix = "inventario.response-cache", name = "enabled", matchIfMissing = true)
+public class ResponseCacheConfig {
+
+    /*
+     * Ordered, so it runs before the (unordered) near cache post processor: the NearCache must
+     * stay the outermost wrapper of "products" for ProductCacheInvalidator and the pinner.
+     */
+    @Bean
+    static BeanPostProcessor evictionListeningCacheManagerPostProcessor(ObjectProvider<ProductResponseCache> responses) {
+        return new OrderedPostProcessor(responses);
+    }
+
+    // Bodies are stored as they are: no JSON (and no base64) around the JSON
+    @Bean
+    RedisCacheManagerBuilderCustomizer responseCacheCustomizer(RedisCacheConfiguration cacheConfiguration,
+            ResponseCacheProperties properties) {
+        RedisCacheConfiguration bytes = cacheConfiguration
+                .entryTtl(properties.ttl())
+                .serializeValuesWith(RedisSerializationContext.SerializationPair.byteArray());
+        return builder -> builder
+                .withCacheConfiguration(ProductResponseCache.RESPONSES_CACHE, bytes)
+                .withCacheConfiguration(ProductResponseCache.PAGES_CACHE, bytes);
+    }
+
+    private static final class OrderedPostProcessor implements BeanPostProcessor, Ordered {
+        private final ObjectProvider<ProductResponseCache> responses;
+
+        private OrderedPostProcessor(ObjectProvider<ProductResponseCache> responses) {
+            this.responses = responses;
+        }
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (bean instanceof CacheManager cacheManager && !(bean instanceof EvictionListeningCacheManager))
+                return new EvictionListeningCacheManager(cacheManager, responses);
+            return bean;
+        }
+
+        @Override
+        public int getOrder() {
+            return Ordered.LOWEST_PRECEDENCE;
+        }
+    }
+}
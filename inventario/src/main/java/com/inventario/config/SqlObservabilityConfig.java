@@ -0,0 +1,30 @@
+package com.inventario.config;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.inventario.observability.ObservedDataSource;
+import com.inventario.observability.SqlMetrics;
+
+@Configuration
+@ConditionalOnProperty(prefix = "inventario.sql-observability", name = "enabled", matchIfMissing = true)
+public class SqlObservabilityConfig {
+
+    // Static: post processors are created before the rest of the beans
+    @Bean
+    static BeanPostProcessor observedDataSourcePostProcessor(ObjectProvider<SqlMetrics> sqlMetrics) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof ObservedDataSource))
+                    return new ObservedDataSource(dataSource, sqlMetrics::getObject);
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,31 @@
+package com.inventario.controller;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.inventario.admission.AdmissionGate;
+import com.inventario.dtos.AdmissionStatsDTO;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+@RestController
+@RequestMapping("/api/admin/admission")
+@Tag(name = "Admin: admission control", description = "Client rate limits and adaptive concurrency limits")
+public class AdmissionStatsController {
+    private final AdmissionGate admissionGate;
+
+    public AdmissionStatsController(AdmissionGate admissionGate) {
+        this.admissionGate = admissionGate;
+    }
+
+    @Operation(summary = "Admission state", description = "Current limit, in-flight, admitted and shed requests per endpoint class, and rate limited requests.")
+    @ApiResponse(responseCode = "200", description = "Admission state")
+    @GetMapping
+    public ResponseEntity<AdmissionStatsDTO> getStats() {
+        return ResponseEntity.ok(admissionGate.stats());
+    }
+}
@@ -0,0 +1,31 @@
+package com.inventario.controller;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.inventario.bulkhead.BulkheadRegistry;
+import com.inventario.dtos.BulkheadsStatsDTO;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+@RestController
+@RequestMapping("/api/admin/bulkheads")
+@Tag(name = "Admin: bulkheads", description = "Worker and connection pool partitions per endpoint class")
+public class BulkheadStatsController {
+    private final BulkheadRegistry bulkheadRegistry;
+
+    public BulkheadStatsController(BulkheadRegistry bulkheadRegistry) {
+        this.bulkheadRegistry = bulkheadRegistry;
+    }
+
+    @Operation(summary = "Bulkhead saturation", description = "Slots in use, queued requests, rejections, queue wait and connection pool usage per endpoint class.")
+    @ApiResponse(responseCode = "200", description = "Bulkhead state")
+    @GetMapping
+    public ResponseEntity<BulkheadsStatsDTO> getStats() {
+        return ResponseEntity.ok(bulkheadRegistry.stats());
+    }
+}
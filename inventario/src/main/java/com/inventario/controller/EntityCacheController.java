@@ -0,0 +1,33 @@
+package com.inventario.controller;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.inventario.cache.ProductEntityCache;
+import com.inventario.dtos.EntityCacheStatsDTO;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+@RestController
+@RequestMapping("/api/admin/entity-cache")
+@Tag(name = "Admin: entity cache", description = "Hibernate second-level cache of products")
+public class EntityCacheController {
+    private final ObjectProvider<ProductEntityCache> entityCache;
+
+    public EntityCacheController(ObjectProvider<ProductEntityCache> entityCache) {
+        this.entityCache = entityCache;
+    }
+
+    @Operation(summary = "Entity cache statistics", description = "Hits, misses and hit rate of the Product region and of the id/SKU lookup query region, and the evictions exchanged with the other instances.")
+    @ApiResponse(responseCode = "200", description = "Entity cache state")
+    @GetMapping
+    public ResponseEntity<EntityCacheStatsDTO> getStats() {
+        ProductEntityCache cache = entityCache.getIfAvailable();
+        return ResponseEntity.ok(cache != null ? cache.stats() : EntityCacheStatsDTO.disabled());
+    }
+}
@@ -0,0 +1,82 @@
+package com.inventario.controller;
+
+import java.util.List;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.inventario.dtos.ForecastDTO;
+import com.inventario.dtos.ForecastRunDTO;
+import com.inventario.service.ForecastService;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+@RestController
+@RequestMapping("/api/products")
+@Tag(name = "Forecast", description = "Demand forecast and reorder points computed from the stock history")
+public class ForecastController {
+    private final ForecastService forecastService;
+
+    public ForecastController(ForecastService forecastService) {
+        this.forecastService = forecastService;
+    }
+
+    @Operation(summary = "Get the forecast of a product", description = "Returns the demand statistics, reorder point and suggested reorder quantity of the last run.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Forecast found"),
+            @ApiResponse(responseCode = "404", description = "No forecast for the product")
+    })
+    @GetMapping("/{id}/forecast")
+    public ResponseEntity<ForecastDTO> getForecast(@PathVariable Long id) {
+        return ResponseEntity.ok(forecastService.getForecast(id));
+    }
+
+    @Operation(summary = "Get forecasts paginated", description = "Retrieves a page of forecasts. Parameters: page (0-N), size, sort (e.g. suggestedReorderQty,desc).")
+    @ApiResponse(responseCode = "200", description = "List of forecasts retrieved")
+    @GetMapping("/forecast")
+    public ResponseEntity<Page<ForecastDTO>> getForecasts(Pageable pageable) {
+        return ResponseEntity.ok(forecastService.getForecasts(pageable));
+    }
+
+    @Operation(summary = "Get forecasts by IDs", description = "Returns the forecasts of up to 500 products in one request. Products without forecast are omitted.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Forecasts retrieved"),
+            @ApiResponse(responseCode = "400", description = "Empty or too many ids")
+    })
+    @GetMapping("/forecast/batch")
+    public ResponseEntity<List<ForecastDTO>> getForecastsByIds(@RequestParam List<Long> ids) {
+        return ResponseEntity.ok(forecastService.getForecasts(ids));
+    }
+
+    @Operation(summary = "Run the forecast", description = "Starts a forecast run in the background. If one is already running, returns its state.")
+    @ApiResponse(responseCode = "202", description = "Run started or already running")
+    @PostMapping("/forecast/run")
+    public ResponseEntity<ForecastRunDTO> runForecast() {
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(forecastService.runForecast());
+    }
+
+    @Operation(summary = "Get the state of the last run")
+    @ApiResponse(responseCode = "200", description = "State of the last run")
+    @GetMapping("/forecast/run")
+    public ResponseEntity<ForecastRunDTO> getLastRun() {
+        return ResponseEntity.ok(forecastService.getLastRun());
+    }
+
+    @Operation(summary = "Apply computed stock minimums", description = "Sets the stockMin of every active product with a forecast to its computed reorder point. Returns the number of products updated.")
+    @ApiResponse(responseCode = "200", description = "Stock minimums updated")
+    @PostMapping("/forecast/apply-stock-min")
+    public ResponseEntity<Integer> applyStockMin() {
+        return ResponseEntity.ok(forecastService.applyStockMin());
+    }
+}
@@ -0,0 +1,45 @@
+package com.inventario.controller;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.inventario.cache.HotProductPinner;
+import com.inventario.dtos.HotProductsDTO;
+import com.inventario.dtos.NearCacheStatsDTO;
+import com.inventario.enums.AccessType;
+import com.inventario.observability.HotProductTracker;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+@RestController
+@RequestMapping("/api/admin/hot-products")
+@Tag(name = "Admin: hot products", description = "Most read and most written products over a sliding window")
+public class HotProductsController {
+    private final HotProductTracker hotProductTracker;
+    private final HotProductPinner hotProductPinner;
+
+    public HotProductsController(HotProductTracker hotProductTracker, HotProductPinner hotProductPinner) {
+        this.hotProductTracker = hotProductTracker;
+        this.hotProductPinner = hotProductPinner;
+    }
+
+    @Operation(summary = "Top products by access", description = "Approximate top-K by reads (GET by id or SKU) or stock movements. count - maxError is a guaranteed lower bound.")
+    @ApiResponse(responseCode = "200", description = "Hot products")
+    @GetMapping
+    public ResponseEntity<HotProductsDTO> getHotProducts(@RequestParam(defaultValue = "READ") AccessType type,
+            @RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(hotProductTracker.top(type, limit));
+    }
+
+    @Operation(summary = "Products pinned in the near cache", description = "Products kept in memory and refreshed ahead of the cache TTL, with the near cache hit count.")
+    @ApiResponse(responseCode = "200", description = "Near cache state")
+    @GetMapping("/pinned")
+    public ResponseEntity<NearCacheStatsDTO> getPinned() {
+        return ResponseEntity.ok(hotProductPinner.stats());
+    }
+}
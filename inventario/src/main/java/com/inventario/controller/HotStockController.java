@@ -0,0 +1,64 @@
+package com.inventario.controller;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.inventario.dtos.HotStockDTO;
+import com.inventario.dtos.HotStockReconciliationDTO;
+import com.inventario.dtos.HotStockStatusDTO;
+import com.inventario.service.HotStockService;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+@RestController
+@RequestMapping("/api/admin/hot-stock")
+@Tag(name = "Admin: hot stock", description = "Products whose default warehouse stock is served from Redis")
+public class HotStockController {
+    private final HotStockService hotStockService;
+
+    public HotStockController(HotStockService hotStockService) {
+        this.hotStockService = hotStockService;
+    }
+
+    @Operation(summary = "Get the hot products", description = "Redis and database quantity of each hot product and the write-behind backlog.")
+    @ApiResponse(responseCode = "200", description = "Hot stock state")
+    @GetMapping
+    public ResponseEntity<HotStockStatusDTO> getStatus() {
+        return ResponseEntity.ok(hotStockService.getStatus());
+    }
+
+    @Operation(summary = "Promote a product", description = "Copies the default warehouse quantity to Redis; from then on its movements run as Lua scripts and reach the database through the write-behind.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Product promoted (or already hot)"),
+            @ApiResponse(responseCode = "400", description = "Hot stock disabled or no stock row"),
+            @ApiResponse(responseCode = "404", description = "Product not found")
+    })
+    @PostMapping("/{productId}/promote")
+    public ResponseEntity<HotStockDTO> promote(@PathVariable Long productId) {
+        return ResponseEntity.ok(hotStockService.promote(productId));
+    }
+
+    @Operation(summary = "Demote a product", description = "Removes the Redis counter, applies the pending ledger entries and returns the product to database movements.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Product demoted"),
+            @ApiResponse(responseCode = "400", description = "Hot stock disabled or product not hot")
+    })
+    @PostMapping("/{productId}/demote")
+    public ResponseEntity<HotStockDTO> demote(@PathVariable Long productId) {
+        return ResponseEntity.ok(hotStockService.demote(productId));
+    }
+
+    @Operation(summary = "Reconcile Redis and the database", description = "Same check as on startup: applies the backlog, rebuilds missing counters and removes orphan ones.")
+    @ApiResponse(responseCode = "200", description = "Reconciliation result")
+    @PostMapping("/reconcile")
+    public ResponseEntity<HotStockReconciliationDTO> reconcile() {
+        return ResponseEntity.ok(hotStockService.reconcile());
+    }
+}
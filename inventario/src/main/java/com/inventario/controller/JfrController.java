@@ -0,0 +1,60 @@
+package com.inventario.controller;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Optional;
+
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.inventario.dtos.JfrStatusDTO;
+import com.inventario.jfr.JfrRecorder;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+@RestController
+@RequestMapping("/api/admin/jfr")
+@Tag(name = "Admin: flight recorder", description = "Continuous JFR recording and on-demand dumps")
+public class JfrController {
+    private final JfrRecorder jfrRecorder;
+
+    public JfrController(JfrRecorder jfrRecorder) {
+        this.jfrRecorder = jfrRecorder;
+    }
+
+    @Operation(summary = "Dump the recording", description = "Writes the rolling buffer to a .jfr file in the dump directory and returns it, ready for JDK Mission Control or `jfr print`.")
+    @ApiResponse(responseCode = "200", description = "Recording file")
+    @ApiResponse(responseCode = "409", description = "No recording is running")
+    @PostMapping("/dump")
+    public ResponseEntity<Resource> dump() throws IOException {
+        Optional<Path> dump = jfrRecorder.dump();
+        if (dump.isEmpty())
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        Path file = dump.get();
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename(file.getFileName().toString())
+                        .build()
+                        .toString())
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .body(new FileSystemResource(file));
+    }
+
+    @Operation(summary = "Recording state", description = "Whether the continuous recording is running, its size and limits, and the dumps kept.")
+    @ApiResponse(responseCode = "200", description = "Recording state")
+    @GetMapping
+    public ResponseEntity<JfrStatusDTO> getStatus() throws IOException {
+        return ResponseEntity.ok(jfrRecorder.status());
+    }
+}
@@ -0,0 +1,38 @@
+package com.inventario.controller;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.inventario.dtos.ProductChangesDTO;
+import com.inventario.service.ProductChangeService;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+@RestController
+@RequestMapping("/api/products/changes")
+@Tag(name = "Product changes", description = "Incremental catalog sync for POS terminals and partners")
+public class ProductChangeController {
+    private final ProductChangeService productChangeService;
+
+    public ProductChangeController(ProductChangeService productChangeService) {
+        this.productChangeService = productChangeService;
+    }
+
+    @Operation(summary = "Get catalog changes since a token", description = "Created, updated, deleted (tombstones) and stock-changed products after the token, oldest first, each product once with its current state. Without since returns only the current token: take it, download the catalog, then poll with it. Keep passing nextToken while hasMore is true.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Changes after the token"),
+            @ApiResponse(responseCode = "400", description = "Negative token or limit out of range"),
+            @ApiResponse(responseCode = "410", description = "Token older than the compacted change log: download the catalog again")
+    })
+    @GetMapping
+    public ResponseEntity<ProductChangesDTO> getChanges(@RequestParam(required = false) Long since,
+            @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(productChangeService.getChanges(since, limit));
+    }
+}
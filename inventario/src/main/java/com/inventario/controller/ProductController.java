@@ -5,7 +5,10 @@ import java.util.List;
 
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -13,18 +16,31 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.inventario.cache.ProductResponseCache;
+import com.inventario.cache.ProductResponseCache.CachedResponse;
 import com.inventario.dtos.AlertDTO;
+import com.inventario.dtos.BulkUpdateDTO;
+import com.inventario.dtos.BulkUpdateResultDTO;
 import com.inventario.dtos.ProductCreationDTO;
 import com.inventario.dtos.ProductDTO;
+import com.inventario.dtos.ProductLookupDTO;
+import com.inventario.dtos.ProductQueryDTO;
 import com.inventario.dtos.ProductUpdateDTO;
 import com.inventario.dtos.StockDTO;
+import com.inventario.enums.CountMode;
+import com.inventario.enums.ProductField;
+import com.inventario.observability.HotProductTracker;
+import com.inventario.service.ProductBulkUpdateService;
 import com.inventario.service.ProductService;
 
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -34,9 +50,16 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 @Tag(name = "Products", description = "Operations related with product management")
 public class ProductController {
     private final ProductService productService;
+    private final ProductBulkUpdateService productBulkUpdateService;
+    private final HotProductTracker hotProductTracker;
+    private final ProductResponseCache productResponseCache;
 
-    public ProductController(ProductService productService) {
+    public ProductController(ProductService productService, ProductBulkUpdateService productBulkUpdateService,
+            HotProductTracker hotProductTracker, ProductResponseCache productResponseCache) {
         this.productService = productService;
+        this.productBulkUpdateService = productBulkUpdateService;
+        this.hotProductTracker = hotProductTracker;
+        this.productResponseCache = productResponseCache;
     }
 
     /**
@@ -46,11 +69,16 @@ public class ProductController {
      */
     @Operation(summary = "Get product by ID", description = "Return a singles product based on its unique ID")
     @ApiResponses(value = {
-            @ApiResponse(responseCode = "200", description = "Product found"),
+            @ApiResponse(responseCode = "200", description = "Product found",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = ProductDTO.class))),
             @ApiResponse(responseCode = "404", description = "Product not found")
     })
     @GetMapping("/{id}")
-    public ResponseEntity<ProductDTO> getProductById(@PathVariable Long id) {
+    public ResponseEntity<?> getProductById(@PathVariable Long id,
+            @RequestHeader(name = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        hotProductTracker.recordRead(id);
+        if (productResponseCache.isEnabled())
+            return cached(productResponseCache.product(id, productService::getProductById), acceptEncoding);
         return ResponseEntity.ok(productService.getProductById(id));
     }
 
@@ -65,21 +93,63 @@ public class ProductController {
         return ResponseEntity.status(HttpStatus.CREATED).body(productService.createProduct(productCreationDTO));
     }
 
-    @Operation(summary = "Get all products paginated", description = "Retrieves a page of products. Parameters: page (0-N), size, sort.")
-    @ApiResponse(responseCode = "200", description = "List of products retrieved")
+    @Operation(summary = "Get all products paginated", description = "Retrieves a page of products. Parameters: page (0-N), size, sort. Optional fields (e.g. id,sku,amount) returns only those properties. count=none skips the total (the response only tells if it is the last page), count=estimate returns an approximate total refreshed in the background, count=exact (default) counts on every request.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "List of products retrieved"),
+            @ApiResponse(responseCode = "400", description = "Unknown field or count mode requested")
+    })
     @GetMapping
-    public ResponseEntity<Page<ProductDTO>> getProducts(Pageable pageable) {
-        return ResponseEntity.ok(productService.getProducts(pageable));
+    public ResponseEntity<?> getProducts(@RequestParam(required = false) String fields,
+            @RequestParam(required = false) String count, Pageable pageable,
+            @RequestHeader(name = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        CountMode countMode = CountMode.parse(count);
+        if (fields != null)
+            return ResponseEntity.ok(productService.getProducts(ProductField.parse(fields), pageable, countMode));
+        if (productResponseCache.isEnabled())
+            return cached(productResponseCache.page(countMode + "-" + pageable.getPageNumber() + "-"
+                    + pageable.getPageSize() + pageable.getSort(),
+                    () -> productService.getProducts(pageable, countMode)), acceptEncoding);
+        return ResponseEntity.ok(productService.getProducts(pageable, countMode));
     }
 
     @Operation(summary = "Get product by SKU", description = "Retrieve a product using its unique SKU code")
     @ApiResponses(value = {
-            @ApiResponse(responseCode = "200", description = "Product found"),
+            @ApiResponse(responseCode = "200", description = "Product found",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = ProductDTO.class))),
             @ApiResponse(responseCode = "404", description = "Product not found")
     })
     @GetMapping("/sku/{sku}")
-    public ResponseEntity<ProductDTO> getProductBySku(@PathVariable String sku) {
-        return ResponseEntity.ok(productService.getProductBySku(sku));
+    public ResponseEntity<?> getProductBySku(@PathVariable String sku,
+            @RequestHeader(name = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        if (productResponseCache.isEnabled()) {
+            CachedResponse response = productResponseCache.productBySku(sku, productService::getProductBySku,
+                    productService::getProductById);
+            hotProductTracker.recordRead(response.productId());
+            return cached(response, acceptEncoding);
+        }
+        ProductDTO product = productService.getProductBySku(sku);
+        hotProductTracker.recordRead(product.getId());
+        return ResponseEntity.ok(product);
+    }
+
+    @Operation(summary = "Get many products by ID", description = "Resolve up to 500 products in one call. The response keeps the request order and marks missing IDs with found=false.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Lookup completed"),
+            @ApiResponse(responseCode = "400", description = "Empty or too large batch")
+    })
+    @GetMapping("/batch")
+    public ResponseEntity<List<ProductLookupDTO>> getProductsByIds(@RequestParam List<Long> ids) {
+        return ResponseEntity.ok(productService.getProductsByIds(ids));
+    }
+
+    @Operation(summary = "Get many products by SKU", description = "Resolve up to 500 products in one call. The response keeps the request order and marks missing SKUs with found=false.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Lookup completed"),
+            @ApiResponse(responseCode = "400", description = "Empty or too large batch")
+    })
+    @GetMapping("/batch/sku")
+    public ResponseEntity<List<ProductLookupDTO>> getProductsBySkus(@RequestParam List<String> skus) {
+        return ResponseEntity.ok(productService.getProductsBySkus(skus));
     }
 
     @Operation(summary = "Update an existing product", description = "Update editable fields (name, description, price, stockMin). SKU and amount cannot be modified here.")
@@ -94,6 +164,16 @@ public class ProductController {
         return ResponseEntity.ok(productService.updateProduct(id, productUpdateDTO));
     }
 
+    @Operation(summary = "Bulk update products", description = "Applies a percentage or absolute price change, a new stockMin and/or a category move to every product of a category or SKU list, as chunked set-based updates.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Summary of the affected rows"),
+            @ApiResponse(responseCode = "400", description = "Invalid selector or changes")
+    })
+    @PostMapping("/bulk-update")
+    public ResponseEntity<BulkUpdateResultDTO> bulkUpdate(@RequestBody BulkUpdateDTO bulkUpdateDTO) {
+        return ResponseEntity.ok(productBulkUpdateService.bulkUpdate(bulkUpdateDTO));
+    }
+
     @Operation(summary = "Delete a product", description = "Permanently remove a product from the database by its ID")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "204", description = "Product deleted successfully"),
@@ -111,26 +191,28 @@ public class ProductController {
      * #################
      */
 
-    @Operation(summary = "Increase product stock", description = "Add a specific quantity to the current stock of a product")
+    @Operation(summary = "Increase product stock", description = "Add a specific quantity to the stock of a product in one warehouse (the default warehouse when warehouseId is omitted). The returned amount is the total over all warehouses.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Stock increased successfully"),
             @ApiResponse(responseCode = "400", description = "Invalid amount provided"),
-            @ApiResponse(responseCode = "404", description = "Product not found")
+            @ApiResponse(responseCode = "404", description = "Product or warehouse not found")
     })
     @PostMapping("/{id}/stock/increase")
-    public ResponseEntity<ProductDTO> increaseStock(@PathVariable Long id, @RequestBody StockDTO entrance) {
-        return ResponseEntity.ok(productService.increaseStock(id, entrance));
+    public ResponseEntity<ProductDTO> increaseStock(@PathVariable Long id,
+            @RequestParam(required = false) Long warehouseId, @RequestBody StockDTO entrance) {
+        return ResponseEntity.ok(productService.increaseStock(id, warehouseId, entrance));
     }
 
-    @Operation(summary = "Decrease product stock", description = "Subtract a specific quantity from the current stock of a product")
+    @Operation(summary = "Decrease product stock", description = "Subtract a specific quantity from the stock of a product in one warehouse (the default warehouse when warehouseId is omitted). The returned amount is the total over all warehouses.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Stock decreased successfully"),
             @ApiResponse(responseCode = "400", description = "Insufficient stock or invalid amount"),
-            @ApiResponse(responseCode = "404", description = "Product not found")
+            @ApiResponse(responseCode = "404", description = "Product or warehouse not found")
     })
     @PostMapping("/{id}/stock/decrease")
-    public ResponseEntity<ProductDTO> decreaseStock(@PathVariable Long id, @RequestBody StockDTO exit) {
-        return ResponseEntity.ok(productService.decreaseStock(id, exit));
+    public ResponseEntity<ProductDTO> decreaseStock(@PathVariable Long id,
+            @RequestParam(required = false) Long warehouseId, @RequestBody StockDTO exit) {
+        return ResponseEntity.ok(productService.decreaseStock(id, warehouseId, exit));
     }
 
     /**
@@ -138,24 +220,51 @@ public class ProductController {
      * SEARCH & FILTER ENDPOINTS
      * #################
      */
-    @Operation(summary = "Search products by name", description = "Filter products by a partial name match (case-insensitive)")
-    @ApiResponse(responseCode = "200", description = "List of matching products")
+    @Operation(summary = "Search products by name", description = "Filter products by a partial name match (case-insensitive). Optional fields limits the returned properties. count=none|estimate|exact like the product list: none avoids the second scan of the COUNT.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "List of matching products"),
+            @ApiResponse(responseCode = "400", description = "Unknown field or count mode requested")
+    })
     @GetMapping("/search")
-    public ResponseEntity<Page<ProductDTO>> getProductByName(@RequestParam String name, Pageable pageable) {
-        return ResponseEntity.ok(productService.searchByName(name, pageable));
+    public ResponseEntity<Slice<?>> getProductByName(@RequestParam String name,
+            @RequestParam(required = false) String fields, @RequestParam(required = false) String count,
+            Pageable pageable) {
+        CountMode countMode = CountMode.parse(count);
+        if (fields != null)
+            return ResponseEntity.ok(productService.searchByName(name, ProductField.parse(fields), pageable, countMode));
+        return ResponseEntity.ok(productService.searchByName(name, pageable, countMode));
     }
 
-    @Operation(summary = "Filter products by price range", description = "Retrieve products within a minimum and maximum price range")
+    @Operation(summary = "Filter products by price range", description = "Retrieve products within a minimum and maximum price range. count=none|estimate|exact like the product list.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "List of products within the range"),
-            @ApiResponse(responseCode = "400", description = "Invalid range (e.g., min > max)")
+            @ApiResponse(responseCode = "400", description = "Invalid range (e.g., min > max) or count mode")
     })
     @GetMapping("/search/price")
-    public ResponseEntity<Page<ProductDTO>> getProductByPriceRange(
+    public ResponseEntity<Slice<?>> getProductByPriceRange(
             @RequestParam BigDecimal minPrice,
             @RequestParam BigDecimal maxPrice,
+            @RequestParam(required = false) String fields,
+            @RequestParam(required = false) String count,
             Pageable pageable) {
-        return ResponseEntity.ok(productService.filterByRange(minPrice, maxPrice, pageable));
+        CountMode countMode = CountMode.parse(count);
+        if (fields != null)
+            return ResponseEntity.ok(productService.filterByRange(minPrice, maxPrice, ProductField.parse(fields),
+                    pageable, countMode));
+        return ResponseEntity.ok(productService.filterByRange(minPrice, maxPrice, pageable, countMode));
+    }
+
+    @Operation(summary = "Query products by multiple criteria", description = "Combine name, category, price range, amount thresholds and low stock in one query. Sort with sort=property,dir.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "List of matching products"),
+            @ApiResponse(responseCode = "400", description = "Invalid range or sort property")
+    })
+    @GetMapping("/query")
+    public ResponseEntity<Page<?>> queryProducts(ProductQueryDTO criteria,
+            @RequestParam(required = false) String fields, Pageable pageable) {
+        if (fields != null)
+            return ResponseEntity.ok(productService.query(criteria, ProductField.parse(fields), pageable));
+        return ResponseEntity.ok(productService.query(criteria, pageable));
     }
 
     /**
@@ -169,4 +278,15 @@ public class ProductController {
     public ResponseEntity<List<AlertDTO>> getAlerts() {
         return ResponseEntity.ok(productService.getLowStockAlerts());
     }
+
+    // The stored JSON goes out as it is (ByteArrayHttpMessageConverter), gzipped if stored so and accepted
+    private static ResponseEntity<byte[]> cached(CachedResponse response, String acceptEncoding) {
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON);
+        if (!response.gzipped())
+            return builder.body(response.body());
+        builder.header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (acceptEncoding != null && acceptEncoding.contains("gzip"))
+            return builder.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(response.body());
+        return builder.body(response.plainBody());
+    }
 }
@@ -0,0 +1,51 @@
+package com.inventario.controller;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.inventario.dtos.PurgeRunDTO;
+import com.inventario.model.ArchivedProduct;
+import com.inventario.service.PurgeService;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+@RestController
+@RequestMapping("/api/admin/purge")
+@Tag(name = "Admin: purge", description = "Archiving of soft-deleted products")
+public class PurgeController {
+    private final PurgeService purgeService;
+
+    public PurgeController(PurgeService purgeService) {
+        this.purgeService = purgeService;
+    }
+
+    @Operation(summary = "Run the purge", description = "Moves soft-deleted products older than the grace period to the archive in the background. If a purge is already running, returns its state.")
+    @ApiResponse(responseCode = "202", description = "Purge started or already running")
+    @PostMapping
+    public ResponseEntity<PurgeRunDTO> runPurge() {
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(purgeService.runPurge());
+    }
+
+    @Operation(summary = "Get the state of the last purge")
+    @ApiResponse(responseCode = "200", description = "State of the last purge")
+    @GetMapping
+    public ResponseEntity<PurgeRunDTO> getLastRun() {
+        return ResponseEntity.ok(purgeService.getLastRun());
+    }
+
+    @Operation(summary = "Get archived products", description = "Archived products, optionally filtered by SKU. Their stock history is still available in /api/stock/product/{id}.")
+    @ApiResponse(responseCode = "200", description = "Archived products")
+    @GetMapping("/archive")
+    public ResponseEntity<Page<ArchivedProduct>> getArchived(@RequestParam(required = false) String sku, Pageable pageable) {
+        return ResponseEntity.ok(purgeService.getArchived(sku, pageable));
+    }
+}
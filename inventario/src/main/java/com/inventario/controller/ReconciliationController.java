@@ -0,0 +1,41 @@
+package com.inventario.controller;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.inventario.dtos.ReconciliationRunDTO;
+import com.inventario.service.ReconciliationService;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+@RestController
+@RequestMapping("/api/admin/reconciliation")
+@Tag(name = "Admin: reconciliation", description = "Stored stock checked against the movement ledger")
+public class ReconciliationController {
+    private final ReconciliationService reconciliationService;
+
+    public ReconciliationController(ReconciliationService reconciliationService) {
+        this.reconciliationService = reconciliationService;
+    }
+
+    @Operation(summary = "Run the reconciliation", description = "Compares every location's stock with the sum of its movements, and products.amount with the sum of its locations, in the background. With repair=true each location whose ledger is off gets an AJUSTE movement of the difference (the stored stock is kept) and wrong totals are recomputed. If a run is already going, returns its state.")
+    @ApiResponse(responseCode = "202", description = "Reconciliation started or already running")
+    @PostMapping
+    public ResponseEntity<ReconciliationRunDTO> runReconciliation(@RequestParam(defaultValue = "false") boolean repair) {
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(reconciliationService.runReconciliation(repair));
+    }
+
+    @Operation(summary = "Get the last reconciliation", description = "Counters and the largest discrepancies of the last run.")
+    @ApiResponse(responseCode = "200", description = "State of the last reconciliation")
+    @GetMapping
+    public ResponseEntity<ReconciliationRunDTO> getLastRun() {
+        return ResponseEntity.ok(reconciliationService.getLastRun());
+    }
+}
@@ -0,0 +1,43 @@
+package com.inventario.controller;
+
+import java.util.List;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.inventario.dtos.EndpointTimingDTO;
+import com.inventario.observability.RequestTimingMetrics;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+@RestController
+@RequestMapping("/api/admin/timing")
+@Tag(name = "Admin: request timing", description = "Per endpoint breakdown of request time by phase")
+public class RequestTimingController {
+    private final RequestTimingMetrics requestTimingMetrics;
+
+    public RequestTimingController(RequestTimingMetrics requestTimingMetrics) {
+        this.requestTimingMetrics = requestTimingMetrics;
+    }
+
+    @Operation(summary = "Phase timings per endpoint", description = "Latency percentiles of each phase (cache, db, mapping, validation, json and the rest as app) and its share of the endpoint total, busiest endpoints first. Send X-Request-Timing on a request to get its own breakdown in the Server-Timing header.")
+    @ApiResponse(responseCode = "200", description = "Per endpoint phase timings")
+    @GetMapping
+    public ResponseEntity<List<EndpointTimingDTO>> getEndpointTimings() {
+        return ResponseEntity.ok(requestTimingMetrics.endpointStats());
+    }
+
+    @Operation(summary = "Reset phase timings")
+    @ApiResponse(responseCode = "204", description = "Timings cleared")
+    @DeleteMapping
+    public ResponseEntity<Void> reset() {
+        requestTimingMetrics.reset();
+        return ResponseEntity.status(HttpStatus.NO_CONTENT).build();
+    }
+}
@@ -0,0 +1,68 @@
+package com.inventario.controller;
+
+import java.util.List;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.inventario.dtos.NPlusOneDTO;
+import com.inventario.dtos.RequestSqlStatsDTO;
+import com.inventario.dtos.SlowQueryDTO;
+import com.inventario.dtos.SqlStatementStatsDTO;
+import com.inventario.observability.SqlMetrics;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+@RestController
+@RequestMapping("/api/admin/sql")
+@Tag(name = "Admin: SQL", description = "Statement timings, slow queries and N+1 detection")
+public class SqlStatsController {
+    private final SqlMetrics sqlMetrics;
+
+    public SqlStatsController(SqlMetrics sqlMetrics) {
+        this.sqlMetrics = sqlMetrics;
+    }
+
+    @Operation(summary = "Statement shapes by total time", description = "Latency percentiles, executions and rows returned per normalized statement.")
+    @ApiResponse(responseCode = "200", description = "Statement statistics")
+    @GetMapping("/statements")
+    public ResponseEntity<List<SqlStatementStatsDTO>> getStatements(@RequestParam(defaultValue = "50") int limit) {
+        return ResponseEntity.ok(sqlMetrics.topStatements(limit));
+    }
+
+    @Operation(summary = "Latest slow statements", description = "Bounded ring with the most recent statements above the slow threshold, slowest first.")
+    @ApiResponse(responseCode = "200", description = "Slow statements")
+    @GetMapping("/slow")
+    public ResponseEntity<List<SlowQueryDTO>> getSlowQueries() {
+        return ResponseEntity.ok(sqlMetrics.slowQueries());
+    }
+
+    @Operation(summary = "Statements per request", description = "Mean and max statements executed per endpoint.")
+    @ApiResponse(responseCode = "200", description = "Per endpoint statistics")
+    @GetMapping("/requests")
+    public ResponseEntity<List<RequestSqlStatsDTO>> getRequestStats() {
+        return ResponseEntity.ok(sqlMetrics.requestStats());
+    }
+
+    @Operation(summary = "N+1 suspects", description = "SELECT shapes repeated within a single request more times than the configured threshold.")
+    @ApiResponse(responseCode = "200", description = "N+1 suspects")
+    @GetMapping("/n-plus-one")
+    public ResponseEntity<List<NPlusOneDTO>> getNPlusOneSuspects() {
+        return ResponseEntity.ok(sqlMetrics.nPlusOneSuspects());
+    }
+
+    @Operation(summary = "Reset SQL statistics")
+    @ApiResponse(responseCode = "204", description = "Statistics cleared")
+    @DeleteMapping
+    public ResponseEntity<Void> reset() {
+        sqlMetrics.reset();
+        return ResponseEntity.status(HttpStatus.NO_CONTENT).build();
+    }
+}
@@ -0,0 +1,73 @@
+package com.inventario.controller;
+
+import java.util.List;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.inventario.dtos.AvailabilityDTO;
+import com.inventario.dtos.TransferDTO;
+import com.inventario.dtos.TransferResultDTO;
+import com.inventario.dtos.WarehouseCreationDTO;
+import com.inventario.dtos.WarehouseDTO;
+import com.inventario.service.WarehouseService;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+@RestController
+@RequestMapping("/api/warehouses")
+@Tag(name = "Warehouses", description = "Stock locations, per-location availability and transfers")
+public class WarehouseController {
+    private final WarehouseService warehouseService;
+
+    public WarehouseController(WarehouseService warehouseService) {
+        this.warehouseService = warehouseService;
+    }
+
+    @Operation(summary = "Get all warehouses")
+    @ApiResponse(responseCode = "200", description = "List of warehouses retrieved")
+    @GetMapping
+    public ResponseEntity<List<WarehouseDTO>> getWarehouses() {
+        return ResponseEntity.ok(warehouseService.getWarehouses());
+    }
+
+    @Operation(summary = "Create a warehouse", description = "Register a new stock location. The code must be unique.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "201", description = "Warehouse created"),
+            @ApiResponse(responseCode = "400", description = "Invalid or duplicated code")
+    })
+    @PostMapping
+    public ResponseEntity<WarehouseDTO> createWarehouse(@RequestBody WarehouseCreationDTO request) {
+        return ResponseEntity.status(HttpStatus.CREATED).body(warehouseService.createWarehouse(request));
+    }
+
+    @Operation(summary = "Get the availability of a product", description = "Returns the total stock over all warehouses and the stock of each location.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Availability retrieved"),
+            @ApiResponse(responseCode = "404", description = "Product not found")
+    })
+    @GetMapping("/availability/{productId}")
+    public ResponseEntity<AvailabilityDTO> getAvailability(@PathVariable Long productId) {
+        return ResponseEntity.ok(warehouseService.getAvailability(productId));
+    }
+
+    @Operation(summary = "Transfer stock between warehouses", description = "Moves stock as a SALIDA from the source and an ENTRADA to the target in one transaction. Both history rows share the returned transferId.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Transfer applied"),
+            @ApiResponse(responseCode = "400", description = "Invalid transfer"),
+            @ApiResponse(responseCode = "404", description = "Product or warehouse not found")
+    })
+    @PostMapping("/transfers")
+    public ResponseEntity<TransferResultDTO> transfer(@RequestBody TransferDTO request) {
+        return ResponseEntity.ok(warehouseService.transfer(request));
+    }
+}
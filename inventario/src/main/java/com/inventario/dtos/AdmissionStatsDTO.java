@@ -0,0 +1,11 @@
+package com.inventario.dtos;
+
+import java.util.List;
+
+public record AdmissionStatsDTO(
+        int globalInFlight,
+        int globalMaxConcurrency,
+        int trackedClients,
+        long rateLimited,
+        List<EndpointClassStatsDTO> classes) {
+}
@@ -0,0 +1,19 @@
+package com.inventario.dtos;
+
+import java.io.Serializable;
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+// Cached in Redis: a class rather than a record, so the serializer keeps its type information
+@Getter @Setter
+@NoArgsConstructor @AllArgsConstructor
+public class AvailabilityDTO implements Serializable {
+    private static final long serialVersionUID = 1L;
+    private Long productId;
+    private Long total;
+    private List<LocationStockDTO> locations;
+}
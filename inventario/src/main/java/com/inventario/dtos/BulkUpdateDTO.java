@@ -0,0 +1,27 @@
+package com.inventario.dtos;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import com.inventario.enums.Category;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/**
+ * Selects the products by category or by SKU list (exactly one) and applies every change
+ * present. Price changes never leave a product at zero or below; those rows are skipped.
+ */
+public record BulkUpdateDTO(
+        @Schema(example = "BEBIDAS_CON_ALCOHOL", description = "Products of this category")
+        Category category,
+        @Schema(description = "Products with these SKUs")
+        List<String> skus,
+        @Schema(example = "5", description = "Price change in percent, e.g. 5 or -10")
+        BigDecimal pricePercent,
+        @Schema(example = "100", description = "Absolute price change")
+        BigDecimal priceDelta,
+        @Schema(example = "10", description = "New stock minimum")
+        Integer stockMin,
+        @Schema(example = "BEBIDAS_SIN_ALCOHOL", description = "Category to move the products to")
+        Category newCategory) {
+}
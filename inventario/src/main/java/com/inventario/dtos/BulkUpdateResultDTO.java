@@ -0,0 +1,13 @@
+package com.inventario.dtos;
+
+import java.util.List;
+
+public record BulkUpdateResultDTO(
+        int matched,
+        int updated,
+        // Matched but left out because the price would not stay positive
+        int skipped,
+        int chunks,
+        List<String> unknownSkus,
+        long durationMs) {
+}
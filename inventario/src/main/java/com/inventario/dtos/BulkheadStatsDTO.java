@@ -0,0 +1,17 @@
+package com.inventario.dtos;
+
+import com.inventario.enums.EndpointClass;
+
+public record BulkheadStatsDTO(
+        EndpointClass endpointClass,
+        int maxConcurrent,
+        int inFlight,
+        int queueLimit,
+        int queued,
+        long admitted,
+        long queueFull,
+        long timedOut,
+        double queueWaitP99Ms,
+        double queueWaitMaxMs,
+        ConnectionPoolStatsDTO pool) {
+}
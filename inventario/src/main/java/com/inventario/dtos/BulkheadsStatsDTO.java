@@ -0,0 +1,9 @@
+package com.inventario.dtos;
+
+import java.util.List;
+
+public record BulkheadsStatsDTO(
+        boolean enabled,
+        List<BulkheadStatsDTO> bulkheads,
+        ConnectionPoolStatsDTO backgroundPool) {
+}
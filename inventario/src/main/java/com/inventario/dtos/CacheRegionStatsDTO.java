@@ -0,0 +1,10 @@
+package com.inventario.dtos;
+
+public record CacheRegionStatsDTO(
+        String region,
+        long maxEntries,
+        long hits,
+        long misses,
+        long puts,
+        double hitRate) {
+}
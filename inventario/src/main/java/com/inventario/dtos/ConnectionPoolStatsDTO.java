@@ -0,0 +1,9 @@
+package com.inventario.dtos;
+
+public record ConnectionPoolStatsDTO(
+        String name,
+        int maxSize,
+        int active,
+        int idle,
+        int awaitingConnection) {
+}
@@ -0,0 +1,11 @@
+package com.inventario.dtos;
+
+import com.inventario.enums.EndpointClass;
+
+public record EndpointClassStatsDTO(
+        EndpointClass endpointClass,
+        double limit,
+        int inFlight,
+        long admitted,
+        long shed) {
+}
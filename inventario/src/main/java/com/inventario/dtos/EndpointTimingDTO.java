@@ -0,0 +1,13 @@
+package com.inventario.dtos;
+
+import java.util.List;
+
+public record EndpointTimingDTO(
+        String endpoint,
+        long requests,
+        double meanMs,
+        double p50Ms,
+        double p99Ms,
+        double maxMs,
+        List<PhaseTimingDTO> phases) {
+}
@@ -0,0 +1,19 @@
+package com.inventario.dtos;
+
+/**
+ * Second-level cache of Product on this instance. The counters are only kept with
+ * inventario.entity-cache.statistics on.
+ */
+public record EntityCacheStatsDTO(
+        boolean enabled,
+        boolean statisticsEnabled,
+        boolean clusterInvalidation,
+        CacheRegionStatsDTO product,
+        CacheRegionStatsDTO lookups,
+        long invalidationsPublished,
+        long invalidationsReceived) {
+
+    public static EntityCacheStatsDTO disabled() {
+        return new EntityCacheStatsDTO(false, false, false, null, null, 0, 0);
+    }
+}
@@ -0,0 +1,18 @@
+package com.inventario.dtos;
+
+import java.time.LocalDateTime;
+
+public record ForecastDTO(
+        Long productId,
+        Integer historyDays,
+        Double avgDailyDemand,
+        Double movingAvg7d,
+        Double movingAvg30d,
+        Double demandStdDev,
+        Double forecastDailyDemand,
+        Integer leadTimeDays,
+        Integer safetyStock,
+        Integer reorderPoint,
+        Integer suggestedReorderQty,
+        LocalDateTime computedAt) {
+}
@@ -0,0 +1,14 @@
+package com.inventario.dtos;
+
+import java.time.LocalDateTime;
+
+// State of the last forecast run; finishedAt is null while it is running
+public record ForecastRunDTO(
+        boolean running,
+        LocalDateTime startedAt,
+        LocalDateTime finishedAt,
+        long products,
+        long movements,
+        long durationMs,
+        String error) {
+}
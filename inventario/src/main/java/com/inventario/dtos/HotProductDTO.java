@@ -0,0 +1,8 @@
+package com.inventario.dtos;
+
+// count is an upper bound; count - maxError is a lower bound of the real accesses
+public record HotProductDTO(
+        Long productId,
+        long count,
+        long maxError) {
+}
@@ -0,0 +1,12 @@
+package com.inventario.dtos;
+
+import java.util.List;
+
+import com.inventario.enums.AccessType;
+
+public record HotProductsDTO(
+        AccessType type,
+        long windowSeconds,
+        long totalEvents,
+        List<HotProductDTO> products) {
+}
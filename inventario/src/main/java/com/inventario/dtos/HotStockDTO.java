@@ -0,0 +1,5 @@
+package com.inventario.dtos;
+
+// redisAmount is authoritative; databaseAmount trails it by the write-behind backlog
+public record HotStockDTO(Long productId, Long redisAmount, Integer databaseAmount) {
+}
@@ -0,0 +1,10 @@
+package com.inventario.dtos;
+
+/**
+ * restored: hot products whose Redis counter was missing and was rebuilt from the database.
+ * orphansRemoved: counters of products that are not hot in the database (unfinished promotion).
+ * mismatches: counters that differ from the database after the backlog was applied; Redis is kept.
+ */
+public record HotStockReconciliationDTO(int hotProducts, int restored, int orphansRemoved, int mismatches,
+        int entriesApplied) {
+}
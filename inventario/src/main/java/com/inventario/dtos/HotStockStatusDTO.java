@@ -0,0 +1,7 @@
+package com.inventario.dtos;
+
+import java.util.List;
+
+// deadLetters: ledger entries the write-behind set aside, to be applied by hand
+public record HotStockStatusDTO(boolean enabled, long backlog, long deadLetters, List<HotStockDTO> products) {
+}
@@ -0,0 +1,19 @@
+package com.inventario.dtos;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+public record JfrStatusDTO(
+        boolean continuousEnabled,
+        boolean running,
+        String settings,
+        LocalDateTime startedAt,
+        long sizeBytes,
+        Duration maxAge,
+        long maxSizeBytes,
+        // Recordings started outside the application, e.g. -XX:StartFlightRecording
+        int otherRecordings,
+        String dumpDirectory,
+        List<String> dumps) {
+}
@@ -0,0 +1,16 @@
+package com.inventario.dtos;
+
+import java.io.Serializable;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter @Setter
+@NoArgsConstructor @AllArgsConstructor
+public class LocationStockDTO implements Serializable {
+    private static final long serialVersionUID = 1L;
+    private Long warehouseId;
+    private Integer amount;
+}
@@ -0,0 +1,10 @@
+package com.inventario.dtos;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Payload posted to the purchasing webhooks
+public record LowStockNotificationDTO(
+        List<AlertDTO> alerts,
+        LocalDateTime sentAt) {
+}
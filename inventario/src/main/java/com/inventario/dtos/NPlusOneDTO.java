@@ -0,0 +1,8 @@
+package com.inventario.dtos;
+
+public record NPlusOneDTO(
+        String endpoint,
+        String shape,
+        long occurrences,
+        int maxRepetitions) {
+}
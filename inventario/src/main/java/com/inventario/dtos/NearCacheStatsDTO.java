@@ -0,0 +1,12 @@
+package com.inventario.dtos;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public record NearCacheStatsDTO(
+        boolean enabled,
+        List<Long> pinnedIds,
+        long hits,
+        long refreshes,
+        LocalDateTime lastRefresh) {
+}
@@ -0,0 +1,12 @@
+package com.inventario.dtos;
+
+public record PhaseTimingDTO(
+        String phase,
+        double meanMs,
+        double p50Ms,
+        double p95Ms,
+        double p99Ms,
+        double maxMs,
+        // Part of the endpoint's total time spent in this phase
+        double share) {
+}
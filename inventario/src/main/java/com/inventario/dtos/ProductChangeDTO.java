@@ -0,0 +1,19 @@
+package com.inventario.dtos;
+
+import com.inventario.enums.ProductChangeType;
+
+/**
+ * Latest change of one product in a delta, with the current state of the product. A DELETED
+ * entry is a tombstone: only the id and SKU are left, {@code product} is null.
+ */
+public record ProductChangeDTO(
+        long token,
+        Long productId,
+        String sku,
+        ProductChangeType type,
+        ProductDTO product) {
+
+    public static ProductChangeDTO tombstone(long token, Long productId, String sku) {
+        return new ProductChangeDTO(token, productId, sku, ProductChangeType.DELETED, null);
+    }
+}
@@ -0,0 +1,10 @@
+package com.inventario.dtos;
+
+import java.util.List;
+
+// One page of a delta; the next request passes nextToken as since until hasMore is false
+public record ProductChangesDTO(
+        List<ProductChangeDTO> changes,
+        long nextToken,
+        boolean hasMore) {
+}
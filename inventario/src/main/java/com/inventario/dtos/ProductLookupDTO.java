@@ -0,0 +1,19 @@
+package com.inventario.dtos;
+
+/**
+ * One entry of a multi-get response. Entries keep the order of the request;
+ * keys without an active product come back with {@code found = false}.
+ */
+public record ProductLookupDTO(
+        String key,
+        boolean found,
+        ProductDTO product) {
+
+    public static ProductLookupDTO found(Object key, ProductDTO product) {
+        return new ProductLookupDTO(String.valueOf(key), true, product);
+    }
+
+    public static ProductLookupDTO notFound(Object key) {
+        return new ProductLookupDTO(String.valueOf(key), false, null);
+    }
+}
@@ -0,0 +1,28 @@
+package com.inventario.dtos;
+
+import java.math.BigDecimal;
+
+import com.inventario.enums.Category;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/**
+ * Filters of {@code GET /api/products/query}. Every filter is optional and all the present
+ * ones are combined with AND.
+ */
+public record ProductQueryDTO(
+        @Schema(example = "coca", description = "Partial name match (case-insensitive)")
+        String name,
+        @Schema(example = "BEBIDAS_SIN_ALCOHOL")
+        Category category,
+        @Schema(example = "1000")
+        BigDecimal minPrice,
+        @Schema(example = "5000")
+        BigDecimal maxPrice,
+        @Schema(example = "0")
+        Integer minAmount,
+        @Schema(example = "10")
+        Integer maxAmount,
+        @Schema(description = "Only products where amount < stockMin")
+        Boolean lowStock) {
+}
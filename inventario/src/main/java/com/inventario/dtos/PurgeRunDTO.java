@@ -0,0 +1,13 @@
+package com.inventario.dtos;
+
+import java.time.LocalDateTime;
+
+// State of the last purge run; finishedAt is null while it is running
+public record PurgeRunDTO(
+        boolean running,
+        LocalDateTime startedAt,
+        LocalDateTime finishedAt,
+        long archived,
+        int batches,
+        String error) {
+}
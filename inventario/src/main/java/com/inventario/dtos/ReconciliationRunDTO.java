@@ -0,0 +1,23 @@
+package com.inventario.dtos;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+// State of the last reconciliation; finishedAt is null while it is running
+public record ReconciliationRunDTO(
+        boolean running,
+        boolean repair,
+        LocalDateTime startedAt,
+        LocalDateTime finishedAt,
+        long products,
+        long locations,
+        long ledgerDiscrepancies,
+        long totalDiscrepancies,
+        // AJUSTE movements written and product totals queued for the rollup (repair only)
+        long adjustments,
+        long totalsResynced,
+        long durationMs,
+        // Largest discrepancies first, up to inventario.reconciliation.max-reported
+        List<StockDiscrepancyDTO> discrepancies,
+        String error) {
+}
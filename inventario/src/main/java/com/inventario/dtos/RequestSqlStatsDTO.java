@@ -0,0 +1,8 @@
+package com.inventario.dtos;
+
+public record RequestSqlStatsDTO(
+        String endpoint,
+        long requests,
+        double meanStatements,
+        long maxStatements) {
+}
@@ -0,0 +1,10 @@
+package com.inventario.dtos;
+
+import java.time.LocalDateTime;
+
+public record SlowQueryDTO(
+        String shape,
+        double durationMs,
+        String endpoint,
+        LocalDateTime timestamp) {
+}
@@ -0,0 +1,13 @@
+package com.inventario.dtos;
+
+public record SqlStatementStatsDTO(
+        String shape,
+        long count,
+        double totalMs,
+        double meanMs,
+        double p50Ms,
+        double p95Ms,
+        double p99Ms,
+        double maxMs,
+        long rows) {
+}
@@ -0,0 +1,13 @@
+package com.inventario.dtos;
+
+import com.inventario.enums.DiscrepancyType;
+
+// warehouseId is null for TOTAL; difference is actual - expected
+public record StockDiscrepancyDTO(
+        Long productId,
+        Long warehouseId,
+        DiscrepancyType type,
+        long expected,
+        long actual,
+        long difference) {
+}
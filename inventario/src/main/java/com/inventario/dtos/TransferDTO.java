@@ -0,0 +1,25 @@
+package com.inventario.dtos;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+
+public record TransferDTO(
+        @Schema(example = "10")
+        @NotNull(message = "The productId cannot be null")
+        Long productId,
+        @Schema(example = "1")
+        @NotNull(message = "The source warehouse cannot be null")
+        Long fromWarehouseId,
+        @Schema(example = "2")
+        @NotNull(message = "The target warehouse cannot be null")
+        Long toWarehouseId,
+        @Schema(example = "25")
+        @NotNull(message = "The amount cannot be null")
+        @Positive(message = "The amount must be positive")
+        Integer amount,
+        @Schema(example = "Reposición sucursal norte")
+        @NotBlank(message = "The motive cannot be blank")
+        String motive) {
+}
@@ -0,0 +1,10 @@
+package com.inventario.dtos;
+
+// transferId links the SALIDA and ENTRADA rows of the transfer in the stock history
+public record TransferResultDTO(
+        String transferId,
+        Long productId,
+        Long fromWarehouseId,
+        Long toWarehouseId,
+        int amount) {
+}
@@ -0,0 +1,17 @@
+package com.inventario.dtos;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
+
+public record WarehouseCreationDTO(
+        @Schema(example = "NORTE")
+        @NotBlank(message = "The code cannot be blank")
+        @Pattern(regexp = "[A-Z0-9_-]{2,20}", message = "The code must be 2 to 20 uppercase letters, digits, '-' or '_'")
+        String code,
+        @Schema(example = "Depósito zona norte")
+        @NotBlank(message = "The name cannot be blank")
+        @Size(max = 100)
+        String name) {
+}
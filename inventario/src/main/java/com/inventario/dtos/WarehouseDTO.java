@@ -0,0 +1,4 @@
+package com.inventario.dtos;
+
+public record WarehouseDTO(Long id, String code, String name, boolean active) {
+}
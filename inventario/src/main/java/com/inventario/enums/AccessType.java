@@ -0,0 +1,6 @@
+package com.inventario.enums;
+
+public enum AccessType {
+    READ,
+    WRITE
+}
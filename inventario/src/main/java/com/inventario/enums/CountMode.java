@@ -0,0 +1,24 @@
+package com.inventario.enums;
+
+import java.util.Locale;
+
+/**
+ * How a product listing computes its total, from the {@code count=} parameter. NONE returns a
+ * slice (one extra row tells if there is a next page), ESTIMATE a page whose total comes from a
+ * count refreshed in the background, EXACT a page with a COUNT query per request.
+ */
+public enum CountMode {
+    NONE,
+    ESTIMATE,
+    EXACT;
+
+    public static CountMode parse(String value) {
+        if (value == null || value.isBlank())
+            return EXACT;
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException ex) {
+            throw new IllegalArgumentException("Unknown count mode: " + value + " (none, estimate or exact)");
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package com.inventario.enums;
+
+/**
+ * LEDGER: the stock stored for a location differs from the sum of its movements.
+ * TOTAL: products.amount differs from the sum of the locations (a missed rollup).
+ */
+public enum DiscrepancyType {
+    LEDGER,
+    TOTAL
+}
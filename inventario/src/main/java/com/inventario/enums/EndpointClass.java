@@ -0,0 +1,38 @@
+package com.inventario.enums;
+
+import java.util.regex.Pattern;
+
+/**
+ * Admission classes of the product and stock endpoints, in priority order. {@code share} is
+ * the part of the global concurrency a class may use, so reports are shed first and stock
+ * writes keep headroom.
+ */
+public enum EndpointClass {
+    STOCK_WRITE(1.0),
+    POINT_READ(0.8),
+    REPORT(0.5);
+
+    private static final Pattern STOCK_WRITE_PATH = Pattern.compile("^/api/(products/\\d+/stock/(increase|decrease)|warehouses/transfers)$");
+    private static final Pattern POINT_READ_PATH = Pattern.compile("^/api/products/(\\d+|sku/[^/]+|batch(/sku)?)$");
+
+    private final double share;
+
+    EndpointClass(double share) {
+        this.share = share;
+    }
+
+    public double getShare() {
+        return share;
+    }
+
+    // Stock movements and transfers, GET by id/SKU/batch, and everything else (lists, searches,
+    // history, catalog edits and bulk writes, which must not take the headroom of the tills)
+    public static EndpointClass classify(String method, String path) {
+        boolean read = "GET".equals(method);
+        if (!read && STOCK_WRITE_PATH.matcher(path).matches())
+            return STOCK_WRITE;
+        if (read && POINT_READ_PATH.matcher(path).matches())
+            return POINT_READ;
+        return REPORT;
+    }
+}
@@ -0,0 +1,9 @@
+package com.inventario.enums;
+
+// Kind of the change recorded in product_changes; STOCK is a new total over the warehouses
+public enum ProductChangeType {
+    CREATED,
+    UPDATED,
+    DELETED,
+    STOCK
+}
@@ -0,0 +1,61 @@
+package com.inventario.enums;
+
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Columns of {@code Product} that can be requested through the {@code fields=} parameter.
+ * The attribute is the JPA attribute name and also the JSON property written to the client.
+ */
+public enum ProductField {
+    ID("id"),
+    NAME("name"),
+    DESCRIPTION("description"),
+    PRICE("price"),
+    STOCK_MIN("stockMin"),
+    AMOUNT("amount"),
+    SKU("sku"),
+    CATEGORY("category"),
+    DATE_OF_LAST_ACTUALIZATION("dateOfLastActualization");
+
+    private final String attribute;
+
+    ProductField(String attribute) {
+        this.attribute = attribute;
+    }
+
+    public String getAttribute() {
+        return attribute;
+    }
+
+    public static ProductField fromAttribute(String attribute) {
+        for (ProductField field : values()) {
+            if (field.attribute.equals(attribute))
+                return field;
+        }
+        throw new IllegalArgumentException("Unknown product field: " + attribute);
+    }
+
+    /**
+     * Parses a comma separated list like {@code id,sku,amount}. The result keeps the enum
+     * order, so the same set always produces the same query and the same cache key.
+     */
+    public static Set<ProductField> parse(String fields) {
+        if (fields == null || fields.isBlank())
+            throw new IllegalArgumentException("The fields cannot be Blank or Null.");
+        Set<ProductField> result = EnumSet.noneOf(ProductField.class);
+        for (String token : fields.split(",")) {
+            String attribute = token.trim();
+            if (!attribute.isEmpty())
+                result.add(fromAttribute(attribute));
+        }
+        if (result.isEmpty())
+            throw new IllegalArgumentException("At least one field is required.");
+        return result;
+    }
+
+    public static String toKey(Set<ProductField> fields) {
+        return fields.stream().map(ProductField::getAttribute).collect(Collectors.joining(","));
+    }
+}
@@ -0,0 +1,23 @@
+package com.inventario.enums;
+
+/**
+ * Phases timed inside a request. {@code metricName} is the name used in the Server-Timing
+ * header; the time spent outside every phase is reported as "app".
+ */
+public enum RequestPhase {
+    CACHE("cache"),
+    DB("db"),
+    MAPPING("mapping"),
+    VALIDATION("validation"),
+    SERIALIZATION("json");
+
+    private final String metricName;
+
+    RequestPhase(String metricName) {
+        this.metricName = metricName;
+    }
+
+    public String getMetricName() {
+        return metricName;
+    }
+}
@@ -0,0 +1,8 @@
+package com.inventario.exceptions;
+
+// The tombstones after the token were compacted: the client has to download the catalog again
+public class ChangeTokenExpiredException extends RuntimeException {
+    public ChangeTokenExpiredException(String message) {
+        super(message);
+    }
+}
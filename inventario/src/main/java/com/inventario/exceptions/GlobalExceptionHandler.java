@@ -4,6 +4,7 @@ import java.util.HashMap;
 import java.util.Map;
 
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageNotReadableException;
@@ -22,6 +23,27 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error);
     }
 
+    // 1b. Bussines Errors: Warehouse not found or inactive
+    @ExceptionHandler(WarehouseNotFoundException.class)
+    public ResponseEntity<ErrorResponse> handleWarehouseNotFound(WarehouseNotFoundException ex, WebRequest request) {
+        ErrorResponse error = new ErrorResponse(ex.getMessage(), HttpStatus.NOT_FOUND.value(), request.getDescription(false));
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error);
+    }
+
+    // 1c. Hot stock promotion/demotion in progress: retryable
+    @ExceptionHandler(HotStockBusyException.class)
+    public ResponseEntity<ErrorResponse> handleHotStockBusy(HotStockBusyException ex, WebRequest request) {
+        ErrorResponse error = new ErrorResponse(ex.getMessage(), HttpStatus.SERVICE_UNAVAILABLE.value(), request.getDescription(false));
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "1").body(error);
+    }
+
+    // 1d. Change token older than the compacted change log
+    @ExceptionHandler(ChangeTokenExpiredException.class)
+    public ResponseEntity<ErrorResponse> handleChangeTokenExpired(ChangeTokenExpiredException ex, WebRequest request) {
+        ErrorResponse error = new ErrorResponse(ex.getMessage(), HttpStatus.GONE.value(), request.getDescription(false));
+        return ResponseEntity.status(HttpStatus.GONE).body(error);
+    }
+
     // 2. Bussines Errors: SKU duplicated
     @ExceptionHandler(DuplicateSkuException.class)
     public ResponseEntity<ErrorResponse> handleDuplicate(DuplicateSkuException ex, WebRequest request) {
@@ -61,4 +83,11 @@ public class GlobalExceptionHandler {
             HttpStatus.NOT_FOUND.value(), request.getDescription(false));
         return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error);
     } 
+
+    // 7. Invalid arguments: unknown fields, invalid ranges, etc.
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<ErrorResponse> handleIllegalArgument(IllegalArgumentException ex, WebRequest request) {
+        ErrorResponse error = new ErrorResponse(ex.getMessage(), HttpStatus.BAD_REQUEST.value(), request.getDescription(false));
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,8 @@
+package com.inventario.exceptions;
+
+// The product is switching between the Redis and the database stock; the client should retry
+public class HotStockBusyException extends RuntimeException{
+    public HotStockBusyException(String message) {
+        super(message);
+    }
+}
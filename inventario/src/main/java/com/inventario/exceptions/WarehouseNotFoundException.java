@@ -0,0 +1,7 @@
+package com.inventario.exceptions;
+
+public class WarehouseNotFoundException extends RuntimeException{
+    public WarehouseNotFoundException(String message) {
+        super(message);
+    }
+}
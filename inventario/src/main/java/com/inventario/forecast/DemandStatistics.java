@@ -0,0 +1,73 @@
+package com.inventario.forecast;
+
+import java.time.LocalDateTime;
+
+import com.inventario.model.ProductForecast;
+
+/**
+ * Reorder point math over a product's daily SALIDA totals.
+ *
+ * The series starts at the first day with a sale, so products younger than the history
+ * window are not diluted by days in which they did not exist. Zero days after that count.
+ * <ul>
+ * <li>forecast = recentWeight * avg(last 7 days) + (1 - recentWeight) * avg(last 30 days)</li>
+ * <li>safety stock = z * stdDev(daily) * sqrt(lead time)</li>
+ * <li>reorder point = forecast * lead time + safety stock</li>
+ * <li>suggested quantity = forecast * (lead time + review period) + safety stock - amount</li>
+ * </ul>
+ */
+public final class DemandStatistics {
+
+    private DemandStatistics() {
+    }
+
+    /**
+     * @param daily     units sold per day, oldest first; the last slot is today
+     * @param firstDay  index of the first day with a sale, or -1 if there was none
+     * @param amount    current stock of the product
+     */
+    public static ProductForecast compute(long productId, int[] daily, int firstDay, int amount,
+            ForecastProperties properties, LocalDateTime computedAt) {
+        int days = firstDay < 0 ? 0 : daily.length - firstDay;
+        double sum = 0;
+        double sumSquares = 0;
+        double last7 = 0;
+        double last30 = 0;
+        for (int i = Math.max(firstDay, 0); i < daily.length && days > 0; i++) {
+            int units = daily[i];
+            sum += units;
+            sumSquares += (double) units * units;
+            int age = daily.length - 1 - i;
+            if (age < 30)
+                last30 += units;
+            if (age < 7)
+                last7 += units;
+        }
+
+        double mean = days == 0 ? 0 : sum / days;
+        double stdDev = days == 0 ? 0 : Math.sqrt(Math.max(0, sumSquares / days - mean * mean));
+        double movingAvg7 = days == 0 ? 0 : last7 / Math.min(7, days);
+        double movingAvg30 = days == 0 ? 0 : last30 / Math.min(30, days);
+        double forecast = properties.recentWeight() * movingAvg7 + (1 - properties.recentWeight()) * movingAvg30;
+
+        int leadTime = properties.leadTimeDays();
+        int safetyStock = (int) Math.ceil(properties.serviceLevelZ() * stdDev * Math.sqrt(leadTime));
+        int reorderPoint = (int) Math.ceil(forecast * leadTime) + safetyStock;
+        int target = (int) Math.ceil(forecast * (leadTime + properties.reviewPeriodDays())) + safetyStock;
+
+        ProductForecast result = new ProductForecast();
+        result.setProductId(productId);
+        result.setHistoryDays(days);
+        result.setAvgDailyDemand(mean);
+        result.setMovingAvg7d(movingAvg7);
+        result.setMovingAvg30d(movingAvg30);
+        result.setDemandStdDev(stdDev);
+        result.setForecastDailyDemand(forecast);
+        result.setLeadTimeDays(leadTime);
+        result.setSafetyStock(safetyStock);
+        result.setReorderPoint(reorderPoint);
+        result.setSuggestedReorderQty(Math.max(0, target - amount));
+        result.setComputedAt(computedAt);
+        return result;
+    }
+}
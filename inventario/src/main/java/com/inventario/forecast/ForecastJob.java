@@ -0,0 +1,215 @@
+package com.inventario.forecast;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.inventario.model.ProductForecast;
+
+/**
+ * Computes {@link ProductForecast} for every active product in one pass over the ledger.
+ *
+ * Products are walked by id in chunks (keyset on the primary key). For each chunk the SALIDA
+ * rows of its id range are streamed in (product_id, created_at) order, which is the order of
+ * idx_stock_manager_product_created, into one int[] of daily totals per product. The statistics
+ * of a chunk run on the fork-join pool while the next chunk is being read, and are stored with
+ * a delete + batch insert in a short transaction. At most two chunks are held in memory.
+ * Transfers between warehouses leave a SALIDA in the ledger too; they are not demand and are
+ * skipped.
+ */
+@Component
+public class ForecastJob {
+    private static final Logger log = LoggerFactory.getLogger(ForecastJob.class);
+    private static final int SPLIT_THRESHOLD = 256;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ForecastProperties properties;
+
+    public ForecastJob(DataSource dataSource, TransactionTemplate transactionTemplate, ForecastProperties properties) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(properties.fetchSize());
+        this.transactionTemplate = transactionTemplate;
+        this.properties = properties;
+    }
+
+    public record Result(long products, long movements) {
+    }
+
+    private record Chunk(long[] ids, int[] amounts, int[][] daily, int[] firstDay, ProductForecast[] results) {
+    }
+
+    public Result run() {
+        int parallelism = properties.parallelism() > 0 ? properties.parallelism()
+                : Runtime.getRuntime().availableProcessors();
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            return run(pool);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private Result run(ForkJoinPool pool) {
+        LocalDate today = LocalDate.now();
+        long firstEpochDay = today.minusDays(properties.historyDays() - 1L).toEpochDay();
+        LocalDateTime computedAt = LocalDateTime.now();
+        long products = 0;
+        long movements = 0;
+        long lastId = 0;
+
+        Chunk previous = null;
+        ForkJoinTask<?> computing = null;
+        while (true) {
+            Chunk chunk = readProducts(lastId);
+            if (chunk == null)
+                break;
+            movements += readDemand(chunk, firstEpochDay);
+            lastId = chunk.ids()[chunk.ids().length - 1];
+
+            if (computing != null) {
+                computing.join();
+                store(previous);
+                products += previous.ids().length;
+            }
+            computing = pool.submit(new ComputeTask(chunk, 0, chunk.ids().length, computedAt));
+            previous = chunk;
+        }
+        if (computing != null) {
+            computing.join();
+            store(previous);
+            products += previous.ids().length;
+        }
+        log.info("Forecast computed for {} products from {} movements", products, movements);
+        return new Result(products, movements);
+    }
+
+    private Chunk readProducts(long afterId) {
+        List<long[]> rows = jdbcTemplate.query(
+                "SELECT id, amount FROM products WHERE deleted = false AND id > ? ORDER BY id LIMIT ?",
+                (rs, i) -> new long[] { rs.getLong(1), rs.getInt(2) }, afterId, properties.chunkSize());
+        if (rows.isEmpty())
+            return null;
+        int size = rows.size();
+        long[] ids = new long[size];
+        int[] amounts = new int[size];
+        for (int i = 0; i < size; i++) {
+            ids[i] = rows.get(i)[0];
+            amounts[i] = (int) rows.get(i)[1];
+        }
+        int[] firstDay = new int[size];
+        Arrays.fill(firstDay, -1);
+        return new Chunk(ids, amounts, new int[size][], firstDay, new ProductForecast[size]);
+    }
+
+    private long readDemand(Chunk chunk, long firstEpochDay) {
+        long[] ids = chunk.ids();
+        int historyDays = properties.historyDays();
+        long[] rows = new long[1];
+        jdbcTemplate.query(
+                "SELECT product_id, amount, created_at FROM stock_manager " +
+                        "WHERE product_id BETWEEN ? AND ? AND created_at >= ? AND movement_type = 'SALIDA' " +
+                        "AND transfer_id IS NULL ORDER BY product_id, created_at",
+                rs -> {
+                    int index = Arrays.binarySearch(ids, rs.getLong(1));
+                    if (index < 0)
+                        return; // deleted product inside the id range
+                    int day = (int) (rs.getTimestamp(3).toLocalDateTime().toLocalDate().toEpochDay() - firstEpochDay);
+                    if (day < 0 || day >= historyDays)
+                        return;
+                    int[] daily = chunk.daily()[index];
+                    if (daily == null) {
+                        daily = new int[historyDays];
+                        chunk.daily()[index] = daily;
+                    }
+                    daily[day] += rs.getInt(2);
+                    if (chunk.firstDay()[index] < 0 || day < chunk.firstDay()[index])
+                        chunk.firstDay()[index] = day;
+                    rows[0]++;
+                },
+                ids[0], ids[ids.length - 1], Timestamp.valueOf(LocalDate.ofEpochDay(firstEpochDay).atStartOfDay()));
+        return rows[0];
+    }
+
+    private void store(Chunk chunk) {
+        ProductForecast[] results = chunk.results();
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.update("DELETE FROM product_forecasts WHERE product_id BETWEEN ? AND ?",
+                    chunk.ids()[0], chunk.ids()[chunk.ids().length - 1]);
+            jdbcTemplate.batchUpdate(
+                    "INSERT INTO product_forecasts (product_id, history_days, avg_daily_demand, moving_avg7d, " +
+                            "moving_avg30d, demand_std_dev, forecast_daily_demand, lead_time_days, safety_stock, " +
+                            "reorder_point, suggested_reorder_qty, computed_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)",
+                    new BatchPreparedStatementSetter() {
+                        @Override
+                        public void setValues(PreparedStatement ps, int i) throws SQLException {
+                            ProductForecast f = results[i];
+                            ps.setLong(1, f.getProductId());
+                            ps.setInt(2, f.getHistoryDays());
+                            ps.setDouble(3, f.getAvgDailyDemand());
+                            ps.setDouble(4, f.getMovingAvg7d());
+                            ps.setDouble(5, f.getMovingAvg30d());
+                            ps.setDouble(6, f.getDemandStdDev());
+                            ps.setDouble(7, f.getForecastDailyDemand());
+                            ps.setInt(8, f.getLeadTimeDays());
+                            ps.setInt(9, f.getSafetyStock());
+                            ps.setInt(10, f.getReorderPoint());
+                            ps.setInt(11, f.getSuggestedReorderQty());
+                            ps.setTimestamp(12, Timestamp.valueOf(f.getComputedAt()));
+                        }
+
+                        @Override
+                        public int getBatchSize() {
+                            return results.length;
+                        }
+                    });
+        });
+    }
+
+    private class ComputeTask extends RecursiveAction {
+        private final Chunk chunk;
+        private final int from;
+        private final int to;
+        private final LocalDateTime computedAt;
+
+        ComputeTask(Chunk chunk, int from, int to, LocalDateTime computedAt) {
+            this.chunk = chunk;
+            this.from = from;
+            this.to = to;
+            this.computedAt = computedAt;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > SPLIT_THRESHOLD) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new ComputeTask(chunk, from, middle, computedAt),
+                        new ComputeTask(chunk, middle, to, computedAt));
+                return;
+            }
+            int[] empty = new int[0];
+            for (int i = from; i < to; i++) {
+                int[] daily = chunk.daily()[i];
+                chunk.results()[i] = DemandStatistics.compute(chunk.ids()[i], daily != null ? daily : empty,
+                        daily != null ? chunk.firstDay()[i] : -1, chunk.amounts()[i], properties, computedAt);
+                chunk.daily()[i] = null; // release the series as soon as it is summarized
+            }
+        }
+    }
+}
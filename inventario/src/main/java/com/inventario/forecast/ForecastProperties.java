@@ -0,0 +1,21 @@
+package com.inventario.forecast;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "inventario.forecast")
+public record ForecastProperties(
+        // Days of SALIDA history read per product
+        @DefaultValue("365") int historyDays,
+        @DefaultValue("7") int leadTimeDays,
+        // Days between purchase orders; the suggested quantity covers lead time + this period
+        @DefaultValue("14") int reviewPeriodDays,
+        // z of the service level (1.65 ~ 95%)
+        @DefaultValue("1.65") double serviceLevelZ,
+        // Weight of the 7 day average against the 30 day one
+        @DefaultValue("0.3") double recentWeight,
+        @DefaultValue("2000") int chunkSize,
+        @DefaultValue("1000") int fetchSize,
+        // 0 uses one worker per core
+        @DefaultValue("0") int parallelism) {
+}
@@ -0,0 +1,103 @@
+package com.inventario.grpc;
+
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+
+import com.inventario.admission.AdmissionGate;
+import com.inventario.enums.EndpointClass;
+import com.inventario.grpc.v1.InventoryServiceGrpc;
+
+import io.grpc.ForwardingServerCall.SimpleForwardingServerCall;
+import io.grpc.ForwardingServerCallListener.SimpleForwardingServerCallListener;
+import io.grpc.Grpc;
+import io.grpc.Metadata;
+import io.grpc.ServerCall;
+import io.grpc.ServerCallHandler;
+import io.grpc.ServerInterceptor;
+import io.grpc.Status;
+import net.devh.boot.grpc.server.interceptor.GrpcGlobalServerInterceptor;
+
+/**
+ * The REST admission control ({@link AdmissionGate}) for the gRPC calls: the same client
+ * buckets (x-api-key or peer address) and the same class limits. Streaming calls hold their
+ * slot until they close.
+ */
+@GrpcGlobalServerInterceptor
+@ConditionalOnProperty(prefix = "inventario.admission", name = "enabled", matchIfMissing = true)
+public class GrpcAdmissionInterceptor implements ServerInterceptor {
+    static final Metadata.Key<String> API_KEY = Metadata.Key.of("x-api-key", Metadata.ASCII_STRING_MARSHALLER);
+    static final Metadata.Key<String> RETRY_AFTER = Metadata.Key.of("retry-after", Metadata.ASCII_STRING_MARSHALLER);
+
+    private final AdmissionGate admissionGate;
+
+    public GrpcAdmissionInterceptor(AdmissionGate admissionGate) {
+        this.admissionGate = admissionGate;
+    }
+
+    @Override
+    public <ReqT, RespT> ServerCall.Listener<ReqT> interceptCall(ServerCall<ReqT, RespT> call, Metadata headers,
+            ServerCallHandler<ReqT, RespT> next) {
+        AdmissionGate.Decision decision = admissionGate.tryAcquire(client(call, headers),
+                classify(call.getMethodDescriptor().getFullMethodName()));
+        if (decision.outcome() != AdmissionGate.Outcome.ADMITTED) {
+            boolean rateLimited = decision.outcome() == AdmissionGate.Outcome.RATE_LIMITED;
+            Metadata trailers = new Metadata();
+            trailers.put(RETRY_AFTER, Long.toString(Math.max(1, (decision.retryAfterNanos() + 999_999_999L) / 1_000_000_000L)));
+            call.close(rateLimited
+                    ? Status.RESOURCE_EXHAUSTED.withDescription("Rate limit exceeded for this client.")
+                    : Status.UNAVAILABLE.withDescription("Server busy, " + decision.endpointClass() + " requests are being shed."),
+                    trailers);
+            return new ServerCall.Listener<>() {
+            };
+        }
+
+        AtomicBoolean released = new AtomicBoolean();
+        ServerCall<ReqT, RespT> releasing = new SimpleForwardingServerCall<>(call) {
+            @Override
+            public void close(Status status, Metadata trailers) {
+                if (released.compareAndSet(false, true))
+                    admissionGate.release(decision, status.getCode() == Status.Code.INTERNAL
+                            || status.getCode() == Status.Code.UNAVAILABLE);
+                super.close(status, trailers);
+            }
+        };
+        ServerCall.Listener<ReqT> listener;
+        try {
+            listener = next.startCall(releasing, headers);
+        } catch (RuntimeException ex) {
+            if (released.compareAndSet(false, true))
+                admissionGate.release(decision, true);
+            throw ex;
+        }
+        // A call cancelled by the client is never closed by the service
+        return new SimpleForwardingServerCallListener<>(listener) {
+            @Override
+            public void onCancel() {
+                if (released.compareAndSet(false, true))
+                    admissionGate.release(decision, false);
+                super.onCancel();
+            }
+        };
+    }
+
+    private static String client(ServerCall<?, ?> call, Metadata headers) {
+        String apiKey = headers.get(API_KEY);
+        if (apiKey != null && !apiKey.isBlank())
+            return "key:" + apiKey;
+        SocketAddress peer = call.getAttributes().get(Grpc.TRANSPORT_ATTR_REMOTE_ADDR);
+        return "ip:" + (peer instanceof InetSocketAddress address ? address.getAddress().getHostAddress() : peer);
+    }
+
+    // Same classes as EndpointClass.classify gives the equivalent REST endpoints
+    static EndpointClass classify(String fullMethodName) {
+        if (InventoryServiceGrpc.getRecordMovementsMethod().getFullMethodName().equals(fullMethodName))
+            return EndpointClass.STOCK_WRITE;
+        if (InventoryServiceGrpc.getGetProductMethod().getFullMethodName().equals(fullMethodName)
+                || InventoryServiceGrpc.getGetProductsMethod().getFullMethodName().equals(fullMethodName))
+            return EndpointClass.POINT_READ;
+        return EndpointClass.REPORT;
+    }
+}
@@ -0,0 +1,68 @@
+package com.inventario.grpc;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+
+import com.inventario.bulkhead.BulkheadRoutingDataSource;
+import com.inventario.enums.EndpointClass;
+
+import io.grpc.ForwardingServerCallListener.SimpleForwardingServerCallListener;
+import io.grpc.Metadata;
+import io.grpc.ServerCall;
+import io.grpc.ServerCallHandler;
+import io.grpc.ServerInterceptor;
+import net.devh.boot.grpc.server.interceptor.GrpcGlobalServerInterceptor;
+
+/**
+ * Gives the gRPC calls the connection pool of their endpoint class, like the REST bulkheads.
+ * The service code runs inside the listener callbacks, so the class is bound around each of
+ * them. The gRPC executor is not partitioned: a call only takes a thread while a message is
+ * being handled.
+ */
+@GrpcGlobalServerInterceptor
+@ConditionalOnProperty(prefix = "inventario.bulkhead", name = "enabled", matchIfMissing = true)
+public class GrpcBulkheadInterceptor implements ServerInterceptor {
+
+    @Override
+    public <ReqT, RespT> ServerCall.Listener<ReqT> interceptCall(ServerCall<ReqT, RespT> call, Metadata headers,
+            ServerCallHandler<ReqT, RespT> next) {
+        EndpointClass endpointClass = GrpcAdmissionInterceptor.classify(call.getMethodDescriptor().getFullMethodName());
+        EndpointClass outer = BulkheadRoutingDataSource.bind(endpointClass);
+        ServerCall.Listener<ReqT> listener;
+        try {
+            listener = next.startCall(call, headers);
+        } finally {
+            BulkheadRoutingDataSource.restore(outer);
+        }
+        return new SimpleForwardingServerCallListener<>(listener) {
+            @Override
+            public void onMessage(ReqT message) {
+                EndpointClass previous = BulkheadRoutingDataSource.bind(endpointClass);
+                try {
+                    super.onMessage(message);
+                } finally {
+                    BulkheadRoutingDataSource.restore(previous);
+                }
+            }
+
+            @Override
+            public void onHalfClose() {
+                EndpointClass previous = BulkheadRoutingDataSource.bind(endpointClass);
+                try {
+                    super.onHalfClose();
+                } finally {
+                    BulkheadRoutingDataSource.restore(previous);
+                }
+            }
+
+            @Override
+            public void onReady() {
+                EndpointClass previous = BulkheadRoutingDataSource.bind(endpointClass);
+                try {
+                    super.onReady();
+                } finally {
+                    BulkheadRoutingDataSource.restore(previous);
+                }
+            }
+        };
+    }
+}
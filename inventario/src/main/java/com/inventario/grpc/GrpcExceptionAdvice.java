@@ -0,0 +1,44 @@
+package com.inventario.grpc;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.inventario.exceptions.DuplicateSkuException;
+import com.inventario.exceptions.HotStockBusyException;
+import com.inventario.exceptions.InsufficientStockException;
+import com.inventario.exceptions.ProductNotFoundException;
+import com.inventario.exceptions.WarehouseNotFoundException;
+
+import io.grpc.Status;
+import net.devh.boot.grpc.server.advice.GrpcAdvice;
+import net.devh.boot.grpc.server.advice.GrpcExceptionHandler;
+
+/**
+ * gRPC counterpart of {@link com.inventario.exceptions.GlobalExceptionHandler}: the same
+ * exceptions, translated to status codes instead of HTTP statuses.
+ */
+@GrpcAdvice
+public class GrpcExceptionAdvice {
+    private static final Logger log = LoggerFactory.getLogger(GrpcExceptionAdvice.class);
+
+    @GrpcExceptionHandler(Exception.class)
+    public Status handle(Exception ex) {
+        return statusOf(ex);
+    }
+
+    static Status statusOf(Throwable ex) {
+        if (ex instanceof ProductNotFoundException || ex instanceof WarehouseNotFoundException)
+            return Status.NOT_FOUND.withDescription(ex.getMessage());
+        if (ex instanceof IllegalArgumentException)
+            return Status.INVALID_ARGUMENT.withDescription(ex.getMessage());
+        if (ex instanceof InsufficientStockException)
+            return Status.FAILED_PRECONDITION.withDescription(ex.getMessage());
+        if (ex instanceof DuplicateSkuException)
+            return Status.ALREADY_EXISTS.withDescription(ex.getMessage());
+        // Retryable, like the 503 + Retry-After of the REST API
+        if (ex instanceof HotStockBusyException)
+            return Status.UNAVAILABLE.withDescription(ex.getMessage());
+        log.error("Unexpected error in a gRPC call", ex);
+        return Status.INTERNAL.withDescription("An unexpected error occurred.");
+    }
+}
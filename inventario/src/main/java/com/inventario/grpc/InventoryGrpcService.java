@@ -0,0 +1,172 @@
+package com.inventario.grpc;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+
+import com.inventario.dtos.ProductDTO;
+import com.inventario.dtos.ProductLookupDTO;
+import com.inventario.grpc.v1.CatalogRequest;
+import com.inventario.grpc.v1.InventoryServiceGrpc;
+import com.inventario.grpc.v1.MovementSummary;
+import com.inventario.grpc.v1.Product;
+import com.inventario.grpc.v1.ProductKey;
+import com.inventario.grpc.v1.ProductKeys;
+import com.inventario.grpc.v1.ProductLookups;
+import com.inventario.grpc.v1.RejectedMovement;
+import com.inventario.grpc.v1.StockMovement;
+import com.inventario.service.ProductService;
+
+import io.grpc.Status;
+import io.grpc.stub.ServerCallStreamObserver;
+import io.grpc.stub.StreamObserver;
+import net.devh.boot.grpc.server.service.GrpcService;
+
+/**
+ * Protobuf API for the POS terminals. Every call goes through {@link ProductService}, so the
+ * caches, the stock rules and the ledger are the ones of the REST API.
+ */
+@GrpcService
+public class InventoryGrpcService extends InventoryServiceGrpc.InventoryServiceImplBase {
+    static final int DEFAULT_PAGE_SIZE = 500;
+    static final int MAX_PAGE_SIZE = 1000;
+
+    private final ProductService productService;
+    private final ProductProtoMapper mapper;
+
+    public InventoryGrpcService(ProductService productService, ProductProtoMapper mapper) {
+        this.productService = productService;
+        this.mapper = mapper;
+    }
+
+    @Override
+    public void getProduct(ProductKey request, StreamObserver<Product> responseObserver) {
+        ProductDTO product = switch (request.getKeyCase()) {
+            case ID -> productService.getProductById(request.getId());
+            case SKU -> productService.getProductBySku(request.getSku());
+            default -> throw new IllegalArgumentException("The id or the sku is required.");
+        };
+        responseObserver.onNext(mapper.toProto(product));
+        responseObserver.onCompleted();
+    }
+
+    @Override
+    public void getProducts(ProductKeys request, StreamObserver<ProductLookups> responseObserver) {
+        if (request.getIdsCount() > 0 && request.getSkusCount() > 0)
+            throw new IllegalArgumentException("Send ids or skus, not both.");
+        List<ProductLookupDTO> lookups = request.getSkusCount() > 0
+                ? productService.getProductsBySkus(request.getSkusList())
+                : productService.getProductsByIds(request.getIdsList());
+        ProductLookups.Builder response = ProductLookups.newBuilder();
+        lookups.forEach(lookup -> response.addResults(mapper.toProto(lookup)));
+        responseObserver.onNext(response.build());
+        responseObserver.onCompleted();
+    }
+
+    @Override
+    public void syncCatalog(CatalogRequest request, StreamObserver<Product> responseObserver) {
+        int pageSize = request.getPageSize() == 0 ? DEFAULT_PAGE_SIZE : request.getPageSize();
+        if (pageSize < 0 || pageSize > MAX_PAGE_SIZE)
+            throw new IllegalArgumentException("The page size must be between 1 and " + MAX_PAGE_SIZE + ".");
+        ServerCallStreamObserver<Product> observer = (ServerCallStreamObserver<Product>) responseObserver;
+        CatalogStream stream = new CatalogStream(observer, pageSize);
+        observer.setOnCancelHandler(stream::cancel);
+        observer.setOnReadyHandler(stream);
+    }
+
+    @Override
+    public StreamObserver<StockMovement> recordMovements(StreamObserver<MovementSummary> responseObserver) {
+        return new StreamObserver<>() {
+            private final MovementSummary.Builder summary = MovementSummary.newBuilder();
+            private int index;
+
+            @Override
+            public void onNext(StockMovement movement) {
+                int position = index++;
+                try {
+                    apply(movement);
+                    summary.setAccepted(summary.getAccepted() + 1);
+                } catch (RuntimeException ex) {
+                    Status status = GrpcExceptionAdvice.statusOf(ex);
+                    summary.addRejected(RejectedMovement.newBuilder()
+                            .setIndex(position)
+                            .setClientRef(movement.getClientRef())
+                            .setCode(status.getCode().name())
+                            .setMessage(status.getDescription() == null ? "" : status.getDescription()));
+                }
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                // The terminal cancelled; the movements already applied stay applied
+            }
+
+            @Override
+            public void onCompleted() {
+                responseObserver.onNext(summary.build());
+                responseObserver.onCompleted();
+            }
+        };
+    }
+
+    private void apply(StockMovement movement) {
+        if (movement.getQuantity() <= 0)
+            throw new IllegalArgumentException("The quantity must be positive.");
+        if (movement.getReason().isBlank())
+            throw new IllegalArgumentException("The reason cannot be blank.");
+        Long warehouseId = movement.getWarehouseId() == 0 ? null : movement.getWarehouseId();
+        productService.updateStock(movement.getProductId(), warehouseId, movement.getQuantity(),
+                mapper.toMovementType(movement.getType()), movement.getReason());
+    }
+
+    /**
+     * Sends while the transport is ready and reads the next page only when the current one is
+     * sent, so a slow terminal holds one page in memory instead of the whole catalog.
+     */
+    private final class CatalogStream implements Runnable {
+        private final ServerCallStreamObserver<Product> observer;
+        private final int pageSize;
+        private Iterator<ProductDTO> current = Collections.emptyIterator();
+        private long lastId;
+        private boolean lastPage;
+        private volatile boolean done;
+
+        CatalogStream(ServerCallStreamObserver<Product> observer, int pageSize) {
+            this.observer = observer;
+            this.pageSize = pageSize;
+        }
+
+        // Called by gRPC, one at a time, whenever the outbound buffer drains
+        @Override
+        public void run() {
+            if (done)
+                return;
+            try {
+                while (observer.isReady()) {
+                    if (!current.hasNext()) {
+                        if (lastPage) {
+                            done = true;
+                            observer.onCompleted();
+                            return;
+                        }
+                        // Keyset on the id: a short page is the last one
+                        List<ProductDTO> page = productService.getCatalogAfter(lastId, pageSize);
+                        current = page.iterator();
+                        lastPage = page.size() < pageSize;
+                        continue;
+                    }
+                    ProductDTO product = current.next();
+                    lastId = product.getId();
+                    observer.onNext(mapper.toProto(product));
+                }
+            } catch (RuntimeException ex) {
+                done = true;
+                observer.onError(GrpcExceptionAdvice.statusOf(ex).asRuntimeException());
+            }
+        }
+
+        void cancel() {
+            done = true;
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.inventario.grpc;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.ZoneId;
+
+import org.springframework.stereotype.Component;
+
+import com.inventario.dtos.ProductDTO;
+import com.inventario.dtos.ProductLookupDTO;
+import com.inventario.enums.MovementType;
+import com.inventario.grpc.v1.Product;
+import com.inventario.grpc.v1.ProductLookup;
+
+/**
+ * DTOs to protobuf messages. Written by hand: MapStruct does not know the protobuf builders,
+ * and the compact encodings (cents, enum numbers, epoch millis) are explicit here.
+ */
+@Component
+public class ProductProtoMapper {
+    public Product toProto(ProductDTO dto) {
+        Product.Builder builder = Product.newBuilder()
+                .setId(dto.getId())
+                .setName(dto.getName())
+                .setSku(dto.getSku());
+        if (dto.getDescription() != null)
+            builder.setDescription(dto.getDescription());
+        if (dto.getPrice() != null)
+            builder.setPriceCents(toCents(dto.getPrice()));
+        if (dto.getStockMin() != null)
+            builder.setStockMin(dto.getStockMin());
+        if (dto.getAmount() != null)
+            builder.setAmount(dto.getAmount());
+        if (dto.getCategory() != null)
+            // Category numbers in the proto are the ordinal + 1
+            builder.setCategoryValue(dto.getCategory().ordinal() + 1);
+        if (dto.getDateOfLastActualization() != null)
+            builder.setUpdatedAt(dto.getDateOfLastActualization().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+        return builder.build();
+    }
+
+    public ProductLookup toProto(ProductLookupDTO lookup) {
+        ProductLookup.Builder builder = ProductLookup.newBuilder().setKey(lookup.key());
+        if (lookup.found())
+            builder.setProduct(toProto(lookup.product()));
+        return builder.build();
+    }
+
+    public MovementType toMovementType(com.inventario.grpc.v1.MovementType type) {
+        return switch (type) {
+            case ENTRADA -> MovementType.ENTRADA;
+            case SALIDA -> MovementType.SALIDA;
+            case AJUSTE -> MovementType.AJUSTE;
+            default -> throw new IllegalArgumentException("The movement type is required.");
+        };
+    }
+
+    static long toCents(BigDecimal price) {
+        return price.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+}
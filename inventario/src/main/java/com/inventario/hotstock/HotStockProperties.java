@@ -0,0 +1,25 @@
+package com.inventario.hotstock;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "inventario.hot-stock")
+public record HotStockProperties(
+        @DefaultValue("false") boolean enabled,
+        // The hash tag keeps the counters and the stream in one slot, so one script can touch both
+        @DefaultValue("inventario:{hot-stock}:") String keyPrefix,
+        @DefaultValue("write-behind") String consumerGroup,
+        // Empty: the host name, so a restarted instance finds its own pending entries
+        @DefaultValue("") String consumerName,
+        @DefaultValue("1s") Duration flushInterval,
+        // Stream entries per read and per write-behind transaction
+        @DefaultValue("1000") int batchSize,
+        // Entries pending this long on another consumer are taken over (instance gone)
+        @DefaultValue("1m") Duration claimIdle,
+        // Deliveries of a failing batch before its entries are retried one by one and the ones
+        // that break a constraint go to the dead-letter stream
+        @DefaultValue("5") int maxDeliveries,
+        @DefaultValue("5s") Duration registryRefresh) {
+}
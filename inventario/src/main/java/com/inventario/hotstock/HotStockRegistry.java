@@ -0,0 +1,54 @@
+package com.inventario.hotstock;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.inventario.model.Warehouse;
+import com.inventario.repository.WarehouseStockRepository;
+
+/**
+ * Local view of the hot products, used to route movements without a query. It only has to be
+ * close: a product missing here is rejected by the hot guard of the SQL update, and a product
+ * demoted elsewhere finds no Redis counter and falls back to the database.
+ */
+@Component
+public class HotStockRegistry {
+    private final WarehouseStockRepository warehouseStockRepository;
+    private final HotStockProperties properties;
+    private volatile Set<Long> hot = Set.of();
+
+    public HotStockRegistry(WarehouseStockRepository warehouseStockRepository, HotStockProperties properties) {
+        this.warehouseStockRepository = warehouseStockRepository;
+        this.properties = properties;
+    }
+
+    public boolean contains(Long productId) {
+        return hot.contains(productId);
+    }
+
+    public Set<Long> snapshot() {
+        return hot;
+    }
+
+    public void add(Long productId) {
+        Set<Long> next = new HashSet<>(hot);
+        next.add(productId);
+        hot = Set.copyOf(next);
+    }
+
+    public void remove(Long productId) {
+        Set<Long> next = new HashSet<>(hot);
+        next.remove(productId);
+        hot = Set.copyOf(next);
+    }
+
+    // Promotions and demotions made by other instances
+    @Scheduled(fixedDelayString = "${inventario.hot-stock.registry-refresh:5s}")
+    public void refresh() {
+        if (properties.enabled())
+            hot = Set.copyOf(warehouseStockRepository.findHotProductIds(Warehouse.DEFAULT_ID));
+    }
+}
@@ -0,0 +1,224 @@
+package com.inventario.hotstock;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.data.domain.Range;
+import org.springframework.data.redis.RedisSystemException;
+import org.springframework.data.redis.connection.stream.Consumer;
+import org.springframework.data.redis.connection.stream.MapRecord;
+import org.springframework.data.redis.connection.stream.PendingMessage;
+import org.springframework.data.redis.connection.stream.PendingMessages;
+import org.springframework.data.redis.connection.stream.ReadOffset;
+import org.springframework.data.redis.connection.stream.RecordId;
+import org.springframework.data.redis.connection.stream.StreamOffset;
+import org.springframework.data.redis.connection.stream.StreamReadOptions;
+import org.springframework.data.redis.connection.stream.StreamRecords;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import com.inventario.enums.MovementType;
+
+/**
+ * Redis side of the hot stock: one counter per hot product and one stream with a ledger entry
+ * per accepted movement. The check, the change and the XADD run in one Lua script, so a
+ * movement is either applied and logged or not applied at all.
+ */
+@Component
+public class HotStockStore {
+    public static final long NOT_HOT = -2;
+    public static final long INSUFFICIENT = -1;
+
+    static final String FIELD_PRODUCT = "productId";
+    static final String FIELD_AMOUNT = "amount";
+    static final String FIELD_TYPE = "type";
+    static final String FIELD_REASON = "reason";
+    static final String FIELD_AT = "at";
+    static final String FIELD_ENTRY = "entryId";
+    static final String FIELD_ERROR = "error";
+
+    private static final RedisScript<Long> APPLY = new DefaultRedisScript<>("""
+            local current = redis.call('GET', KEYS[1])
+            if not current then return -2 end
+            local quantity = tonumber(ARGV[2])
+            if ARGV[3] == 'SALIDA' then
+                if tonumber(current) < quantity then return -1 end
+                current = redis.call('DECRBY', KEYS[1], quantity)
+            else
+                current = redis.call('INCRBY', KEYS[1], quantity)
+            end
+            redis.call('XADD', KEYS[2], '*', 'productId', ARGV[1], 'amount', ARGV[2], 'type', ARGV[3],
+                'reason', ARGV[4], 'at', ARGV[5])
+            return current
+            """, Long.class);
+
+    // Returns the last quantity; later movements find no counter and go to the database
+    private static final RedisScript<Long> REMOVE = new DefaultRedisScript<>("""
+            local current = redis.call('GET', KEYS[1])
+            if not current then return -2 end
+            redis.call('DEL', KEYS[1])
+            return tonumber(current)
+            """, Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final HotStockProperties properties;
+    private final String streamKey;
+    private final String deadLetterKey;
+
+    public HotStockStore(StringRedisTemplate redisTemplate, HotStockProperties properties) {
+        this.redisTemplate = redisTemplate;
+        this.properties = properties;
+        this.streamKey = properties.keyPrefix() + "ledger";
+        this.deadLetterKey = properties.keyPrefix() + "ledger-dead";
+    }
+
+    String counterKey(long productId) {
+        return properties.keyPrefix() + "qty:" + productId;
+    }
+
+    /**
+     * @return the new quantity, {@link #INSUFFICIENT} or {@link #NOT_HOT}
+     */
+    public long apply(long productId, int quantity, MovementType movementType, String reason, Instant at) {
+        Long result = redisTemplate.execute(APPLY, List.of(counterKey(productId), streamKey),
+                Long.toString(productId), Integer.toString(quantity), movementType.name(), reason,
+                Long.toString(at.toEpochMilli()));
+        return result == null ? NOT_HOT : result;
+    }
+
+    public void set(long productId, long amount) {
+        redisTemplate.opsForValue().set(counterKey(productId), Long.toString(amount));
+    }
+
+    public boolean setIfAbsent(long productId, long amount) {
+        return Boolean.TRUE.equals(redisTemplate.opsForValue().setIfAbsent(counterKey(productId), Long.toString(amount)));
+    }
+
+    public long remove(long productId) {
+        Long result = redisTemplate.execute(REMOVE, List.of(counterKey(productId)));
+        return result == null ? NOT_HOT : result;
+    }
+
+    public Map<Long, Long> getAll(Collection<Long> productIds) {
+        Map<Long, Long> found = new HashMap<>();
+        if (productIds.isEmpty())
+            return found;
+        List<Long> ordered = new ArrayList<>(productIds);
+        List<String> values = redisTemplate.opsForValue().multiGet(ordered.stream().map(this::counterKey).toList());
+        for (int i = 0; values != null && i < values.size(); i++) {
+            if (values.get(i) != null)
+                found.put(ordered.get(i), Long.parseLong(values.get(i)));
+        }
+        return found;
+    }
+
+    public Set<Long> scanProductIds() {
+        Set<Long> ids = new HashSet<>();
+        String prefix = properties.keyPrefix() + "qty:";
+        try (Cursor<String> cursor = redisTemplate.scan(ScanOptions.scanOptions().match(prefix + "*").count(500).build())) {
+            cursor.forEachRemaining(key -> ids.add(Long.parseLong(key.substring(prefix.length()))));
+        }
+        return ids;
+    }
+
+    /*
+     * Ledger stream
+     */
+
+    public void ensureGroup() {
+        try {
+            // MKSTREAM: the group can be created before the first movement
+            redisTemplate.execute((RedisCallback<String>) connection -> connection.streamCommands().xGroupCreate(
+                    streamKey.getBytes(StandardCharsets.UTF_8), properties.consumerGroup(), ReadOffset.from("0"), true));
+        } catch (RedisSystemException ex) {
+            // BUSYGROUP: created by this or another instance
+        }
+    }
+
+    // pending = true re-reads the entries delivered to this consumer but never acknowledged
+    public List<MapRecord<String, Object, Object>> read(String consumer, boolean pending) {
+        List<MapRecord<String, Object, Object>> records = redisTemplate.opsForStream().read(
+                Consumer.from(properties.consumerGroup(), consumer),
+                StreamReadOptions.empty().count(properties.batchSize()),
+                StreamOffset.create(streamKey, pending ? ReadOffset.from("0") : ReadOffset.lastConsumed()));
+        return records == null ? List.of() : records;
+    }
+
+    public List<MapRecord<String, Object, Object>> claimStale(String consumer, Duration minIdle) {
+        var pending = redisTemplate.opsForStream().pending(streamKey, properties.consumerGroup(), Range.unbounded(),
+                properties.batchSize());
+        List<RecordId> stale = new ArrayList<>();
+        for (PendingMessage message : pending) {
+            if (!message.getConsumerName().equals(consumer)
+                    && message.getElapsedTimeSinceLastDelivery().compareTo(minIdle) >= 0)
+                stale.add(message.getId());
+        }
+        if (stale.isEmpty())
+            return List.of();
+        return redisTemplate.opsForStream().claim(streamKey, properties.consumerGroup(), consumer, minIdle,
+                stale.toArray(RecordId[]::new));
+    }
+
+    // Most times any of the entries was delivered to the consumer; re-reads and claims count
+    public long deliveries(String consumer, Collection<RecordId> ids) {
+        if (ids.isEmpty())
+            return 0;
+        Comparator<RecordId> order = Comparator.comparingLong(RecordId::getTimestamp)
+                .thenComparingLong(RecordId::getSequence);
+        PendingMessages pending = redisTemplate.opsForStream().pending(streamKey,
+                Consumer.from(properties.consumerGroup(), consumer),
+                Range.closed(Collections.min(ids, order).getValue(), Collections.max(ids, order).getValue()),
+                ids.size());
+        long deliveries = 0;
+        for (PendingMessage message : pending) {
+            if (ids.contains(message.getId()))
+                deliveries = Math.max(deliveries, message.getTotalDeliveryCount());
+        }
+        return deliveries;
+    }
+
+    // Entries no retry can apply leave the ledger stream for the dead-letter one, with the error
+    public void deadLetter(MapRecord<String, Object, Object> record, String error) {
+        Map<String, String> fields = new LinkedHashMap<>();
+        record.getValue().forEach((field, value) -> fields.put((String) field, (String) value));
+        fields.put(FIELD_ENTRY, record.getId().getValue());
+        fields.put(FIELD_ERROR, error == null ? "" : error);
+        redisTemplate.opsForStream().add(StreamRecords.string(fields).withStreamKey(deadLetterKey));
+        acknowledge(List.of(record.getId()));
+    }
+
+    public long deadLetters() {
+        Long size = redisTemplate.opsForStream().size(deadLetterKey);
+        return size == null ? 0 : size;
+    }
+
+    // Applied entries are acknowledged and removed, so the stream only holds the backlog
+    public void acknowledge(Collection<RecordId> ids) {
+        if (ids.isEmpty())
+            return;
+        RecordId[] array = ids.toArray(RecordId[]::new);
+        redisTemplate.opsForStream().acknowledge(streamKey, properties.consumerGroup(), array);
+        redisTemplate.opsForStream().delete(streamKey, array);
+    }
+
+    public long backlog() {
+        Long size = redisTemplate.opsForStream().size(streamKey);
+        return size == null ? 0 : size;
+    }
+}
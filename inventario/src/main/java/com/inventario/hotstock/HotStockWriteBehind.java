@@ -0,0 +1,219 @@
+package com.inventario.hotstock;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.redis.connection.stream.MapRecord;
+import org.springframework.data.redis.connection.stream.RecordId;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.inventario.enums.MovementType;
+import com.inventario.model.Warehouse;
+import com.inventario.repository.WarehouseStockRepository;
+
+/**
+ * Moves the hot stock ledger from the Redis stream to the database. Each read becomes one
+ * transaction: the movements of a product are summed into a single delta on its default
+ * warehouse row and the ledger rows are inserted in one batch. Entries carry their stream id
+ * into stock_manager (unique), so an entry delivered twice, after a crash between commit and
+ * XACK or a takeover from a dead instance, is skipped instead of applied again. A batch that
+ * has failed on {@code maxDeliveries} deliveries is applied one entry per transaction, and the
+ * entries that break a constraint (a SALIDA below zero, a missing reason) are moved to the
+ * dead-letter stream so they do not hold back every product behind them.
+ */
+@Component
+public class HotStockWriteBehind {
+    private static final Logger log = LoggerFactory.getLogger(HotStockWriteBehind.class);
+
+    private final HotStockStore store;
+    private final WarehouseStockRepository warehouseStockRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final CacheManager cacheManager;
+    private final HotStockProperties properties;
+    private final String consumer;
+    private final ReentrantLock lock = new ReentrantLock();
+    private volatile boolean groupReady;
+    private volatile boolean pendingRecovered;
+
+    record Entry(RecordId id, long productId, int amount, MovementType type, String reason, LocalDateTime at) {
+    }
+
+    public HotStockWriteBehind(HotStockStore store, WarehouseStockRepository warehouseStockRepository,
+            JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate, CacheManager cacheManager,
+            HotStockProperties properties) {
+        this.store = store;
+        this.warehouseStockRepository = warehouseStockRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.cacheManager = cacheManager;
+        this.properties = properties;
+        this.consumer = properties.consumerName().isBlank() ? hostName() : properties.consumerName();
+    }
+
+    private static String hostName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException ex) {
+            return "inventario";
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${inventario.hot-stock.flush-interval:1s}")
+    public void scheduledFlush() {
+        if (properties.enabled())
+            drain();
+    }
+
+    /**
+     * Applies everything this instance can read now: its own unacknowledged entries (once after
+     * start or after a failure), entries abandoned by other consumers, then new entries until
+     * a read comes back short.
+     *
+     * @return the number of entries applied to the database
+     */
+    public int drain() {
+        lock.lock();
+        try {
+            if (!groupReady) {
+                store.ensureGroup();
+                groupReady = true;
+            }
+            int applied = 0;
+            if (!pendingRecovered) {
+                List<MapRecord<String, Object, Object>> pending;
+                do {
+                    pending = store.read(consumer, true);
+                    applied += process(pending);
+                } while (!pending.isEmpty());
+                pendingRecovered = true;
+            }
+            applied += process(store.claimStale(consumer, properties.claimIdle()));
+            List<MapRecord<String, Object, Object>> records;
+            do {
+                records = store.read(consumer, false);
+                applied += process(records);
+            } while (records.size() >= properties.batchSize());
+            return applied;
+        } catch (DataAccessException ex) {
+            // Entries stay pending and are read again on the next run
+            pendingRecovered = false;
+            log.warn("Hot stock write-behind failed, retrying next run: {}", ex.getMessage());
+            return 0;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private int process(List<MapRecord<String, Object, Object>> records) {
+        List<MapRecord<String, Object, Object>> readable = new ArrayList<>(records.size());
+        List<Entry> entries = new ArrayList<>(records.size());
+        for (MapRecord<String, Object, Object> record : records) {
+            try {
+                entries.add(toEntry(record));
+                readable.add(record);
+            } catch (RuntimeException ex) {
+                // No retry will parse it
+                deadLetter(record, ex.toString());
+            }
+        }
+        if (entries.isEmpty())
+            return 0;
+
+        int applied;
+        try {
+            applied = applyAndAcknowledge(entries);
+        } catch (DataAccessException ex) {
+            if (store.deliveries(consumer, entries.stream().map(Entry::id).toList()) < properties.maxDeliveries())
+                throw ex;
+            applied = 0;
+            for (int i = 0; i < entries.size(); i++) {
+                try {
+                    applied += applyAndAcknowledge(List.of(entries.get(i)));
+                } catch (DataIntegrityViolationException poison) {
+                    deadLetter(readable.get(i), poison.getMostSpecificCause().getMessage());
+                }
+            }
+        }
+
+        Cache history = cacheManager.getCache("stockHistory");
+        if (history != null)
+            entries.stream().map(Entry::productId).distinct().forEach(history::evict);
+        return applied;
+    }
+
+    private int applyAndAcknowledge(List<Entry> entries) {
+        Integer applied = transactionTemplate.execute(status -> apply(entries));
+        store.acknowledge(entries.stream().map(Entry::id).toList());
+        return applied == null ? 0 : applied;
+    }
+
+    private void deadLetter(MapRecord<String, Object, Object> record, String error) {
+        log.error("Hot stock ledger entry {} moved to the dead-letter stream: {} {}", record.getId(), record.getValue(),
+                error);
+        store.deadLetter(record, error);
+    }
+
+    private int apply(List<Entry> entries) {
+        List<String> ids = entries.stream().map(entry -> entry.id().getValue()).toList();
+        Set<String> done = new HashSet<>(jdbcTemplate.queryForList(
+                "SELECT stream_entry_id FROM stock_manager WHERE stream_entry_id IN ("
+                        + String.join(",", Collections.nCopies(ids.size(), "?")) + ")",
+                String.class, ids.toArray()));
+        List<Entry> fresh = entries.stream().filter(entry -> !done.contains(entry.id().getValue())).toList();
+        if (fresh.isEmpty())
+            return 0;
+
+        Map<Long, Integer> deltas = new LinkedHashMap<>();
+        for (Entry entry : fresh) {
+            int delta = entry.type() == MovementType.SALIDA ? -entry.amount() : entry.amount();
+            deltas.merge(entry.productId(), delta, Integer::sum);
+        }
+        LocalDateTime now = LocalDateTime.now();
+        deltas.forEach((productId, delta) -> {
+            if (delta != 0)
+                warehouseStockRepository.applyDelta(productId, Warehouse.DEFAULT_ID, delta, now);
+        });
+
+        List<Object[]> rows = new ArrayList<>(fresh.size());
+        for (Entry entry : fresh) {
+            rows.add(new Object[] { entry.productId(), Warehouse.DEFAULT_ID, entry.amount(), entry.type().name(),
+                    entry.reason(), Timestamp.valueOf(entry.at()), entry.id().getValue() });
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO stock_manager (product_id, warehouse_id, amount, movement_type, reason, "
+                + "created_at, stream_entry_id) VALUES (?, ?, ?, ?, ?, ?, ?)", rows);
+        return fresh.size();
+    }
+
+    private static Entry toEntry(MapRecord<String, Object, Object> record) {
+        Map<Object, Object> value = record.getValue();
+        return new Entry(record.getId(),
+                Long.parseLong((String) value.get(HotStockStore.FIELD_PRODUCT)),
+                Integer.parseInt((String) value.get(HotStockStore.FIELD_AMOUNT)),
+                MovementType.valueOf((String) value.get(HotStockStore.FIELD_TYPE)),
+                (String) value.get(HotStockStore.FIELD_REASON),
+                LocalDateTime.ofInstant(Instant.ofEpochMilli(Long.parseLong((String) value.get(HotStockStore.FIELD_AT))),
+                        ZoneId.systemDefault()));
+    }
+}
@@ -0,0 +1,72 @@
+package com.inventario.jfr;
+
+import java.util.Collection;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * One operation on the shared (Redis) caches. Multi-key operations are one event with the
+ * number of keys and hits.
+ */
+@Name("com.inventario.CacheAccess")
+@Label("Cache Access")
+@Category({ "Inventario", "Cache" })
+@Description("Read, write or eviction on a shared cache")
+@StackTrace(false)
+public class CacheAccessEvent extends Event {
+    public static final String GET = "get";
+    // Hits are not known: the duration includes the loader when it runs
+    public static final String GET_OR_LOAD = "getOrLoad";
+    public static final String PUT = "put";
+    public static final String EVICT = "evict";
+    public static final String CLEAR = "clear";
+
+    @Label("Cache Name")
+    String cacheName;
+
+    @Label("Operation")
+    String operation;
+
+    @Label("Key Type")
+    String keyType;
+
+    @Label("Keys")
+    int keys;
+
+    @Label("Hits")
+    int hits;
+
+    public static CacheAccessEvent start() {
+        CacheAccessEvent event = new CacheAccessEvent();
+        event.begin();
+        return event;
+    }
+
+    public void end(String cacheName, String operation, Object key, boolean hit) {
+        if (!shouldCommit())
+            return;
+        this.cacheName = cacheName;
+        this.operation = operation;
+        this.keyType = key == null ? null : key.getClass().getSimpleName();
+        this.keys = key == null ? 0 : 1;
+        this.hits = hit ? 1 : 0;
+        commit();
+    }
+
+    // Ids and SKUs are never mixed in one call, so the first key gives the type
+    public void end(String cacheName, String operation, Collection<?> keys, int hits) {
+        if (!shouldCommit())
+            return;
+        this.cacheName = cacheName;
+        this.operation = operation;
+        this.keyType = keys.isEmpty() ? null : keys.iterator().next().getClass().getSimpleName();
+        this.keys = keys.size();
+        this.hits = hits;
+        commit();
+    }
+}
@@ -0,0 +1,23 @@
+package com.inventario.jfr;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+@ConfigurationProperties(prefix = "inventario.jfr")
+public record JfrProperties(
+        // Continuous recording started with the application (the jfr profile turns it on)
+        @DefaultValue("false") boolean enabled,
+        // JDK settings file: "default" (~1% overhead) or "profile"
+        @DefaultValue("default") String settings,
+        // Rolling on-disk buffer: whichever limit is reached first drops the oldest chunks
+        @DefaultValue("6h") Duration maxAge,
+        @DefaultValue("512MB") DataSize maxSize,
+        // Cache and SQL events shorter than this are not recorded; stock events always are
+        @DefaultValue("0ms") Duration eventThreshold,
+        @DefaultValue("jfr-dumps") String dumpDirectory,
+        // Older dumps are deleted
+        @DefaultValue("5") int keptDumps) {
+}
@@ -0,0 +1,155 @@
+package com.inventario.jfr;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.text.ParseException;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import com.inventario.dtos.JfrStatusDTO;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+
+/**
+ * The continuous Flight Recorder recording of the application and its dumps. Without it (or
+ * when the JVM was started with -XX:StartFlightRecording) a dump is a snapshot of whatever
+ * recordings are running.
+ */
+@Component
+public class JfrRecorder implements AutoCloseable {
+    private static final Logger log = LoggerFactory.getLogger(JfrRecorder.class);
+    static final String RECORDING_NAME = "inventario-continuous";
+    private static final String DUMP_PREFIX = "inventario-";
+    private static final DateTimeFormatter DUMP_TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    private final JfrProperties properties;
+    private final ReentrantLock lock = new ReentrantLock();
+    private Recording recording;
+
+    public JfrRecorder(JfrProperties properties) {
+        this.properties = properties;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!properties.enabled() || !FlightRecorder.isAvailable())
+            return;
+        lock.lock();
+        try {
+            if (recording != null)
+                return;
+            Recording continuous = new Recording(Configuration.getConfiguration(properties.settings()));
+            continuous.setName(RECORDING_NAME);
+            continuous.setToDisk(true);
+            continuous.setMaxAge(properties.maxAge());
+            continuous.setMaxSize(properties.maxSize().toBytes());
+            continuous.enable(StockMutationEvent.class);
+            continuous.enable(LedgerWriteEvent.class);
+            continuous.enable(CacheAccessEvent.class).withThreshold(properties.eventThreshold());
+            continuous.enable(SqlStatementEvent.class).withThreshold(properties.eventThreshold());
+            continuous.start();
+            recording = continuous;
+            log.info("Flight Recorder running with '{}' settings, keeping {} / {}", properties.settings(),
+                    properties.maxAge(), properties.maxSize());
+        } catch (IOException | ParseException ex) {
+            log.warn("Cannot start the Flight Recorder recording: {}", ex.getMessage());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return the dump file, empty when no recording is running
+     */
+    public Optional<Path> dump() throws IOException {
+        Path directory = Paths.get(properties.dumpDirectory());
+        Files.createDirectories(directory);
+        Path file = directory.resolve(DUMP_PREFIX + LocalDateTime.now().format(DUMP_TIMESTAMP) + ".jfr");
+        lock.lock();
+        try {
+            if (isRunning()) {
+                recording.dump(file);
+            } else {
+                if (!FlightRecorder.isAvailable() || FlightRecorder.getFlightRecorder().getRecordings().isEmpty())
+                    return Optional.empty();
+                try (Recording snapshot = FlightRecorder.getFlightRecorder().takeSnapshot()) {
+                    if (snapshot.getSize() == 0)
+                        return Optional.empty();
+                    snapshot.dump(file);
+                }
+            }
+            deleteOldDumps(directory);
+            return Optional.of(file);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void deleteOldDumps(Path directory) throws IOException {
+        List<Path> dumps = dumps(directory);
+        for (Path old : dumps.subList(0, Math.max(0, dumps.size() - properties.keptDumps())))
+            Files.deleteIfExists(old);
+    }
+
+    // Oldest first: the timestamp in the name sorts by date
+    private static List<Path> dumps(Path directory) throws IOException {
+        if (!Files.isDirectory(directory))
+            return List.of();
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> path.getFileName().toString().startsWith(DUMP_PREFIX)
+                            && path.getFileName().toString().endsWith(".jfr"))
+                    .sorted(Comparator.comparing(path -> path.getFileName().toString()))
+                    .toList();
+        }
+    }
+
+    public JfrStatusDTO status() throws IOException {
+        lock.lock();
+        try {
+            boolean running = isRunning();
+            int recordings = FlightRecorder.isAvailable() ? FlightRecorder.getFlightRecorder().getRecordings().size() : 0;
+            Path directory = Paths.get(properties.dumpDirectory());
+            return new JfrStatusDTO(properties.enabled(), running, properties.settings(),
+                    running ? LocalDateTime.ofInstant(recording.getStartTime(), ZoneId.systemDefault()) : null,
+                    running ? recording.getSize() : 0, properties.maxAge(), properties.maxSize().toBytes(),
+                    running ? recordings - 1 : recordings, directory.toAbsolutePath().toString(),
+                    dumps(directory).stream().map(path -> path.getFileName().toString()).toList());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private boolean isRunning() {
+        return recording != null && recording.getState() == RecordingState.RUNNING;
+    }
+
+    @Override
+    public void close() {
+        lock.lock();
+        try {
+            if (recording != null) {
+                recording.close();
+                recording = null;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+}
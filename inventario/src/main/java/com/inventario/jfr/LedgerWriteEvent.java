@@ -0,0 +1,50 @@
+package com.inventario.jfr;
+
+import com.inventario.enums.MovementType;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("com.inventario.LedgerWrite")
+@Label("Ledger Write")
+@Category({ "Inventario", "Stock" })
+@Description("Movement row saved to the stock ledger (stock_manager)")
+@StackTrace(false)
+public class LedgerWriteEvent extends Event {
+
+    @Label("Product Id")
+    long productId;
+
+    @Label("Warehouse Id")
+    long warehouseId;
+
+    @Label("Movement Type")
+    String movementType;
+
+    @Label("Amount")
+    int amount;
+
+    @Label("Transfer Id")
+    String transferId;
+
+    public static LedgerWriteEvent start() {
+        LedgerWriteEvent event = new LedgerWriteEvent();
+        event.begin();
+        return event;
+    }
+
+    public void end(Long productId, Long warehouseId, MovementType movementType, Integer amount, String transferId) {
+        if (!shouldCommit())
+            return;
+        this.productId = productId == null ? 0 : productId;
+        this.warehouseId = warehouseId == null ? 0 : warehouseId;
+        this.movementType = movementType == null ? null : movementType.name();
+        this.amount = amount == null ? 0 : amount;
+        this.transferId = transferId;
+        commit();
+    }
+}
@@ -0,0 +1,37 @@
+package com.inventario.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+// The statement shape of SqlMetrics: literals and IN lists collapsed, so no values are recorded
+@Name("com.inventario.SqlStatement")
+@Label("SQL Statement")
+@Category({ "Inventario", "Database" })
+@Description("JDBC execute call, without fetching the rows")
+@StackTrace(false)
+public class SqlStatementEvent extends Event {
+
+    @Label("Statement")
+    String statement;
+
+    @Label("Method")
+    String method;
+
+    public static SqlStatementEvent start() {
+        SqlStatementEvent event = new SqlStatementEvent();
+        event.begin();
+        return event;
+    }
+
+    public void end(String statement, String method) {
+        if (!shouldCommit())
+            return;
+        this.statement = statement;
+        this.method = method;
+        commit();
+    }
+}
@@ -0,0 +1,73 @@
+package com.inventario.jfr;
+
+import com.inventario.enums.MovementType;
+import com.inventario.exceptions.HotStockBusyException;
+import com.inventario.exceptions.InsufficientStockException;
+import com.inventario.exceptions.ProductNotFoundException;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * One call to {@code ProductService.updateStock}. The duration covers the service method, not
+ * the commit of the caller's transaction.
+ */
+@Name("com.inventario.StockMutation")
+@Label("Stock Mutation")
+@Category({ "Inventario", "Stock" })
+@Description("Stock movement applied (or rejected) by the product service")
+@StackTrace(false)
+public class StockMutationEvent extends Event {
+    public static final String APPLIED = "APPLIED";
+    // Applied on the Redis counter, the ledger row is written behind
+    public static final String APPLIED_HOT = "APPLIED_HOT";
+    public static final String FAILED = "FAILED";
+
+    @Label("Product Id")
+    long productId;
+
+    @Label("Warehouse Id")
+    long warehouseId;
+
+    @Label("Movement Type")
+    String movementType;
+
+    @Label("Quantity")
+    int quantity;
+
+    @Label("Outcome")
+    String outcome;
+
+    public static StockMutationEvent start() {
+        StockMutationEvent event = new StockMutationEvent();
+        event.begin();
+        return event;
+    }
+
+    public void end(Long productId, Long warehouseId, MovementType movementType, Integer quantity, String outcome) {
+        if (!shouldCommit())
+            return;
+        this.productId = productId == null ? 0 : productId;
+        this.warehouseId = warehouseId == null ? 0 : warehouseId;
+        this.movementType = movementType == null ? null : movementType.name();
+        this.quantity = quantity == null ? 0 : quantity;
+        this.outcome = outcome;
+        commit();
+    }
+
+    public static String outcomeOf(RuntimeException ex) {
+        if (ex instanceof ProductNotFoundException)
+            return "NOT_FOUND";
+        if (ex instanceof InsufficientStockException)
+            return "INSUFFICIENT_STOCK";
+        if (ex instanceof HotStockBusyException)
+            return "BUSY";
+        if (ex instanceof IllegalArgumentException)
+            return "INVALID";
+        return FAILED;
+    }
+}
@@ -0,0 +1,51 @@
+package com.inventario.maintenance;
+
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+import com.inventario.bulkhead.BulkheadPools;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+
+/**
+ * Tells the background jobs when requests are waiting for a pooled connection, so they back
+ * off. With bulkheads the jobs get their connections from the background pool and never queue
+ * behind requests, so the pools checked are the ones of the endpoint classes; without them the
+ * application has a single pool.
+ */
+@Component
+public class ConnectionPressure {
+    private final List<HikariDataSource> requestPools;
+
+    public ConnectionPressure(DataSource dataSource, ObjectProvider<BulkheadPools> bulkheadPools) {
+        BulkheadPools pools = bulkheadPools.getIfAvailable();
+        if (pools != null)
+            this.requestPools = List.copyOf(pools.partitions().values());
+        else
+            this.requestPools = singlePool(dataSource);
+    }
+
+    private static List<HikariDataSource> singlePool(DataSource dataSource) {
+        try {
+            return dataSource.isWrapperFor(HikariDataSource.class)
+                    ? List.of(dataSource.unwrap(HikariDataSource.class))
+                    : List.of();
+        } catch (Exception ex) {
+            return List.of();
+        }
+    }
+
+    // The pool MXBean is null until the pool opens its first connection
+    public boolean requestsWaiting() {
+        for (HikariDataSource pool : requestPools) {
+            HikariPoolMXBean bean = pool.getHikariPoolMXBean();
+            if (bean != null && bean.getThreadsAwaitingConnection() > 0)
+                return true;
+        }
+        return false;
+    }
+}
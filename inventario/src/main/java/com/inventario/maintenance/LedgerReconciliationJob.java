@@ -0,0 +1,291 @@
+package com.inventario.maintenance;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.inventario.dtos.StockDiscrepancyDTO;
+import com.inventario.enums.DiscrepancyType;
+import com.inventario.model.Warehouse;
+import com.inventario.warehouse.StockTotalsRollup;
+
+/**
+ * Checks the stored stock against the ledger. For every location the expected amount is the
+ * sum of its movements (SALIDA negative, ENTRADA and AJUSTE as recorded; rows from before
+ * warehouses count for the default one), and products.amount is expected to be the sum of the
+ * locations.
+ *
+ * Products are split in id ranges that a few workers take in parallel. Each range is read in
+ * one short read-only REPEATABLE READ transaction, so the stock rows, the ledger sums and the
+ * totals come from the same snapshot. Workers throttle themselves like the purge: they pause to
+ * stay within {@code dutyCycle} and back off while requests wait for a pooled connection.
+ *
+ * With repair, a location whose ledger is off gets an AJUSTE of the difference, written under
+ * the row lock after checking again: the stored amount is kept and the ledger is aligned with
+ * it. Totals off are left to {@link StockTotalsRollup}, which recomputes them.
+ */
+@Component
+public class LedgerReconciliationJob {
+    private static final Logger log = LoggerFactory.getLogger(LedgerReconciliationJob.class);
+    static final String ADJUSTMENT_REASON = "Reconciliation: ledger aligned with the stored stock";
+    private static final String LEDGER_SUM = "SUM(CASE WHEN movement_type = 'SALIDA' THEN -amount ELSE amount END)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate snapshotTemplate;
+    private final StockTotalsRollup stockTotalsRollup;
+    private final ReconciliationProperties properties;
+    private final ConnectionPressure connectionPressure;
+
+    public LedgerReconciliationJob(DataSource dataSource, TransactionTemplate transactionTemplate,
+            StockTotalsRollup stockTotalsRollup, ReconciliationProperties properties,
+            ConnectionPressure connectionPressure) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.transactionTemplate = transactionTemplate;
+        this.snapshotTemplate = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        this.snapshotTemplate.setReadOnly(true);
+        this.snapshotTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.stockTotalsRollup = stockTotalsRollup;
+        this.properties = properties;
+        this.connectionPressure = connectionPressure;
+    }
+
+    public record Result(long products, long locations, long ledgerDiscrepancies, long totalDiscrepancies,
+            long adjustments, long totalsResynced, List<StockDiscrepancyDTO> discrepancies) {
+    }
+
+    private record Location(long productId, long warehouseId) {
+    }
+
+    private record Snapshot(Map<Location, long[]> locations, Map<Long, Long> totals, Set<Long> pending) {
+    }
+
+    /**
+     * @param adjusted receives the products of every range that got AJUSTE movements, for the
+     *        stock history cache
+     */
+    public Result run(boolean repair, Consumer<List<Long>> adjusted) throws InterruptedException {
+        long[] bounds = jdbcTemplate.queryForObject("SELECT MIN(id), MAX(id) FROM products",
+                (rs, i) -> new long[] { rs.getLong(1), rs.getLong(2) });
+        if (bounds == null || bounds[1] == 0)
+            return new Report(0).result();
+        return run(repair, bounds[0], bounds[1], adjusted);
+    }
+
+    // Only the products with ids in [fromId, toId]
+    public Result run(boolean repair, long fromId, long toId, Consumer<List<Long>> adjusted)
+            throws InterruptedException {
+        Report report = new Report(properties.maxReported());
+        AtomicLong cursor = new AtomicLong(fromId);
+        int workers = Math.max(1, properties.parallelism());
+        ExecutorService executor = Executors.newFixedThreadPool(workers);
+        try {
+            List<Future<?>> futures = new ArrayList<>(workers);
+            for (int i = 0; i < workers; i++)
+                futures.add(executor.submit(() -> {
+                    work(cursor, toId, repair, report, adjusted);
+                    return null;
+                }));
+            for (Future<?> future : futures)
+                future.get();
+        } catch (ExecutionException ex) {
+            throw ex.getCause() instanceof RuntimeException runtime ? runtime
+                    : new IllegalStateException("Reconciliation failed", ex.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+        Result result = report.result();
+        log.info("Reconciliation checked {} products and {} locations: {} ledger and {} total discrepancies, {} adjustments",
+                result.products(), result.locations(), result.ledgerDiscrepancies(), result.totalDiscrepancies(),
+                result.adjustments());
+        return result;
+    }
+
+    private void work(AtomicLong cursor, long maxId, boolean repair, Report report, Consumer<List<Long>> adjusted)
+            throws InterruptedException {
+        long pauseMillis = 0;
+        long maxPause = properties.maxPause().toMillis();
+        while (!Thread.currentThread().isInterrupted()) {
+            long from = cursor.getAndAdd(properties.chunkSize());
+            if (from > maxId)
+                return;
+            long to = Math.min(maxId, from + properties.chunkSize() - 1);
+
+            long start = System.nanoTime();
+            List<Long> adjustedProducts = reconcile(from, to, repair, report);
+            long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+            if (!adjustedProducts.isEmpty())
+                adjusted.accept(adjustedProducts);
+
+            pauseMillis = connectionPressure.requestsWaiting() ? Math.min(maxPause, Math.max(pauseMillis * 2, 100)) : 0;
+            long dutyPause = (long) (elapsedMillis * (1 / properties.dutyCycle() - 1));
+            Thread.sleep(Math.min(maxPause, Math.max(pauseMillis, dutyPause)));
+        }
+    }
+
+    private List<Long> reconcile(long from, long to, boolean repair, Report report) {
+        Snapshot snapshot = snapshotTemplate.execute(status -> read(from, to));
+        List<StockDiscrepancyDTO> found = new ArrayList<>();
+
+        Map<Long, Long> locationTotals = new HashMap<>();
+        snapshot.locations().forEach((location, amounts) -> {
+            locationTotals.merge(location.productId(), amounts[0], Long::sum);
+            if (amounts[0] != amounts[1])
+                found.add(new StockDiscrepancyDTO(location.productId(), location.warehouseId(), DiscrepancyType.LEDGER,
+                        amounts[1], amounts[0], amounts[0] - amounts[1]));
+        });
+        // A product waiting for the rollup is expected to be behind its locations
+        snapshot.totals().forEach((productId, total) -> {
+            long expected = locationTotals.getOrDefault(productId, 0L);
+            if (total != expected && !snapshot.pending().contains(productId))
+                found.add(new StockDiscrepancyDTO(productId, null, DiscrepancyType.TOTAL, expected, total,
+                        total - expected));
+        });
+
+        List<Long> adjustedProducts = new ArrayList<>();
+        List<Long> staleTotals = new ArrayList<>();
+        long adjustments = 0;
+        if (repair) {
+            for (StockDiscrepancyDTO discrepancy : found) {
+                if (discrepancy.type() == DiscrepancyType.TOTAL) {
+                    staleTotals.add(discrepancy.productId());
+                } else if (Boolean.TRUE.equals(transactionTemplate.execute(status -> adjust(discrepancy)))) {
+                    adjustedProducts.add(discrepancy.productId());
+                    adjustments++;
+                }
+            }
+            stockTotalsRollup.resync(staleTotals);
+        }
+        report.add(snapshot.totals().size(), snapshot.locations().size(), found, adjustments, staleTotals.size());
+        return adjustedProducts;
+    }
+
+    private Snapshot read(long from, long to) {
+        Map<Location, long[]> locations = new HashMap<>();
+        Set<Long> pending = new HashSet<>();
+        jdbcTemplate.query("SELECT product_id, warehouse_id, amount, totals_pending FROM warehouse_stock " +
+                "WHERE product_id BETWEEN ? AND ?",
+                rs -> {
+                    locations.computeIfAbsent(new Location(rs.getLong(1), rs.getLong(2)), key -> new long[2])[0] =
+                            rs.getLong(3);
+                    if (rs.getBoolean(4))
+                        pending.add(rs.getLong(1));
+                }, from, to);
+        jdbcTemplate.query("SELECT product_id, COALESCE(warehouse_id, ?), " + LEDGER_SUM + " FROM stock_manager " +
+                "WHERE product_id BETWEEN ? AND ? GROUP BY product_id, COALESCE(warehouse_id, ?)",
+                rs -> {
+                    locations.computeIfAbsent(new Location(rs.getLong(1), rs.getLong(2)), key -> new long[2])[1] =
+                            rs.getLong(3);
+                }, Warehouse.DEFAULT_ID, from, to, Warehouse.DEFAULT_ID);
+        Map<Long, Long> totals = new HashMap<>();
+        jdbcTemplate.query("SELECT id, amount FROM products WHERE id BETWEEN ? AND ?",
+                rs -> {
+                    totals.put(rs.getLong(1), rs.getLong(2));
+                }, from, to);
+        return new Snapshot(locations, totals, pending);
+    }
+
+    // Under the row lock movements also take, so no movement lands between the check and the AJUSTE
+    private boolean adjust(StockDiscrepancyDTO discrepancy) {
+        List<Long> stored = jdbcTemplate.queryForList(
+                "SELECT amount FROM warehouse_stock WHERE product_id = ? AND warehouse_id = ? FOR UPDATE", Long.class,
+                discrepancy.productId(), discrepancy.warehouseId());
+        Long ledger = jdbcTemplate.queryForObject("SELECT COALESCE(" + LEDGER_SUM + ", 0) FROM stock_manager " +
+                "WHERE product_id = ? AND COALESCE(warehouse_id, ?) = ?", Long.class,
+                discrepancy.productId(), Warehouse.DEFAULT_ID, discrepancy.warehouseId());
+        long difference = (stored.isEmpty() ? 0 : stored.get(0)) - (ledger == null ? 0 : ledger);
+        if (difference == 0)
+            return false;
+        jdbcTemplate.update("INSERT INTO stock_manager (product_id, warehouse_id, amount, movement_type, reason, created_at) " +
+                "VALUES (?, ?, ?, 'AJUSTE', ?, ?)", discrepancy.productId(), discrepancy.warehouseId(),
+                Math.toIntExact(difference), ADJUSTMENT_REASON, Timestamp.valueOf(LocalDateTime.now()));
+        return true;
+    }
+
+    // Counters of the whole run plus the largest discrepancies, shared by the workers
+    private static final class Report {
+        private static final Comparator<StockDiscrepancyDTO> BY_SIZE =
+                Comparator.comparingLong(discrepancy -> Math.abs(discrepancy.difference()));
+
+        private final int maxReported;
+        private final LongAdder products = new LongAdder();
+        private final LongAdder locations = new LongAdder();
+        private final LongAdder ledgerDiscrepancies = new LongAdder();
+        private final LongAdder totalDiscrepancies = new LongAdder();
+        private final LongAdder adjustments = new LongAdder();
+        private final LongAdder totalsResynced = new LongAdder();
+        private final ReentrantLock lock = new ReentrantLock();
+        // Min-heap: the smallest reported discrepancy is the one replaced
+        private final PriorityQueue<StockDiscrepancyDTO> largest = new PriorityQueue<>(BY_SIZE);
+
+        private Report(int maxReported) {
+            this.maxReported = maxReported;
+        }
+
+        private void add(long productCount, long locationCount, List<StockDiscrepancyDTO> found, long adjusted,
+                long resynced) {
+            products.add(productCount);
+            locations.add(locationCount);
+            adjustments.add(adjusted);
+            totalsResynced.add(resynced);
+            for (StockDiscrepancyDTO discrepancy : found) {
+                if (discrepancy.type() == DiscrepancyType.LEDGER)
+                    ledgerDiscrepancies.increment();
+                else
+                    totalDiscrepancies.increment();
+            }
+            if (found.isEmpty() || maxReported <= 0)
+                return;
+            lock.lock();
+            try {
+                for (StockDiscrepancyDTO discrepancy : found) {
+                    if (largest.size() < maxReported) {
+                        largest.add(discrepancy);
+                    } else if (BY_SIZE.compare(discrepancy, largest.peek()) > 0) {
+                        largest.poll();
+                        largest.add(discrepancy);
+                    }
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private Result result() {
+            List<StockDiscrepancyDTO> reported;
+            lock.lock();
+            try {
+                reported = new ArrayList<>(largest);
+            } finally {
+                lock.unlock();
+            }
+            reported.sort(BY_SIZE.reversed());
+            return new Result(products.sum(), locations.sum(), ledgerDiscrepancies.sum(), totalDiscrepancies.sum(),
+                    adjustments.sum(), totalsResynced.sum(), reported);
+        }
+    }
+}
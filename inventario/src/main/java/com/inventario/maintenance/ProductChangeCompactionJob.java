@@ -0,0 +1,107 @@
+package com.inventario.maintenance;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.inventario.changes.ProductChangeProperties;
+import com.inventario.enums.ProductChangeType;
+import com.inventario.model.ProductChangeHorizon;
+
+/**
+ * Keeps product_changes about the size of the catalog. First every row with a later row of the
+ * same product is dropped: a delta carries the current state of each product, and a client
+ * behind the dropped row still finds the later one. Then the tombstones older than the
+ * retention are dropped, moving the horizon past them in the same transaction, so a client
+ * with an older token is told to resync instead of silently missing a delete.
+ */
+@Component
+public class ProductChangeCompactionJob {
+    private static final Logger log = LoggerFactory.getLogger(ProductChangeCompactionJob.class);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ProductChangeProperties properties;
+
+    public ProductChangeCompactionJob(DataSource dataSource, TransactionTemplate transactionTemplate,
+            ProductChangeProperties properties) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.transactionTemplate = transactionTemplate;
+        this.properties = properties;
+    }
+
+    public record Result(int superseded, int tombstones) {
+    }
+
+    public Result run() {
+        int superseded = dropSuperseded();
+        int tombstones = dropExpiredTombstones(LocalDateTime.now().minus(properties.tombstoneRetention()));
+        log.info("Product change compaction dropped {} superseded rows and {} tombstones", superseded, tombstones);
+        return new Result(superseded, tombstones);
+    }
+
+    // One primary key range per transaction; the EXISTS is a lookup on (product_id, id)
+    private int dropSuperseded() {
+        Long maxId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM product_changes", Long.class);
+        if (maxId == null)
+            return 0;
+        int dropped = 0;
+        int step = properties.compactionBatchSize();
+        for (long from = 0; from < maxId && !Thread.currentThread().isInterrupted(); from += step) {
+            long fromId = from;
+            long toId = Math.min(maxId, from + step);
+            Integer deleted = transactionTemplate.execute(status -> delete(jdbcTemplate.queryForList(
+                    "SELECT c.id FROM product_changes c WHERE c.id > ? AND c.id <= ? AND EXISTS " +
+                            "(SELECT 1 FROM product_changes n WHERE n.product_id = c.product_id AND n.id > c.id)",
+                    Long.class, fromId, toId)));
+            dropped += deleted == null ? 0 : deleted;
+        }
+        return dropped;
+    }
+
+    private int dropExpiredTombstones(LocalDateTime cutoff) {
+        int dropped = 0;
+        while (!Thread.currentThread().isInterrupted()) {
+            Integer deleted = transactionTemplate.execute(status -> {
+                List<Long> ids = jdbcTemplate.queryForList(
+                        "SELECT id FROM product_changes WHERE change_type = ? AND changed_at < ? ORDER BY changed_at LIMIT ?",
+                        Long.class, ProductChangeType.DELETED.name(), Timestamp.valueOf(cutoff),
+                        properties.compactionBatchSize());
+                if (ids.isEmpty())
+                    return 0;
+                moveHorizon(Collections.max(ids));
+                return delete(ids);
+            });
+            if (deleted == null || deleted == 0)
+                break;
+            dropped += deleted;
+        }
+        return dropped;
+    }
+
+    private void moveHorizon(long compactedThrough) {
+        int updated = jdbcTemplate.update(
+                "UPDATE product_change_horizon SET compacted_through = GREATEST(compacted_through, ?) WHERE id = ?",
+                compactedThrough, ProductChangeHorizon.ID);
+        // The migration seeds the row; a schema generated from the entities does not
+        if (updated == 0)
+            jdbcTemplate.update("INSERT INTO product_change_horizon (id, compacted_through) VALUES (?, ?)",
+                    ProductChangeHorizon.ID, compactedThrough);
+    }
+
+    private int delete(List<Long> ids) {
+        if (ids.isEmpty())
+            return 0;
+        String in = String.join(",", Collections.nCopies(ids.size(), "?"));
+        return jdbcTemplate.update("DELETE FROM product_changes WHERE id IN (" + in + ")", ids.toArray());
+    }
+}
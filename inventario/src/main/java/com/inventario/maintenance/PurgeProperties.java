@@ -0,0 +1,19 @@
+package com.inventario.maintenance;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "inventario.purge")
+public record PurgeProperties(
+        // Soft-deleted products younger than this stay in products (restorable by hand)
+        @DefaultValue("30d") Duration gracePeriod,
+        @DefaultValue("200") int batchSize,
+        @DefaultValue("20") int minBatchSize,
+        // Share of the wall time the job may keep a connection busy; the rest is spent pausing
+        @DefaultValue("0.25") double dutyCycle,
+        // Batches slower than this halve the batch size
+        @DefaultValue("500ms") Duration targetBatchTime,
+        @DefaultValue("30s") Duration maxPause) {
+}
@@ -0,0 +1,18 @@
+package com.inventario.maintenance;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "inventario.reconciliation")
+public record ReconciliationProperties(
+        // Product ids per chunk; each chunk is read in one short transaction
+        @DefaultValue("1000") int chunkSize,
+        // Chunks reconciled at the same time, each on its own connection
+        @DefaultValue("2") int parallelism,
+        // Share of the wall time each worker may keep a connection busy
+        @DefaultValue("0.25") double dutyCycle,
+        @DefaultValue("30s") Duration maxPause,
+        @DefaultValue("500") int maxReported) {
+}
@@ -0,0 +1,114 @@
+package com.inventario.maintenance;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Moves soft-deleted products older than the grace period to products_archive, oldest first,
+ * one small batch per transaction. For each batch the rows are copied to the archive, their
+ * ledger rows are re-pointed from product_id to archived_product_id, dependent rows are
+ * deleted and finally the products themselves.
+ *
+ * The job throttles itself: after each batch it pauses so that it only works
+ * {@code dutyCycle} of the time, and when a batch is slower than the target or requests are
+ * waiting for a pooled connection, the batch size is halved and the pause doubled. Quick
+ * batches grow the size back additively.
+ */
+@Component
+public class SoftDeletePurgeJob {
+    private static final Logger log = LoggerFactory.getLogger(SoftDeletePurgeJob.class);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final PurgeProperties properties;
+    private final ConnectionPressure connectionPressure;
+
+    public SoftDeletePurgeJob(DataSource dataSource, TransactionTemplate transactionTemplate,
+            PurgeProperties properties, ConnectionPressure connectionPressure) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.transactionTemplate = transactionTemplate;
+        this.properties = properties;
+        this.connectionPressure = connectionPressure;
+    }
+
+    public record Result(long archived, int batches) {
+    }
+
+    /**
+     * @param listener receives id to SKU of every committed batch, for cache invalidation
+     */
+    public Result run(Consumer<Map<Long, String>> listener) throws InterruptedException {
+        LocalDateTime cutoff = LocalDateTime.now().minus(properties.gracePeriod());
+        int batchSize = properties.batchSize();
+        long pauseMillis = 0;
+        long archived = 0;
+        int batches = 0;
+
+        while (!Thread.currentThread().isInterrupted()) {
+            int size = batchSize;
+            long start = System.nanoTime();
+            Map<Long, String> batch = transactionTemplate.execute(status -> archiveBatch(cutoff, size));
+            long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+            if (batch == null || batch.isEmpty())
+                break;
+            archived += batch.size();
+            batches++;
+            listener.accept(batch);
+
+            boolean underPressure = elapsedMillis > properties.targetBatchTime().toMillis() || connectionPressure.requestsWaiting();
+            long maxPause = properties.maxPause().toMillis();
+            if (underPressure) {
+                batchSize = Math.max(properties.minBatchSize(), batchSize / 2);
+                pauseMillis = Math.min(maxPause, Math.max(pauseMillis * 2, 100));
+            } else {
+                batchSize = Math.min(properties.batchSize(), batchSize + properties.minBatchSize());
+                pauseMillis = 0;
+            }
+            long dutyPause = (long) (elapsedMillis * (1 / properties.dutyCycle() - 1));
+            Thread.sleep(Math.min(maxPause, Math.max(pauseMillis, dutyPause)));
+        }
+        log.info("Purge archived {} soft-deleted products in {} batches", archived, batches);
+        return new Result(archived, batches);
+    }
+
+    private Map<Long, String> archiveBatch(LocalDateTime cutoff, int size) {
+        Map<Long, String> keys = new LinkedHashMap<>();
+        jdbcTemplate.query(
+                "SELECT id, sku FROM products WHERE deleted = true AND deleted_at < ? ORDER BY deleted_at LIMIT ? FOR UPDATE",
+                rs -> {
+                    keys.put(rs.getLong(1), rs.getString(2));
+                }, Timestamp.valueOf(cutoff), size);
+        if (keys.isEmpty())
+            return keys;
+        List<Long> ids = List.copyOf(keys.keySet());
+        String in = String.join(",", Collections.nCopies(ids.size(), "?"));
+        Object[] args = ids.toArray();
+        Object[] archiveArgs = new Object[ids.size() + 1];
+        archiveArgs[0] = Timestamp.valueOf(LocalDateTime.now());
+        System.arraycopy(args, 0, archiveArgs, 1, args.length);
+
+        jdbcTemplate.update("INSERT INTO products_archive (id, name, description, amount, stock_min, price, sku, category, " +
+                "date_of_creation, last_actualization_date, deleted_at, archived_at) " +
+                "SELECT id, name, description, amount, stock_min, price, sku, category, date_of_creation, " +
+                "last_actualization_date, deleted_at, ? FROM products WHERE id IN (" + in + ")", archiveArgs);
+        jdbcTemplate.update("UPDATE stock_manager SET archived_product_id = product_id, product_id = NULL " +
+                "WHERE product_id IN (" + in + ")", args);
+        jdbcTemplate.update("DELETE FROM product_forecasts WHERE product_id IN (" + in + ")", args);
+        jdbcTemplate.update("DELETE FROM warehouse_stock WHERE product_id IN (" + in + ")", args);
+        jdbcTemplate.update("DELETE FROM products WHERE id IN (" + in + ")", args);
+        return keys;
+    }
+}
@@ -0,0 +1,10 @@
+package com.inventario.mappers;
+import org.mapstruct.Mapper;
+
+import com.inventario.dtos.ForecastDTO;
+import com.inventario.model.ProductForecast;
+
+@Mapper(componentModel = "spring")
+public interface ForecastMapper {
+    ForecastDTO toDTO(ProductForecast entity);
+}
@@ -16,6 +16,8 @@ public interface ProductMapper {
     @Mapping(target = "dateOfLastActualization", ignore = true)
     @Mapping(target = "dateOfCreation", ignore = true)
     @Mapping(target = "deleted", ignore = true)
+    @Mapping(target = "stockDeficit", ignore = true)
+    @Mapping(target = "deletedAt", ignore = true)
     Product toEntity(ProductCreationDTO dto);
 
     @Mapping (target = "id", ignore = true)
@@ -23,6 +25,8 @@ public interface ProductMapper {
     @Mapping (target = "sku", ignore = true)
     @Mapping (target = "dateOfLastActualization", ignore = true)
     @Mapping(target = "dateOfCreation", ignore = true)
-    @Mapping(target = "deleted", ignore = true)    
+    @Mapping(target = "deleted", ignore = true)
+    @Mapping(target = "stockDeficit", ignore = true)
+    @Mapping(target = "deletedAt", ignore = true)
     void updateEntityFromDto(ProductUpdateDTO dto, @MappingTarget Product entity);
 }
@@ -0,0 +1,16 @@
+package com.inventario.mappers;
+import org.mapstruct.Mapper;
+
+import com.inventario.dtos.LocationStockDTO;
+import com.inventario.dtos.WarehouseDTO;
+import com.inventario.model.Warehouse;
+import com.inventario.model.WarehouseStock;
+
+@Mapper(componentModel = "spring")
+public interface WarehouseMapper {
+    WarehouseDTO toDTO(Warehouse entity);
+
+    default LocationStockDTO toLocationDTO(WarehouseStock entity) {
+        return new LocationStockDTO(entity.getId().getWarehouseId(), entity.getAmount());
+    }
+}
@@ -0,0 +1,54 @@
+package com.inventario.model;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+// Soft-deleted product moved out of products by SoftDeletePurgeJob; read only
+@Entity
+@Table(name = "products_archive")
+@Getter @Setter
+@NoArgsConstructor
+public class ArchivedProduct {
+    @Id
+    private Long id;
+
+    @Column(nullable = false)
+    private String name;
+
+    private String description;
+
+    @Column(nullable = false)
+    private Integer amount;
+
+    @Column(name = "stock_min", nullable = false)
+    private Integer stockMin;
+
+    @Column(nullable = false, precision = 10, scale = 2)
+    private BigDecimal price;
+
+    @Column(nullable = false)
+    private String sku;
+
+    @Column(nullable = false)
+    private String category;
+
+    @Column(name = "date_of_creation", nullable = false)
+    private LocalDateTime dateOfCreation;
+
+    @Column(name = "last_actualization_date")
+    private LocalDateTime dateOfLastActualization;
+
+    @Column(name = "deleted_at")
+    private LocalDateTime deletedAt;
+
+    @Column(name = "archived_at", nullable = false)
+    private LocalDateTime archivedAt;
+}
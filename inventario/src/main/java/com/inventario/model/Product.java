@@ -3,12 +3,17 @@ package com.inventario.model;
 import java.io.Serializable;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.inventario.enums.Category;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.DynamicUpdate;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EntityListeners;
@@ -30,13 +35,23 @@ import lombok.Setter;
 
 @Entity
 @EntityListeners(AuditingEntityListener.class)
+// Only changed columns are written, so edits never overwrite the amount kept by StockTotalsRollup
+@DynamicUpdate
+// Indexes are managed by the Flyway migrations (db/migration)
 @Table(name = "products")
+// Second-level cache: see EntityCacheConfig and ProductEntityCache
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = Product.CACHE_REGION)
 // Entablish Soft delete
 @Getter
 @Setter
 @NoArgsConstructor
 @AllArgsConstructor
 public class Product{
+    public static final String CACHE_REGION = "product";
+    // Query cache region of the id and SKU lookups
+    public static final String LOOKUP_CACHE_REGION = "product-lookups";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -82,6 +97,16 @@ public class Product{
     @Column(nullable = false, columnDefinition = "TINYINT(1) DEFAULT 0")
     private boolean deleted = false;
 
+    // Start of the grace period before the product is moved to products_archive
+    @Column(name = "deleted_at")
+    private LocalDateTime deletedAt;
+
+    // Computed by the database (stock_min - amount) so the low stock query can use an index
+    @JsonIgnore
+    @Column(name = "stock_deficit", insertable = false, updatable = false,
+            columnDefinition = "INT GENERATED ALWAYS AS (stock_min - amount)")
+    private Integer stockDeficit;
+
     @NotNull(message = "The category cannot be Null")
     @Column(nullable = false)
     @Enumerated(EnumType.STRING)
@@ -0,0 +1,24 @@
+package com.inventario.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+// Single row (id 1) moved forward by ProductChangeCompactionJob
+@Entity
+@Table(name = "product_change_horizon")
+@Getter @Setter
+@NoArgsConstructor
+public class ProductChangeHorizon {
+    public static final int ID = 1;
+
+    @Id
+    private Integer id;
+
+    @Column(name = "compacted_through", nullable = false)
+    private Long compactedThrough;
+}
@@ -0,0 +1,55 @@
+package com.inventario.model;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+// Written in bulk by ForecastJob; read through JPA
+@Entity
+@Table(name = "product_forecasts")
+@Getter @Setter
+@NoArgsConstructor
+public class ProductForecast {
+    @Id
+    @Column(name = "product_id")
+    private Long productId;
+
+    @Column(nullable = false)
+    private Integer historyDays;
+
+    @Column(nullable = false)
+    private Double avgDailyDemand;
+
+    @Column(nullable = false)
+    private Double movingAvg7d;
+
+    @Column(nullable = false)
+    private Double movingAvg30d;
+
+    @Column(nullable = false)
+    private Double demandStdDev;
+
+    @Column(nullable = false)
+    private Double forecastDailyDemand;
+
+    @Column(nullable = false)
+    private Integer leadTimeDays;
+
+    @Column(nullable = false)
+    private Integer safetyStock;
+
+    @Column(nullable = false)
+    private Integer reorderPoint;
+
+    @Column(nullable = false)
+    private Integer suggestedReorderQty;
+
+    @Column(nullable = false)
+    private LocalDateTime computedAt;
+}
@@ -3,6 +3,7 @@ package com.inventario.model;
 import java.io.Serializable;
 import java.time.LocalDateTime;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.inventario.enums.MovementType;
 
 import jakarta.persistence.Column;
@@ -31,9 +32,26 @@ public class StockManager{
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    // Null once the product is archived; the history then keeps its id in archivedProductId
     @ManyToOne
-    @JoinColumn(name = "product_id", nullable = false, updatable = false)
+    @JoinColumn(name = "product_id", updatable = false)
     private Product product;
+
+    @JsonIgnore
+    @Column(name = "archived_product_id", insertable = false, updatable = false)
+    private Long archivedProductId;
+
+    @Column(name = "warehouse_id", updatable = false)
+    private Long warehouseId;
+
+    // Shared by the SALIDA and ENTRADA rows of a transfer between warehouses
+    @Column(name = "transfer_id", updatable = false, length = 36)
+    private String transferId;
+
+    // Redis stream entry the row was written from (hot stock write-behind)
+    @JsonIgnore
+    @Column(name = "stream_entry_id", insertable = false, updatable = false, length = 40)
+    private String streamEntryId;
     
     @NotNull(message = "The amount cannot be null")
     @Column(nullable = false, updatable = false)
@@ -0,0 +1,36 @@
+package com.inventario.model;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.EmbeddedId;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+// Stock of one product in one warehouse. Amounts change only through the conditional updates
+// of WarehouseStockRepository, so this entity is read only in practice.
+@Entity
+@Table(name = "warehouse_stock")
+@Getter @Setter
+@NoArgsConstructor
+public class WarehouseStock {
+    @EmbeddedId
+    private WarehouseStockId id;
+
+    @Column(nullable = false)
+    private Integer amount;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    // Served from Redis (HotStockService); the row follows through the write-behind
+    @Column(nullable = false, columnDefinition = "TINYINT(1) DEFAULT 0")
+    private boolean hot;
+
+    // Set by every movement in its own statement; cleared when StockTotalsRollup writes the total
+    @Column(name = "totals_pending", nullable = false, columnDefinition = "TINYINT(1) DEFAULT 0")
+    private boolean totalsPending;
+}
@@ -0,0 +1,24 @@
+package com.inventario.model;
+
+import java.io.Serializable;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+@Embeddable
+@Getter
+@EqualsAndHashCode
+@NoArgsConstructor @AllArgsConstructor
+public class WarehouseStockId implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    @Column(name = "product_id")
+    private Long productId;
+
+    @Column(name = "warehouse_id")
+    private Long warehouseId;
+}
@@ -0,0 +1,10 @@
+package com.inventario.notification;
+
+import com.inventario.dtos.AlertDTO;
+
+/**
+ * Published by {@code updateStock} when a movement takes a product from
+ * {@code amount >= stockMin} to {@code amount < stockMin}.
+ */
+public record LowStockCrossedEvent(AlertDTO alert) {
+}
@@ -0,0 +1,23 @@
+package com.inventario.notification;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "inventario.notifications.low-stock")
+public record LowStockNotificationProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue List<URI> webhooks,
+        // A product is notified at most once per window; crossings inside it are coalesced
+        @DefaultValue("10m") Duration debounce,
+        @DefaultValue("5s") Duration flushInterval,
+        @DefaultValue("100") int batchSize,
+        // Products waiting to be notified; new crossings beyond this are dropped
+        @DefaultValue("10000") int queueCapacity,
+        @DefaultValue("3") int maxRetries,
+        @DefaultValue("1s") Duration retryBackoff,
+        @DefaultValue("5s") Duration requestTimeout) {
+}
@@ -0,0 +1,100 @@
+package com.inventario.notification;
+
+import java.net.URI;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.inventario.dtos.AlertDTO;
+import com.inventario.dtos.LowStockNotificationDTO;
+
+/**
+ * Debounced, batched delivery of low stock crossings to the purchasing webhooks.
+ *
+ * Crossings arrive after commit and are kept per product (the latest alert wins), so a
+ * product that bounces around its minimum is notified once per debounce window. A scheduled
+ * flush groups the ready alerts in batches and hands them to the async {@link WebhookClient};
+ * stock writes only pay for a map insert.
+ */
+@Component
+public class LowStockNotifier {
+    private static final Logger log = LoggerFactory.getLogger(LowStockNotifier.class);
+
+    private final LowStockNotificationProperties properties;
+    private final ObjectMapper objectMapper;
+    private final WebhookClient webhookClient;
+    private final Map<Long, AlertDTO> pending = new ConcurrentHashMap<>();
+    private final Map<Long, Long> lastSent = new ConcurrentHashMap<>();
+    private final LongAdder dropped = new LongAdder();
+
+    public LowStockNotifier(LowStockNotificationProperties properties, ObjectMapper objectMapper) {
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+        this.webhookClient = new WebhookClient(properties);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onLowStockCrossed(LowStockCrossedEvent event) {
+        if (!properties.enabled() || properties.webhooks().isEmpty())
+            return;
+        AlertDTO alert = event.alert();
+        if (!pending.containsKey(alert.id()) && pending.size() >= properties.queueCapacity()) {
+            dropped.increment();
+            return;
+        }
+        pending.put(alert.id(), alert);
+    }
+
+    @Scheduled(fixedDelayString = "${inventario.notifications.low-stock.flush-interval:5s}")
+    public void flush() {
+        if (pending.isEmpty())
+            return;
+        long now = System.nanoTime();
+        long debounceNanos = properties.debounce().toNanos();
+        lastSent.values().removeIf(sentAt -> now - sentAt >= debounceNanos);
+        List<AlertDTO> ready = new ArrayList<>();
+        Iterator<Map.Entry<Long, AlertDTO>> it = pending.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<Long, AlertDTO> entry = it.next();
+            if (lastSent.containsKey(entry.getKey()))
+                continue;
+            ready.add(entry.getValue());
+            lastSent.put(entry.getKey(), now);
+            it.remove();
+        }
+
+        for (int from = 0; from < ready.size(); from += properties.batchSize()) {
+            List<AlertDTO> batch = ready.subList(from, Math.min(ready.size(), from + properties.batchSize()));
+            byte[] body;
+            try {
+                body = objectMapper.writeValueAsBytes(new LowStockNotificationDTO(List.copyOf(batch), LocalDateTime.now()));
+            } catch (JsonProcessingException ex) {
+                log.error("Cannot serialize low stock notification", ex);
+                continue;
+            }
+            for (URI webhook : properties.webhooks())
+                webhookClient.post(webhook, body);
+        }
+    }
+
+    public int getPending() {
+        return pending.size();
+    }
+
+    public long getDropped() {
+        return dropped.sum();
+    }
+}
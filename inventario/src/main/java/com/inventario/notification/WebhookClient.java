@@ -0,0 +1,75 @@
+package com.inventario.notification;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Non-blocking JSON POST with exponential backoff. Connection errors, 429 and 5xx are retried;
+ * other 4xx responses are not, since the receiver rejected the payload itself.
+ */
+public class WebhookClient {
+    private static final Logger log = LoggerFactory.getLogger(WebhookClient.class);
+
+    private final HttpClient httpClient;
+    private final LowStockNotificationProperties properties;
+    private final LongAdder delivered = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+
+    public WebhookClient(LowStockNotificationProperties properties) {
+        this.properties = properties;
+        this.httpClient = HttpClient.newBuilder()
+                .connectTimeout(properties.requestTimeout())
+                .build();
+    }
+
+    public CompletableFuture<Boolean> post(URI webhook, byte[] body) {
+        CompletableFuture<Boolean> result = new CompletableFuture<>();
+        attempt(webhook, body, 0, result);
+        return result;
+    }
+
+    private void attempt(URI webhook, byte[] body, int attempt, CompletableFuture<Boolean> result) {
+        HttpRequest request = HttpRequest.newBuilder(webhook)
+                .timeout(properties.requestTimeout())
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(body))
+                .build();
+        httpClient.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                .whenComplete((response, error) -> {
+                    int status = response != null ? response.statusCode() : -1;
+                    if (error == null && status < 300) {
+                        delivered.increment();
+                        result.complete(true);
+                        return;
+                    }
+                    boolean retryable = error != null || status == 429 || status >= 500;
+                    if (retryable && attempt < properties.maxRetries()) {
+                        long delay = properties.retryBackoff().toMillis() << attempt;
+                        Executor delayed = CompletableFuture.delayedExecutor(delay, TimeUnit.MILLISECONDS);
+                        delayed.execute(() -> attempt(webhook, body, attempt + 1, result));
+                        return;
+                    }
+                    failed.increment();
+                    log.warn("Low stock webhook {} failed after {} attempts (status {}, error {})", webhook,
+                            attempt + 1, status, error != null ? error.getMessage() : "none");
+                    result.complete(false);
+                });
+    }
+
+    public long getDelivered() {
+        return delivered.sum();
+    }
+
+    public long getFailed() {
+        return failed.sum();
+    }
+}
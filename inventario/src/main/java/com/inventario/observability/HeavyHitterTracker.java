@@ -0,0 +1,173 @@
+package com.inventario.observability;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Fixed-memory top-K of long keys over a sliding window (Space-Saving per time slot).
+ *
+ * The window is split in {@code slots} time slots and the key space in {@code stripes}; each
+ * stripe keeps, per slot, a table of {@code capacity} (key, count, error) counters in primitive
+ * arrays. Recording takes the stripe lock, scans at most {@code capacity} slots and allocates
+ * nothing. When a table is full the smallest counter is taken over and its count becomes the
+ * error of the new key, so {@code count - error} is a lower bound of the real frequency.
+ * A slot is reset lazily by the first event of a new period.
+ */
+public final class HeavyHitterTracker {
+
+    public record Entry(long key, long count, long error) {
+    }
+
+    private final long slotMillis;
+    private final int slots;
+    private final int capacity;
+    private final Stripe[] stripes;
+    private final int stripeMask;
+
+    public HeavyHitterTracker(Duration window, int slots, int stripes, int capacity) {
+        if (slots < 1 || stripes < 1 || capacity < 1)
+            throw new IllegalArgumentException("slots, stripes and capacity must be positive");
+        this.slots = slots;
+        this.slotMillis = Math.max(1, window.toMillis() / slots);
+        this.capacity = capacity;
+        int stripeCount = Integer.highestOneBit(stripes);
+        if (stripeCount < stripes)
+            stripeCount <<= 1;
+        this.stripes = new Stripe[stripeCount];
+        for (int i = 0; i < stripeCount; i++)
+            this.stripes[i] = new Stripe();
+        this.stripeMask = stripeCount - 1;
+    }
+
+    public void record(long key) {
+        record(key, System.currentTimeMillis());
+    }
+
+    void record(long key, long nowMillis) {
+        stripes[(int) (mix(key) & stripeMask)].record(key, nowMillis / slotMillis);
+    }
+
+    public List<Entry> top(int limit) {
+        return top(limit, System.currentTimeMillis());
+    }
+
+    List<Entry> top(int limit, long nowMillis) {
+        long epoch = nowMillis / slotMillis;
+        Map<Long, long[]> merged = new HashMap<>();
+        for (Stripe stripe : stripes)
+            stripe.collect(epoch, merged);
+        List<Entry> entries = new ArrayList<>(merged.size());
+        merged.forEach((key, counters) -> entries.add(new Entry(key, counters[0], counters[1])));
+        entries.sort((a, b) -> Long.compare(b.count(), a.count()));
+        return entries.size() > limit ? List.copyOf(entries.subList(0, limit)) : entries;
+    }
+
+    public long total() {
+        return total(System.currentTimeMillis());
+    }
+
+    long total(long nowMillis) {
+        long epoch = nowMillis / slotMillis;
+        long total = 0;
+        for (Stripe stripe : stripes)
+            total += stripe.total(epoch);
+        return total;
+    }
+
+    public Duration window() {
+        return Duration.ofMillis(slotMillis * slots);
+    }
+
+    // splitmix64 finalizer: sequential ids spread evenly over the stripes
+    private static long mix(long key) {
+        long z = key + 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    private final class Stripe {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final long[] keys = new long[slots * capacity];
+        private final long[] counts = new long[slots * capacity];
+        private final long[] errors = new long[slots * capacity];
+        private final long[] epochs = new long[slots];
+        private final long[] totals = new long[slots];
+        private final int[] sizes = new int[slots];
+
+        void record(long key, long epoch) {
+            int slot = (int) (epoch % slots);
+            int base = slot * capacity;
+            lock.lock();
+            try {
+                if (epochs[slot] != epoch) {
+                    epochs[slot] = epoch;
+                    sizes[slot] = 0;
+                    totals[slot] = 0;
+                }
+                totals[slot]++;
+                int end = base + sizes[slot];
+                int min = base;
+                for (int i = base; i < end; i++) {
+                    if (keys[i] == key) {
+                        counts[i]++;
+                        return;
+                    }
+                    if (counts[i] < counts[min])
+                        min = i;
+                }
+                if (sizes[slot] < capacity) {
+                    keys[end] = key;
+                    counts[end] = 1;
+                    errors[end] = 0;
+                    sizes[slot]++;
+                    return;
+                }
+                keys[min] = key;
+                errors[min] = counts[min];
+                counts[min]++;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void collect(long epoch, Map<Long, long[]> into) {
+            lock.lock();
+            try {
+                for (int slot = 0; slot < slots; slot++) {
+                    if (!live(slot, epoch))
+                        continue;
+                    int base = slot * capacity;
+                    for (int i = base; i < base + sizes[slot]; i++) {
+                        long[] counters = into.computeIfAbsent(keys[i], k -> new long[2]);
+                        counters[0] += counts[i];
+                        counters[1] += errors[i];
+                    }
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        long total(long epoch) {
+            lock.lock();
+            try {
+                long total = 0;
+                for (int slot = 0; slot < slots; slot++)
+                    if (live(slot, epoch))
+                        total += totals[slot];
+                return total;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private boolean live(int slot, long epoch) {
+            return epochs[slot] <= epoch && epochs[slot] > epoch - slots;
+        }
+    }
+}
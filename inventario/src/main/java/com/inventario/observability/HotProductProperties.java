@@ -0,0 +1,20 @@
+package com.inventario.observability;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "inventario.hot-products")
+public record HotProductProperties(
+        @DefaultValue("5m") Duration window,
+        @DefaultValue("10") int slots,
+        @DefaultValue("16") int stripes,
+        // Counters per stripe and slot; memory is slots * stripes * capacity * 24 bytes per tracker
+        @DefaultValue("64") int capacity,
+        // Hottest read products kept resident in the near cache
+        @DefaultValue("true") boolean nearCacheEnabled,
+        @DefaultValue("100") int pinTopK,
+        // Must stay below the Redis TTL so pinned products never expire there
+        @DefaultValue("30s") Duration refreshInterval) {
+}
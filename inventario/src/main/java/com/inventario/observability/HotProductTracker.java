@@ -0,0 +1,48 @@
+package com.inventario.observability;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.stereotype.Component;
+
+import com.inventario.dtos.HotProductDTO;
+import com.inventario.dtos.HotProductsDTO;
+import com.inventario.enums.AccessType;
+
+/**
+ * Hottest products by reads ({@code getProductById}, {@code getProductBySku}) and by stock
+ * mutations ({@code updateStock}) over the configured sliding window.
+ */
+@Component
+public class HotProductTracker {
+    private final Map<AccessType, HeavyHitterTracker> trackers = new EnumMap<>(AccessType.class);
+
+    public HotProductTracker(HotProductProperties properties) {
+        for (AccessType type : AccessType.values())
+            trackers.put(type, new HeavyHitterTracker(properties.window(), properties.slots(),
+                    properties.stripes(), properties.capacity()));
+    }
+
+    public void recordRead(Long productId) {
+        if (productId != null)
+            trackers.get(AccessType.READ).record(productId);
+    }
+
+    public void recordWrite(Long productId) {
+        if (productId != null)
+            trackers.get(AccessType.WRITE).record(productId);
+    }
+
+    public List<Long> topIds(AccessType type, int limit) {
+        return trackers.get(type).top(limit).stream().map(HeavyHitterTracker.Entry::key).toList();
+    }
+
+    public HotProductsDTO top(AccessType type, int limit) {
+        HeavyHitterTracker tracker = trackers.get(type);
+        List<HotProductDTO> products = tracker.top(limit).stream()
+                .map(entry -> new HotProductDTO(entry.key(), entry.count(), entry.error()))
+                .toList();
+        return new HotProductsDTO(type, tracker.window().toSeconds(), tracker.total(), products);
+    }
+}
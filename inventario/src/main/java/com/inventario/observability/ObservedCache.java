@@ -0,0 +1,160 @@
+package com.inventario.observability;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+import org.springframework.cache.Cache;
+
+import com.inventario.enums.RequestPhase;
+import com.inventario.jfr.CacheAccessEvent;
+
+/**
+ * Charges the synchronous operations of a cache to {@link RequestPhase#CACHE} and records each
+ * of them as a {@link CacheAccessEvent}. A value loader run by {@link #get(Object, Callable)}
+ * opens its own phases, so its queries count as DB time.
+ */
+public class ObservedCache implements Cache {
+    private final Cache delegate;
+
+    public ObservedCache(Cache delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public String getName() {
+        return delegate.getName();
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return delegate.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        CacheAccessEvent event = CacheAccessEvent.start();
+        PhaseRecorder.enter(RequestPhase.CACHE);
+        ValueWrapper value = null;
+        try {
+            value = delegate.get(key);
+            return value;
+        } finally {
+            PhaseRecorder.exit();
+            event.end(getName(), CacheAccessEvent.GET, key, value != null);
+        }
+    }
+
+    @Override
+    public <T> T get(Object key, Class<T> type) {
+        CacheAccessEvent event = CacheAccessEvent.start();
+        PhaseRecorder.enter(RequestPhase.CACHE);
+        T value = null;
+        try {
+            value = delegate.get(key, type);
+            return value;
+        } finally {
+            PhaseRecorder.exit();
+            event.end(getName(), CacheAccessEvent.GET, key, value != null);
+        }
+    }
+
+    @Override
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        CacheAccessEvent event = CacheAccessEvent.start();
+        PhaseRecorder.enter(RequestPhase.CACHE);
+        try {
+            return delegate.get(key, valueLoader);
+        } finally {
+            PhaseRecorder.exit();
+            event.end(getName(), CacheAccessEvent.GET_OR_LOAD, key, false);
+        }
+    }
+
+    // Asynchronous: completes outside the request thread, not timed
+    @Override
+    public CompletableFuture<?> retrieve(Object key) {
+        return delegate.retrieve(key);
+    }
+
+    @Override
+    public <T> CompletableFuture<T> retrieve(Object key, Supplier<CompletableFuture<T>> valueLoader) {
+        return delegate.retrieve(key, valueLoader);
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        CacheAccessEvent event = CacheAccessEvent.start();
+        PhaseRecorder.enter(RequestPhase.CACHE);
+        try {
+            delegate.put(key, value);
+        } finally {
+            PhaseRecorder.exit();
+            event.end(getName(), CacheAccessEvent.PUT, key, false);
+        }
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        CacheAccessEvent event = CacheAccessEvent.start();
+        PhaseRecorder.enter(RequestPhase.CACHE);
+        ValueWrapper existing = null;
+        try {
+            existing = delegate.putIfAbsent(key, value);
+            return existing;
+        } finally {
+            PhaseRecorder.exit();
+            event.end(getName(), CacheAccessEvent.PUT, key, existing != null);
+        }
+    }
+
+    @Override
+    public void evict(Object key) {
+        CacheAccessEvent event = CacheAccessEvent.start();
+        PhaseRecorder.enter(RequestPhase.CACHE);
+        try {
+            delegate.evict(key);
+        } finally {
+            PhaseRecorder.exit();
+            event.end(getName(), CacheAccessEvent.EVICT, key, false);
+        }
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        CacheAccessEvent event = CacheAccessEvent.start();
+        PhaseRecorder.enter(RequestPhase.CACHE);
+        boolean present = false;
+        try {
+            present = delegate.evictIfPresent(key);
+            return present;
+        } finally {
+            PhaseRecorder.exit();
+            event.end(getName(), CacheAccessEvent.EVICT, key, present);
+        }
+    }
+
+    @Override
+    public void clear() {
+        CacheAccessEvent event = CacheAccessEvent.start();
+        PhaseRecorder.enter(RequestPhase.CACHE);
+        try {
+            delegate.clear();
+        } finally {
+            PhaseRecorder.exit();
+            event.end(getName(), CacheAccessEvent.CLEAR, null, false);
+        }
+    }
+
+    @Override
+    public boolean invalidate() {
+        CacheAccessEvent event = CacheAccessEvent.start();
+        PhaseRecorder.enter(RequestPhase.CACHE);
+        try {
+            return delegate.invalidate();
+        } finally {
+            PhaseRecorder.exit();
+            event.end(getName(), CacheAccessEvent.CLEAR, null, false);
+        }
+    }
+}
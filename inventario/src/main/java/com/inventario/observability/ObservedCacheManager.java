@@ -0,0 +1,37 @@
+package com.inventario.observability;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+/**
+ * Wraps every cache of the configured manager in an {@link ObservedCache}. Installed innermost,
+ * so only the shared store is timed: near cache hits never reach it.
+ */
+public class ObservedCacheManager implements CacheManager {
+    private final CacheManager delegate;
+    private final Map<String, Cache> wrapped = new ConcurrentHashMap<>();
+
+    public ObservedCacheManager(CacheManager delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        Cache cache = wrapped.get(name);
+        if (cache != null)
+            return cache;
+        Cache target = delegate.getCache(name);
+        if (target == null)
+            return null;
+        return wrapped.computeIfAbsent(name, key -> new ObservedCache(target));
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return delegate.getCacheNames();
+    }
+}
@@ -0,0 +1,191 @@
+package com.inventario.observability;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.function.Supplier;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import com.inventario.enums.RequestPhase;
+import com.inventario.jfr.SqlStatementEvent;
+
+/**
+ * JDBC proxy that times every execute call and counts the rows read from its result sets.
+ * Each execute call is also a {@link SqlStatementEvent} for Flight Recorder.
+ * The metrics are resolved on first use because the DataSource is created before them.
+ */
+public class ObservedDataSource extends DelegatingDataSource {
+    private static final ClassLoader CLASS_LOADER = ObservedDataSource.class.getClassLoader();
+
+    private final Supplier<SqlMetrics> metricsSupplier;
+    private volatile SqlMetrics metrics;
+
+    public ObservedDataSource(DataSource target, Supplier<SqlMetrics> metricsSupplier) {
+        super(target);
+        this.metricsSupplier = metricsSupplier;
+    }
+
+    // Waiting for a pooled connection is database time too
+    @Override
+    public Connection getConnection() throws SQLException {
+        PhaseRecorder.enter(RequestPhase.DB);
+        try {
+            return wrap(super.getConnection());
+        } finally {
+            PhaseRecorder.exit();
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        PhaseRecorder.enter(RequestPhase.DB);
+        try {
+            return wrap(super.getConnection(username, password));
+        } finally {
+            PhaseRecorder.exit();
+        }
+    }
+
+    private SqlMetrics metrics() {
+        SqlMetrics current = metrics;
+        if (current == null) {
+            current = metricsSupplier.get();
+            metrics = current;
+        }
+        return current;
+    }
+
+    private Connection wrap(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(CLASS_LOADER, new Class<?>[] { Connection.class },
+                new ConnectionHandler(connection));
+    }
+
+    private static Object invokeTarget(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException ex) {
+            throw ex.getTargetException();
+        }
+    }
+
+    private final class ConnectionHandler implements InvocationHandler {
+        private final Connection target;
+
+        private ConnectionHandler(Connection target) {
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Object result = invokeTarget(target, method, args);
+            if (result instanceof Statement statement) {
+                // prepareStatement / prepareCall receive the SQL as first argument
+                String sql = args != null && args.length > 0 && args[0] instanceof String s ? s : null;
+                Class<?> type = statement instanceof CallableStatement ? CallableStatement.class
+                        : statement instanceof PreparedStatement ? PreparedStatement.class
+                        : Statement.class;
+                return Proxy.newProxyInstance(CLASS_LOADER, new Class<?>[] { type },
+                        new StatementHandler(statement, sql));
+            }
+            return result;
+        }
+    }
+
+    private final class StatementHandler implements InvocationHandler {
+        private final Statement target;
+        private String sql;
+        private String shape;
+        private ResultSetHandler openResultSet;
+
+        private StatementHandler(Statement target, String sql) {
+            this.target = target;
+            this.sql = sql;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (!name.startsWith("execute")) {
+                if (name.equals("addBatch") && args != null && args.length == 1 && args[0] instanceof String s)
+                    sql = s;
+                else if (name.equals("close"))
+                    flushRows();
+                Object result = invokeTarget(target, method, args);
+                if (result instanceof ResultSet resultSet && name.equals("getResultSet"))
+                    return wrapResultSet(resultSet);
+                return result;
+            }
+
+            String executed = args != null && args.length > 0 && args[0] instanceof String s ? s : sql;
+            SqlMetrics sqlMetrics = metrics();
+            shape = sqlMetrics.shapeOf(executed);
+            flushRows();
+            long start = System.nanoTime();
+            Object result;
+            SqlStatementEvent event = SqlStatementEvent.start();
+            PhaseRecorder.enter(RequestPhase.DB);
+            try {
+                result = invokeTarget(target, method, args);
+            } finally {
+                PhaseRecorder.exit();
+                sqlMetrics.recordStatement(shape, System.nanoTime() - start);
+                event.end(shape, name);
+            }
+            if (result instanceof ResultSet resultSet)
+                return wrapResultSet(resultSet);
+            return result;
+        }
+
+        private ResultSet wrapResultSet(ResultSet resultSet) {
+            openResultSet = new ResultSetHandler(resultSet, shape);
+            return (ResultSet) Proxy.newProxyInstance(CLASS_LOADER, new Class<?>[] { ResultSet.class }, openResultSet);
+        }
+
+        private void flushRows() {
+            if (openResultSet != null) {
+                openResultSet.flush();
+                openResultSet = null;
+            }
+        }
+    }
+
+    private final class ResultSetHandler implements InvocationHandler {
+        private final ResultSet target;
+        private final String shape;
+        private long rows;
+        private boolean flushed;
+
+        private ResultSetHandler(ResultSet target, String shape) {
+            this.target = target;
+            this.shape = shape;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (name.equals("close"))
+                flush();
+            Object result = invokeTarget(target, method, args);
+            if (name.equals("next") && Boolean.TRUE.equals(result))
+                rows++;
+            return result;
+        }
+
+        private void flush() {
+            if (!flushed && shape != null) {
+                flushed = true;
+                metrics().recordRows(shape, rows);
+            }
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.inventario.observability;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.inventario.enums.RequestPhase;
+
+/**
+ * The MVC JSON converter, with response writing charged to {@link RequestPhase#SERIALIZATION}.
+ * Bodies served from the response cache are byte arrays and do not go through it.
+ */
+public class ObservedJacksonHttpMessageConverter extends MappingJackson2HttpMessageConverter {
+
+    public ObservedJacksonHttpMessageConverter(ObjectMapper objectMapper) {
+        super(objectMapper);
+    }
+
+    @Override
+    protected void writeInternal(Object object, Type type, HttpOutputMessage outputMessage)
+            throws IOException, HttpMessageNotWritableException {
+        PhaseRecorder.enter(RequestPhase.SERIALIZATION);
+        try {
+            super.writeInternal(object, type, outputMessage);
+        } finally {
+            PhaseRecorder.exit();
+        }
+    }
+}
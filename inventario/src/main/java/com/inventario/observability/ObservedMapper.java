@@ -0,0 +1,47 @@
+package com.inventario.observability;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+
+import org.springframework.util.ClassUtils;
+
+import com.inventario.enums.RequestPhase;
+
+/**
+ * JDK proxy over a generated MapStruct mapper that charges its calls to
+ * {@link RequestPhase#MAPPING}. The mappers are only injected by their interface.
+ */
+public final class ObservedMapper implements InvocationHandler {
+    private final Object target;
+
+    private ObservedMapper(Object target) {
+        this.target = target;
+    }
+
+    public static Object wrap(Object mapper) {
+        Class<?>[] interfaces = ClassUtils.getAllInterfacesForClass(mapper.getClass(), mapper.getClass().getClassLoader());
+        return Proxy.newProxyInstance(mapper.getClass().getClassLoader(), interfaces, new ObservedMapper(mapper));
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        if (method.getDeclaringClass() == Object.class)
+            return invokeTarget(method, args);
+        PhaseRecorder.enter(RequestPhase.MAPPING);
+        try {
+            return invokeTarget(method, args);
+        } finally {
+            PhaseRecorder.exit();
+        }
+    }
+
+    private Object invokeTarget(Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException ex) {
+            throw ex.getTargetException();
+        }
+    }
+}
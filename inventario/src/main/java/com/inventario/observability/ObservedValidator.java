@@ -0,0 +1,71 @@
+package com.inventario.observability;
+
+import java.util.function.Supplier;
+
+import org.springframework.validation.Errors;
+import org.springframework.validation.SmartValidator;
+
+import com.inventario.enums.RequestPhase;
+
+/**
+ * MVC validator that charges {@code @Valid} request bodies and parameters to
+ * {@link RequestPhase#VALIDATION}. The Bean Validation validator is resolved on first use.
+ */
+public class ObservedValidator implements SmartValidator {
+    private final Supplier<SmartValidator> delegateSupplier;
+    private volatile SmartValidator delegate;
+
+    public ObservedValidator(Supplier<SmartValidator> delegateSupplier) {
+        this.delegateSupplier = delegateSupplier;
+    }
+
+    private SmartValidator delegate() {
+        SmartValidator current = delegate;
+        if (current == null) {
+            current = delegateSupplier.get();
+            delegate = current;
+        }
+        return current;
+    }
+
+    @Override
+    public boolean supports(Class<?> clazz) {
+        return delegate().supports(clazz);
+    }
+
+    @Override
+    public void validate(Object target, Errors errors) {
+        PhaseRecorder.enter(RequestPhase.VALIDATION);
+        try {
+            delegate().validate(target, errors);
+        } finally {
+            PhaseRecorder.exit();
+        }
+    }
+
+    @Override
+    public void validate(Object target, Errors errors, Object... validationHints) {
+        PhaseRecorder.enter(RequestPhase.VALIDATION);
+        try {
+            delegate().validate(target, errors, validationHints);
+        } finally {
+            PhaseRecorder.exit();
+        }
+    }
+
+    @Override
+    public void validateValue(Class<?> targetType, String fieldName, Object value, Errors errors,
+            Object... validationHints) {
+        PhaseRecorder.enter(RequestPhase.VALIDATION);
+        try {
+            delegate().validateValue(targetType, fieldName, value, errors, validationHints);
+        } finally {
+            PhaseRecorder.exit();
+        }
+    }
+
+    @Override
+    public <T> T unwrap(Class<T> type) {
+        return delegate().unwrap(type);
+    }
+}
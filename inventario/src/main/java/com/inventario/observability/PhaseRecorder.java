@@ -0,0 +1,132 @@
+package com.inventario.observability;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+import com.inventario.enums.RequestPhase;
+
+/**
+ * Time spent by the current request in each {@link RequestPhase}. Phases nest (a cache load
+ * that queries the database, a mapper reached from a serializer) and each one is charged only
+ * its own time, so the phases plus "app" add up to the request total.
+ *
+ * One recorder per thread, reset by {@link RequestTimingFilter} for every request and kept for
+ * the next one: entering and leaving a phase never allocates. Threads that never served a
+ * request (jobs, gRPC) have no recorder and the calls are no-ops.
+ */
+public final class PhaseRecorder {
+    private static final ThreadLocal<PhaseRecorder> CURRENT = new ThreadLocal<>();
+    private static final RequestPhase[] PHASES = RequestPhase.values();
+    static final int APP = PHASES.length;
+    private static final int MAX_DEPTH = 16;
+
+    private final long[] nanos = new long[PHASES.length + 1];
+    private final int[] stack = new int[MAX_DEPTH];
+    private int depth;
+    private long mark;
+    private long start;
+    private long total;
+    private boolean active;
+
+    PhaseRecorder() {
+    }
+
+    public static void enter(RequestPhase phase) {
+        PhaseRecorder recorder = CURRENT.get();
+        if (recorder != null && recorder.active)
+            recorder.push(phase.ordinal());
+    }
+
+    public static void exit() {
+        PhaseRecorder recorder = CURRENT.get();
+        if (recorder != null && recorder.active)
+            recorder.pop();
+    }
+
+    static PhaseRecorder begin() {
+        PhaseRecorder recorder = CURRENT.get();
+        if (recorder == null) {
+            recorder = new PhaseRecorder();
+            CURRENT.set(recorder);
+        }
+        recorder.reset(System.nanoTime());
+        return recorder;
+    }
+
+    void reset(long now) {
+        Arrays.fill(nanos, 0);
+        depth = 0;
+        start = now;
+        mark = now;
+        total = 0;
+        active = true;
+    }
+
+    void finish() {
+        finish(System.nanoTime());
+    }
+
+    // Phases still open (an exception skipped their exit) are charged up to now
+    void finish(long now) {
+        charge(now);
+        total = now - start;
+        depth = 0;
+        active = false;
+    }
+
+    void push(int phase) {
+        push(phase, System.nanoTime());
+    }
+
+    void push(int phase, long now) {
+        charge(now);
+        // Deeper nesting than the stack is charged to the deepest tracked phase
+        if (depth < MAX_DEPTH)
+            stack[depth] = phase;
+        depth++;
+        mark = now;
+    }
+
+    void pop() {
+        pop(System.nanoTime());
+    }
+
+    void pop(long now) {
+        if (depth == 0)
+            return;
+        charge(now);
+        depth--;
+        mark = now;
+    }
+
+    private void charge(long now) {
+        int slot = depth == 0 ? APP : stack[Math.min(depth, MAX_DEPTH) - 1];
+        nanos[slot] += now - mark;
+    }
+
+    long nanos(int slot) {
+        return nanos[slot];
+    }
+
+    long totalNanos() {
+        return total;
+    }
+
+    // Header value, only built for the requests that return it
+    String serverTiming() {
+        StringBuilder header = new StringBuilder(128);
+        for (RequestPhase phase : PHASES) {
+            if (nanos[phase.ordinal()] > 0)
+                appendMetric(header, phase.getMetricName(), nanos[phase.ordinal()]);
+        }
+        appendMetric(header, "app", nanos[APP]);
+        appendMetric(header, "total", total);
+        return header.toString();
+    }
+
+    private static void appendMetric(StringBuilder header, String name, long nanos) {
+        if (!header.isEmpty())
+            header.append(", ");
+        header.append(name).append(";dur=").append(String.format(Locale.ROOT, "%.3f", nanos / 1_000_000.0));
+    }
+}
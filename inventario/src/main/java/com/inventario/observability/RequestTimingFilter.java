@@ -0,0 +1,64 @@
+package com.inventario.observability;
+
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Times every request by phase (see {@link PhaseRecorder}) and records it per endpoint. The
+ * requests that opt in, or are sampled, also get the breakdown in a Server-Timing header; their
+ * body is buffered so the header can still be set after the JSON has been written.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 5)
+@ConditionalOnProperty(prefix = "inventario.request-timing", name = "enabled", matchIfMissing = true)
+public class RequestTimingFilter extends OncePerRequestFilter {
+    static final String OPT_IN_HEADER = "X-Request-Timing";
+    static final String SERVER_TIMING_HEADER = "Server-Timing";
+
+    private final RequestTimingMetrics metrics;
+    private final RequestTimingProperties properties;
+
+    public RequestTimingFilter(RequestTimingMetrics metrics, RequestTimingProperties properties) {
+        this.metrics = metrics;
+        this.properties = properties;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        ContentCachingResponseWrapper buffered = returnsHeader(request) ? new ContentCachingResponseWrapper(response)
+                : null;
+        PhaseRecorder recorder = PhaseRecorder.begin();
+        try {
+            filterChain.doFilter(request, buffered != null ? buffered : response);
+        } finally {
+            recorder.finish();
+            // Only the mapped pattern is used as key, raw URIs would make the map unbounded
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            metrics.record(request.getMethod(), pattern != null ? pattern.toString() : "unmapped", recorder);
+            if (buffered != null) {
+                buffered.setHeader(SERVER_TIMING_HEADER, recorder.serverTiming());
+                buffered.copyBodyToResponse();
+            }
+        }
+    }
+
+    private boolean returnsHeader(HttpServletRequest request) {
+        if (properties.allowOptIn() && request.getHeader(OPT_IN_HEADER) != null)
+            return true;
+        return properties.headerSampleRate() > 0 && ThreadLocalRandom.current().nextDouble() < properties.headerSampleRate();
+    }
+}
@@ -0,0 +1,84 @@
+package com.inventario.observability;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.stereotype.Component;
+
+import com.inventario.dtos.EndpointTimingDTO;
+import com.inventario.dtos.PhaseTimingDTO;
+import com.inventario.enums.RequestPhase;
+
+/**
+ * Per endpoint histograms of the request total and of every phase, fed by
+ * {@link RequestTimingFilter}. Endpoints are keyed by method and mapped pattern in two levels,
+ * so recording a request does not build a key.
+ */
+@Component
+public class RequestTimingMetrics {
+    private static final String OTHER = "other";
+    private static final RequestPhase[] PHASES = RequestPhase.values();
+
+    private final RequestTimingProperties properties;
+    private final Map<String, Map<String, EndpointTimings>> endpoints = new ConcurrentHashMap<>();
+
+    public RequestTimingMetrics(RequestTimingProperties properties) {
+        this.properties = properties;
+    }
+
+    void record(String method, String pattern, PhaseRecorder recorder) {
+        EndpointTimings timings = timingsFor(method, pattern);
+        timings.total.record(recorder.totalNanos());
+        for (int slot = 0; slot <= PhaseRecorder.APP; slot++)
+            timings.phases[slot].record(recorder.nanos(slot));
+    }
+
+    private EndpointTimings timingsFor(String method, String pattern) {
+        Map<String, EndpointTimings> byPattern = endpoints.computeIfAbsent(method, key -> new ConcurrentHashMap<>());
+        EndpointTimings timings = byPattern.get(pattern);
+        if (timings != null)
+            return timings;
+        String key = size() < properties.maxEndpoints() ? pattern : OTHER;
+        return byPattern.computeIfAbsent(key, k -> new EndpointTimings());
+    }
+
+    private int size() {
+        return endpoints.values().stream().mapToInt(Map::size).sum();
+    }
+
+    public List<EndpointTimingDTO> endpointStats() {
+        List<EndpointTimingDTO> result = new ArrayList<>();
+        endpoints.forEach((method, byPattern) -> byPattern.forEach((pattern, timings) -> {
+            LatencyHistogram total = timings.total;
+            List<PhaseTimingDTO> phases = new ArrayList<>(PhaseRecorder.APP + 1);
+            for (int slot = 0; slot <= PhaseRecorder.APP; slot++) {
+                LatencyHistogram phase = timings.phases[slot];
+                phases.add(new PhaseTimingDTO(slot == PhaseRecorder.APP ? "app" : PHASES[slot].getMetricName(),
+                        phase.meanMillis(), phase.percentileMillis(50), phase.percentileMillis(95),
+                        phase.percentileMillis(99), phase.maxMillis(),
+                        total.totalMillis() == 0 ? 0 : phase.totalMillis() / total.totalMillis()));
+            }
+            result.add(new EndpointTimingDTO(method + " " + pattern, total.count(), total.meanMillis(),
+                    total.percentileMillis(50), total.percentileMillis(99), total.maxMillis(), phases));
+        }));
+        result.sort(Comparator.comparingDouble((EndpointTimingDTO e) -> e.meanMs() * e.requests()).reversed());
+        return result;
+    }
+
+    public void reset() {
+        endpoints.clear();
+    }
+
+    private static final class EndpointTimings {
+        private final LatencyHistogram total = new LatencyHistogram();
+        private final LatencyHistogram[] phases = new LatencyHistogram[PhaseRecorder.APP + 1];
+
+        private EndpointTimings() {
+            for (int i = 0; i < phases.length; i++)
+                phases[i] = new LatencyHistogram();
+        }
+    }
+}
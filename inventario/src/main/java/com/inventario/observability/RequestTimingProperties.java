@@ -0,0 +1,15 @@
+package com.inventario.observability;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "inventario.request-timing")
+public record RequestTimingProperties(
+        @DefaultValue("true") boolean enabled,
+        // Requests sending X-Request-Timing get the Server-Timing header
+        @DefaultValue("true") boolean allowOptIn,
+        // Fraction of the remaining requests that get it too (0 to 1)
+        @DefaultValue("0") double headerSampleRate,
+        // Distinct endpoints tracked; the rest are aggregated under "other"
+        @DefaultValue("200") int maxEndpoints) {
+}
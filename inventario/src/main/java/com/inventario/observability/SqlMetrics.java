@@ -0,0 +1,190 @@
+package com.inventario.observability;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+import org.springframework.stereotype.Component;
+
+import com.inventario.dtos.NPlusOneDTO;
+import com.inventario.dtos.RequestSqlStatsDTO;
+import com.inventario.dtos.SlowQueryDTO;
+import com.inventario.dtos.SqlStatementStatsDTO;
+
+/**
+ * Always-on SQL metrics fed by {@link ObservedDataSource}: latency histogram and rows per
+ * statement shape, statements per request, N+1 suspects and a ring with the latest slow
+ * statements. Every structure is bounded.
+ */
+@Component
+public class SqlMetrics {
+    private static final String OTHER = "other";
+    private static final String UNKNOWN = "unknown";
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("\\b\\d+(\\.\\d+)?\\b");
+    private static final Pattern IN_LIST = Pattern.compile("in\\s*\\(\\s*\\?(\\s*,\\s*\\?)*\\s*\\)");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private final SqlObservabilityProperties properties;
+    private final long slowThresholdNanos;
+    private final Map<String, String> shapes = new ConcurrentHashMap<>();
+    private final Map<String, SqlStatementStats> statements = new ConcurrentHashMap<>();
+    private final Map<String, RequestStats> requests = new ConcurrentHashMap<>();
+    private final Map<String, NPlusOneStats> nPlusOne = new ConcurrentHashMap<>();
+    private final AtomicReferenceArray<SlowQueryDTO> slowQueries;
+    private final AtomicLong slowCursor = new AtomicLong();
+
+    public SqlMetrics(SqlObservabilityProperties properties) {
+        this.properties = properties;
+        this.slowThresholdNanos = properties.slowThreshold().toNanos();
+        this.slowQueries = new AtomicReferenceArray<>(properties.slowLogSize());
+    }
+
+    /**
+     * Normalized form of a statement: literals and IN lists collapsed to placeholders.
+     * Hibernate reuses the same SQL strings, so the result is memoized.
+     */
+    public String shapeOf(String sql) {
+        if (sql == null)
+            return UNKNOWN;
+        String shape = shapes.get(sql);
+        if (shape != null)
+            return shape;
+        shape = normalize(sql);
+        if (shapes.size() < properties.maxShapes() * 4)
+            shapes.put(sql, shape);
+        return shape;
+    }
+
+    static String normalize(String sql) {
+        String shape = WHITESPACE.matcher(sql.trim()).replaceAll(" ").toLowerCase(Locale.ROOT);
+        shape = STRING_LITERAL.matcher(shape).replaceAll("?");
+        shape = NUMBER_LITERAL.matcher(shape).replaceAll("?");
+        return IN_LIST.matcher(shape).replaceAll("in (?)");
+    }
+
+    public void recordStatement(String shape, long nanos) {
+        statsFor(shape).record(nanos);
+        SqlRequestContext context = SqlRequestContext.current();
+        if (context != null)
+            context.onStatement(shape);
+        if (nanos >= slowThresholdNanos && slowQueries.length() > 0) {
+            int slot = (int) (slowCursor.getAndIncrement() % slowQueries.length());
+            slowQueries.set(slot, new SlowQueryDTO(shape, nanos / 1_000_000.0,
+                    context != null ? context.getRequest() : null, LocalDateTime.now()));
+        }
+    }
+
+    public void recordRows(String shape, long rows) {
+        statsFor(shape).addRows(rows);
+    }
+
+    void recordRequest(String endpoint, SqlRequestContext context) {
+        RequestStats stats = requests.get(endpoint);
+        if (stats == null && requests.size() < properties.maxShapes())
+            stats = requests.computeIfAbsent(endpoint, key -> new RequestStats());
+        if (stats != null) {
+            stats.requests.increment();
+            stats.statements.add(context.getStatements());
+            stats.maxStatements.accumulateAndGet(context.getStatements(), Math::max);
+        }
+
+        context.getSelects().forEach((shape, repetitions) -> {
+            if (repetitions < properties.nPlusOneThreshold())
+                return;
+            String key = endpoint + "|" + shape;
+            NPlusOneStats suspect = nPlusOne.get(key);
+            if (suspect == null && nPlusOne.size() < properties.maxShapes())
+                suspect = nPlusOne.computeIfAbsent(key, k -> new NPlusOneStats(endpoint, shape));
+            if (suspect != null) {
+                suspect.occurrences.increment();
+                suspect.maxRepetitions.accumulateAndGet(repetitions, Math::max);
+            }
+        });
+    }
+
+    private SqlStatementStats statsFor(String shape) {
+        SqlStatementStats stats = statements.get(shape);
+        if (stats != null)
+            return stats;
+        String key = statements.size() < properties.maxShapes() ? shape : OTHER;
+        return statements.computeIfAbsent(key, SqlStatementStats::new);
+    }
+
+    public List<SqlStatementStatsDTO> topStatements(int limit) {
+        return statements.values().stream()
+                .sorted(Comparator.comparingDouble((SqlStatementStats s) -> s.getLatency().totalMillis()).reversed())
+                .limit(limit)
+                .map(s -> {
+                    LatencyHistogram h = s.getLatency();
+                    return new SqlStatementStatsDTO(s.getShape(), h.count(), h.totalMillis(), h.meanMillis(),
+                            h.percentileMillis(50), h.percentileMillis(95), h.percentileMillis(99), h.maxMillis(),
+                            s.getRows());
+                })
+                .toList();
+    }
+
+    public List<SlowQueryDTO> slowQueries() {
+        List<SlowQueryDTO> result = new ArrayList<>(slowQueries.length());
+        for (int i = 0; i < slowQueries.length(); i++) {
+            SlowQueryDTO query = slowQueries.get(i);
+            if (query != null)
+                result.add(query);
+        }
+        result.sort(Comparator.comparingDouble(SlowQueryDTO::durationMs).reversed());
+        return result;
+    }
+
+    public List<NPlusOneDTO> nPlusOneSuspects() {
+        return nPlusOne.values().stream()
+                .map(s -> new NPlusOneDTO(s.endpoint, s.shape, s.occurrences.sum(), s.maxRepetitions.get()))
+                .sorted(Comparator.comparingLong(NPlusOneDTO::occurrences).reversed())
+                .toList();
+    }
+
+    public List<RequestSqlStatsDTO> requestStats() {
+        List<RequestSqlStatsDTO> result = new ArrayList<>();
+        requests.forEach((endpoint, stats) -> {
+            long count = stats.requests.sum();
+            result.add(new RequestSqlStatsDTO(endpoint, count,
+                    count == 0 ? 0 : (double) stats.statements.sum() / count, stats.maxStatements.get()));
+        });
+        result.sort(Comparator.comparingDouble(RequestSqlStatsDTO::meanStatements).reversed());
+        return result;
+    }
+
+    public void reset() {
+        statements.clear();
+        requests.clear();
+        nPlusOne.clear();
+        for (int i = 0; i < slowQueries.length(); i++)
+            slowQueries.set(i, null);
+    }
+
+    private static final class RequestStats {
+        private final LongAdder requests = new LongAdder();
+        private final LongAdder statements = new LongAdder();
+        private final AtomicLong maxStatements = new AtomicLong();
+    }
+
+    private static final class NPlusOneStats {
+        private final String endpoint;
+        private final String shape;
+        private final LongAdder occurrences = new LongAdder();
+        private final AtomicInteger maxRepetitions = new AtomicInteger();
+
+        private NPlusOneStats(String endpoint, String shape) {
+            this.endpoint = endpoint;
+            this.shape = shape;
+        }
+    }
+}
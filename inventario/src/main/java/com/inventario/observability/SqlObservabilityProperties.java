@@ -0,0 +1,18 @@
+package com.inventario.observability;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "inventario.sql-observability")
+public record SqlObservabilityProperties(
+        @DefaultValue("true") boolean enabled,
+        // Statements slower than this go to the slow query ring
+        @DefaultValue("200ms") Duration slowThreshold,
+        @DefaultValue("100") int slowLogSize,
+        // Same SELECT shape repeated this many times in one request is reported as N+1
+        @DefaultValue("5") int nPlusOneThreshold,
+        // Distinct shapes tracked; the rest are aggregated under "other"
+        @DefaultValue("2000") int maxShapes) {
+}
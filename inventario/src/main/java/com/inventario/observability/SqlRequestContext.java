@@ -0,0 +1,52 @@
+package com.inventario.observability;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Statements executed by the current request. Bound to the request thread by
+ * {@link SqlRequestFilter}; statements outside a request (jobs, startup) are not tracked.
+ */
+public final class SqlRequestContext {
+    private static final ThreadLocal<SqlRequestContext> CURRENT = new ThreadLocal<>();
+
+    private final String request;
+    private int statements;
+    private final Map<String, Integer> selects = new HashMap<>();
+
+    private SqlRequestContext(String request) {
+        this.request = request;
+    }
+
+    static SqlRequestContext begin(String request) {
+        SqlRequestContext context = new SqlRequestContext(request);
+        CURRENT.set(context);
+        return context;
+    }
+
+    static void end() {
+        CURRENT.remove();
+    }
+
+    static SqlRequestContext current() {
+        return CURRENT.get();
+    }
+
+    void onStatement(String shape) {
+        statements++;
+        if (shape.startsWith("select"))
+            selects.merge(shape, 1, Integer::sum);
+    }
+
+    String getRequest() {
+        return request;
+    }
+
+    int getStatements() {
+        return statements;
+    }
+
+    Map<String, Integer> getSelects() {
+        return selects;
+    }
+}
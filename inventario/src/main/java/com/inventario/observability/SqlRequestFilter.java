@@ -0,0 +1,42 @@
+package com.inventario.observability;
+
+import java.io.IOException;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Counts the statements of each request and reports them per endpoint pattern, together
+ * with the SELECT shapes repeated enough times to look like an N+1.
+ */
+@Component
+@ConditionalOnProperty(prefix = "inventario.sql-observability", name = "enabled", matchIfMissing = true)
+public class SqlRequestFilter extends OncePerRequestFilter {
+
+    private final SqlMetrics sqlMetrics;
+
+    public SqlRequestFilter(SqlMetrics sqlMetrics) {
+        this.sqlMetrics = sqlMetrics;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        SqlRequestContext context = SqlRequestContext.begin(request.getMethod() + " " + request.getRequestURI());
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            SqlRequestContext.end();
+            // Only the mapped pattern is used as key, raw URIs would make the map unbounded
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            sqlMetrics.recordRequest(request.getMethod() + " " + (pattern != null ? pattern : "unmapped"), context);
+        }
+    }
+}
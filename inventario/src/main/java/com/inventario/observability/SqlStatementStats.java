@@ -0,0 +1,34 @@
+package com.inventario.observability;
+
+import java.util.concurrent.atomic.LongAdder;
+
+// Aggregated metrics of one statement shape
+public class SqlStatementStats {
+    private final String shape;
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private final LongAdder rows = new LongAdder();
+
+    public SqlStatementStats(String shape) {
+        this.shape = shape;
+    }
+
+    public void record(long nanos) {
+        latency.record(nanos);
+    }
+
+    public void addRows(long count) {
+        rows.add(count);
+    }
+
+    public String getShape() {
+        return shape;
+    }
+
+    public LatencyHistogram getLatency() {
+        return latency;
+    }
+
+    public long getRows() {
+        return rows.sum();
+    }
+}
@@ -0,0 +1,11 @@
+package com.inventario.repository;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import com.inventario.model.ArchivedProduct;
+
+public interface ArchivedProductRepository extends JpaRepository<ArchivedProduct, Long> {
+    Page<ArchivedProduct> findBySku(String sku, Pageable pageable);
+}
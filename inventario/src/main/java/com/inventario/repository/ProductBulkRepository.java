@@ -0,0 +1,28 @@
+package com.inventario.repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+
+import com.inventario.dtos.BulkUpdateDTO;
+import com.inventario.enums.Category;
+
+public interface ProductBulkRepository {
+    /**
+     * Lowest and highest id of the active products of a category.
+     */
+    Optional<long[]> findActiveIdBounds(Category category);
+
+    /**
+     * Id to SKU of the active products of a category inside an id range (primary key range scan).
+     */
+    Map<Long, String> findActiveKeys(Category category, long fromId, long toId);
+
+    Map<Long, String> findActiveKeysBySku(Collection<String> skus);
+
+    /**
+     * Applies the changes of the request to the given products with one UPDATE statement.
+     */
+    int bulkUpdate(Collection<Long> ids, BulkUpdateDTO changes, LocalDateTime now);
+}
@@ -0,0 +1,97 @@
+package com.inventario.repository;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import com.inventario.dtos.BulkUpdateDTO;
+import com.inventario.enums.Category;
+import com.inventario.model.Product;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaUpdate;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Root;
+
+public class ProductBulkRepositoryImpl implements ProductBulkRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Optional<long[]> findActiveIdBounds(Category category) {
+        Tuple bounds = entityManager.createQuery(
+                "SELECT MIN(p.id) AS first, MAX(p.id) AS last FROM Product p WHERE p.deleted = false AND p.category = :category",
+                Tuple.class)
+                .setParameter("category", category)
+                .getSingleResult();
+        Long first = bounds.get("first", Long.class);
+        if (first == null)
+            return Optional.empty();
+        return Optional.of(new long[] { first, bounds.get("last", Long.class) });
+    }
+
+    @Override
+    public Map<Long, String> findActiveKeys(Category category, long fromId, long toId) {
+        return toKeys(entityManager.createQuery(
+                "SELECT p.id, p.sku FROM Product p " +
+                        "WHERE p.id BETWEEN :fromId AND :toId AND p.deleted = false AND p.category = :category",
+                Tuple.class)
+                .setParameter("fromId", fromId)
+                .setParameter("toId", toId)
+                .setParameter("category", category)
+                .getResultList());
+    }
+
+    @Override
+    public Map<Long, String> findActiveKeysBySku(Collection<String> skus) {
+        return toKeys(entityManager.createQuery(
+                "SELECT p.id, p.sku FROM Product p WHERE p.sku IN :skus AND p.deleted = false", Tuple.class)
+                .setParameter("skus", skus)
+                .getResultList());
+    }
+
+    private static Map<Long, String> toKeys(List<Tuple> rows) {
+        Map<Long, String> keys = new LinkedHashMap<>();
+        for (Tuple row : rows)
+            keys.put(row.get(0, Long.class), row.get(1, String.class));
+        return keys;
+    }
+
+    @Override
+    public int bulkUpdate(Collection<Long> ids, BulkUpdateDTO changes, LocalDateTime now) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaUpdate<Product> update = cb.createCriteriaUpdate(Product.class);
+        Root<Product> root = update.from(Product.class);
+
+        Expression<BigDecimal> price = root.<BigDecimal>get("price");
+        Expression<BigDecimal> newPrice = null;
+        if (changes.pricePercent() != null) {
+            BigDecimal factor = BigDecimal.ONE.add(changes.pricePercent().movePointLeft(2), MathContext.DECIMAL64);
+            newPrice = cb.prod(price, factor);
+        } else if (changes.priceDelta() != null) {
+            newPrice = cb.sum(price, changes.priceDelta());
+        }
+        if (newPrice != null) {
+            newPrice = cb.function("round", BigDecimal.class, newPrice, cb.literal(2));
+            update.set(root.<BigDecimal>get("price"), newPrice);
+        }
+        if (changes.stockMin() != null)
+            update.set(root.<Integer>get("stockMin"), changes.stockMin());
+        if (changes.newCategory() != null)
+            update.set(root.<Category>get("category"), changes.newCategory());
+        update.set(root.<LocalDateTime>get("dateOfLastActualization"), now);
+
+        update.where(root.get("id").in(ids), cb.isFalse(root.get("deleted")),
+                newPrice != null ? cb.greaterThan(newPrice, BigDecimal.ZERO) : cb.conjunction());
+        return entityManager.createQuery(update).executeUpdate();
+    }
+}
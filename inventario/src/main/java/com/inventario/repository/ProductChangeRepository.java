@@ -0,0 +1,47 @@
+package com.inventario.repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Optional;
+
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import com.inventario.model.ProductChange;
+import com.inventario.model.ProductChangeHorizon;
+
+import jakarta.persistence.QueryHint;
+
+public interface ProductChangeRepository extends JpaRepository<ProductChange, Long> {
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "product_changes"))
+    @Query(value = "INSERT INTO product_changes (product_id, sku, change_type, changed_at) " +
+            "SELECT id, sku, :changeType, :changedAt FROM products WHERE id IN :productIds", nativeQuery = true)
+    int recordAll(@Param("productIds") Collection<Long> productIds, @Param("changeType") String changeType,
+            @Param("changedAt") LocalDateTime changedAt);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "product_changes"))
+    @Query(value = "INSERT INTO product_changes (product_id, sku, change_type, changed_at) " +
+            "SELECT p.id, p.sku, 'UPDATED', :changedAt FROM products p " +
+            "JOIN product_forecasts f ON f.product_id = p.id " +
+            "WHERE p.id BETWEEN :fromId AND :toId AND p.deleted = false AND p.stock_min <> f.reorder_point",
+            nativeQuery = true)
+    int recordReorderPointChanges(@Param("fromId") Long fromId, @Param("toId") Long toId,
+            @Param("changedAt") LocalDateTime changedAt);
+
+    // One primary key range per page, whatever the size of the catalog
+    Slice<ProductChange> findByIdGreaterThanOrderByIdAsc(Long token, Pageable pageable);
+
+    Optional<ProductChange> findFirstByChangedAtBeforeOrderByIdDesc(LocalDateTime settledBefore);
+
+    @Query("SELECT h.compactedThrough FROM ProductChangeHorizon h WHERE h.id = " + ProductChangeHorizon.ID)
+    Optional<Long> findCompactedThrough();
+}
@@ -0,0 +1,28 @@
+package com.inventario.repository;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.inventario.model.ProductForecast;
+
+public interface ProductForecastRepository extends JpaRepository<ProductForecast, Long> {
+
+    List<ProductForecast> findByProductIdIn(Collection<Long> productIds);
+
+    @Query("SELECT MAX(f.productId) FROM ProductForecast f")
+    Long findMaxProductId();
+
+    // One id range per call, so each chunk commits on its own and locks stay short
+    @Modifying
+    @Transactional
+    @Query("UPDATE Product p SET p.stockMin = (SELECT f.reorderPoint FROM ProductForecast f WHERE f.productId = p.id) " +
+            "WHERE p.id BETWEEN :fromId AND :toId AND p.deleted = false " +
+            "AND EXISTS (SELECT 1 FROM ProductForecast f WHERE f.productId = p.id)")
+    int applyReorderPoints(@Param("fromId") Long fromId, @Param("toId") Long toId);
+}
@@ -0,0 +1,25 @@
+package com.inventario.repository;
+
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.domain.Specification;
+
+import com.inventario.enums.ProductField;
+import com.inventario.model.Product;
+
+public interface ProductProjectionRepository {
+    /**
+     * Selects only the requested columns as a tuple query. No {@code Product} entity is
+     * hydrated nor attached to the persistence context; every row becomes an ordered map
+     * keyed by the field attribute name.
+     */
+    Page<Map<String, Object>> findProjected(Set<ProductField> fields, Specification<Product> spec, Pageable pageable);
+
+    // Same rows without the COUNT: one extra row is read to know if there is a next page
+    Slice<Map<String, Object>> findProjectedSlice(Set<ProductField> fields, Specification<Product> spec,
+            Pageable pageable);
+}
@@ -1,28 +1,49 @@
 package com.inventario.repository;
 
 import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import com.inventario.dtos.AlertDTO;
 import com.inventario.model.Product;
 
+import jakarta.persistence.QueryHint;
+
 @Repository
-public interface ProductRepository extends JpaRepository<Product, Long> {
+public interface ProductRepository extends JpaRepository<Product, Long>, JpaSpecificationExecutor<Product>,
+        ProductProjectionRepository, ProductBulkRepository {
     boolean existsBySkuAndDeletedFalse(String sku);
     Optional<Product> findByIdAndDeletedFalse(Long id);
     
+    // Write paths: the query cache keeps the id, the row comes from the Product region
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = Product.LOOKUP_CACHE_REGION)
+    })
     @Query("SELECT p FROM Product p WHERE p.id = :id AND p.deleted = false")
     Optional<Product> findActiveById(Long id);
 
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = Product.LOOKUP_CACHE_REGION)
+    })
     Optional<Product> findOptionalBySkuAndDeletedFalse(String sku);
 
+    List<Product> findByIdInAndDeletedFalse(Collection<Long> ids);
+
+    List<Product> findBySkuInAndDeletedFalse(Collection<String> skus);
+
     Page<Product> findByNameContainingIgnoreCaseAndDeletedFalse(String name, Pageable pageable);
 
     Page<Product> findByPriceBetweenAndDeletedFalse(BigDecimal min, BigDecimal max, Pageable pageable);
@@ -30,9 +51,32 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
     @Query("SELECT p FROM Product p WHERE p.deleted = false")
     Page<Product> findAllActive(Pageable pageable);
 
+    // Slices read one row past the page instead of running a COUNT
+    Slice<Product> findSliceByNameContainingIgnoreCaseAndDeletedFalse(String name, Pageable pageable);
+
+    Slice<Product> findSliceByPriceBetweenAndDeletedFalse(BigDecimal min, BigDecimal max, Pageable pageable);
+
+    @Query("SELECT p FROM Product p WHERE p.deleted = false")
+    Slice<Product> findActiveSlice(Pageable pageable);
+
+    // Full catalog walk: seeks past the last id instead of an OFFSET, and skips the Product
+    // region so the walk does not push the hot products out of it
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHE_MODE, value = "IGNORE"))
+    @Query("SELECT p FROM Product p WHERE p.deleted = false AND p.id > :lastId ORDER BY p.id")
+    List<Product> findActiveAfter(long lastId, Pageable pageable);
+
+    long countByDeletedFalse();
+
+    long countByNameContainingIgnoreCaseAndDeletedFalse(String name);
+
+    long countByPriceBetweenAndDeletedFalse(BigDecimal min, BigDecimal max);
+
     @Query("SELECT new com.inventario.dtos.AlertDTO(p.id, p.name, p.sku, p.amount, p.stockMin, (p.stockMin - p.amount)) " +
        "FROM Product p " +
-       "WHERE p.amount < p.stockMin AND p.deleted = false " +
-       "ORDER BY (p.stockMin - p.amount) DESC")
+       "WHERE p.stockDeficit > 0 AND p.deleted = false " +
+       "ORDER BY p.stockDeficit DESC")
     List<AlertDTO> findProductsWithLowStock();
+
+    @Query("SELECT p.sku FROM Product p WHERE p.id IN :ids")
+    List<String> findSkusByIdIn(Collection<Long> ids);
 }
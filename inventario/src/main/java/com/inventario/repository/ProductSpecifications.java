@@ -0,0 +1,82 @@
+package com.inventario.repository;
+
+import java.math.BigDecimal;
+
+import org.springframework.data.jpa.domain.Specification;
+
+import com.inventario.dtos.ProductQueryDTO;
+import com.inventario.enums.Category;
+import com.inventario.model.Product;
+
+public final class ProductSpecifications {
+
+    private ProductSpecifications() {
+    }
+
+    public static Specification<Product> isActive() {
+        return (root, query, cb) -> cb.isFalse(root.get("deleted"));
+    }
+
+    // Same semantics as the derived ContainingIgnoreCase query.
+    public static Specification<Product> nameContains(String name) {
+        String pattern = "%" + escapeLike(name.toUpperCase()) + "%";
+        return (root, query, cb) -> cb.like(cb.upper(root.get("name")), pattern, '\\');
+    }
+
+    public static Specification<Product> priceBetween(BigDecimal min, BigDecimal max) {
+        return (root, query, cb) -> cb.between(root.get("price"), min, max);
+    }
+
+    public static Specification<Product> categoryIs(Category category) {
+        return (root, query, cb) -> cb.equal(root.get("category"), category);
+    }
+
+    public static Specification<Product> priceAtLeast(BigDecimal min) {
+        return (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("price"), min);
+    }
+
+    public static Specification<Product> priceAtMost(BigDecimal max) {
+        return (root, query, cb) -> cb.lessThanOrEqualTo(root.get("price"), max);
+    }
+
+    public static Specification<Product> amountAtLeast(Integer min) {
+        return (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("amount"), min);
+    }
+
+    public static Specification<Product> amountAtMost(Integer max) {
+        return (root, query, cb) -> cb.lessThanOrEqualTo(root.get("amount"), max);
+    }
+
+    public static Specification<Product> lowStock() {
+        return (root, query, cb) -> cb.greaterThan(root.get("stockDeficit"), 0);
+    }
+
+    /**
+     * Builds the predicate for the multi-criteria query. The equality filters go first so the
+     * generated WHERE follows the column order of the composite indexes declared on Product.
+     */
+    public static Specification<Product> fromQuery(ProductQueryDTO criteria) {
+        Specification<Product> spec = isActive();
+        if (criteria.category() != null)
+            spec = spec.and(categoryIs(criteria.category()));
+        if (criteria.minPrice() != null && criteria.maxPrice() != null)
+            spec = spec.and(priceBetween(criteria.minPrice(), criteria.maxPrice()));
+        else if (criteria.minPrice() != null)
+            spec = spec.and(priceAtLeast(criteria.minPrice()));
+        else if (criteria.maxPrice() != null)
+            spec = spec.and(priceAtMost(criteria.maxPrice()));
+        if (criteria.minAmount() != null)
+            spec = spec.and(amountAtLeast(criteria.minAmount()));
+        if (criteria.maxAmount() != null)
+            spec = spec.and(amountAtMost(criteria.maxAmount()));
+        if (Boolean.TRUE.equals(criteria.lowStock()))
+            spec = spec.and(lowStock());
+        if (criteria.name() != null && !criteria.name().isBlank())
+            spec = spec.and(nameContains(criteria.name()));
+        return spec;
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
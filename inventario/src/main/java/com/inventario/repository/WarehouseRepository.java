@@ -0,0 +1,10 @@
+package com.inventario.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import com.inventario.model.Warehouse;
+
+public interface WarehouseRepository extends JpaRepository<Warehouse, Long> {
+
+    boolean existsByCode(String code);
+}
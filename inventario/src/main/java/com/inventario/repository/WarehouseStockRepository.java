@@ -0,0 +1,112 @@
+package com.inventario.repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import com.inventario.model.WarehouseStock;
+import com.inventario.model.WarehouseStockId;
+
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+
+/**
+ * Stock movements are single conditional statements on one (product, warehouse) row: the
+ * check and the change happen under the row lock the UPDATE takes, so there is no read
+ * before the write and no lock on the products row. Rows in hot mode are skipped; their
+ * quantity is owned by Redis until they are demoted.
+ */
+public interface WarehouseStockRepository extends JpaRepository<WarehouseStock, WarehouseStockId> {
+
+    // 0 rows updated means the location has less than the quantity, no row at all, or is hot
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE WarehouseStock ws SET ws.amount = ws.amount - :quantity, ws.updatedAt = :now, ws.totalsPending = true " +
+            "WHERE ws.id.productId = :productId AND ws.id.warehouseId = :warehouseId AND ws.amount >= :quantity " +
+            "AND ws.hot = false")
+    int decrease(@Param("productId") Long productId, @Param("warehouseId") Long warehouseId,
+            @Param("quantity") int quantity, @Param("now") LocalDateTime now);
+
+    // 0 rows updated means no row yet for the location, or a hot row
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE WarehouseStock ws SET ws.amount = ws.amount + :quantity, ws.updatedAt = :now, ws.totalsPending = true " +
+            "WHERE ws.id.productId = :productId AND ws.id.warehouseId = :warehouseId AND ws.hot = false")
+    int increase(@Param("productId") Long productId, @Param("warehouseId") Long warehouseId,
+            @Param("quantity") int quantity, @Param("now") LocalDateTime now);
+
+    // First entrance to a location. Native statements declare the tables they write, otherwise
+    // Hibernate clears every second-level cache region after them.
+    @Modifying(flushAutomatically = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "warehouse_stock"))
+    @Query(value = "INSERT INTO warehouse_stock (product_id, warehouse_id, amount, updated_at, hot, totals_pending) " +
+            "VALUES (:productId, :warehouseId, :quantity, :now, 0, 1)", nativeQuery = true)
+    int insert(@Param("productId") Long productId, @Param("warehouseId") Long warehouseId,
+            @Param("quantity") int quantity, @Param("now") LocalDateTime now);
+
+    // Write-behind of the hot stock: Redis already checked the quantity
+    @Modifying(flushAutomatically = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "warehouse_stock"))
+    @Query(value = "UPDATE warehouse_stock SET amount = amount + :delta, updated_at = :now, totals_pending = 1 " +
+            "WHERE product_id = :productId AND warehouse_id = :warehouseId", nativeQuery = true)
+    int applyDelta(@Param("productId") Long productId, @Param("warehouseId") Long warehouseId,
+            @Param("delta") int delta, @Param("now") LocalDateTime now);
+
+    @Query("SELECT ws.hot FROM WarehouseStock ws WHERE ws.id.productId = :productId AND ws.id.warehouseId = :warehouseId")
+    Optional<Boolean> findHot(@Param("productId") Long productId, @Param("warehouseId") Long warehouseId);
+
+    // Promotion and demotion hold the row lock while the quantity changes store
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT ws FROM WarehouseStock ws WHERE ws.id = :id")
+    Optional<WarehouseStock> findLocked(@Param("id") WarehouseStockId id);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE WarehouseStock ws SET ws.hot = :hot " +
+            "WHERE ws.id.productId = :productId AND ws.id.warehouseId = :warehouseId")
+    int setHot(@Param("productId") Long productId, @Param("warehouseId") Long warehouseId, @Param("hot") boolean hot);
+
+    @Query("SELECT ws.id.productId FROM WarehouseStock ws WHERE ws.hot = true AND ws.id.warehouseId = :warehouseId")
+    List<Long> findHotProductIds(@Param("warehouseId") Long warehouseId);
+
+    // Served from the primary key prefix: one range read over the locations of the product
+    @Query("SELECT COALESCE(SUM(ws.amount), 0) FROM WarehouseStock ws WHERE ws.id.productId = :productId")
+    long sumAmount(@Param("productId") Long productId);
+
+    @Query("SELECT COALESCE(SUM(ws.amount), 0) FROM WarehouseStock ws " +
+            "WHERE ws.id.productId = :productId AND ws.id.warehouseId <> :warehouseId")
+    long sumAmountOutside(@Param("productId") Long productId, @Param("warehouseId") Long warehouseId);
+
+    List<WarehouseStock> findByIdProductIdOrderByIdWarehouseId(Long productId);
+
+    // Products whose total waits for the rollup, after the given id: one pass over the index
+    @Query("SELECT DISTINCT ws.id.productId FROM WarehouseStock ws " +
+            "WHERE ws.totalsPending = true AND ws.id.productId > :afterId ORDER BY ws.id.productId")
+    List<Long> findTotalsPending(@Param("afterId") long afterId, Pageable pageable);
+
+    // Run before the sums: the cleared rows stay locked, so a movement on them waits for the
+    // commit and marks them again
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "warehouse_stock"))
+    @Query(value = "UPDATE warehouse_stock SET totals_pending = 0 " +
+            "WHERE product_id IN (:productIds) AND totals_pending = 1", nativeQuery = true)
+    int clearTotalsPending(@Param("productIds") Collection<Long> productIds);
+
+    // Writes the total of every location back to products.amount for the given products.
+    // Synchronized on warehouse_stock only: with products Hibernate would clear the whole Product
+    // region on every rollup. The caller evicts the updated ids in the same transaction instead
+    // (ProductCacheInvalidator.evictEntities), which keeps them locked until commit.
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "warehouse_stock"))
+    @Query(value = "UPDATE products p SET amount = " +
+            "(SELECT COALESCE(SUM(ws.amount), 0) FROM warehouse_stock ws WHERE ws.product_id = p.id) " +
+            "WHERE p.id IN (:productIds)", nativeQuery = true)
+    int syncProductTotals(@Param("productIds") Collection<Long> productIds);
+}
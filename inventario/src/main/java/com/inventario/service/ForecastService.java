@@ -0,0 +1,18 @@
+package com.inventario.service;
+
+import java.util.List;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import com.inventario.dtos.ForecastDTO;
+import com.inventario.dtos.ForecastRunDTO;
+
+public interface ForecastService {
+    ForecastDTO getForecast(Long productId);
+    Page<ForecastDTO> getForecasts(Pageable pageable);
+    List<ForecastDTO> getForecasts(List<Long> productIds);
+    ForecastRunDTO runForecast();
+    ForecastRunDTO getLastRun();
+    int applyStockMin();
+}
@@ -0,0 +1,23 @@
+package com.inventario.service;
+
+import java.util.OptionalLong;
+
+import com.inventario.dtos.HotStockDTO;
+import com.inventario.dtos.HotStockReconciliationDTO;
+import com.inventario.dtos.HotStockStatusDTO;
+import com.inventario.enums.MovementType;
+
+public interface HotStockService {
+    // Only the default warehouse of a promoted product is served from Redis
+    boolean isHot(Long productId, Long warehouseId);
+
+    // New total of the product, or empty if Redis no longer holds it (the database applies it)
+    OptionalLong tryApply(Long productId, int quantity, MovementType movementType, String reason);
+
+    OptionalLong currentAmount(Long productId);
+
+    HotStockDTO promote(Long productId);
+    HotStockDTO demote(Long productId);
+    HotStockReconciliationDTO reconcile();
+    HotStockStatusDTO getStatus();
+}
@@ -0,0 +1,8 @@
+package com.inventario.service;
+
+import com.inventario.dtos.BulkUpdateDTO;
+import com.inventario.dtos.BulkUpdateResultDTO;
+
+public interface ProductBulkUpdateService {
+    BulkUpdateResultDTO bulkUpdate(BulkUpdateDTO request);
+}
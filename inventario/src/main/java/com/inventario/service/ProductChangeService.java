@@ -0,0 +1,8 @@
+package com.inventario.service;
+
+import com.inventario.dtos.ProductChangesDTO;
+
+public interface ProductChangeService {
+    // Without since: no changes, only the token to start from after a full download
+    ProductChangesDTO getChanges(Long since, Integer limit);
+}
@@ -2,34 +2,65 @@ package com.inventario.service;
 
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
 
 import com.inventario.dtos.AlertDTO;
 import com.inventario.dtos.ProductCreationDTO;
 import com.inventario.dtos.ProductDTO;
+import com.inventario.dtos.ProductLookupDTO;
+import com.inventario.dtos.ProductQueryDTO;
 import com.inventario.dtos.ProductUpdateDTO;
 import com.inventario.dtos.StockDTO;
+import com.inventario.enums.CountMode;
 import com.inventario.enums.MovementType;
+import com.inventario.enums.ProductField;
 
 public interface ProductService {
     ProductDTO createProduct(ProductCreationDTO product);
-    Page<ProductDTO> getProducts(Pageable pageable);
     ProductDTO getProductById(Long id);
     ProductDTO getProductBySku(String sku);
+
+    // Multi-get: one cache round trip and one query for all the misses
+    List<ProductLookupDTO> getProductsByIds(List<Long> ids);
+    List<ProductLookupDTO> getProductsBySkus(List<String> skus);
     ProductDTO updateProduct(Long id, ProductUpdateDTO product);
     void deleteProduct(Long id);
     ProductDTO updateStock(Long id, Integer quantity, MovementType movementType, String reason);
+    ProductDTO updateStock(Long id, Long warehouseId, Integer quantity, MovementType movementType, String reason);
 
-    // Stock managment
+    // Stock managment (without warehouseId the default warehouse is used)
     ProductDTO increaseStock(Long id, StockDTO entrance);
     ProductDTO decreaseStock(Long id, StockDTO exit);
+    ProductDTO increaseStock(Long id, Long warehouseId, StockDTO entrance);
+    ProductDTO decreaseStock(Long id, Long warehouseId, StockDTO exit);
+
+    // Multi-criteria query (name, category, price, amount, low stock)
+    Page<ProductDTO> query(ProductQueryDTO criteria, Pageable pageable);
+    Page<Map<String, Object>> query(ProductQueryDTO criteria, Set<ProductField> fields, Pageable pageable);
+
+    // Listings, searching and filters with a count mode: NONE is a Slice without COUNT,
+    // ESTIMATE and EXACT are Pages. With fields only the requested columns are selected.
+    Slice<ProductDTO> getProducts(Pageable pageable, CountMode countMode);
+
+    Slice<ProductDTO> searchByName(String name, Pageable pageable, CountMode countMode);
+
+    Slice<ProductDTO> filterByRange(BigDecimal min, BigDecimal max, Pageable pageable, CountMode countMode);
+
+    Slice<Map<String, Object>> getProducts(Set<ProductField> fields, Pageable pageable, CountMode countMode);
+
+    Slice<Map<String, Object>> searchByName(String name, Set<ProductField> fields, Pageable pageable,
+            CountMode countMode);
 
-    // Searching and filters
-    Page<ProductDTO> searchByName(String name, Pageable pageable);
+    Slice<Map<String, Object>> filterByRange(BigDecimal min, BigDecimal max, Set<ProductField> fields,
+            Pageable pageable, CountMode countMode);
 
-    Page<ProductDTO> filterByRange(BigDecimal min, BigDecimal max, Pageable pageable);
+    // Catalog by id for full syncs, without the list cache: the page after lastId
+    List<ProductDTO> getCatalogAfter(long lastId, int size);
 
     // Alerts of stocks
     List<AlertDTO> getLowStockAlerts();
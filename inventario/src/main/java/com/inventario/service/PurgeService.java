@@ -0,0 +1,13 @@
+package com.inventario.service;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import com.inventario.dtos.PurgeRunDTO;
+import com.inventario.model.ArchivedProduct;
+
+public interface PurgeService {
+    PurgeRunDTO runPurge();
+    PurgeRunDTO getLastRun();
+    Page<ArchivedProduct> getArchived(String sku, Pageable pageable);
+}
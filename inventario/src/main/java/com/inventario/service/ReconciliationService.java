@@ -0,0 +1,8 @@
+package com.inventario.service;
+
+import com.inventario.dtos.ReconciliationRunDTO;
+
+public interface ReconciliationService {
+    ReconciliationRunDTO runReconciliation(boolean repair);
+    ReconciliationRunDTO getLastRun();
+}
@@ -0,0 +1,25 @@
+package com.inventario.service;
+
+import java.util.List;
+
+import com.inventario.dtos.AvailabilityDTO;
+import com.inventario.dtos.TransferDTO;
+import com.inventario.dtos.TransferResultDTO;
+import com.inventario.dtos.WarehouseCreationDTO;
+import com.inventario.dtos.WarehouseDTO;
+import com.inventario.enums.MovementType;
+
+public interface WarehouseService {
+    List<WarehouseDTO> getWarehouses();
+    WarehouseDTO createWarehouse(WarehouseCreationDTO request);
+
+    // Total over all locations plus the stock of each one
+    AvailabilityDTO getAvailability(Long productId);
+
+    // Applies a movement to one location only and returns the new total of the product
+    long applyMovement(Long productId, Long warehouseId, int quantity, MovementType movementType);
+    void initializeStock(Long productId, int amount);
+
+    // SALIDA from the source and ENTRADA to the target in one transaction
+    TransferResultDTO transfer(TransferDTO request);
+}
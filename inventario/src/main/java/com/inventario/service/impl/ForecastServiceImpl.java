@@ -0,0 +1,150 @@
+package com.inventario.service.impl;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.inventario.cache.ProductCacheInvalidator;
+import com.inventario.changes.ProductChangeLog;
+import com.inventario.dtos.ForecastDTO;
+import com.inventario.dtos.ForecastRunDTO;
+import com.inventario.exceptions.ProductNotFoundException;
+import com.inventario.forecast.ForecastJob;
+import com.inventario.forecast.ForecastProperties;
+import com.inventario.mappers.ForecastMapper;
+import com.inventario.repository.ProductForecastRepository;
+import com.inventario.service.ForecastService;
+
+@Service
+public class ForecastServiceImpl implements ForecastService {
+    private static final Logger log = LoggerFactory.getLogger(ForecastServiceImpl.class);
+
+    private final ProductForecastRepository forecastRepository;
+    private final ForecastMapper forecastMapper;
+    private final ForecastJob forecastJob;
+    private final ForecastProperties properties;
+    private final ProductChangeLog changeLog;
+    private final ProductCacheInvalidator cacheInvalidator;
+    private final TransactionTemplate transactionTemplate;
+    private final AtomicBoolean running = new AtomicBoolean();
+    // Spring's application executor: virtual threads when spring.threads.virtual.enabled is on
+    private final Executor taskExecutor;
+    private volatile ForecastRunDTO lastRun = new ForecastRunDTO(false, null, null, 0, 0, 0, null);
+
+    public ForecastServiceImpl(ProductForecastRepository forecastRepository, ForecastMapper forecastMapper,
+            ForecastJob forecastJob, ForecastProperties properties, ProductChangeLog changeLog,
+            ProductCacheInvalidator cacheInvalidator, TransactionTemplate transactionTemplate,
+            @Qualifier(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME) Executor taskExecutor) {
+        this.forecastRepository = forecastRepository;
+        this.forecastMapper = forecastMapper;
+        this.forecastJob = forecastJob;
+        this.properties = properties;
+        this.changeLog = changeLog;
+        this.cacheInvalidator = cacheInvalidator;
+        this.transactionTemplate = transactionTemplate;
+        this.taskExecutor = taskExecutor;
+    }
+
+    @Override
+    public ForecastDTO getForecast(Long productId) {
+        return forecastRepository.findById(productId)
+                .map(forecastMapper::toDTO)
+                .orElseThrow(() -> new ProductNotFoundException("Forecast not found."));
+    }
+
+    @Override
+    public Page<ForecastDTO> getForecasts(Pageable pageable) {
+        return forecastRepository.findAll(pageable).map(forecastMapper::toDTO);
+    }
+
+    @Override
+    public List<ForecastDTO> getForecasts(List<Long> productIds) {
+        if (productIds == null || productIds.isEmpty())
+            throw new IllegalArgumentException("At least one id is required.");
+        if (productIds.size() > ProductServiceImpl.MAX_BATCH_SIZE)
+            throw new IllegalArgumentException("At most " + ProductServiceImpl.MAX_BATCH_SIZE + " ids per request.");
+        return forecastRepository.findByProductIdIn(productIds).stream()
+                .map(forecastMapper::toDTO)
+                .toList();
+    }
+
+    /**
+     * Starts a run in the background; if one is already running its state is returned instead.
+     */
+    @Override
+    public ForecastRunDTO runForecast() {
+        if (!running.compareAndSet(false, true))
+            return lastRun;
+        LocalDateTime startedAt = LocalDateTime.now();
+        lastRun = new ForecastRunDTO(true, startedAt, null, 0, 0, 0, null);
+        CompletableFuture.runAsync(() -> execute(startedAt), taskExecutor);
+        return lastRun;
+    }
+
+    @Scheduled(cron = "${inventario.forecast.cron:0 30 2 * * *}")
+    public void scheduledRun() {
+        runForecast();
+    }
+
+    private void execute(LocalDateTime startedAt) {
+        try {
+            ForecastJob.Result result = forecastJob.run();
+            LocalDateTime finishedAt = LocalDateTime.now();
+            lastRun = new ForecastRunDTO(false, startedAt, finishedAt, result.products(), result.movements(),
+                    Duration.between(startedAt, finishedAt).toMillis(), null);
+        } catch (RuntimeException ex) {
+            log.error("Forecast run failed", ex);
+            LocalDateTime finishedAt = LocalDateTime.now();
+            lastRun = new ForecastRunDTO(false, startedAt, finishedAt, 0, 0,
+                    Duration.between(startedAt, finishedAt).toMillis(), ex.getMessage());
+        } finally {
+            running.set(false);
+        }
+    }
+
+    @Override
+    public ForecastRunDTO getLastRun() {
+        return lastRun;
+    }
+
+    // Each id range is its own transaction, with the change rows of the products it modifies
+    @Override
+    @Caching(evict = {
+            @CacheEvict(value = "products", allEntries = true),
+            @CacheEvict(value = "productLists", allEntries = true)
+    })
+    public int applyStockMin() {
+        Long maxId = forecastRepository.findMaxProductId();
+        if (maxId == null)
+            return 0;
+        int updated = 0;
+        long step = properties.chunkSize();
+        for (long from = 1; from <= maxId; from += step) {
+            long fromId = from;
+            long toId = Math.min(maxId, from + step - 1);
+            Integer chunk = transactionTemplate.execute(status -> {
+                changeLog.recordReorderPointChanges(fromId, toId);
+                return forecastRepository.applyReorderPoints(fromId, toId);
+            });
+            updated += chunk == null ? 0 : chunk;
+        }
+        if (updated > 0)
+            cacheInvalidator.evictAllEntities();
+        return updated;
+    }
+}
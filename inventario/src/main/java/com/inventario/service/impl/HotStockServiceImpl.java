@@ -0,0 +1,220 @@
+package com.inventario.service.impl;
+
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.inventario.dtos.HotStockDTO;
+import com.inventario.dtos.HotStockReconciliationDTO;
+import com.inventario.dtos.HotStockStatusDTO;
+import com.inventario.enums.MovementType;
+import com.inventario.exceptions.InsufficientStockException;
+import com.inventario.exceptions.ProductNotFoundException;
+import com.inventario.hotstock.HotStockProperties;
+import com.inventario.hotstock.HotStockRegistry;
+import com.inventario.hotstock.HotStockStore;
+import com.inventario.hotstock.HotStockWriteBehind;
+import com.inventario.model.Warehouse;
+import com.inventario.model.WarehouseStock;
+import com.inventario.model.WarehouseStockId;
+import com.inventario.repository.ProductRepository;
+import com.inventario.repository.WarehouseStockRepository;
+import com.inventario.service.HotStockService;
+
+/**
+ * Promotion copies the default warehouse quantity to Redis while holding the row lock and
+ * flags the row hot in the same transaction, so no SQL movement can slip in between. Demotion
+ * removes the counter first (movements get a retryable 503 from then on), drains the stream
+ * into the database and clears the flag.
+ */
+@Service
+public class HotStockServiceImpl implements HotStockService {
+    private static final Logger log = LoggerFactory.getLogger(HotStockServiceImpl.class);
+
+    private final HotStockStore store;
+    private final HotStockRegistry registry;
+    private final HotStockWriteBehind writeBehind;
+    private final WarehouseStockRepository warehouseStockRepository;
+    private final ProductRepository productRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final HotStockProperties properties;
+
+    public HotStockServiceImpl(HotStockStore store, HotStockRegistry registry, HotStockWriteBehind writeBehind,
+            WarehouseStockRepository warehouseStockRepository, ProductRepository productRepository,
+            TransactionTemplate transactionTemplate, HotStockProperties properties) {
+        this.store = store;
+        this.registry = registry;
+        this.writeBehind = writeBehind;
+        this.warehouseStockRepository = warehouseStockRepository;
+        this.productRepository = productRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.properties = properties;
+    }
+
+    @Override
+    public boolean isHot(Long productId, Long warehouseId) {
+        return properties.enabled() && Long.valueOf(Warehouse.DEFAULT_ID).equals(warehouseId)
+                && registry.contains(productId);
+    }
+
+    // Not transactional: the Redis change stands on its own and reaches the database through the stream
+    @Override
+    @CacheEvict(value = "availability", key = "#productId")
+    public OptionalLong tryApply(Long productId, int quantity, MovementType movementType, String reason) {
+        // stock_manager.reason is NOT NULL: the write-behind could never apply the entry
+        if (reason == null || reason.isBlank())
+            throw new IllegalArgumentException("The reason cannot be blank.");
+        long result = store.apply(productId, quantity, movementType, reason, Instant.now());
+        if (result == HotStockStore.INSUFFICIENT)
+            throw new InsufficientStockException("Insuficient stock.");
+        if (result == HotStockStore.NOT_HOT) {
+            registry.remove(productId);
+            return OptionalLong.empty();
+        }
+        return OptionalLong.of(result + warehouseStockRepository.sumAmountOutside(productId, Warehouse.DEFAULT_ID));
+    }
+
+    @Override
+    public OptionalLong currentAmount(Long productId) {
+        if (!isHot(productId, Warehouse.DEFAULT_ID))
+            return OptionalLong.empty();
+        Long amount = store.getAll(List.of(productId)).get(productId);
+        return amount == null ? OptionalLong.empty() : OptionalLong.of(amount);
+    }
+
+    @Override
+    public HotStockDTO promote(Long productId) {
+        requireEnabled();
+        if (productRepository.findActiveById(productId).isEmpty())
+            throw new ProductNotFoundException("Product not found.");
+        HotStockDTO promoted = transactionTemplate.execute(status -> {
+            WarehouseStock row = warehouseStockRepository.findLocked(new WarehouseStockId(productId, Warehouse.DEFAULT_ID))
+                    .orElseThrow(() -> new IllegalArgumentException("The product has no stock in the default warehouse."));
+            if (row.isHot())
+                return new HotStockDTO(productId, null, row.getAmount());
+            store.set(productId, row.getAmount());
+            warehouseStockRepository.setHot(productId, Warehouse.DEFAULT_ID, true);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int completion) {
+                    if (completion == STATUS_COMMITTED)
+                        registry.add(productId);
+                    else
+                        store.remove(productId);
+                }
+            });
+            return new HotStockDTO(productId, row.getAmount().longValue(), row.getAmount());
+        });
+        log.info("Product {} promoted to hot stock", productId);
+        return promoted;
+    }
+
+    @Override
+    public HotStockDTO demote(Long productId) {
+        requireEnabled();
+        if (!warehouseStockRepository.findHot(productId, Warehouse.DEFAULT_ID).orElse(false))
+            throw new IllegalArgumentException("The product is not in hot stock.");
+        registry.remove(productId);
+        long last = store.remove(productId);
+        writeBehind.drain();
+
+        Integer databaseAmount = transactionTemplate.execute(status -> {
+            WarehouseStock row = warehouseStockRepository.findLocked(new WarehouseStockId(productId, Warehouse.DEFAULT_ID))
+                    .orElseThrow(() -> new IllegalStateException("Default warehouse row disappeared."));
+            warehouseStockRepository.setHot(productId, Warehouse.DEFAULT_ID, false);
+            return row.getAmount();
+        });
+        // Entries still pending on other instances are applied by them and close the gap
+        if (last != HotStockStore.NOT_HOT && databaseAmount != null && last != databaseAmount)
+            log.warn("Product {} demoted with Redis at {} and the database at {}", productId, last, databaseAmount);
+        log.info("Product {} demoted from hot stock", productId);
+        return new HotStockDTO(productId, last == HotStockStore.NOT_HOT ? null : last, databaseAmount);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconcileOnStartup() {
+        if (!properties.enabled())
+            return;
+        try {
+            HotStockReconciliationDTO result = reconcile();
+            log.info("Hot stock reconciled on startup: {}", result);
+        } catch (DataAccessException ex) {
+            log.error("Hot stock reconciliation failed on startup", ex);
+        }
+    }
+
+    /**
+     * Applies the stream backlog first, so the database rows are as fresh as this instance can
+     * make them, then rebuilds missing counters from the database and drops counters of
+     * products that are not hot there.
+     */
+    @Override
+    public HotStockReconciliationDTO reconcile() {
+        requireEnabled();
+        int applied = writeBehind.drain();
+        List<Long> hotIds = warehouseStockRepository.findHotProductIds(Warehouse.DEFAULT_ID);
+        Map<Long, Long> counters = store.getAll(hotIds);
+
+        int restored = 0;
+        int mismatches = 0;
+        for (Long productId : hotIds) {
+            Integer databaseAmount = warehouseStockRepository.findById(new WarehouseStockId(productId, Warehouse.DEFAULT_ID))
+                    .map(WarehouseStock::getAmount)
+                    .orElse(0);
+            Long counter = counters.get(productId);
+            if (counter == null) {
+                if (store.setIfAbsent(productId, databaseAmount))
+                    restored++;
+            } else if (counter.longValue() != databaseAmount) {
+                mismatches++;
+                log.warn("Hot stock of product {}: Redis {} and database {}", productId, counter, databaseAmount);
+            }
+        }
+
+        Set<Long> hotSet = new HashSet<>(hotIds);
+        int orphans = 0;
+        for (Long productId : store.scanProductIds()) {
+            if (!hotSet.contains(productId)
+                    && !warehouseStockRepository.findHot(productId, Warehouse.DEFAULT_ID).orElse(false)) {
+                store.remove(productId);
+                orphans++;
+            }
+        }
+        registry.refresh();
+        return new HotStockReconciliationDTO(hotIds.size(), restored, orphans, mismatches, applied);
+    }
+
+    @Override
+    public HotStockStatusDTO getStatus() {
+        if (!properties.enabled())
+            return new HotStockStatusDTO(false, 0, 0, List.of());
+        List<Long> hotIds = warehouseStockRepository.findHotProductIds(Warehouse.DEFAULT_ID);
+        Map<Long, Long> counters = store.getAll(hotIds);
+        List<HotStockDTO> products = hotIds.stream()
+                .map(productId -> new HotStockDTO(productId, counters.get(productId),
+                        warehouseStockRepository.findById(new WarehouseStockId(productId, Warehouse.DEFAULT_ID))
+                                .map(WarehouseStock::getAmount)
+                                .orElse(null)))
+                .toList();
+        return new HotStockStatusDTO(true, store.backlog(), store.deadLetters(), products);
+    }
+
+    private void requireEnabled() {
+        if (!properties.enabled())
+            throw new IllegalArgumentException("Hot stock mode is disabled (inventario.hot-stock.enabled).");
+    }
+}
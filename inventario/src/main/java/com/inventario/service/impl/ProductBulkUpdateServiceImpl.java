@@ -0,0 +1,123 @@
+package com.inventario.service.impl;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.inventario.cache.ProductCacheInvalidator;
+import com.inventario.changes.ProductChangeLog;
+import com.inventario.dtos.BulkUpdateDTO;
+import com.inventario.dtos.BulkUpdateResultDTO;
+import com.inventario.enums.ProductChangeType;
+import com.inventario.repository.ProductRepository;
+import com.inventario.service.ProductBulkUpdateService;
+
+/**
+ * Set-based bulk updates. The target rows are walked in chunks (primary key ranges for a
+ * category, slices of the list for SKUs); each chunk reads its ids and SKUs, runs one UPDATE
+ * and commits in its own transaction, so row locks are held for one chunk only. The cache
+ * entries of the chunk are evicted right after its commit.
+ */
+@Service
+public class ProductBulkUpdateServiceImpl implements ProductBulkUpdateService {
+    static final int MAX_SKUS = 10_000;
+
+    private final ProductRepository productRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ProductCacheInvalidator cacheInvalidator;
+    private final ProductChangeLog changeLog;
+    private final int chunkSize;
+
+    public ProductBulkUpdateServiceImpl(ProductRepository productRepository, TransactionTemplate transactionTemplate,
+            ProductCacheInvalidator cacheInvalidator, ProductChangeLog changeLog,
+            @Value("${inventario.bulk-update.chunk-size:500}") int chunkSize) {
+        this.productRepository = productRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.cacheInvalidator = cacheInvalidator;
+        this.changeLog = changeLog;
+        this.chunkSize = chunkSize;
+    }
+
+    private record ChunkResult(Map<Long, String> keys, int updated) {
+    }
+
+    @Override
+    public BulkUpdateResultDTO bulkUpdate(BulkUpdateDTO request) {
+        validate(request);
+        long start = System.nanoTime();
+        LocalDateTime now = LocalDateTime.now();
+        int matched = 0;
+        int updated = 0;
+        int chunks = 0;
+        List<String> unknownSkus = new ArrayList<>();
+
+        if (request.category() != null) {
+            long[] bounds = productRepository.findActiveIdBounds(request.category()).orElse(null);
+            for (long from = bounds != null ? bounds[0] : 1; bounds != null && from <= bounds[1]; from += chunkSize) {
+                long to = Math.min(bounds[1], from + chunkSize - 1);
+                long fromId = from;
+                ChunkResult result = runChunk(request, now,
+                        () -> productRepository.findActiveKeys(request.category(), fromId, to));
+                matched += result.keys().size();
+                updated += result.updated();
+                chunks++;
+            }
+        } else {
+            List<String> skus = new ArrayList<>(new LinkedHashSet<>(request.skus()));
+            for (int from = 0; from < skus.size(); from += chunkSize) {
+                List<String> slice = skus.subList(from, Math.min(skus.size(), from + chunkSize));
+                ChunkResult result = runChunk(request, now, () -> productRepository.findActiveKeysBySku(slice));
+                slice.stream().filter(sku -> !result.keys().containsValue(sku)).forEach(unknownSkus::add);
+                matched += result.keys().size();
+                updated += result.updated();
+                chunks++;
+            }
+        }
+        if (matched > 0)
+            cacheInvalidator.evictLists();
+        return new BulkUpdateResultDTO(matched, updated, matched - updated, chunks, unknownSkus,
+                (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private ChunkResult runChunk(BulkUpdateDTO request, LocalDateTime now, Supplier<Map<Long, String>> targets) {
+        ChunkResult result = transactionTemplate.execute(status -> {
+            Map<Long, String> keys = targets.get();
+            if (keys.isEmpty())
+                return new ChunkResult(keys, 0);
+            cacheInvalidator.evictEntities(keys.keySet());
+            int updated = productRepository.bulkUpdate(keys.keySet(), request, now);
+            if (updated > 0)
+                changeLog.recordAll(keys.keySet(), ProductChangeType.UPDATED);
+            return new ChunkResult(keys, updated);
+        });
+        cacheInvalidator.evictProducts(result.keys().keySet(), result.keys().values());
+        return result;
+    }
+
+    private void validate(BulkUpdateDTO request) {
+        if (request == null)
+            throw new IllegalArgumentException("The request is null.");
+        boolean bySkus = request.skus() != null && !request.skus().isEmpty();
+        if ((request.category() != null) == bySkus)
+            throw new IllegalArgumentException("Select the products by category or by skus, not both.");
+        if (bySkus && request.skus().size() > MAX_SKUS)
+            throw new IllegalArgumentException("At most " + MAX_SKUS + " skus per request.");
+        if (request.pricePercent() != null && request.priceDelta() != null)
+            throw new IllegalArgumentException("Use pricePercent or priceDelta, not both.");
+        if (request.pricePercent() == null && request.priceDelta() == null && request.stockMin() == null
+                && request.newCategory() == null)
+            throw new IllegalArgumentException("Nothing to update.");
+        if (request.pricePercent() != null && request.pricePercent().compareTo(BigDecimal.valueOf(-100)) <= 0)
+            throw new IllegalArgumentException("The price cannot go down 100% or more.");
+        if (request.stockMin() != null && request.stockMin() < 0)
+            throw new IllegalArgumentException("The stockMin cannot be negative.");
+    }
+}
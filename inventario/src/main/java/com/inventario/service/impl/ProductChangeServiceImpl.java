@@ -0,0 +1,119 @@
+package com.inventario.service.impl;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.inventario.changes.ProductChangeProperties;
+import com.inventario.dtos.ProductChangeDTO;
+import com.inventario.dtos.ProductChangesDTO;
+import com.inventario.exceptions.ChangeTokenExpiredException;
+import com.inventario.maintenance.ProductChangeCompactionJob;
+import com.inventario.mappers.ProductMapper;
+import com.inventario.model.Product;
+import com.inventario.model.ProductChange;
+import com.inventario.repository.ProductChangeRepository;
+import com.inventario.repository.ProductRepository;
+import com.inventario.service.ProductChangeService;
+
+@Service
+public class ProductChangeServiceImpl implements ProductChangeService {
+    private static final Logger log = LoggerFactory.getLogger(ProductChangeServiceImpl.class);
+
+    private final ProductChangeRepository changeRepository;
+    private final ProductRepository productRepository;
+    private final ProductMapper productMapper;
+    private final ProductChangeCompactionJob compactionJob;
+    private final ProductChangeProperties properties;
+
+    public ProductChangeServiceImpl(ProductChangeRepository changeRepository, ProductRepository productRepository,
+            ProductMapper productMapper, ProductChangeCompactionJob compactionJob, ProductChangeProperties properties) {
+        this.changeRepository = changeRepository;
+        this.productRepository = productRepository;
+        this.productMapper = productMapper;
+        this.compactionJob = compactionJob;
+        this.properties = properties;
+    }
+
+    /**
+     * A product changed several times in the page is returned once, at its latest token, with
+     * its current state. The token of the page is the last row read, so the next page starts
+     * right after it even if that row was folded into an earlier product.
+     *
+     * The page ends at the first row that has not settled: changed_at is taken before the
+     * insert, which may wait on locks, so a lower token can carry a later time, and skipping it
+     * would move the token past a change that was never sent.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public ProductChangesDTO getChanges(Long since, Integer limit) {
+        LocalDateTime settledBefore = LocalDateTime.now().minus(properties.settleTime());
+        if (since == null) {
+            long head = changeRepository.findFirstByChangedAtBeforeOrderByIdDesc(settledBefore)
+                    .map(ProductChange::getId)
+                    .orElse(0L);
+            return new ProductChangesDTO(List.of(), head, false);
+        }
+        if (since < 0)
+            throw new IllegalArgumentException("The change token cannot be negative.");
+        int size = limit == null ? properties.defaultLimit() : limit;
+        if (size < 1 || size > properties.maxLimit())
+            throw new IllegalArgumentException("The limit must be between 1 and " + properties.maxLimit() + ".");
+        long horizon = changeRepository.findCompactedThrough().orElse(0L);
+        if (since < horizon)
+            throw new ChangeTokenExpiredException("The change token " + since
+                    + " is older than the change log, download the catalog again.");
+
+        Slice<ProductChange> rows = changeRepository.findByIdGreaterThanOrderByIdAsc(since, PageRequest.of(0, size));
+        List<ProductChange> settled = rows.getContent();
+        for (int i = 0; i < settled.size(); i++) {
+            if (!settled.get(i).getChangedAt().isBefore(settledBefore)) {
+                settled = settled.subList(0, i);
+                break;
+            }
+        }
+        if (settled.isEmpty())
+            return new ProductChangesDTO(List.of(), since, false);
+
+        Map<Long, ProductChange> latest = new LinkedHashMap<>();
+        for (ProductChange row : settled) {
+            latest.remove(row.getProductId());
+            latest.put(row.getProductId(), row);
+        }
+        // Soft-deleted products are loaded too: they become tombstones whatever their last change was
+        Map<Long, Product> products = productRepository.findAllById(latest.keySet()).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+        List<ProductChangeDTO> changes = latest.values().stream()
+                .map(row -> {
+                    Product product = products.get(row.getProductId());
+                    if (product == null || product.isDeleted())
+                        return ProductChangeDTO.tombstone(row.getId(), row.getProductId(), row.getSku());
+                    return new ProductChangeDTO(row.getId(), row.getProductId(), product.getSku(), row.getChangeType(),
+                            productMapper.toDTO(product));
+                })
+                .toList();
+        long nextToken = settled.get(settled.size() - 1).getId();
+        // A page cut at an unsettled row has more, but not before it settles
+        return new ProductChangesDTO(changes, nextToken, settled.size() == rows.getNumberOfElements() && rows.hasNext());
+    }
+
+    @Scheduled(cron = "${inventario.changes.compaction-cron:0 30 4 * * *}")
+    public void scheduledCompaction() {
+        try {
+            compactionJob.run();
+        } catch (RuntimeException ex) {
+            log.error("Product change compaction failed", ex);
+        }
+    }
+}
@@ -1,29 +1,60 @@
 package com.inventario.service.impl;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.OptionalLong;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
 
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Pageable;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.cache.annotation.Caching;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 
 import com.inventario.dtos.AlertDTO;
 import com.inventario.dtos.ProductCreationDTO;
 import com.inventario.dtos.ProductDTO;
+import com.inventario.dtos.ProductLookupDTO;
+import com.inventario.dtos.ProductQueryDTO;
 import com.inventario.dtos.ProductUpdateDTO;
 import com.inventario.dtos.StockDTO;
+import com.inventario.enums.CountMode;
 import com.inventario.enums.MovementType;
+import com.inventario.enums.ProductChangeType;
+import com.inventario.enums.ProductField;
 import com.inventario.exceptions.DuplicateSkuException;
-import com.inventario.exceptions.InsufficientStockException;
 import com.inventario.exceptions.ProductNotFoundException;
+import com.inventario.cache.CountEstimateCache;
+import com.inventario.cache.ProductCacheStore;
+import com.inventario.changes.ProductChangeLog;
+import com.inventario.jfr.StockMutationEvent;
 import com.inventario.mappers.ProductMapper;
 import com.inventario.model.Product;
+import com.inventario.model.Warehouse;
+import com.inventario.notification.LowStockCrossedEvent;
+import com.inventario.observability.HotProductTracker;
 import com.inventario.repository.ProductRepository;
+import com.inventario.repository.ProductSpecifications;
+import com.inventario.service.HotStockService;
 import com.inventario.service.ProductService;
 import com.inventario.service.StockManagerService;
+import com.inventario.service.WarehouseService;
 
 import org.springframework.transaction.annotation.Transactional;
 
@@ -33,12 +64,33 @@ public class ProductServiceImpl implements ProductService {
     private final ProductRepository productRepository;
     private final ProductMapper productMapper;
     private final StockManagerService stockManagerService;
+    private final ProductCacheStore productCacheStore;
+    private final ApplicationEventPublisher eventPublisher;
+    private final HotProductTracker hotProductTracker;
+    private final WarehouseService warehouseService;
+    private final HotStockService hotStockService;
+    private final CountEstimateCache countEstimates;
+    private final ProductChangeLog changeLog;
+
+    static final int MAX_BATCH_SIZE = 500;
+    static final String INITIAL_STOCK_REASON = "Initial stock";
+    static final String ACTIVE_COUNT_KEY = "active";
 
     public ProductServiceImpl(ProductRepository productRepository, ProductMapper productMapper,
-            StockManagerService stockManagerService) {
+            StockManagerService stockManagerService, ProductCacheStore productCacheStore,
+            ApplicationEventPublisher eventPublisher, HotProductTracker hotProductTracker,
+            WarehouseService warehouseService, HotStockService hotStockService, CountEstimateCache countEstimates,
+            ProductChangeLog changeLog) {
         this.productRepository = productRepository;
         this.productMapper = productMapper;
         this.stockManagerService = stockManagerService;
+        this.productCacheStore = productCacheStore;
+        this.eventPublisher = eventPublisher;
+        this.hotProductTracker = hotProductTracker;
+        this.warehouseService = warehouseService;
+        this.hotStockService = hotStockService;
+        this.countEstimates = countEstimates;
+        this.changeLog = changeLog;
     }
 
     /**
@@ -58,20 +110,15 @@ public class ProductServiceImpl implements ProductService {
         if (product == null)
             throw new IllegalStateException("The product is null or dont exist.");
         Product savedProduct = productRepository.save(product);
+        warehouseService.initializeStock(savedProduct.getId(), savedProduct.getAmount());
+        // The initial stock is a movement too, so the ledger of the location adds up to it
+        if (savedProduct.getAmount() != null && savedProduct.getAmount() > 0)
+            stockManagerService.recordMovement(savedProduct, savedProduct.getAmount(), MovementType.ENTRADA,
+                    INITIAL_STOCK_REASON);
+        changeLog.record(savedProduct.getId(), ProductChangeType.CREATED);
         return productMapper.toDTO(savedProduct);
     }
 
-    @Override
-    @Cacheable(value = "products", 
-            key = "'' + #pageable.pageNumber + '-' + #pageable.pageSize + #pageable.sort.toString()",
-            unless = "#result == null || #result.content.isEmpty()")
-    public Page<ProductDTO> getProducts(Pageable pageable) {
-        if (pageable == null)
-            throw new IllegalArgumentException("Pageable cannot be null");
-        return productRepository.findAllActive(pageable)
-                .map(productMapper::toDTO);
-    }
-
     @Override
     @Cacheable(value = "products", 
             key = "#id",
@@ -96,6 +143,47 @@ public class ProductServiceImpl implements ProductService {
                 .orElseThrow(() -> new ProductNotFoundException("Product not found"));
     }
 
+    @Override
+    public List<ProductLookupDTO> getProductsByIds(List<Long> ids) {
+        return multiGet(ids, productRepository::findByIdInAndDeletedFalse, ProductDTO::getId);
+    }
+
+    @Override
+    public List<ProductLookupDTO> getProductsBySkus(List<String> skus) {
+        return multiGet(skus, productRepository::findBySkuInAndDeletedFalse, ProductDTO::getSku);
+    }
+
+    private <K> List<ProductLookupDTO> multiGet(List<K> keys, Function<Collection<K>, List<Product>> loader,
+            Function<ProductDTO, K> keyOf) {
+        if (keys == null || keys.isEmpty())
+            throw new IllegalArgumentException("At least one key is required.");
+        if (keys.size() > MAX_BATCH_SIZE)
+            throw new IllegalArgumentException("A batch cannot exceed " + MAX_BATCH_SIZE + " keys.");
+        // Immutable lists throw on contains(null)
+        if (keys.stream().anyMatch(Objects::isNull))
+            throw new IllegalArgumentException("The keys cannot contain null values.");
+
+        Set<K> distinct = new LinkedHashSet<>(keys);
+        Map<K, ProductDTO> resolved = new HashMap<>(productCacheStore.getAll(distinct));
+
+        List<K> misses = distinct.stream().filter(key -> !resolved.containsKey(key)).toList();
+        if (!misses.isEmpty()) {
+            Map<K, ProductDTO> loaded = new HashMap<>();
+            for (Product product : loader.apply(misses)) {
+                ProductDTO dto = productMapper.toDTO(product);
+                loaded.put(keyOf.apply(dto), dto);
+            }
+            productCacheStore.putAll(loaded);
+            resolved.putAll(loaded);
+        }
+
+        return keys.stream()
+                .map(key -> resolved.containsKey(key)
+                        ? ProductLookupDTO.found(key, resolved.get(key))
+                        : ProductLookupDTO.notFound(key))
+                .toList();
+    }
+
     @Override
     @Transactional
     @Caching(evict = {
@@ -110,7 +198,9 @@ public class ProductServiceImpl implements ProductService {
         if (findProduct == null)
             throw new IllegalStateException("The product is null or dont exist.");
         productMapper.updateEntityFromDto(product, findProduct);
-        return productMapper.toDTO(productRepository.save(findProduct));
+        Product saved = productRepository.save(findProduct);
+        changeLog.record(id, ProductChangeType.UPDATED);
+        return productMapper.toDTO(saved);
     }
 
     @Override
@@ -126,31 +216,66 @@ public class ProductServiceImpl implements ProductService {
                 .filter(p -> !p.isDeleted())
                 .orElseThrow(() -> new ProductNotFoundException("Product not found."));
         product.setDeleted(true);
+        product.setDeletedAt(LocalDateTime.now());
         productRepository.saveAndFlush(product);
+        changeLog.record(id, ProductChangeType.DELETED);
     }
 
     @Override
     @Transactional
-    @Caching(evict = {
-            @CacheEvict(value = "products", key = "#id"),
-            @CacheEvict(value = "productLists", allEntries = true)
-    })
     public ProductDTO updateStock(Long id, Integer quantity, MovementType movementType, String reason) {
-        Product product = productRepository.findActiveById(id)
-                .orElseThrow(() -> new ProductNotFoundException("Product not found."));
+        return updateStock(id, Warehouse.DEFAULT_ID, quantity, movementType, reason);
+    }
 
-        if (movementType == MovementType.SALIDA) {
-            if (product.getAmount() < quantity) {
-                throw new InsufficientStockException("Insuficient stock.");
+    // The product row is only read: the movement locks the warehouse_stock row of the location.
+    // products.amount and the cached DTOs and pages change with the rollup (StockTotalsRollup)
+    @Override
+    @Transactional
+    public ProductDTO updateStock(Long id, Long warehouseId, Integer quantity, MovementType movementType,
+            String reason) {
+        Long location = warehouseId == null ? Warehouse.DEFAULT_ID : warehouseId;
+        StockMutationEvent event = StockMutationEvent.start();
+        String outcome = StockMutationEvent.FAILED;
+        try {
+            Product product = productRepository.findActiveById(id)
+                    .orElseThrow(() -> new ProductNotFoundException("Product not found."));
+
+            OptionalLong hotTotal = hotStockService.isHot(id, location)
+                    ? hotStockService.tryApply(id, quantity, movementType, reason)
+                    : OptionalLong.empty();
+            int total;
+            if (hotTotal.isPresent()) {
+                // Hot SKU: Redis applied it and the ledger row comes from its stream (HotStockWriteBehind)
+                total = (int) hotTotal.getAsLong();
+                outcome = StockMutationEvent.APPLIED_HOT;
+            } else {
+                total = (int) warehouseService.applyMovement(id, location, quantity, movementType);
+                stockManagerService.recordMovement(product, location, null, quantity, movementType, reason);
+                outcome = StockMutationEvent.APPLIED;
             }
-            product.setAmount(product.getAmount() - quantity);
-        } else { // Is ENTRADA or AJUSTE
-            product.setAmount(product.getAmount() + quantity);
+            int before = movementType == MovementType.SALIDA ? total + quantity : total - quantity;
+            publishIfCrossedMinimum(product, before, total);
+            hotProductTracker.recordWrite(id);
+
+            ProductDTO dto = productMapper.toDTO(product);
+            if (dto != null)
+                dto.setAmount(total);
+            return dto;
+        } catch (RuntimeException ex) {
+            outcome = StockMutationEvent.outcomeOf(ex);
+            throw ex;
+        } finally {
+            event.end(id, location, movementType, quantity, outcome);
         }
+    }
 
-        Product savedProduct = productRepository.save(product);
-        stockManagerService.recordMovement(savedProduct, quantity, movementType, reason);
-        return productMapper.toDTO(savedProduct);
+    // Only the downward crossing notifies; the listener runs after commit
+    private void publishIfCrossedMinimum(Product product, int before, int after) {
+        Integer stockMin = product.getStockMin();
+        if (stockMin == null || before < stockMin || after >= stockMin)
+            return;
+        eventPublisher.publishEvent(new LowStockCrossedEvent(new AlertDTO(product.getId(), product.getName(),
+                product.getSku(), after, stockMin, stockMin - after)));
     }
 
     /**
@@ -166,6 +291,13 @@ public class ProductServiceImpl implements ProductService {
         return updateStock(id, entrance.getAmount(), MovementType.ENTRADA, entrance.getMotive());
     }
 
+    @Override
+    @Transactional
+    public ProductDTO increaseStock(Long id, Long warehouseId, StockDTO entrance) {
+        validateStockDTO(entrance);
+        return updateStock(id, warehouseId, entrance.getAmount(), MovementType.ENTRADA, entrance.getMotive());
+    }
+
     @Override
     @Transactional
     public ProductDTO decreaseStock(Long id, StockDTO exit) {
@@ -173,6 +305,13 @@ public class ProductServiceImpl implements ProductService {
         return updateStock(id, exit.getAmount(), MovementType.SALIDA, exit.getMotive());
     }
 
+    @Override
+    @Transactional
+    public ProductDTO decreaseStock(Long id, Long warehouseId, StockDTO exit) {
+        validateStockDTO(exit);
+        return updateStock(id, warehouseId, exit.getAmount(), MovementType.SALIDA, exit.getMotive());
+    }
+
     private void validateStockDTO(StockDTO dto) {
         if (dto.getAmount() <= 0 || dto == null)
             throw new IllegalArgumentException("The stock cannot be negative or zero.");
@@ -184,24 +323,168 @@ public class ProductServiceImpl implements ProductService {
      * ################
      */
 
+    // Properties that can be used in the sort of the multi-criteria query
+    private static final Set<String> SORTABLE_PROPERTIES = Set.of("id", "name", "price", "amount", "stockMin", "sku",
+            "category", "dateOfLastActualization");
+
     @Override
-    public Page<ProductDTO> searchByName(String name, Pageable pageable) {
-        if (name.isBlank() || name == null)
-            throw new IllegalArgumentException("The name cannot be Blank or Null.");
-        return productRepository.findByNameContainingIgnoreCaseAndDeletedFalse(name, pageable)
+    public Page<ProductDTO> query(ProductQueryDTO criteria, Pageable pageable) {
+        validateQuery(criteria, pageable);
+        return productRepository.findAll(ProductSpecifications.fromQuery(criteria), pageable)
                 .map(productMapper::toDTO);
     }
 
     @Override
-    public Page<ProductDTO> filterByRange(BigDecimal min, BigDecimal max, Pageable pageable) {
+    public Page<Map<String, Object>> query(ProductQueryDTO criteria, Set<ProductField> fields, Pageable pageable) {
+        validateQuery(criteria, pageable);
+        validateFields(fields);
+        return productRepository.findProjected(fields, ProductSpecifications.fromQuery(criteria), pageable);
+    }
+
+    private void validateQuery(ProductQueryDTO criteria, Pageable pageable) {
+        if (criteria == null)
+            throw new IllegalArgumentException("The query cannot be null.");
+        if (pageable == null)
+            throw new IllegalArgumentException("Pageable cannot be null");
+        if (criteria.minPrice() != null && criteria.maxPrice() != null
+                && criteria.minPrice().compareTo(criteria.maxPrice()) > 0)
+            throw new IllegalArgumentException("The min price cannot be major that max price");
+        if (criteria.minAmount() != null && criteria.maxAmount() != null
+                && criteria.minAmount() > criteria.maxAmount())
+            throw new IllegalArgumentException("The min amount cannot be major that max amount");
+        for (Sort.Order order : pageable.getSort()) {
+            if (!SORTABLE_PROPERTIES.contains(order.getProperty()))
+                throw new IllegalArgumentException("Cannot sort by: " + order.getProperty());
+        }
+    }
+
+    /**
+     * ################
+     * COUNT MODES
+     * ################
+     */
+
+    @Override
+    @Cacheable(value = "productLists",
+            key = "'page-' + #countMode + '-' + #pageable.pageNumber + '-' + #pageable.pageSize + #pageable.sort.toString()",
+            unless = "#result == null || #result.content.isEmpty()")
+    public Slice<ProductDTO> getProducts(Pageable pageable, CountMode countMode) {
+        validateListing(pageable, countMode);
+        return listing(countMode, () -> productRepository.findAllActive(pageable),
+                () -> productRepository.findActiveSlice(pageable), ACTIVE_COUNT_KEY,
+                productRepository::countByDeletedFalse)
+                .map(productMapper::toDTO);
+    }
+
+    @Override
+    public Slice<ProductDTO> searchByName(String name, Pageable pageable, CountMode countMode) {
+        validateListing(pageable, countMode);
+        validateName(name);
+        return listing(countMode, () -> productRepository.findByNameContainingIgnoreCaseAndDeletedFalse(name, pageable),
+                () -> productRepository.findSliceByNameContainingIgnoreCaseAndDeletedFalse(name, pageable),
+                nameCountKey(name), () -> productRepository.countByNameContainingIgnoreCaseAndDeletedFalse(name))
+                .map(productMapper::toDTO);
+    }
+
+    @Override
+    public Slice<ProductDTO> filterByRange(BigDecimal min, BigDecimal max, Pageable pageable, CountMode countMode) {
+        validateListing(pageable, countMode);
+        validateRange(min, max);
+        return listing(countMode, () -> productRepository.findByPriceBetweenAndDeletedFalse(min, max, pageable),
+                () -> productRepository.findSliceByPriceBetweenAndDeletedFalse(min, max, pageable),
+                priceCountKey(min, max), () -> productRepository.countByPriceBetweenAndDeletedFalse(min, max))
+                .map(productMapper::toDTO);
+    }
+
+    @Override
+    @Cacheable(value = "productLists",
+            key = "'fields-' + #countMode + '-' + T(com.inventario.enums.ProductField).toKey(#fields) + '-' + #pageable.pageNumber + '-' + #pageable.pageSize + #pageable.sort.toString()",
+            unless = "#result == null || #result.content.isEmpty()")
+    public Slice<Map<String, Object>> getProducts(Set<ProductField> fields, Pageable pageable, CountMode countMode) {
+        validateListing(pageable, countMode);
+        validateFields(fields);
+        return projectedListing(fields, ProductSpecifications.isActive(), pageable, countMode, ACTIVE_COUNT_KEY,
+                productRepository::countByDeletedFalse);
+    }
+
+    @Override
+    public Slice<Map<String, Object>> searchByName(String name, Set<ProductField> fields, Pageable pageable,
+            CountMode countMode) {
+        validateListing(pageable, countMode);
+        validateName(name);
+        validateFields(fields);
+        return projectedListing(fields, ProductSpecifications.isActive().and(ProductSpecifications.nameContains(name)),
+                pageable, countMode, nameCountKey(name),
+                () -> productRepository.countByNameContainingIgnoreCaseAndDeletedFalse(name));
+    }
+
+    @Override
+    public Slice<Map<String, Object>> filterByRange(BigDecimal min, BigDecimal max, Set<ProductField> fields,
+            Pageable pageable, CountMode countMode) {
+        validateListing(pageable, countMode);
+        validateRange(min, max);
+        validateFields(fields);
+        return projectedListing(fields, ProductSpecifications.isActive().and(ProductSpecifications.priceBetween(min, max)),
+                pageable, countMode, priceCountKey(min, max),
+                () -> productRepository.countByPriceBetweenAndDeletedFalse(min, max));
+    }
+
+    private Slice<Map<String, Object>> projectedListing(Set<ProductField> fields, Specification<Product> spec,
+            Pageable pageable, CountMode countMode, String countKey, LongSupplier counter) {
+        return listing(countMode, () -> productRepository.findProjected(fields, spec, pageable),
+                () -> productRepository.findProjectedSlice(fields, spec, pageable), countKey, counter);
+    }
+
+    // The estimate is shared by every page and sort of the same filter
+    private <T> Slice<T> listing(CountMode countMode, Supplier<Page<T>> page, Supplier<Slice<T>> slice,
+            String countKey, LongSupplier counter) {
+        return switch (countMode) {
+            case EXACT -> page.get();
+            case ESTIMATE -> countEstimates.toPage(countKey, slice.get(), counter);
+            case NONE -> slice.get();
+        };
+    }
+
+    private static String nameCountKey(String name) {
+        return "name:" + name.toLowerCase(Locale.ROOT);
+    }
+
+    private static String priceCountKey(BigDecimal min, BigDecimal max) {
+        return "price:" + min.stripTrailingZeros().toPlainString() + "-" + max.stripTrailingZeros().toPlainString();
+    }
+
+    private void validateListing(Pageable pageable, CountMode countMode) {
+        if (pageable == null)
+            throw new IllegalArgumentException("Pageable cannot be null");
+        if (countMode == null)
+            throw new IllegalArgumentException("The count mode cannot be null.");
+    }
+
+    private void validateName(String name) {
+        if (name == null || name.isBlank())
+            throw new IllegalArgumentException("The name cannot be Blank or Null.");
+    }
+
+    private void validateRange(BigDecimal min, BigDecimal max) {
         if (min == null || max == null)
             throw new IllegalArgumentException("The values min or max are null.");
-
         if (min.compareTo(max) > 0)
             throw new IllegalArgumentException("The min value cannot be major that max");
+    }
 
-        return productRepository.findByPriceBetweenAndDeletedFalse(min, max, pageable)
-                .map(productMapper::toDTO);
+    private void validateFields(Set<ProductField> fields) {
+        if (fields == null || fields.isEmpty())
+            throw new IllegalArgumentException("At least one field is required.");
+    }
+
+    // Keyset pages: no OFFSET to skip, and rows inserted or deleted meanwhile do not shift the rest
+    @Override
+    public List<ProductDTO> getCatalogAfter(long lastId, int size) {
+        if (size <= 0)
+            throw new IllegalArgumentException("The size must be positive.");
+        return productRepository.findActiveAfter(lastId, PageRequest.ofSize(size)).stream()
+                .map(productMapper::toDTO)
+                .toList();
     }
 
     @Override
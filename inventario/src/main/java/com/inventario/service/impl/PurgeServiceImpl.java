@@ -0,0 +1,92 @@
+package com.inventario.service.impl;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.inventario.cache.ProductCacheInvalidator;
+import com.inventario.dtos.PurgeRunDTO;
+import com.inventario.maintenance.SoftDeletePurgeJob;
+import com.inventario.model.ArchivedProduct;
+import com.inventario.repository.ArchivedProductRepository;
+import com.inventario.service.PurgeService;
+
+@Service
+public class PurgeServiceImpl implements PurgeService {
+    private static final Logger log = LoggerFactory.getLogger(PurgeServiceImpl.class);
+
+    private final SoftDeletePurgeJob purgeJob;
+    private final ArchivedProductRepository archivedProductRepository;
+    private final ProductCacheInvalidator cacheInvalidator;
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final Executor taskExecutor;
+    private volatile PurgeRunDTO lastRun = new PurgeRunDTO(false, null, null, 0, 0, null);
+
+    public PurgeServiceImpl(SoftDeletePurgeJob purgeJob, ArchivedProductRepository archivedProductRepository,
+            ProductCacheInvalidator cacheInvalidator,
+            @Qualifier(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME) Executor taskExecutor) {
+        this.purgeJob = purgeJob;
+        this.archivedProductRepository = archivedProductRepository;
+        this.cacheInvalidator = cacheInvalidator;
+        this.taskExecutor = taskExecutor;
+    }
+
+    /**
+     * Starts a purge in the background; if one is already running its state is returned instead.
+     */
+    @Override
+    public PurgeRunDTO runPurge() {
+        if (!running.compareAndSet(false, true))
+            return lastRun;
+        LocalDateTime startedAt = LocalDateTime.now();
+        lastRun = new PurgeRunDTO(true, startedAt, null, 0, 0, null);
+        CompletableFuture.runAsync(() -> execute(startedAt), taskExecutor);
+        return lastRun;
+    }
+
+    @Scheduled(cron = "${inventario.purge.cron:0 0 4 * * *}")
+    public void scheduledPurge() {
+        runPurge();
+    }
+
+    private void execute(LocalDateTime startedAt) {
+        try {
+            // SKU keys of deleted products may still be cached and the SKU can now be reused
+            SoftDeletePurgeJob.Result result = purgeJob.run(batch -> {
+                cacheInvalidator.evictProducts(batch.keySet(), batch.values());
+                cacheInvalidator.evictEntities(batch.keySet());
+            });
+            lastRun = new PurgeRunDTO(false, startedAt, LocalDateTime.now(), result.archived(), result.batches(), null);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            lastRun = new PurgeRunDTO(false, startedAt, LocalDateTime.now(), 0, 0, "Interrupted");
+        } catch (RuntimeException ex) {
+            log.error("Purge run failed", ex);
+            lastRun = new PurgeRunDTO(false, startedAt, LocalDateTime.now(), 0, 0, ex.getMessage());
+        } finally {
+            running.set(false);
+        }
+    }
+
+    @Override
+    public PurgeRunDTO getLastRun() {
+        return lastRun;
+    }
+
+    @Override
+    public Page<ArchivedProduct> getArchived(String sku, Pageable pageable) {
+        if (sku != null)
+            return archivedProductRepository.findBySku(sku, pageable);
+        return archivedProductRepository.findAll(pageable);
+    }
+}
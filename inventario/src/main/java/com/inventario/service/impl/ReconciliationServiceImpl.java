@@ -0,0 +1,96 @@
+package com.inventario.service.impl;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.inventario.dtos.ReconciliationRunDTO;
+import com.inventario.maintenance.LedgerReconciliationJob;
+import com.inventario.service.ReconciliationService;
+
+@Service
+public class ReconciliationServiceImpl implements ReconciliationService {
+    private static final Logger log = LoggerFactory.getLogger(ReconciliationServiceImpl.class);
+
+    private final LedgerReconciliationJob reconciliationJob;
+    private final CacheManager cacheManager;
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final Executor taskExecutor;
+    private volatile ReconciliationRunDTO lastRun = new ReconciliationRunDTO(false, false, null, null, 0, 0, 0, 0, 0, 0,
+            0, List.of(), null);
+
+    public ReconciliationServiceImpl(LedgerReconciliationJob reconciliationJob, CacheManager cacheManager,
+            @Qualifier(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME) Executor taskExecutor) {
+        this.reconciliationJob = reconciliationJob;
+        this.cacheManager = cacheManager;
+        this.taskExecutor = taskExecutor;
+    }
+
+    /**
+     * Starts a run in the background; if one is already running its state is returned instead.
+     */
+    @Override
+    public ReconciliationRunDTO runReconciliation(boolean repair) {
+        if (!running.compareAndSet(false, true))
+            return lastRun;
+        LocalDateTime startedAt = LocalDateTime.now();
+        lastRun = new ReconciliationRunDTO(true, repair, startedAt, null, 0, 0, 0, 0, 0, 0, 0, List.of(), null);
+        CompletableFuture.runAsync(() -> execute(repair, startedAt), taskExecutor);
+        return lastRun;
+    }
+
+    // Scheduled runs only report; repairs are started by hand after looking at the report
+    @Scheduled(cron = "${inventario.reconciliation.cron:-}")
+    public void scheduledRun() {
+        runReconciliation(false);
+    }
+
+    private void execute(boolean repair, LocalDateTime startedAt) {
+        try {
+            LedgerReconciliationJob.Result result = reconciliationJob.run(repair, this::evictHistory);
+            LocalDateTime finishedAt = LocalDateTime.now();
+            lastRun = new ReconciliationRunDTO(false, repair, startedAt, finishedAt, result.products(),
+                    result.locations(), result.ledgerDiscrepancies(), result.totalDiscrepancies(), result.adjustments(),
+                    result.totalsResynced(), Duration.between(startedAt, finishedAt).toMillis(),
+                    result.discrepancies(), null);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            lastRun = failed(repair, startedAt, "Interrupted");
+        } catch (RuntimeException ex) {
+            log.error("Reconciliation run failed", ex);
+            lastRun = failed(repair, startedAt, ex.getMessage());
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private static ReconciliationRunDTO failed(boolean repair, LocalDateTime startedAt, String error) {
+        LocalDateTime finishedAt = LocalDateTime.now();
+        return new ReconciliationRunDTO(false, repair, startedAt, finishedAt, 0, 0, 0, 0, 0, 0,
+                Duration.between(startedAt, finishedAt).toMillis(), List.of(), error);
+    }
+
+    // The AJUSTE rows are part of the product history
+    private void evictHistory(List<Long> productIds) {
+        Cache history = cacheManager.getCache("stockHistory");
+        if (history != null)
+            productIds.forEach(history::evict);
+    }
+
+    @Override
+    public ReconciliationRunDTO getLastRun() {
+        return lastRun;
+    }
+}
@@ -7,8 +7,10 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 
 import com.inventario.enums.MovementType;
+import com.inventario.jfr.LedgerWriteEvent;
 import com.inventario.model.Product;
 import com.inventario.model.StockManager;
+import com.inventario.model.Warehouse;
 import com.inventario.repository.StockManagerRepository;
 import com.inventario.service.StockManagerService;
 
@@ -24,13 +26,32 @@ public class StockManagerServiceImpl implements StockManagerService{
     @Override
     @CacheEvict(value = "stockHistory", key = "#product.id")
     public void recordMovement(Product product, Integer amount, MovementType movementType, String reason) {
+        save(product, Warehouse.DEFAULT_ID, null, amount, movementType, reason);
+    }
+
+    @Override
+    @CacheEvict(value = "stockHistory", key = "#product.id")
+    public void recordMovement(Product product, Long warehouseId, String transferId, Integer amount,
+            MovementType movementType, String reason) {
+        save(product, warehouseId, transferId, amount, movementType, reason);
+    }
+
+    private void save(Product product, Long warehouseId, String transferId, Integer amount,
+            MovementType movementType, String reason) {
         StockManager entry = new StockManager();
         entry.setProduct(product);
+        entry.setWarehouseId(warehouseId);
+        entry.setTransferId(transferId);
         entry.setAmount(amount);
         entry.setReason(reason);
         entry.setMovementType(movementType);
 
-        stockManagerRepository.save(entry);
+        LedgerWriteEvent event = LedgerWriteEvent.start();
+        try {
+            stockManagerRepository.save(entry);
+        } finally {
+            event.end(product.getId(), warehouseId, movementType, amount, transferId);
+        }
     }
 
     @Override
@@ -50,7 +71,11 @@ public class StockManagerServiceImpl implements StockManagerService{
             throw new IllegalArgumentException("The productId cannot be null.");
         if (pageable == null)
             throw new IllegalArgumentException("Pageable cannot be null.");
-        return stockManagerRepository.findByProductIdOrderByCreatedAtDesc(productId, pageable);
+        Page<StockManager> history = stockManagerRepository.findByProductIdOrderByCreatedAtDesc(productId, pageable);
+        if (history.getTotalElements() > 0)
+            return history;
+        // Archived products keep their movements under archived_product_id
+        return stockManagerRepository.findByArchivedProductIdOrderByCreatedAtDesc(productId, pageable);
     }
 
     @Override
@@ -0,0 +1,195 @@
+package com.inventario.service.impl;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.inventario.dtos.AvailabilityDTO;
+import com.inventario.dtos.TransferDTO;
+import com.inventario.dtos.TransferResultDTO;
+import com.inventario.dtos.WarehouseCreationDTO;
+import com.inventario.dtos.WarehouseDTO;
+import com.inventario.enums.MovementType;
+import com.inventario.exceptions.HotStockBusyException;
+import com.inventario.exceptions.InsufficientStockException;
+import com.inventario.exceptions.ProductNotFoundException;
+import com.inventario.exceptions.WarehouseNotFoundException;
+import com.inventario.mappers.WarehouseMapper;
+import com.inventario.model.Product;
+import com.inventario.model.Warehouse;
+import com.inventario.repository.ProductRepository;
+import com.inventario.repository.WarehouseRepository;
+import com.inventario.repository.WarehouseStockRepository;
+import com.inventario.service.HotStockService;
+import com.inventario.service.StockManagerService;
+import com.inventario.service.WarehouseService;
+import com.inventario.warehouse.StockTotalsRollup;
+
+@Service
+public class WarehouseServiceImpl implements WarehouseService {
+
+    private final WarehouseRepository warehouseRepository;
+    private final WarehouseStockRepository warehouseStockRepository;
+    private final ProductRepository productRepository;
+    private final StockManagerService stockManagerService;
+    private final WarehouseMapper warehouseMapper;
+    private final HotStockService hotStockService;
+
+    public WarehouseServiceImpl(WarehouseRepository warehouseRepository,
+            WarehouseStockRepository warehouseStockRepository, ProductRepository productRepository,
+            StockManagerService stockManagerService, WarehouseMapper warehouseMapper,
+            HotStockService hotStockService) {
+        this.warehouseRepository = warehouseRepository;
+        this.warehouseStockRepository = warehouseStockRepository;
+        this.productRepository = productRepository;
+        this.stockManagerService = stockManagerService;
+        this.warehouseMapper = warehouseMapper;
+        this.hotStockService = hotStockService;
+    }
+
+    @Override
+    public List<WarehouseDTO> getWarehouses() {
+        return warehouseRepository.findAll(Sort.by("id")).stream()
+                .map(warehouseMapper::toDTO)
+                .toList();
+    }
+
+    @Override
+    @Transactional
+    public WarehouseDTO createWarehouse(WarehouseCreationDTO request) {
+        if (request == null)
+            throw new IllegalArgumentException("The warehouse is null");
+        if (warehouseRepository.existsByCode(request.code()))
+            throw new IllegalArgumentException("The warehouse code " + request.code() + " already exists.");
+        Warehouse warehouse = new Warehouse();
+        warehouse.setCode(request.code());
+        warehouse.setName(request.name());
+        return warehouseMapper.toDTO(warehouseRepository.save(warehouse));
+    }
+
+    @Override
+    @Cacheable(value = "availability", key = "#productId")
+    public AvailabilityDTO getAvailability(Long productId) {
+        if (productId == null)
+            throw new IllegalArgumentException("The productId cannot be null.");
+        if (productRepository.findActiveById(productId).isEmpty())
+            throw new ProductNotFoundException("Product not found.");
+        var locations = warehouseStockRepository.findByIdProductIdOrderByIdWarehouseId(productId).stream()
+                .map(warehouseMapper::toLocationDTO)
+                .toList();
+        // A hot default location is current in Redis; its row trails by the write-behind backlog
+        OptionalLong hot = hotStockService.currentAmount(productId);
+        if (hot.isPresent())
+            locations.stream()
+                    .filter(location -> location.getWarehouseId() == Warehouse.DEFAULT_ID)
+                    .forEach(location -> location.setAmount((int) hot.getAsLong()));
+        long total = locations.stream().mapToLong(location -> location.getAmount()).sum();
+        return new AvailabilityDTO(productId, total, locations);
+    }
+
+    /**
+     * Only the (product, warehouse) row is locked, by the conditional UPDATE itself, which also
+     * marks it pending. The products row is not written; {@link StockTotalsRollup} refreshes its
+     * total after commit.
+     */
+    @Override
+    @Transactional
+    @CacheEvict(value = "availability", key = "#productId")
+    public long applyMovement(Long productId, Long warehouseId, int quantity, MovementType movementType) {
+        if (warehouseId == null || warehouseId != Warehouse.DEFAULT_ID)
+            requireActive(warehouseId);
+        if (movementType == MovementType.SALIDA)
+            decrease(productId, warehouseId, quantity);
+        else // Is ENTRADA or AJUSTE
+            increase(productId, warehouseId, quantity);
+        return warehouseStockRepository.sumAmount(productId);
+    }
+
+    @Override
+    @Transactional
+    public void initializeStock(Long productId, int amount) {
+        warehouseStockRepository.insert(productId, Warehouse.DEFAULT_ID, amount, LocalDateTime.now());
+    }
+
+    @Override
+    @Transactional
+    @CacheEvict(value = "availability", key = "#request.productId")
+    public TransferResultDTO transfer(TransferDTO request) {
+        if (request == null)
+            throw new IllegalArgumentException("The transfer is null");
+        if (request.productId() == null || request.fromWarehouseId() == null || request.toWarehouseId() == null)
+            throw new IllegalArgumentException("The product and both warehouses are required.");
+        if (request.amount() == null || request.amount() <= 0)
+            throw new IllegalArgumentException("The amount must be positive.");
+        if (request.motive() == null || request.motive().isBlank())
+            throw new IllegalArgumentException("The motive cannot be blank.");
+        if (request.fromWarehouseId().equals(request.toWarehouseId()))
+            throw new IllegalArgumentException("The source and target warehouses must be different.");
+        Product product = productRepository.findActiveById(request.productId())
+                .orElseThrow(() -> new ProductNotFoundException("Product not found."));
+        requireActive(request.fromWarehouseId());
+        requireActive(request.toWarehouseId());
+        boolean touchesDefault = request.fromWarehouseId() == Warehouse.DEFAULT_ID
+                || request.toWarehouseId() == Warehouse.DEFAULT_ID;
+        if (touchesDefault && warehouseStockRepository.findHot(product.getId(), Warehouse.DEFAULT_ID).orElse(false))
+            throw new IllegalArgumentException("Demote the product from the hot stock before a transfer with the default warehouse.");
+
+        // Rows are locked in warehouse id order, so opposite transfers of a product cannot deadlock
+        if (request.fromWarehouseId() < request.toWarehouseId()) {
+            decrease(product.getId(), request.fromWarehouseId(), request.amount());
+            increase(product.getId(), request.toWarehouseId(), request.amount());
+        } else {
+            increase(product.getId(), request.toWarehouseId(), request.amount());
+            decrease(product.getId(), request.fromWarehouseId(), request.amount());
+        }
+
+        String transferId = UUID.randomUUID().toString();
+        stockManagerService.recordMovement(product, request.fromWarehouseId(), transferId, request.amount(),
+                MovementType.SALIDA, request.motive());
+        stockManagerService.recordMovement(product, request.toWarehouseId(), transferId, request.amount(),
+                MovementType.ENTRADA, request.motive());
+        return new TransferResultDTO(transferId, product.getId(), request.fromWarehouseId(),
+                request.toWarehouseId(), request.amount());
+    }
+
+    private void decrease(Long productId, Long warehouseId, int quantity) {
+        if (warehouseStockRepository.decrease(productId, warehouseId, quantity, LocalDateTime.now()) == 1)
+            return;
+        if (warehouseStockRepository.findHot(productId, warehouseId).orElse(false))
+            throw hotStockBusy(productId);
+        throw new InsufficientStockException("Insuficient stock in warehouse " + warehouseId + ".");
+    }
+
+    // The first entrance to a location creates its row
+    private void increase(Long productId, Long warehouseId, int quantity) {
+        LocalDateTime now = LocalDateTime.now();
+        if (warehouseStockRepository.increase(productId, warehouseId, quantity, now) == 1)
+            return;
+        Optional<Boolean> hot = warehouseStockRepository.findHot(productId, warehouseId);
+        if (hot.isEmpty())
+            warehouseStockRepository.insert(productId, warehouseId, quantity, now);
+        else if (hot.get() || warehouseStockRepository.increase(productId, warehouseId, quantity, now) == 0)
+            throw hotStockBusy(productId);
+    }
+
+    // The row turned hot after this instance routed the movement to the database
+    private HotStockBusyException hotStockBusy(Long productId) {
+        return new HotStockBusyException("The stock of product " + productId + " is moving to or from the hot stock, retry.");
+    }
+
+    private void requireActive(Long warehouseId) {
+        if (warehouseId == null)
+            throw new IllegalArgumentException("The warehouseId cannot be null.");
+        warehouseRepository.findById(warehouseId)
+                .filter(Warehouse::isActive)
+                .orElseThrow(() -> new WarehouseNotFoundException("Warehouse " + warehouseId + " not found or inactive."));
+    }
+}
@@ -0,0 +1,91 @@
+package com.inventario.warehouse;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.inventario.cache.ProductCacheInvalidator;
+import com.inventario.changes.ProductChangeLog;
+import com.inventario.enums.ProductChangeType;
+import com.inventario.repository.ProductRepository;
+import com.inventario.repository.WarehouseStockRepository;
+
+/**
+ * Keeps products.amount as the total over all warehouses without writing the products row on
+ * every movement. Every movement marks its location row pending in the statement that changes
+ * it, so the mark commits or rolls back with the movement and survives a restart; every
+ * {@code rollupInterval} the pending products are summed and written back in a few set-based
+ * UPDATEs, so a product moved a thousand times in the interval is written once.
+ */
+@Component
+public class StockTotalsRollup {
+    private static final Logger log = LoggerFactory.getLogger(StockTotalsRollup.class);
+
+    private final WarehouseStockRepository warehouseStockRepository;
+    private final ProductRepository productRepository;
+    private final ProductCacheInvalidator cacheInvalidator;
+    private final ProductChangeLog changeLog;
+    private final TransactionTemplate transactionTemplate;
+    private final WarehouseProperties properties;
+
+    public StockTotalsRollup(WarehouseStockRepository warehouseStockRepository, ProductRepository productRepository,
+            ProductCacheInvalidator cacheInvalidator, ProductChangeLog changeLog, TransactionTemplate transactionTemplate,
+            WarehouseProperties properties) {
+        this.warehouseStockRepository = warehouseStockRepository;
+        this.productRepository = productRepository;
+        this.cacheInvalidator = cacheInvalidator;
+        this.changeLog = changeLog;
+        this.transactionTemplate = transactionTemplate;
+        this.properties = properties;
+    }
+
+    // One pass in product id order: rows marked again meanwhile wait for the next run
+    @Scheduled(fixedDelayString = "${inventario.warehouses.rollup-interval:2s}")
+    public int flush() {
+        int written = 0;
+        long afterId = 0;
+        try {
+            while (true) {
+                List<Long> batch = warehouseStockRepository.findTotalsPending(afterId,
+                        PageRequest.ofSize(properties.rollupBatchSize()));
+                if (batch.isEmpty())
+                    return written;
+                written += write(batch);
+                if (batch.size() < properties.rollupBatchSize())
+                    return written;
+                afterId = batch.get(batch.size() - 1);
+            }
+        } catch (DataAccessException ex) {
+            // The marks of the failed batch were rolled back with it
+            log.warn("Stock totals rollup failed after {} products, retrying next run: {}", written, ex.getMessage());
+            return written;
+        }
+    }
+
+    // Totals found off by the reconciliation, whose locations may not be marked
+    public int resync(Collection<Long> productIds) {
+        return productIds.isEmpty() ? 0 : write(List.copyOf(productIds));
+    }
+
+    private int write(List<Long> productIds) {
+        // One STOCK change per product and interval, not one per movement
+        Integer updated = transactionTemplate.execute(status -> {
+            warehouseStockRepository.clearTotalsPending(productIds);
+            cacheInvalidator.evictEntities(productIds);
+            int synced = warehouseStockRepository.syncProductTotals(productIds);
+            changeLog.recordAll(productIds, ProductChangeType.STOCK);
+            return synced;
+        });
+        // Cached DTOs and pages carry the total
+        cacheInvalidator.evictProducts(productIds, productRepository.findSkusByIdIn(productIds));
+        cacheInvalidator.evictLists();
+        return updated == null ? 0 : updated;
+    }
+}
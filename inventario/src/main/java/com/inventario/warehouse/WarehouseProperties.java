@@ -0,0 +1,14 @@
+package com.inventario.warehouse;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "inventario.warehouses")
+public record WarehouseProperties(
+        // Maximum lag of products.amount behind the per-location stock
+        @DefaultValue("2s") Duration rollupInterval,
+        // Products per UPDATE when writing the totals back
+        @DefaultValue("500") int rollupBatchSize) {
+}
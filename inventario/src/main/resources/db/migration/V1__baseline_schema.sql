@@ -0,0 +1,50 @@
+-- Esquema base. Equivale al que generaba spring.jpa.hibernate.ddl-auto=update:
+-- en bases existentes Flyway registra esta versión como baseline y no la ejecuta.
+
+CREATE TABLE IF NOT EXISTS products (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    name VARCHAR(100) NOT NULL,
+    description VARCHAR(500),
+    amount INT NOT NULL,
+    stock_min INT NOT NULL,
+    price DECIMAL(10,2) NOT NULL,
+    sku VARCHAR(8) NOT NULL,
+    date_of_creation DATETIME(6) NOT NULL,
+    last_actualization_date DATETIME(6),
+    deleted TINYINT(1) NOT NULL DEFAULT 0,
+    category ENUM(
+        'FRUTAS_Y_VERDURAS',
+        'CARNICERÍA_Y_POLLERÍA',
+        'PESCADERÍA',
+        'LÁCTEOS',
+        'FIAMBRERÍA_Y_QUESERÍA',
+        'PANADERÍA_Y_REPOSTERÍA',
+        'ALMACÉN_Y_ABARROTES',
+        'LEGUMBRES_Y_CEREALES',
+        'ACEITES_Y_CONDIMENTOS',
+        'ENLATADOS_Y_CONSERVAS',
+        'DESAYUNO_Y_MERIENDA',
+        'SNACKS_Y_COPETÍN',
+        'BEBIDAS_SIN_ALCOHOL',
+        'BEBIDAS_CON_ALCOHOL',
+        'CONGELADOS',
+        'LIMPIEZA_DEL_HOGAR',
+        'HIGIENE_Y_CUIDADO_PERSONAL',
+        'MASCOTAS',
+        'BAZAR_Y_HOGAR',
+        'FARMACIA_Y_PERFUMERÍA'
+    ) NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_products_sku UNIQUE (sku)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
+CREATE TABLE IF NOT EXISTS stock_manager (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    product_id BIGINT NOT NULL,
+    amount INT NOT NULL,
+    movement_type ENUM('ENTRADA', 'SALIDA', 'AJUSTE'),
+    reason VARCHAR(255) NOT NULL,
+    created_at DATETIME(6),
+    PRIMARY KEY (id),
+    CONSTRAINT fk_stock_manager_product FOREIGN KEY (product_id) REFERENCES products (id)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
@@ -0,0 +1,47 @@
+-- Índices que necesitan las consultas de ProductRepository y StockManagerRepository.
+--
+-- Cada sentencia es online en MariaDB (ALGORITHM=INPLACE, LOCK=NONE): las tablas siguen
+-- aceptando lecturas y escrituras mientras se construye el índice. El DDL no es transaccional,
+-- por eso todo usa IF NOT EXISTS y la migración se puede reintentar si se corta a la mitad.
+-- En tablas muy grandes conviene ejecutar estas sentencias antes con pt-online-schema-change
+-- o gh-ost; al llegar Flyway, IF NOT EXISTS las saltea.
+
+-- Déficit de stock calculado por la base: permite indexar "amount < stock_min".
+-- Columna virtual: no reescribe la tabla.
+ALTER TABLE products
+    ADD COLUMN IF NOT EXISTS stock_deficit INT AS (stock_min - amount) VIRTUAL;
+
+-- Filtro por categoría (+ rango de precio u orden por precio)
+ALTER TABLE products
+    ADD INDEX IF NOT EXISTS idx_products_deleted_category_price (deleted, category, price),
+    ALGORITHM=INPLACE, LOCK=NONE;
+
+-- findByPriceBetweenAndDeletedFalse
+ALTER TABLE products
+    ADD INDEX IF NOT EXISTS idx_products_deleted_price (deleted, price),
+    ALGORITHM=INPLACE, LOCK=NONE;
+
+-- Umbrales de cantidad y COUNT(*) de los listados activos
+ALTER TABLE products
+    ADD INDEX IF NOT EXISTS idx_products_deleted_amount (deleted, amount),
+    ALGORITHM=INPLACE, LOCK=NONE;
+
+-- Listados ordenados por nombre
+ALTER TABLE products
+    ADD INDEX IF NOT EXISTS idx_products_deleted_name (deleted, name),
+    ALGORITHM=INPLACE, LOCK=NONE;
+
+-- findProductsWithLowStock: rango stock_deficit > 0, ya ordenado por déficit
+ALTER TABLE products
+    ADD INDEX IF NOT EXISTS idx_products_deleted_stock_deficit (deleted, stock_deficit),
+    ALGORITHM=INPLACE, LOCK=NONE;
+
+-- findByProductIdOrderByCreatedAtDesc
+ALTER TABLE stock_manager
+    ADD INDEX IF NOT EXISTS idx_stock_manager_product_created (product_id, created_at),
+    ALGORITHM=INPLACE, LOCK=NONE;
+
+-- getHistoryByMovementType
+ALTER TABLE stock_manager
+    ADD INDEX IF NOT EXISTS idx_stock_manager_movement_created (movement_type, created_at),
+    ALGORITHM=INPLACE, LOCK=NONE;
@@ -0,0 +1,18 @@
+-- Resultados del job de pronóstico de demanda: una fila por producto, se reemplaza en cada corrida.
+
+CREATE TABLE IF NOT EXISTS product_forecasts (
+    product_id BIGINT NOT NULL,
+    history_days INT NOT NULL,
+    avg_daily_demand DOUBLE NOT NULL,
+    moving_avg7d DOUBLE NOT NULL,
+    moving_avg30d DOUBLE NOT NULL,
+    demand_std_dev DOUBLE NOT NULL,
+    forecast_daily_demand DOUBLE NOT NULL,
+    lead_time_days INT NOT NULL,
+    safety_stock INT NOT NULL,
+    reorder_point INT NOT NULL,
+    suggested_reorder_qty INT NOT NULL,
+    computed_at DATETIME(6) NOT NULL,
+    PRIMARY KEY (product_id),
+    CONSTRAINT fk_product_forecasts_product FOREIGN KEY (product_id) REFERENCES products (id)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
@@ -0,0 +1,42 @@
+-- Purga de productos eliminados lógicamente: pasado el período de gracia se mueven a
+-- products_archive y sus movimientos pasan a referenciar archived_product_id.
+
+ALTER TABLE products
+    ADD COLUMN IF NOT EXISTS deleted_at DATETIME(6) NULL;
+
+-- Los eliminados antes de esta versión toman la última modificación como fecha de baja
+UPDATE products
+SET deleted_at = COALESCE(last_actualization_date, date_of_creation)
+WHERE deleted = 1 AND deleted_at IS NULL;
+
+-- Candidatos a purgar en orden de antigüedad
+ALTER TABLE products
+    ADD INDEX IF NOT EXISTS idx_products_deleted_deleted_at (deleted, deleted_at),
+    ALGORITHM=INPLACE, LOCK=NONE;
+
+-- Sin UNIQUE en sku: un SKU archivado puede volver a usarse en products
+CREATE TABLE IF NOT EXISTS products_archive (
+    id BIGINT NOT NULL,
+    name VARCHAR(100) NOT NULL,
+    description VARCHAR(500),
+    amount INT NOT NULL,
+    stock_min INT NOT NULL,
+    price DECIMAL(10,2) NOT NULL,
+    sku VARCHAR(8) NOT NULL,
+    category VARCHAR(40) NOT NULL,
+    date_of_creation DATETIME(6) NOT NULL,
+    last_actualization_date DATETIME(6),
+    deleted_at DATETIME(6),
+    archived_at DATETIME(6) NOT NULL,
+    PRIMARY KEY (id),
+    KEY idx_products_archive_sku (sku)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
+-- El historial de un producto archivado queda en archived_product_id (product_id pasa a NULL)
+ALTER TABLE stock_manager
+    MODIFY product_id BIGINT NULL,
+    ADD COLUMN IF NOT EXISTS archived_product_id BIGINT NULL;
+
+ALTER TABLE stock_manager
+    ADD INDEX IF NOT EXISTS idx_stock_manager_archived_created (archived_product_id, created_at),
+    ALGORITHM=INPLACE, LOCK=NONE;
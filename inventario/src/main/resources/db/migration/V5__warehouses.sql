@@ -0,0 +1,42 @@
+-- Stock por depósito: una fila por (producto, depósito). Los movimientos bloquean solo la fila
+-- del depósito afectado; products.amount pasa a ser el total, consolidado en segundo plano.
+
+CREATE TABLE IF NOT EXISTS warehouses (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    code VARCHAR(20) NOT NULL,
+    name VARCHAR(100) NOT NULL,
+    active TINYINT(1) NOT NULL DEFAULT 1,
+    created_at DATETIME(6) NOT NULL,
+    PRIMARY KEY (id),
+    UNIQUE KEY uk_warehouses_code (code)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
+-- Depósito por defecto: recibe los movimientos que no indican ubicación
+INSERT INTO warehouses (id, code, name, active, created_at)
+VALUES (1, 'CENTRAL', 'Depósito central', 1, NOW(6));
+
+CREATE TABLE IF NOT EXISTS warehouse_stock (
+    product_id BIGINT NOT NULL,
+    warehouse_id BIGINT NOT NULL,
+    amount INT NOT NULL DEFAULT 0,
+    updated_at DATETIME(6) NOT NULL,
+    PRIMARY KEY (product_id, warehouse_id),
+    KEY idx_warehouse_stock_warehouse (warehouse_id, product_id),
+    CONSTRAINT fk_warehouse_stock_product FOREIGN KEY (product_id) REFERENCES products (id),
+    CONSTRAINT fk_warehouse_stock_warehouse FOREIGN KEY (warehouse_id) REFERENCES warehouses (id),
+    CONSTRAINT chk_warehouse_stock_amount CHECK (amount >= 0)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
+-- El stock actual queda en el depósito por defecto
+INSERT INTO warehouse_stock (product_id, warehouse_id, amount, updated_at)
+SELECT id, 1, amount, NOW(6) FROM products;
+
+-- Ubicación del movimiento; las transferencias son una SALIDA y una ENTRADA con el mismo transfer_id
+ALTER TABLE stock_manager
+    ADD COLUMN IF NOT EXISTS warehouse_id BIGINT NULL,
+    ADD COLUMN IF NOT EXISTS transfer_id VARCHAR(36) NULL;
+
+ALTER TABLE stock_manager
+    ADD INDEX IF NOT EXISTS idx_stock_manager_warehouse_created (warehouse_id, created_at),
+    ADD INDEX IF NOT EXISTS idx_stock_manager_transfer (transfer_id),
+    ALGORITHM=INPLACE, LOCK=NONE;
@@ -0,0 +1,18 @@
+-- Modo hot stock: la cantidad del depósito por defecto de los productos marcados vive en Redis.
+-- Mientras hot = 1 los UPDATE condicionales no tocan la fila; el write-behind le aplica los deltas.
+
+ALTER TABLE warehouse_stock
+    ADD COLUMN IF NOT EXISTS hot TINYINT(1) NOT NULL DEFAULT 0;
+
+-- Id de la entrada del stream de Redis: el write-behind puede reintentar sin duplicar movimientos
+ALTER TABLE stock_manager
+    ADD COLUMN IF NOT EXISTS stream_entry_id VARCHAR(40) NULL;
+
+ALTER TABLE stock_manager
+    ADD UNIQUE INDEX IF NOT EXISTS uk_stock_manager_stream_entry (stream_entry_id),
+    ALGORITHM=INPLACE, LOCK=NONE;
+
+-- Pocas filas con hot = 1: el registro de productos calientes las lee sin recorrer el depósito
+ALTER TABLE warehouse_stock
+    ADD INDEX IF NOT EXISTS idx_warehouse_stock_hot (hot, warehouse_id),
+    ALGORITHM=INPLACE, LOCK=NONE;
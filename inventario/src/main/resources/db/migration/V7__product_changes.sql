@@ -0,0 +1,25 @@
+-- Registro de cambios del catálogo para la sincronización incremental (GET /api/products/changes).
+-- El id es el token de cambio: cada alta, edición, baja o cambio de stock agrega una fila.
+-- Sin clave foránea: la fila de una baja (tombstone) sobrevive a la purga del producto.
+
+CREATE TABLE IF NOT EXISTS product_changes (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    product_id BIGINT NOT NULL,
+    sku VARCHAR(8) NOT NULL,
+    change_type VARCHAR(16) NOT NULL,
+    changed_at DATETIME(6) NOT NULL,
+    PRIMARY KEY (id),
+    -- La compactación busca si hay un cambio posterior del mismo producto
+    KEY idx_product_changes_product (product_id, id),
+    -- Tombstones vencidos, en orden de antigüedad
+    KEY idx_product_changes_type_changed (change_type, changed_at)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
+-- Último token cuyos tombstones ya se compactaron: un token anterior exige resincronizar
+CREATE TABLE IF NOT EXISTS product_change_horizon (
+    id INT NOT NULL,
+    compacted_through BIGINT NOT NULL,
+    PRIMARY KEY (id)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
+INSERT IGNORE INTO product_change_horizon (id, compacted_through) VALUES (1, 0);
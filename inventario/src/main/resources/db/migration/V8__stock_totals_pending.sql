@@ -0,0 +1,13 @@
+-- Productos cuyo total (products.amount) espera el rollup. Lo marca el mismo UPDATE del
+-- movimiento, en su transacción: un reinicio no pierde los pendientes.
+
+ALTER TABLE warehouse_stock
+    ADD COLUMN IF NOT EXISTS totals_pending TINYINT(1) NOT NULL DEFAULT 0;
+
+-- El rollup recorre solo las filas marcadas, en orden de producto
+ALTER TABLE warehouse_stock
+    ADD INDEX IF NOT EXISTS idx_warehouse_stock_totals_pending (totals_pending, product_id),
+    ALGORITHM=INPLACE, LOCK=NONE;
+
+-- Las filas de antes de la marca: se recalculan todos los totales una vez
+UPDATE warehouse_stock SET totals_pending = 1;
@@ -6,6 +6,7 @@ import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.only;
@@ -15,7 +16,11 @@ import static org.mockito.Mockito.when;
 
 import java.lang.StackWalker.Option;
 import java.math.BigDecimal;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -23,25 +28,45 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 
 import com.inventario.dtos.ProductCreationDTO;
 import com.inventario.dtos.ProductDTO;
+import com.inventario.dtos.ProductLookupDTO;
 import com.inventario.dtos.ProductUpdateDTO;
 import com.inventario.dtos.StockDTO;
+import com.inventario.enums.CountMode;
 import com.inventario.enums.MovementType;
+import com.inventario.enums.ProductField;
 import com.inventario.exceptions.DuplicateSkuException;
 import com.inventario.exceptions.InsufficientStockException;
 import com.inventario.exceptions.ProductNotFoundException;
+import com.inventario.cache.CountEstimateCache;
+import com.inventario.cache.ProductCacheStore;
+import com.inventario.changes.ProductChangeLog;
 import com.inventario.mappers.ProductMapper;
 import com.inventario.model.Product;
+import com.inventario.model.StockManager;
+import com.inventario.model.Warehouse;
+import com.inventario.notification.LowStockCrossedEvent;
+import com.inventario.observability.HotProductTracker;
 import com.inventario.repository.ProductRepository;
 import com.inventario.service.impl.ProductServiceImpl;
 
 import jakarta.validation.Validation;
 import jakarta.validation.Validator;
 
+import com.inventario.service.HotStockService;
 import com.inventario.service.StockManagerService;
+import com.inventario.service.WarehouseService;
 
 @ExtendWith(MockitoExtension.class)
 class InventarioApplicationTests {
@@ -57,6 +82,27 @@ class InventarioApplicationTests {
 	@Mock
 	private StockManagerService stockManagerService;
 
+	@Mock
+	private ProductCacheStore productCacheStore;
+
+	@Mock
+	private ApplicationEventPublisher eventPublisher;
+
+	@Mock
+	private HotProductTracker hotProductTracker;
+
+	@Mock
+	private WarehouseService warehouseService;
+
+	@Mock
+	private HotStockService hotStockService;
+
+	@Mock
+	private CountEstimateCache countEstimateCache;
+
+	@Mock
+	private ProductChangeLog changeLog;
+
 	@InjectMocks
 	private ProductServiceImpl productService;
 
@@ -72,6 +118,8 @@ class InventarioApplicationTests {
 		stockDTO.setMotive("Venta excesiva");
 
 		when(productRepository.findActiveById(id)).thenReturn(Optional.of(mockProduct));
+		when(warehouseService.applyMovement(id, Warehouse.DEFAULT_ID, 50, MovementType.SALIDA))
+				.thenThrow(new InsufficientStockException("Insuficient stock."));
 
 		assertThrows(InsufficientStockException.class, () -> {
 			productService.decreaseStock(id, stockDTO);
@@ -80,7 +128,7 @@ class InventarioApplicationTests {
 		// Verificamos que nunca se llamó a la base de datos ni se registro en el
 		// historial
 		verify(productRepository, never()).save(any());
-		verify(stockManagerService, never()).recordMovement(any(), any(), any(), any());
+		verify(stockManagerService, never()).recordMovement(any(), any(), any(), any(), any(), any());
 	}
 
 	@Test
@@ -96,15 +144,19 @@ class InventarioApplicationTests {
 		stockDTO.setMotive("Venta xyz");
 
 		when(productRepository.findActiveById(id)).thenReturn(Optional.of(mockitoProduct));
-		when(productRepository.save(any(Product.class))).thenAnswer(i -> i.getArguments()[0]);
+		when(warehouseService.applyMovement(id, Warehouse.DEFAULT_ID, 50, MovementType.SALIDA)).thenReturn(50L);
+		when(productMapper.toDTO(mockitoProduct)).thenReturn(new ProductDTO());
 
-		productService.decreaseStock(id, stockDTO);
-		assertEquals(50, mockitoProduct.getAmount());
+		ProductDTO result = productService.decreaseStock(id, stockDTO);
+		assertEquals(50, result.getAmount());
 
-		verify(productRepository, times(1)).save(mockitoProduct);
+		// La fila del producto no se escribe: el movimiento bloquea solo la del depósito
+		verify(productRepository, never()).save(any());
 
 		verify(stockManagerService, times(1)).recordMovement(
 				eq(mockitoProduct),
+				eq(Warehouse.DEFAULT_ID),
+				isNull(),
 				eq(50),
 				eq(MovementType.SALIDA),
 				eq("Venta xyz"));
@@ -190,4 +242,116 @@ class InventarioApplicationTests {
 		});
 
 	}
+
+	@Test
+	@DisplayName("Debe rechazar campos desconocidos en el parámetro fields")
+	void shouldRejectUnknownFields() {
+		assertThrows(IllegalArgumentException.class, () -> ProductField.parse("id,password"));
+		assertEquals(EnumSet.of(ProductField.ID, ProductField.SKU, ProductField.AMOUNT),
+				ProductField.parse("amount, sku,id"));
+	}
+
+	@Test
+	@DisplayName("La proyección de campos no debe mapear entidades completas")
+	void sparseFieldsSkipEntityMapping() {
+		Set<ProductField> fields = ProductField.parse("id,sku,amount");
+		Pageable pageable = PageRequest.of(0, 20);
+		Map<String, Object> row = Map.of("id", 1L, "sku", "AAA-0000", "amount", 5);
+		when(productRepository.findProjected(eq(fields), any(), eq(pageable)))
+				.thenReturn(new PageImpl<>(List.of(row), pageable, 1));
+
+		Slice<Map<String, Object>> result = productService.getProducts(fields, pageable, CountMode.EXACT);
+
+		assertEquals(row, result.getContent().get(0));
+		verify(productRepository, never()).findAllActive(any());
+		verify(productMapper, never()).toDTO(any());
+	}
+
+	@Test
+	@DisplayName("Sin conteo la búsqueda por nombre no debe ejecutar el COUNT")
+	void countNoneSkipsCountQuery() {
+		Pageable pageable = PageRequest.of(0, 20);
+		Product stored = new Product();
+		stored.setId(1L);
+		when(productRepository.findSliceByNameContainingIgnoreCaseAndDeletedFalse("tornillo", pageable))
+				.thenReturn(new SliceImpl<>(List.of(stored), pageable, true));
+		when(productMapper.toDTO(stored)).thenReturn(new ProductDTO());
+
+		Slice<ProductDTO> result = productService.searchByName("tornillo", pageable, CountMode.NONE);
+
+		assertTrue(result.hasNext());
+		assertFalse(result instanceof Page);
+		verify(productRepository, never()).findByNameContainingIgnoreCaseAndDeletedFalse(any(), any());
+		verify(productRepository, never()).countByNameContainingIgnoreCaseAndDeletedFalse(any());
+		verify(countEstimateCache, never()).toPage(any(), any(), any());
+	}
+
+	@Test
+	@DisplayName("El modo de conteo debe ser none, estimate o exact")
+	void rejectsUnknownCountMode() {
+		assertEquals(CountMode.NONE, CountMode.parse("none"));
+		assertEquals(CountMode.EXACT, CountMode.parse(null));
+		assertThrows(IllegalArgumentException.class, () -> CountMode.parse("approx"));
+	}
+
+	@Test
+	@DisplayName("El multi-get debe respetar el orden, consultar solo los faltantes y marcar los inexistentes")
+	void multiGetKeepsOrderAndLoadsOnlyMisses() {
+		ProductDTO cached = new ProductDTO();
+		cached.setId(2L);
+		Product stored = new Product();
+		stored.setId(1L);
+		ProductDTO loaded = new ProductDTO();
+		loaded.setId(1L);
+
+		when(productCacheStore.getAll(any())).thenReturn(Map.of(2L, cached));
+		when(productRepository.findByIdInAndDeletedFalse(List.of(1L, 3L))).thenReturn(List.of(stored));
+		when(productMapper.toDTO(stored)).thenReturn(loaded);
+
+		List<ProductLookupDTO> result = productService.getProductsByIds(List.of(1L, 2L, 3L));
+
+		assertEquals(List.of("1", "2", "3"), result.stream().map(ProductLookupDTO::key).toList());
+		assertTrue(result.get(0).found());
+		assertEquals(cached, result.get(1).product());
+		assertFalse(result.get(2).found());
+		verify(productCacheStore, times(1)).putAll(Map.of(1L, loaded));
+	}
+
+	@Test
+	@DisplayName("Solo el cruce descendente del stock mínimo debe publicar el evento")
+	void publishesOnlyWhenCrossingBelowMinimum() {
+		Product product = new Product();
+		product.setId(1L);
+		product.setAmount(12);
+		product.setStockMin(10);
+		StockDTO exit = new StockDTO();
+		exit.setAmount(3);
+		exit.setMotive("Venta");
+
+		when(productRepository.findActiveById(1L)).thenReturn(Optional.of(product));
+		when(warehouseService.applyMovement(1L, Warehouse.DEFAULT_ID, 3, MovementType.SALIDA)).thenReturn(9L, 6L);
+
+		productService.decreaseStock(1L, exit);
+		productService.decreaseStock(1L, exit);
+
+		verify(eventPublisher, times(1)).publishEvent(any(LowStockCrossedEvent.class));
+	}
+
+	@Test
+	@DisplayName("El historial de stock no debe exponer las columnas internas")
+	void stockHistoryHidesInternalColumns() throws Exception {
+		Product product = new Product();
+		product.setId(1L);
+		product.setStockDeficit(-999_987);
+		StockManager movement = new StockManager();
+		movement.setProduct(product);
+		movement.setArchivedProductId(1L);
+		movement.setStreamEntryId("1760000000000-0");
+
+		String json = Jackson2ObjectMapperBuilder.json().build().writeValueAsString(movement);
+
+		assertFalse(json.contains("stockDeficit"), json);
+		assertFalse(json.contains("archivedProductId"), json);
+		assertFalse(json.contains("streamEntryId"), json);
+	}
 }
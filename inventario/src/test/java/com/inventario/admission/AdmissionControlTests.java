@@ -0,0 +1,60 @@
+package com.inventario.admission;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.inventario.enums.EndpointClass;
+
+class AdmissionControlTests {
+
+	private static final long SECOND = 1_000_000_000L;
+
+	@Test
+	@DisplayName("El token bucket admite la ráfaga y después informa cuánto esperar")
+	void tokenBucketAllowsBurstThenRate() {
+		TokenBucket bucket = new TokenBucket(10, 5);
+		long now = 0;
+		for (int i = 0; i < 5; i++)
+			assertEquals(0, bucket.tryAcquire(now));
+
+		long wait = bucket.tryAcquire(now);
+
+		assertEquals(SECOND / 10, wait);
+		assertEquals(0, bucket.tryAcquire(now + wait));
+		assertTrue(bucket.isIdle(now + SECOND));
+	}
+
+	@Test
+	@DisplayName("El límite adaptativo rechaza al llenarse, cae con latencia alta y crece con latencia baja")
+	void aimdLimit() {
+		AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(4, 1, 10, 100_000_000L);
+		for (int i = 0; i < 4; i++)
+			assertTrue(limit.tryAcquire());
+		assertFalse(limit.tryAcquire());
+
+		limit.release(SECOND, false, 10 * SECOND);
+		assertEquals(3.6, limit.getLimit(), 1e-9);
+
+		limit.release(1_000_000L, false, 11 * SECOND);
+		assertTrue(limit.getLimit() > 3.6);
+		assertEquals(1, limit.getShed());
+	}
+
+	@Test
+	@DisplayName("Clasificación de endpoints por prioridad")
+	void classifiesEndpoints() {
+		assertEquals(EndpointClass.STOCK_WRITE, EndpointClass.classify("POST", "/api/products/7/stock/decrease"));
+		assertEquals(EndpointClass.POINT_READ, EndpointClass.classify("GET", "/api/products/7"));
+		assertEquals(EndpointClass.POINT_READ, EndpointClass.classify("GET", "/api/products/sku/ABC-0001"));
+		assertEquals(EndpointClass.REPORT, EndpointClass.classify("GET", "/api/stock/product/7"));
+		assertEquals(EndpointClass.REPORT, EndpointClass.classify("GET", "/api/products/search"));
+		assertEquals(EndpointClass.STOCK_WRITE, EndpointClass.classify("POST", "/api/warehouses/transfers"));
+		assertEquals(EndpointClass.REPORT, EndpointClass.classify("POST", "/api/products/bulk-update"));
+		assertEquals(EndpointClass.REPORT, EndpointClass.classify("POST", "/api/products/forecast/apply-stock-min"));
+		assertEquals(EndpointClass.REPORT, EndpointClass.classify("DELETE", "/api/products/7"));
+	}
+}
@@ -0,0 +1,106 @@
+package com.inventario.bulkhead;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import com.inventario.enums.EndpointClass;
+import com.zaxxer.hikari.HikariDataSource;
+
+class BulkheadTests {
+
+	private static final long TIMEOUT = TimeUnit.MILLISECONDS.toNanos(50);
+
+	@Test
+	@DisplayName("Con los lugares ocupados espera en la cola hasta el timeout y con la cola llena rechaza sin esperar")
+	void queuesUpToTheLimitThenRejects() throws Exception {
+		Bulkhead bulkhead = new Bulkhead(1, 1, TimeUnit.SECONDS.toNanos(5));
+		assertEquals(Bulkhead.Outcome.ADMITTED, bulkhead.acquire());
+
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		try {
+			Future<Bulkhead.Outcome> queued = executor.submit(bulkhead::acquire);
+			while (bulkhead.getQueued() == 0)
+				Thread.onSpinWait();
+
+			assertEquals(Bulkhead.Outcome.QUEUE_FULL, bulkhead.acquire());
+
+			bulkhead.release();
+			assertEquals(Bulkhead.Outcome.ADMITTED, queued.get(5, TimeUnit.SECONDS));
+			assertEquals(1, bulkhead.getInFlight());
+			assertEquals(1, bulkhead.getQueueFull());
+			assertEquals(1, bulkhead.getQueueWait().count());
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	@DisplayName("Un request en cola sin lugar libre vence y libera su lugar en la cola")
+	void queuedRequestsTimeOut() throws Exception {
+		Bulkhead bulkhead = new Bulkhead(1, 4, TIMEOUT);
+		bulkhead.acquire();
+
+		assertEquals(Bulkhead.Outcome.TIMED_OUT, bulkhead.acquire());
+		assertEquals(0, bulkhead.getQueued());
+		assertEquals(1, bulkhead.getTimedOut());
+	}
+
+	@Test
+	@DisplayName("La clase asociada al hilo se restaura al salir y no pasa a otros hilos")
+	void routingKeyIsBoundPerThread() throws Exception {
+		BulkheadRoutingDataSource routing = new BulkheadRoutingDataSource(
+				new BulkheadPools(Map.of(), new HikariDataSource()));
+
+		EndpointClass outer = BulkheadRoutingDataSource.bind(EndpointClass.REPORT);
+		EndpointClass inner = BulkheadRoutingDataSource.bind(EndpointClass.STOCK_WRITE);
+		assertEquals(EndpointClass.STOCK_WRITE, routing.determineCurrentLookupKey());
+		assertNull(CompletableFuture.supplyAsync(routing::determineCurrentLookupKey).get());
+
+		BulkheadRoutingDataSource.restore(inner);
+		assertEquals(EndpointClass.REPORT, routing.determineCurrentLookupKey());
+		BulkheadRoutingDataSource.restore(outer);
+		assertNull(routing.determineCurrentLookupKey());
+	}
+
+	@Test
+	@DisplayName("Un bulk-update va al bulkhead de reportes y no ocupa los lugares de los movimientos de stock")
+	void bulkWritesDoNotTakeStockWriteSlots() throws Exception {
+		BulkheadProperties.Partition partition = new BulkheadProperties.Partition(1, 0, Duration.ofMillis(50), 1,
+				Duration.ofSeconds(1));
+		BulkheadRegistry registry = new BulkheadRegistry(
+				new BulkheadProperties(true, partition, partition, partition, 1, 0),
+				new StaticListableBeanFactory().getBeanProvider(BulkheadPools.class), new MockEnvironment());
+		BulkheadFilter filter = new BulkheadFilter(registry, Jackson2ObjectMapperBuilder.json().build());
+		BulkheadRoutingDataSource routing = new BulkheadRoutingDataSource(
+				new BulkheadPools(Map.of(), new HikariDataSource()));
+		registry.get(EndpointClass.STOCK_WRITE).acquire();
+
+		EndpointClass[] bound = new EndpointClass[1];
+		MockHttpServletResponse bulkUpdate = new MockHttpServletResponse();
+		filter.doFilter(new MockHttpServletRequest("POST", "/api/products/bulk-update"), bulkUpdate,
+				(request, response) -> bound[0] = (EndpointClass) routing.determineCurrentLookupKey());
+		assertEquals(200, bulkUpdate.getStatus());
+		assertEquals(EndpointClass.REPORT, bound[0]);
+
+		MockHttpServletResponse sale = new MockHttpServletResponse();
+		filter.doFilter(new MockHttpServletRequest("POST", "/api/products/7/stock/decrease"), sale,
+				(request, response) -> bound[0] = null);
+		assertEquals(503, sale.getStatus());
+	}
+}
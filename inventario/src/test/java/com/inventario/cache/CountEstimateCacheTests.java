@@ -0,0 +1,142 @@
+package com.inventario.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
+
+class CountEstimateCacheTests {
+
+    private final AtomicInteger counts = new AtomicInteger();
+    private final List<Runnable> pending = new ArrayList<>();
+    private final Executor deferred = pending::add;
+
+    private CountEstimateCache cache(Duration refreshAfter, int maxEntries) {
+        return new CountEstimateCache(new CountEstimateProperties(refreshAfter, maxEntries), deferred);
+    }
+
+    private LongSupplier counter(long total) {
+        return () -> {
+            counts.incrementAndGet();
+            return total;
+        };
+    }
+
+    private void runPending() {
+        List<Runnable> tasks = new ArrayList<>(pending);
+        pending.clear();
+        tasks.forEach(Runnable::run);
+    }
+
+    private static SliceImpl<Integer> slice(int page, int size, boolean hasNext) {
+        List<Integer> content = new ArrayList<>();
+        for (int i = 0; i < size; i++)
+            content.add(page * size + i);
+        return new SliceImpl<>(content, PageRequest.of(page, size), hasNext);
+    }
+
+    @Test
+    @DisplayName("Sin estimación la página no espera al COUNT y cuenta en segundo plano")
+    void missServesLowerBoundAndCountsInBackground() {
+        CountEstimateCache cache = cache(Duration.ofMinutes(5), 100);
+
+        Page<Integer> first = cache.toPage("active", slice(0, 20, true), counter(5000));
+
+        assertEquals(21, first.getTotalElements());
+        assertTrue(first.hasNext());
+        assertEquals(0, counts.get());
+        runPending();
+        assertEquals(1, counts.get());
+
+        Page<Integer> second = cache.toPage("active", slice(3, 20, true), counter(5000));
+        assertEquals(5000, second.getTotalElements());
+        assertTrue(pending.isEmpty(), "A fresh estimate is not counted again");
+    }
+
+    @Test
+    @DisplayName("Solo se lanza un conteo por filtro aunque lleguen varias páginas a la vez")
+    void oneRefreshPerKey() {
+        CountEstimateCache cache = cache(Duration.ofMinutes(5), 100);
+
+        cache.toPage("name:tornillo", slice(0, 20, true), counter(300));
+        cache.toPage("name:tornillo", slice(1, 20, true), counter(300));
+        cache.toPage("name:tuerca", slice(0, 20, true), counter(40));
+
+        assertEquals(2, pending.size());
+    }
+
+    @Test
+    @DisplayName("La última página da el total exacto sin contar")
+    void lastPageGivesExactTotal() {
+        CountEstimateCache cache = cache(Duration.ofMinutes(5), 100);
+
+        Page<Integer> last = cache.toPage("price:10-20", slice(2, 20, false), counter(999));
+
+        assertEquals(60, last.getTotalElements());
+        assertFalse(last.hasNext());
+        assertTrue(pending.isEmpty());
+        assertEquals(60, cache.toPage("price:10-20", slice(0, 20, true), counter(999)).getTotalElements());
+    }
+
+    @Test
+    @DisplayName("Una estimación vieja no contradice a la página: hay al menos una fila más")
+    void staleEstimateNeverHidesNextPage() {
+        CountEstimateCache cache = cache(Duration.ofMinutes(5), 100);
+        cache.toPage("active", slice(0, 20, true), counter(30));
+        runPending();
+
+        Page<Integer> page = cache.toPage("active", slice(4, 20, true), counter(30));
+
+        assertEquals(101, page.getTotalElements());
+        assertTrue(page.hasNext());
+    }
+
+    @Test
+    @DisplayName("Una estimación caducada se sirve mientras se cuenta de nuevo")
+    void expiredEstimateIsServedWhileRefreshing() {
+        CountEstimateCache cache = cache(Duration.ZERO, 100);
+        cache.toPage("active", slice(0, 20, true), counter(500));
+        runPending();
+
+        Page<Integer> page = cache.toPage("active", slice(0, 20, true), counter(800));
+
+        assertEquals(500, page.getTotalElements());
+        runPending();
+        assertEquals(800, cache.toPage("active", slice(0, 20, true), counter(800)).getTotalElements());
+    }
+
+    @Test
+    @DisplayName("Un conteo fallido no rompe la página y se reintenta en la siguiente")
+    void failedCountIsRetried() {
+        CountEstimateCache cache = cache(Duration.ofMinutes(5), 100);
+        cache.toPage("active", slice(0, 20, true), () -> {
+            throw new IllegalStateException("connection refused");
+        });
+        runPending();
+
+        assertEquals(21, cache.toPage("active", slice(0, 20, true), counter(70)).getTotalElements());
+        assertEquals(1, pending.size());
+    }
+
+    @Test
+    @DisplayName("Las estimaciones no crecen sin límite con los nombres buscados")
+    void entriesAreBounded() {
+        CountEstimateCache cache = cache(Duration.ofMinutes(5), 3);
+        for (int i = 0; i < 10; i++)
+            cache.toPage("name:producto " + i, slice(0, 20, false), counter(0));
+
+        assertTrue(cache.size() <= 3);
+    }
+}
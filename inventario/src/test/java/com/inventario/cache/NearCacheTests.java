@@ -0,0 +1,50 @@
+package com.inventario.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+
+import com.inventario.dtos.ProductDTO;
+
+class NearCacheTests {
+
+	private static ProductDTO product(long id, String sku) {
+		ProductDTO product = new ProductDTO();
+		product.setId(id);
+		product.setSku(sku);
+		return product;
+	}
+
+	@Test
+	@DisplayName("Los productos fijados se sirven por id y por SKU sin tocar la caché compartida")
+	void pinnedProductsAreServedLocally() {
+		NearCache cache = new NearCache(new ConcurrentMapCache("products"));
+		ProductDTO product = product(1L, "AAA-0001");
+
+		assertTrue(cache.pin(List.of(product), cache.generation()));
+
+		assertEquals(product, cache.get(1L, ProductDTO.class));
+		assertEquals(product, cache.get("AAA-0001").get());
+		assertEquals(2, cache.hits());
+	}
+
+	@Test
+	@DisplayName("Evictar una clave desfija el producto completo e invalida refrescos en curso")
+	void evictUnpinsBothKeys() {
+		NearCache cache = new NearCache(new ConcurrentMapCache("products"));
+		cache.pin(List.of(product(1L, "AAA-0001")), cache.generation());
+		long generation = cache.generation();
+
+		cache.evict(1L);
+
+		assertNull(cache.get("AAA-0001"));
+		assertFalse(cache.pin(List.of(product(1L, "AAA-0001")), generation));
+	}
+}
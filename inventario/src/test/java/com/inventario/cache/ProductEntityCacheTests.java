@@ -0,0 +1,180 @@
+package com.inventario.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.hibernate.Cache;
+import org.hibernate.StatelessSession;
+import org.hibernate.cache.spi.CacheImplementor;
+import org.hibernate.cache.spi.access.EntityDataAccess;
+import org.hibernate.cache.spi.access.SoftLock;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.metamodel.spi.MappingMetamodelImplementor;
+import org.hibernate.persister.entity.EntityPersister;
+import org.hibernate.stat.spi.StatisticsImplementor;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.inventario.model.Product;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+
+class ProductEntityCacheTests {
+
+    private static final String CHANNEL = "inventario:entity-cache:product";
+
+    private final EntityCacheProperties properties = new EntityCacheProperties(true, 1000, Duration.ofMinutes(30),
+            1000, CHANNEL, true);
+    // Everything published on the channel, delivered to every instance like Redis does
+    private final List<ProductEntityCache> instances = new ArrayList<>();
+
+    private record Instance(ProductEntityCache entityCache, Cache cache, EntityDataAccess access,
+            EntityManagerFactory entityManagerFactory) {
+    }
+
+    private Instance instance() {
+        CacheImplementor cache = mock(CacheImplementor.class);
+        EntityDataAccess access = mock(EntityDataAccess.class);
+        when(access.generateCacheKey(any(), any(), any(), any())).thenAnswer(invocation -> invocation.getArgument(0));
+        EntityPersister persister = mock(EntityPersister.class);
+        when(persister.getCacheAccessStrategy()).thenReturn(access);
+        MappingMetamodelImplementor metamodel = mock(MappingMetamodelImplementor.class);
+        when(metamodel.getEntityDescriptor(Product.class)).thenReturn(persister);
+        SessionFactoryImplementor sessionFactory = mock(SessionFactoryImplementor.class);
+        when(sessionFactory.getMappingMetamodel()).thenReturn(metamodel);
+        when(sessionFactory.getCache()).thenReturn(cache);
+        when(sessionFactory.getStatistics()).thenReturn(mock(StatisticsImplementor.class));
+        when(sessionFactory.openStatelessSession()).thenAnswer(invocation -> mock(StatelessSession.class,
+                withSettings().extraInterfaces(SharedSessionContractImplementor.class)));
+        EntityManagerFactory entityManagerFactory = mock(EntityManagerFactory.class);
+        when(entityManagerFactory.unwrap(SessionFactoryImplementor.class)).thenReturn(sessionFactory);
+
+        StringRedisTemplate redisTemplate = mock(StringRedisTemplate.class);
+        doAnswer(invocation -> {
+            byte[] body = invocation.<String>getArgument(1).getBytes(StandardCharsets.UTF_8);
+            for (ProductEntityCache instance : instances)
+                instance.onMessage(new DefaultMessage(CHANNEL.getBytes(StandardCharsets.UTF_8), body), null);
+            return 1L;
+        }).when(redisTemplate).convertAndSend(eq(CHANNEL), anyString());
+        ProductEntityCache entityCache = new ProductEntityCache(entityManagerFactory, redisTemplate, properties);
+        instances.add(entityCache);
+        return new Instance(entityCache, cache, access, entityManagerFactory);
+    }
+
+    // Evicted entries are replaced by a released soft lock
+    private static void verifyInvalidated(EntityDataAccess access, Long id) {
+        verify(access).lockItem(any(), eq(id), isNull());
+        verify(access).unlockItem(any(), eq(id), any());
+    }
+
+    @Test
+    @DisplayName("Los productos escritos con SQL se descartan en todas las instancias, sin tocar las búsquedas")
+    void evictsSqlWritesEverywhere() {
+        Instance writer = instance();
+        Instance other = instance();
+
+        writer.entityCache().evict(List.of(1L, 2L));
+
+        verifyInvalidated(writer.access(), 1L);
+        verifyInvalidated(writer.access(), 2L);
+        verifyInvalidated(other.access(), 1L);
+        verifyInvalidated(other.access(), 2L);
+        verify(other.cache(), never()).evictQueryRegion(any());
+        assertEquals(1, writer.entityCache().stats().invalidationsPublished());
+        assertEquals(0, writer.entityCache().stats().invalidationsReceived());
+        assertEquals(1, other.entityCache().stats().invalidationsReceived());
+    }
+
+    @Test
+    @DisplayName("Una edición por la sesión descarta el producto y las búsquedas en las demás instancias")
+    void sessionWritesDropRemoteLookups() {
+        Instance writer = instance();
+        Instance other = instance();
+        PostUpdateEvent event = mock(PostUpdateEvent.class);
+        when(event.getEntity()).thenReturn(new Product());
+        when(event.getId()).thenReturn(7L);
+
+        writer.entityCache().onPostUpdate(event);
+
+        // Hibernate already updated the local region and the lookup timestamps
+        verifyNoInteractions(writer.cache());
+        verify(writer.access(), never()).lockItem(any(), any(), any());
+        verifyInvalidated(other.access(), 7L);
+        verify(other.cache()).evictQueryRegion(Product.LOOKUP_CACHE_REGION);
+    }
+
+    @Test
+    @DisplayName("En la transacción que escribe el producto queda bloqueado hasta que termina y se publica al commit")
+    void locksUntilTheWritingTransactionCompletes() {
+        Instance writer = instance();
+        Instance other = instance();
+        SharedSessionContractImplementor session = mock(SharedSessionContractImplementor.class);
+        EntityManager entityManager = mock(EntityManager.class);
+        when(entityManager.unwrap(SharedSessionContractImplementor.class)).thenReturn(session);
+        SoftLock lock = mock(SoftLock.class);
+        when(writer.access().lockItem(session, 3L, null)).thenReturn(lock);
+
+        TransactionSynchronizationManager.initSynchronization();
+        TransactionSynchronizationManager.bindResource(writer.entityManagerFactory(),
+                new EntityManagerHolder(entityManager));
+        try {
+            writer.entityCache().evict(List.of(3L));
+            verify(writer.access()).lockItem(session, 3L, null);
+            verify(writer.access(), never()).unlockItem(any(), any(), any());
+            verifyNoInteractions(other.access());
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+            verifyInvalidated(other.access(), 3L);
+            verify(writer.access(), never()).unlockItem(any(), any(), any());
+
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        } finally {
+            TransactionSynchronizationManager.unbindResource(writer.entityManagerFactory());
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        verify(writer.access()).unlockItem(session, 3L, lock);
+        verify(writer.cache(), never()).evictEntityData(eq(Product.class), any());
+    }
+
+    @Test
+    @DisplayName("Dentro de una transacción el descarte espera al commit")
+    void waitsForCommit() {
+        Instance writer = instance();
+        Cache local = writer.cache();
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            writer.entityCache().evictAll();
+            verifyNoInteractions(local);
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        verify(local).evictEntityData(Product.class);
+    }
+}
@@ -0,0 +1,161 @@
+package com.inventario.cache;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.util.unit.DataSize;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.inventario.dtos.ProductDTO;
+import com.inventario.enums.Category;
+import com.inventario.exceptions.ProductNotFoundException;
+
+class ProductResponseCacheTests {
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    private final Map<Long, ProductDTO> database = new HashMap<>();
+    private final AtomicInteger loads = new AtomicInteger();
+    private CacheManager cacheManager;
+
+    private ProductResponseCache responseCache(boolean gzip) {
+        StaticListableBeanFactory beans = new StaticListableBeanFactory();
+        cacheManager = new NearCacheManager(new EvictionListeningCacheManager(new ConcurrentMapCacheManager(),
+                beans.getBeanProvider(ProductResponseCache.class)));
+        ProductResponseCache responseCache = new ProductResponseCache(cacheManager, objectMapper,
+                new ResponseCacheProperties(true, Duration.ofMinutes(10), gzip, DataSize.ofBytes(64), 100));
+        beans.addBean("productResponseCache", responseCache);
+        return responseCache;
+    }
+
+    private ProductDTO product(long id, String sku) {
+        ProductDTO product = new ProductDTO(id, "Producto " + id, null, new BigDecimal("10.50"), 5, 20, sku,
+                Category.MASCOTAS, null);
+        database.put(id, product);
+        return product;
+    }
+
+    private final Function<Long, ProductDTO> loader = id -> {
+        loads.incrementAndGet();
+        ProductDTO product = database.get(id);
+        if (product == null)
+            throw new ProductNotFoundException("Product not found.");
+        return product;
+    };
+
+    private final Function<String, ProductDTO> skuLoader = sku -> database.values().stream()
+            .filter(product -> product.getSku().equals(sku))
+            .findFirst()
+            .orElseThrow(() -> new ProductNotFoundException("Product not found"));
+
+    @Test
+    @DisplayName("Un hit devuelve el mismo JSON que Jackson sin volver a cargar y un evict de products lo descarta")
+    void hitsServeTheStoredBodyUntilEvicted() throws Exception {
+        ProductResponseCache responseCache = responseCache(false);
+        ProductDTO product = product(1L, "AAA-0001");
+
+        byte[] first = responseCache.product(1L, loader).body();
+        byte[] second = responseCache.product(1L, loader).body();
+
+        assertArrayEquals(objectMapper.writeValueAsBytes(product), first);
+        assertSame(first, second);
+        assertEquals(1, loads.get());
+
+        cacheManager.getCache(ProductCacheStore.CACHE_NAME).evict(1L);
+        responseCache.product(1L, loader);
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    @DisplayName("Un SKU se sirve desde el cuerpo por id y se resuelve de nuevo si quedó apuntando a un producto eliminado")
+    void skusAreResolvedToIds() {
+        ProductResponseCache responseCache = responseCache(false);
+        product(1L, "AAA-0001");
+
+        assertEquals(1L, responseCache.productBySku("AAA-0001", skuLoader, loader).productId());
+        assertEquals(1L, responseCache.product(1L, loader).productId());
+        assertEquals(1, loads.get());
+
+        // Deleted on another instance: the id body is gone and the SKU now belongs to product 2
+        database.remove(1L);
+        cacheManager.getCache(ProductResponseCache.RESPONSES_CACHE).evict(1L);
+        product(2L, "AAA-0001");
+
+        assertEquals(2L, responseCache.productBySku("AAA-0001", skuLoader, loader).productId());
+        assertThrows(ProductNotFoundException.class, () -> responseCache.product(1L, loader));
+    }
+
+    @Test
+    @DisplayName("Las páginas se descartan cuando se limpia productLists y las vacías no se guardan")
+    void pagesFollowTheListsCache() {
+        ProductResponseCache responseCache = responseCache(false);
+        List<ProductDTO> content = new ArrayList<>(List.of(product(1L, "AAA-0001"), product(2L, "AAA-0002")));
+
+        responseCache.page("0-20UNSORTED", () -> new PageImpl<>(content, PageRequest.of(0, 20), 2));
+        assertTrue(new String(cachedPage(), StandardCharsets.UTF_8).contains("AAA-0002"));
+
+        cacheManager.getCache(ProductCacheInvalidator.LISTS_CACHE_NAME).clear();
+        assertNull(cachedPage());
+
+        responseCache.page("0-20UNSORTED", () -> new PageImpl<>(List.of(), PageRequest.of(0, 20), 0));
+        assertNull(cachedPage());
+    }
+
+    private byte[] cachedPage() {
+        return cacheManager.getCache(ProductResponseCache.PAGES_CACHE).get("0-20UNSORTED", byte[].class);
+    }
+
+    @Test
+    @DisplayName("Con gzip los cuerpos grandes se guardan comprimidos y se pueden servir sin comprimir")
+    void largeBodiesAreStoredGzipped() throws Exception {
+        ProductResponseCache responseCache = responseCache(true);
+        ProductDTO product = product(1L, "AAA-0001");
+
+        ProductResponseCache.CachedResponse response = responseCache.product(1L, loader);
+
+        assertTrue(response.gzipped());
+        assertArrayEquals(objectMapper.writeValueAsBytes(product), response.plainBody());
+        assertTrue(responseCache.product(1L, loader).gzipped());
+    }
+
+    @Test
+    @DisplayName("Los productos fijados en la near cache se codifican una vez por snapshot sin pasar por la caché compartida")
+    void pinnedProductsAreEncodedOncePerSnapshot() {
+        ProductResponseCache responseCache = responseCache(false);
+        NearCache nearCache = (NearCache) cacheManager.getCache(ProductCacheStore.CACHE_NAME);
+        nearCache.pin(List.of(product(1L, "AAA-0001")), nearCache.generation());
+
+        byte[] first = responseCache.product(1L, loader).body();
+        assertSame(first, responseCache.product(1L, loader).body());
+        assertEquals(0, loads.get());
+        assertNull(cacheManager.getCache(ProductResponseCache.RESPONSES_CACHE).get(1L));
+
+        // A refresh pins new snapshot objects: the body is encoded again from them
+        ProductDTO refreshed = product(1L, "AAA-0001");
+        refreshed.setAmount(3);
+        nearCache.pin(List.of(refreshed), nearCache.generation());
+        assertNotSame(first, responseCache.product(1L, loader).body());
+    }
+}
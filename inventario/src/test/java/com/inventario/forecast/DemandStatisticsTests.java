@@ -0,0 +1,53 @@
+package com.inventario.forecast;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.inventario.model.ProductForecast;
+
+class DemandStatisticsTests {
+
+	private final ForecastProperties properties = new ForecastProperties(60, 7, 14, 1.65, 0.3, 2000, 1000, 0);
+
+	@Test
+	@DisplayName("Demanda constante: sin stock de seguridad y punto de pedido = demanda * lead time")
+	void constantDemand() {
+		int[] daily = new int[60];
+		Arrays.fill(daily, 30, 60, 4);
+
+		ProductForecast forecast = DemandStatistics.compute(1L, daily, 30, 10, properties, LocalDateTime.now());
+
+		assertEquals(30, forecast.getHistoryDays());
+		assertEquals(4.0, forecast.getForecastDailyDemand(), 1e-9);
+		assertEquals(0, forecast.getSafetyStock());
+		assertEquals(28, forecast.getReorderPoint());
+		assertEquals(4 * 21 - 10, forecast.getSuggestedReorderQty());
+	}
+
+	@Test
+	@DisplayName("La variabilidad de la demanda genera stock de seguridad")
+	void variableDemandAddsSafetyStock() {
+		int[] daily = new int[60];
+		for (int i = 0; i < 60; i++)
+			daily[i] = i % 2 == 0 ? 0 : 10;
+
+		ProductForecast forecast = DemandStatistics.compute(1L, daily, 0, 0, properties, LocalDateTime.now());
+
+		assertEquals(5.0, forecast.getDemandStdDev(), 1e-9);
+		assertEquals((int) Math.ceil(1.65 * 5 * Math.sqrt(7)), forecast.getSafetyStock());
+	}
+
+	@Test
+	@DisplayName("Sin ventas no se sugiere reposición")
+	void noSales() {
+		ProductForecast forecast = DemandStatistics.compute(1L, new int[0], -1, 50, properties, LocalDateTime.now());
+
+		assertEquals(0, forecast.getReorderPoint());
+		assertEquals(0, forecast.getSuggestedReorderQty());
+	}
+}
@@ -0,0 +1,168 @@
+package com.inventario.grpc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.inventario.dtos.ProductDTO;
+import com.inventario.dtos.ProductLookupDTO;
+import com.inventario.enums.Category;
+import com.inventario.enums.MovementType;
+import com.inventario.exceptions.InsufficientStockException;
+import com.inventario.grpc.v1.CatalogRequest;
+import com.inventario.grpc.v1.InventoryServiceGrpc;
+import com.inventario.grpc.v1.MovementSummary;
+import com.inventario.grpc.v1.Product;
+import com.inventario.grpc.v1.ProductKey;
+import com.inventario.grpc.v1.ProductKeys;
+import com.inventario.grpc.v1.ProductLookups;
+import com.inventario.grpc.v1.StockMovement;
+import com.inventario.service.ProductService;
+
+import io.grpc.ManagedChannel;
+import io.grpc.Server;
+import io.grpc.inprocess.InProcessChannelBuilder;
+import io.grpc.inprocess.InProcessServerBuilder;
+import io.grpc.stub.StreamObserver;
+
+class InventoryGrpcServiceTests {
+
+    private ProductService productService;
+    private Server server;
+    private ManagedChannel channel;
+
+    @BeforeEach
+    void start() throws Exception {
+        productService = mock(ProductService.class);
+        String name = InProcessServerBuilder.generateName();
+        server = InProcessServerBuilder.forName(name)
+                .addService(new InventoryGrpcService(productService, new ProductProtoMapper()))
+                .build()
+                .start();
+        channel = InProcessChannelBuilder.forName(name).build();
+    }
+
+    @AfterEach
+    void stop() throws Exception {
+        channel.shutdownNow();
+        server.shutdownNow().awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    private static ProductDTO product(long id) {
+        return new ProductDTO(id, "Producto " + id, null, new BigDecimal("12.34"), 5, 40,
+                String.format("AAA-%04d", id), Category.LÁCTEOS, null);
+    }
+
+    @Test
+    @DisplayName("GetProduct devuelve el precio en centavos y la categoría por número")
+    void getProductUsesTheCompactEncodings() {
+        when(productService.getProductBySku("AAA-0007")).thenReturn(product(7L));
+
+        Product product = InventoryServiceGrpc.newBlockingStub(channel)
+                .getProduct(ProductKey.newBuilder().setSku("AAA-0007").build());
+
+        assertEquals(7L, product.getId());
+        assertEquals(1234L, product.getPriceCents());
+        assertEquals(com.inventario.grpc.v1.Category.LACTEOS, product.getCategory());
+        assertEquals(40, product.getAmount());
+    }
+
+    @Test
+    @DisplayName("GetProducts conserva el orden y marca las claves inexistentes")
+    void getProductsKeepsTheOrder() {
+        when(productService.getProductsByIds(List.of(2L, 99L)))
+                .thenReturn(List.of(ProductLookupDTO.found(2L, product(2L)), ProductLookupDTO.notFound(99L)));
+
+        ProductLookups lookups = InventoryServiceGrpc.newBlockingStub(channel)
+                .getProducts(ProductKeys.newBuilder().addIds(2L).addIds(99L).build());
+
+        assertEquals("2", lookups.getResults(0).getKey());
+        assertTrue(lookups.getResults(0).hasProduct());
+        assertEquals("99", lookups.getResults(1).getKey());
+        assertFalse(lookups.getResults(1).hasProduct());
+    }
+
+    @Test
+    @DisplayName("SyncCatalog recorre el catálogo por id y un borrado durante el stream no salta productos")
+    void syncCatalogStreamsEveryPage() {
+        List<Long> catalog = new ArrayList<>(List.of(1L, 2L, 4L, 5L, 7L));
+        when(productService.getCatalogAfter(anyLong(), eq(2))).thenAnswer(invocation -> {
+            long lastId = invocation.getArgument(0);
+            List<ProductDTO> page = catalog.stream().filter(id -> id > lastId).limit(2).map(InventoryGrpcServiceTests::product).toList();
+            // Deleted after the first page: with an OFFSET the next page would skip 4
+            catalog.remove(Long.valueOf(1L));
+            return page;
+        });
+
+        List<Long> ids = new ArrayList<>();
+        InventoryServiceGrpc.newBlockingStub(channel)
+                .syncCatalog(CatalogRequest.newBuilder().setPageSize(2).build())
+                .forEachRemaining(product -> ids.add(product.getId()));
+
+        assertEquals(List.of(1L, 2L, 4L, 5L, 7L), ids);
+    }
+
+    @Test
+    @DisplayName("RecordMovements aplica cada movimiento y devuelve los rechazados con su código")
+    void recordMovementsReportsRejections() throws Exception {
+        when(productService.updateStock(eq(2L), isNull(), eq(100), eq(MovementType.SALIDA), any()))
+                .thenThrow(new InsufficientStockException("Insuficient stock."));
+        CompletableFuture<MovementSummary> result = new CompletableFuture<>();
+
+        StreamObserver<StockMovement> movements = InventoryServiceGrpc.newStub(channel)
+                .recordMovements(new StreamObserver<>() {
+                    @Override
+                    public void onNext(MovementSummary summary) {
+                        result.complete(summary);
+                    }
+
+                    @Override
+                    public void onError(Throwable t) {
+                        result.completeExceptionally(t);
+                    }
+
+                    @Override
+                    public void onCompleted() {
+                    }
+                });
+        movements.onNext(movement(1L, 3, "T1-0001"));
+        movements.onNext(movement(2L, 100, "T1-0002"));
+        movements.onNext(movement(3L, 0, "T1-0003"));
+        movements.onCompleted();
+
+        MovementSummary summary = result.get(5, TimeUnit.SECONDS);
+        assertEquals(1, summary.getAccepted());
+        assertEquals(2, summary.getRejectedCount());
+        assertEquals("T1-0002", summary.getRejected(0).getClientRef());
+        assertEquals("FAILED_PRECONDITION", summary.getRejected(0).getCode());
+        assertEquals(2, summary.getRejected(1).getIndex());
+        assertEquals("INVALID_ARGUMENT", summary.getRejected(1).getCode());
+    }
+
+    private static StockMovement movement(long productId, int quantity, String clientRef) {
+        return StockMovement.newBuilder()
+                .setProductId(productId)
+                .setType(com.inventario.grpc.v1.MovementType.SALIDA)
+                .setQuantity(quantity)
+                .setReason("venta")
+                .setClientRef(clientRef)
+                .build();
+    }
+}
@@ -0,0 +1,131 @@
+package com.inventario.hotstock;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.connection.stream.MapRecord;
+import org.springframework.data.redis.connection.stream.RecordId;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import com.inventario.enums.MovementType;
+
+/**
+ * The counters and the stream against a real Redis: the Lua script is what guarantees that a
+ * hot product never goes negative and that every accepted movement reaches the write-behind.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class HotStockStoreTests {
+
+    static final GenericContainer<?> REDIS = new GenericContainer<>("redis:7.2-alpine").withExposedPorts(6379);
+
+    private LettuceConnectionFactory connectionFactory;
+    private StringRedisTemplate redisTemplate;
+    private HotStockStore store;
+
+    @BeforeAll
+    void startRedis() {
+        REDIS.start();
+        connectionFactory = new LettuceConnectionFactory(
+                new RedisStandaloneConfiguration(REDIS.getHost(), REDIS.getMappedPort(6379)));
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+        redisTemplate = new StringRedisTemplate(connectionFactory);
+        redisTemplate.afterPropertiesSet();
+        store = new HotStockStore(redisTemplate, new HotStockProperties(true, "test:{hot-stock}:", "write-behind",
+                "tests", Duration.ofSeconds(1), 1000, Duration.ofMinutes(1), 5, Duration.ofSeconds(5)));
+    }
+
+    @AfterAll
+    void stopRedis() {
+        connectionFactory.destroy();
+        REDIS.stop();
+    }
+
+    @BeforeEach
+    void flush() {
+        redisTemplate.execute(connection -> {
+            connection.serverCommands().flushAll();
+            return null;
+        }, true);
+        store.ensureGroup();
+    }
+
+    @Test
+    @DisplayName("Las salidas concurrentes de un producto hot nunca dejan el contador en negativo")
+    void concurrentDecreasesNeverOversell() throws Exception {
+        store.set(1L, 50);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Callable<Long>> tasks = new ArrayList<>();
+        for (int i = 0; i < 80; i++)
+            tasks.add(() -> store.apply(1L, 1, MovementType.SALIDA, "venta", Instant.now()));
+        int accepted = 0;
+        try {
+            for (Future<Long> result : executor.invokeAll(tasks))
+                if (result.get() >= 0)
+                    accepted++;
+        } finally {
+            executor.shutdown();
+        }
+
+        assertEquals(50, accepted);
+        assertEquals(0L, store.getAll(List.of(1L)).get(1L));
+        assertEquals(50, store.read("tests", false).size());
+    }
+
+    @Test
+    @DisplayName("Sin contador el movimiento se rechaza como NOT_HOT y no llega al stream")
+    void missingCounterIsNotHot() {
+        assertEquals(HotStockStore.NOT_HOT, store.apply(2L, 5, MovementType.ENTRADA, "compra", Instant.now()));
+        assertEquals(0, store.backlog());
+    }
+
+    @Test
+    @DisplayName("Al quitar un contador se devuelve su último valor y deja de ser hot")
+    void removeReturnsTheLastValue() {
+        store.set(3L, 10);
+        assertEquals(15L, store.apply(3L, 5, MovementType.ENTRADA, "compra", Instant.now()));
+        assertEquals(HotStockStore.INSUFFICIENT, store.apply(3L, 20, MovementType.SALIDA, "venta", Instant.now()));
+
+        assertEquals(15L, store.remove(3L));
+        assertEquals(HotStockStore.NOT_HOT, store.remove(3L));
+        assertTrue(store.scanProductIds().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Cada relectura de una entrada pendiente suma una entrega y la dead-letter la saca del backlog")
+    void pendingEntriesCountDeliveriesUntilDeadLettered() {
+        store.set(4L, 10);
+        store.apply(4L, 3, MovementType.SALIDA, "venta", Instant.now());
+        List<RecordId> ids = store.read("tests", false).stream().map(MapRecord::getId).toList();
+        assertEquals(1, store.deliveries("tests", ids));
+
+        List<MapRecord<String, Object, Object>> pending = store.read("tests", true);
+        store.read("tests", true);
+        assertEquals(3, store.deliveries("tests", ids));
+
+        store.deadLetter(pending.get(0), "chk_warehouse_stock_amount");
+        assertEquals(0, store.backlog());
+        assertEquals(1, store.deadLetters());
+        assertTrue(store.read("tests", true).isEmpty());
+    }
+}
@@ -0,0 +1,77 @@
+package com.inventario.hotstock;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.CacheManager;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.redis.connection.stream.MapRecord;
+import org.springframework.data.redis.connection.stream.RecordId;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.inventario.repository.WarehouseStockRepository;
+
+class HotStockWriteBehindTests {
+
+    @Test
+    @DisplayName("Un lote que falla en cada entrega se reintenta por entrada y la que viola una restricción va a la dead-letter")
+    void poisonEntriesGoToTheDeadLetterStream() {
+        MapRecord<String, Object, Object> sale = record("1-0", "venta");
+        MapRecord<String, Object, Object> withoutReason = record("2-0", null);
+        HotStockStore store = mock(HotStockStore.class);
+        when(store.read("tests", true)).thenReturn(List.of(sale, withoutReason), List.of(sale, withoutReason), List.of());
+        when(store.deliveries(eq("tests"), anyList())).thenReturn(1L, 5L);
+
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenAnswer(invocation -> {
+            List<Object[]> rows = invocation.getArgument(1);
+            if (rows.stream().anyMatch(row -> row[4] == null))
+                throw new DataIntegrityViolationException("Column 'reason' cannot be null");
+            return new int[rows.size()];
+        });
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+
+        HotStockWriteBehind writeBehind = new HotStockWriteBehind(store, mock(WarehouseStockRepository.class),
+                jdbcTemplate, new TransactionTemplate(transactionManager), mock(CacheManager.class),
+                new HotStockProperties(true, "test:{hot-stock}:", "write-behind", "tests", Duration.ofSeconds(1), 1000,
+                        Duration.ofMinutes(1), 5, Duration.ofSeconds(5)));
+
+        // First deliveries: the whole batch stays pending for the next run
+        assertEquals(0, writeBehind.drain());
+        verify(store, never()).acknowledge(any());
+        verify(store, never()).deadLetter(any(), any());
+
+        assertEquals(1, writeBehind.drain());
+        verify(store).acknowledge(List.of(sale.getId()));
+        verify(store).deadLetter(eq(withoutReason), any());
+    }
+
+    private static MapRecord<String, Object, Object> record(String id, String reason) {
+        Map<Object, Object> fields = new HashMap<>();
+        fields.put(HotStockStore.FIELD_PRODUCT, "7");
+        fields.put(HotStockStore.FIELD_AMOUNT, "3");
+        fields.put(HotStockStore.FIELD_TYPE, "SALIDA");
+        if (reason != null)
+            fields.put(HotStockStore.FIELD_REASON, reason);
+        fields.put(HotStockStore.FIELD_AT, "1760000000000");
+        return MapRecord.create("test:{hot-stock}:ledger", fields).withId(RecordId.of(id));
+    }
+}
@@ -0,0 +1,62 @@
+package com.inventario.jfr;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.inventario.enums.MovementType;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+class JfrEventsTests {
+
+	@TempDir
+	Path directory;
+
+	@Test
+	@DisplayName("Las mutaciones de stock y los accesos a caché se graban con sus campos solo mientras hay una grabación activa")
+	void eventsAreRecordedOnlyWhileRecording() throws Exception {
+		StockMutationEvent.start().end(1L, 1L, MovementType.SALIDA, 3, StockMutationEvent.APPLIED);
+
+		List<RecordedEvent> events;
+		try (Recording recording = new Recording()) {
+			recording.enable(StockMutationEvent.class);
+			recording.enable(CacheAccessEvent.class);
+			recording.start();
+
+			StockMutationEvent.start().end(7L, 2L, MovementType.SALIDA, 5, StockMutationEvent.APPLIED_HOT);
+			CacheAccessEvent.start().end("products", CacheAccessEvent.GET, List.of(1L, 2L, 3L), 2);
+
+			recording.stop();
+			Path file = directory.resolve("test.jfr");
+			recording.dump(file);
+			events = RecordingFile.readAllEvents(file);
+			assertTrue(Files.size(file) > 0);
+		}
+
+		List<RecordedEvent> mutations = events.stream()
+				.filter(event -> event.getEventType().getName().equals("com.inventario.StockMutation"))
+				.toList();
+		assertEquals(1, mutations.size());
+		assertEquals(7L, mutations.get(0).getLong("productId"));
+		assertEquals("SALIDA", mutations.get(0).getString("movementType"));
+		assertEquals(StockMutationEvent.APPLIED_HOT, mutations.get(0).getString("outcome"));
+
+		RecordedEvent cache = events.stream()
+				.filter(event -> event.getEventType().getName().equals("com.inventario.CacheAccess"))
+				.findFirst()
+				.orElseThrow();
+		assertEquals("Long", cache.getString("keyType"));
+		assertEquals(3, cache.getInt("keys"));
+		assertEquals(2, cache.getInt("hits"));
+	}
+}
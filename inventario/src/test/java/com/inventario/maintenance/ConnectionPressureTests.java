@@ -0,0 +1,73 @@
+package com.inventario.maintenance;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.Connection;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+import com.inventario.bulkhead.BulkheadPools;
+import com.inventario.bulkhead.BulkheadRoutingDataSource;
+import com.inventario.enums.EndpointClass;
+import com.zaxxer.hikari.HikariDataSource;
+
+class ConnectionPressureTests {
+
+    @Test
+    @DisplayName("Solo los requests esperando en los pools de las clases de endpoint frenan a los jobs")
+    void onlyRequestPoolsCount() throws Exception {
+        try (BulkheadPools pools = new BulkheadPools(Map.of(EndpointClass.STOCK_WRITE, pool("stock-write")),
+                pool("background"))) {
+            ConnectionPressure pressure = new ConnectionPressure(new BulkheadRoutingDataSource(pools),
+                    new StaticListableBeanFactory(Map.of("bulkheadPools", pools)).getBeanProvider(BulkheadPools.class));
+            assertFalse(pressure.requestsWaiting());
+
+            ExecutorService executor = Executors.newFixedThreadPool(2);
+            try (Connection job = pools.background().getConnection()) {
+                Future<?> waitingJob = waitForConnection(executor, pools.background());
+                assertFalse(pressure.requestsWaiting());
+
+                try (Connection request = pools.get(EndpointClass.STOCK_WRITE).getConnection()) {
+                    Future<?> waitingRequest = waitForConnection(executor, pools.get(EndpointClass.STOCK_WRITE));
+                    assertTrue(pressure.requestsWaiting());
+                    request.close();
+                    waitingRequest.get(5, TimeUnit.SECONDS);
+                }
+                assertFalse(pressure.requestsWaiting());
+                job.close();
+                waitingJob.get(5, TimeUnit.SECONDS);
+            } finally {
+                executor.shutdownNow();
+            }
+        }
+    }
+
+    private static Future<?> waitForConnection(ExecutorService executor, HikariDataSource pool) {
+        Future<?> waiting = executor.submit(() -> {
+            try (Connection connection = pool.getConnection()) {
+                return null;
+            }
+        });
+        while (pool.getHikariPoolMXBean().getThreadsAwaitingConnection() == 0)
+            Thread.onSpinWait();
+        return waiting;
+    }
+
+    private static HikariDataSource pool(String name) {
+        HikariDataSource pool = new HikariDataSource();
+        pool.setPoolName(name);
+        pool.setJdbcUrl("jdbc:h2:mem:" + name);
+        pool.setMaximumPoolSize(1);
+        pool.setMinimumIdle(0);
+        pool.setConnectionTimeout(TimeUnit.SECONDS.toMillis(5));
+        return pool;
+    }
+}
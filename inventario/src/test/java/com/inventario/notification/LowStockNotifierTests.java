@@ -0,0 +1,111 @@
+package com.inventario.notification;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.inventario.dtos.AlertDTO;
+import com.sun.net.httpserver.HttpServer;
+
+class LowStockNotifierTests {
+
+	private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+	private final List<JsonNode> received = new CopyOnWriteArrayList<>();
+	private final List<Integer> responses = new CopyOnWriteArrayList<>();
+	private CountDownLatch latch;
+	private HttpServer receiver;
+
+	@BeforeEach
+	void startReceiver() throws Exception {
+		receiver = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+		receiver.createContext("/hook", exchange -> {
+			int status = responses.isEmpty() ? 204 : responses.remove(0);
+			if (status < 300)
+				received.add(objectMapper.readTree(exchange.getRequestBody()));
+			exchange.sendResponseHeaders(status, -1);
+			exchange.close();
+			latch.countDown();
+		});
+		receiver.start();
+	}
+
+	@AfterEach
+	void stopReceiver() {
+		receiver.stop(0);
+	}
+
+	private LowStockNotifier notifier(Duration debounce) {
+		URI hook = URI.create("http://localhost:" + receiver.getAddress().getPort() + "/hook");
+		LowStockNotificationProperties properties = new LowStockNotificationProperties(true, List.of(hook),
+				debounce, Duration.ofSeconds(5), 100, 10, 2, Duration.ofMillis(10), Duration.ofSeconds(2));
+		return new LowStockNotifier(properties, objectMapper);
+	}
+
+	private static LowStockCrossedEvent crossing(long id, int amount) {
+		return new LowStockCrossedEvent(new AlertDTO(id, "P" + id, "SKU-" + id, amount, 10, 10 - amount));
+	}
+
+	@Test
+	@DisplayName("Los cruces repetidos se agrupan en un único lote por producto")
+	void coalescesCrossingsIntoOneBatch() throws Exception {
+		LowStockNotifier notifier = notifier(Duration.ofMinutes(10));
+		latch = new CountDownLatch(1);
+		notifier.onLowStockCrossed(crossing(1, 9));
+		notifier.onLowStockCrossed(crossing(1, 8));
+		notifier.onLowStockCrossed(crossing(2, 5));
+
+		notifier.flush();
+
+		assertTrue(latch.await(5, TimeUnit.SECONDS));
+		JsonNode alerts = received.get(0).get("alerts");
+		assertEquals(2, alerts.size());
+		for (JsonNode alert : alerts)
+			if (alert.get("id").asLong() == 1)
+				assertEquals(8, alert.get("amount").asInt());
+	}
+
+	@Test
+	@DisplayName("Un producto ya notificado espera a que venza la ventana de debounce")
+	void debounceHoldsRepeatedProduct() throws Exception {
+		LowStockNotifier notifier = notifier(Duration.ofMinutes(10));
+		latch = new CountDownLatch(1);
+		notifier.onLowStockCrossed(crossing(1, 9));
+		notifier.flush();
+		assertTrue(latch.await(5, TimeUnit.SECONDS));
+
+		notifier.onLowStockCrossed(crossing(1, 7));
+		notifier.flush();
+
+		assertEquals(1, notifier.getPending());
+		assertEquals(1, received.size());
+	}
+
+	@Test
+	@DisplayName("Los errores 5xx del receptor se reintentan")
+	void retriesServerErrors() throws Exception {
+		LowStockNotifier notifier = notifier(Duration.ZERO);
+		responses.addAll(List.of(503, 500));
+		latch = new CountDownLatch(3);
+		notifier.onLowStockCrossed(crossing(3, 1));
+
+		notifier.flush();
+
+		assertTrue(latch.await(5, TimeUnit.SECONDS));
+		assertEquals(1, received.size());
+	}
+}
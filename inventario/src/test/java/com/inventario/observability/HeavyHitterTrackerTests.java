@@ -0,0 +1,56 @@
+package com.inventario.observability;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class HeavyHitterTrackerTests {
+
+	@Test
+	@DisplayName("Los productos calientes aparecen primero aunque haya miles de claves frías")
+	void findsHeavyHittersAmongNoise() {
+		HeavyHitterTracker tracker = new HeavyHitterTracker(Duration.ofMinutes(1), 6, 4, 16);
+		long now = 1_000_000;
+		for (int round = 0; round < 1_000; round++) {
+			tracker.record(7, now);
+			if (round % 2 == 0)
+				tracker.record(42, now);
+			if (round % 4 == 0)
+				tracker.record(99, now);
+			tracker.record(10_000 + round, now); // cada clave fría aparece una sola vez
+		}
+
+		List<HeavyHitterTracker.Entry> top = tracker.top(3, now);
+
+		assertEquals(List.of(7L, 42L, 99L), top.stream().map(HeavyHitterTracker.Entry::key).toList());
+		// Space-Saving: count sobreestima y count - error subestima la frecuencia real
+		HeavyHitterTracker.Entry hottest = top.get(0);
+		assertTrue(hottest.count() >= 1_000 && hottest.count() - hottest.error() <= 1_000);
+		assertEquals(2_750, tracker.total(now));
+	}
+
+	@Test
+	@DisplayName("Los accesos fuera de la ventana dejan de contar")
+	void slidingWindowForgetsOldSlots() {
+		HeavyHitterTracker tracker = new HeavyHitterTracker(Duration.ofSeconds(60), 6, 4, 16);
+		for (int i = 0; i < 100; i++)
+			tracker.record(1, 0);
+		for (int i = 0; i < 10; i++)
+			tracker.record(2, 30_000);
+
+		assertEquals(Set.of(1L, 2L), keys(tracker.top(10, 30_000)));
+		assertEquals(Set.of(2L), keys(tracker.top(10, 65_000)));
+		assertEquals(0, tracker.total(200_000));
+	}
+
+	private static Set<Long> keys(List<HeavyHitterTracker.Entry> entries) {
+		return entries.stream().map(HeavyHitterTracker.Entry::key).collect(Collectors.toSet());
+	}
+}
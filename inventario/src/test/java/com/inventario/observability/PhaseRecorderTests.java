@@ -0,0 +1,106 @@
+package com.inventario.observability;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.inventario.dtos.EndpointTimingDTO;
+import com.inventario.dtos.PhaseTimingDTO;
+import com.inventario.enums.RequestPhase;
+
+class PhaseRecorderTests {
+
+	private static final int CACHE = RequestPhase.CACHE.ordinal();
+	private static final int DB = RequestPhase.DB.ordinal();
+	private static final int MAPPING = RequestPhase.MAPPING.ordinal();
+	private static final int SERIALIZATION = RequestPhase.SERIALIZATION.ordinal();
+
+	@Test
+	@DisplayName("Las fases anidadas solo cuentan su propio tiempo y todo suma el total")
+	void nestedPhasesAreExclusive() {
+		PhaseRecorder recorder = new PhaseRecorder();
+		recorder.reset(0);
+		recorder.push(CACHE, 1_000_000);        // miss en la caché...
+		recorder.push(DB, 1_500_000);           // ...que carga desde la base
+		recorder.pop(4_500_000);
+		recorder.push(MAPPING, 4_500_000);
+		recorder.pop(5_000_000);
+		recorder.pop(5_200_000);
+		recorder.push(SERIALIZATION, 6_000_000);
+		recorder.pop(7_000_000);
+		recorder.finish(8_000_000);
+
+		assertEquals(700_000, recorder.nanos(CACHE));
+		assertEquals(3_000_000, recorder.nanos(DB));
+		assertEquals(500_000, recorder.nanos(MAPPING));
+		assertEquals(1_000_000, recorder.nanos(SERIALIZATION));
+		assertEquals(2_800_000, recorder.nanos(PhaseRecorder.APP));
+		assertEquals(8_000_000, recorder.totalNanos());
+		assertEquals("cache;dur=0.700, db;dur=3.000, mapping;dur=0.500, json;dur=1.000, app;dur=2.800, total;dur=8.000",
+				recorder.serverTiming());
+	}
+
+	@Test
+	@DisplayName("Una fase que quedó abierta por una excepción se cierra al terminar la request")
+	void unbalancedPhasesAreClosedOnFinish() {
+		PhaseRecorder recorder = new PhaseRecorder();
+		recorder.reset(0);
+		recorder.pop(100);                      // exit sin enter: se ignora
+		recorder.push(DB, 1_000);
+		recorder.finish(3_000);
+
+		assertEquals(2_000, recorder.nanos(DB));
+		assertEquals(1_000, recorder.nanos(PhaseRecorder.APP));
+
+		// La misma instancia se reutiliza en la siguiente request del hilo
+		recorder.reset(10_000);
+		recorder.finish(11_000);
+		assertEquals(0, recorder.nanos(DB));
+		assertEquals(1_000, recorder.nanos(PhaseRecorder.APP));
+	}
+
+	@Test
+	@DisplayName("Fuera de una request las llamadas no registran nada")
+	void noRecorderOutsideRequests() throws Exception {
+		Thread job = new Thread(() -> {
+			PhaseRecorder.enter(RequestPhase.DB);
+			PhaseRecorder.exit();
+		});
+		job.start();
+		job.join();
+
+		PhaseRecorder recorder = PhaseRecorder.begin();
+		recorder.finish();
+		PhaseRecorder.enter(RequestPhase.DB);
+		PhaseRecorder.exit();
+		assertEquals(0, recorder.nanos(DB));
+	}
+
+	@Test
+	@DisplayName("Los histogramas por endpoint reparten el tiempo entre las fases")
+	void metricsAggregatePerEndpoint() {
+		RequestTimingMetrics metrics = new RequestTimingMetrics(new RequestTimingProperties(true, true, 0, 10));
+		PhaseRecorder recorder = new PhaseRecorder();
+		for (int i = 0; i < 10; i++) {
+			recorder.reset(0);
+			recorder.push(DB, 0);
+			recorder.pop(3_000_000);
+			recorder.finish(4_000_000);
+			metrics.record("GET", "/api/products/{id}", recorder);
+		}
+
+		List<EndpointTimingDTO> stats = metrics.endpointStats();
+
+		assertEquals(1, stats.size());
+		EndpointTimingDTO endpoint = stats.get(0);
+		assertEquals("GET /api/products/{id}", endpoint.endpoint());
+		assertEquals(10, endpoint.requests());
+		PhaseTimingDTO db = endpoint.phases().stream().filter(p -> p.phase().equals("db")).findFirst().orElseThrow();
+		assertEquals(0.75, db.share(), 0.001);
+		assertTrue(db.p99Ms() >= 3.0);
+	}
+}
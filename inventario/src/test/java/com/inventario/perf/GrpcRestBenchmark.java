@@ -0,0 +1,278 @@
+package com.inventario.perf;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+import org.HdrHistogram.ConcurrentHistogram;
+
+import com.inventario.config.PerfDataSeeder;
+import com.inventario.grpc.v1.CatalogRequest;
+import com.inventario.grpc.v1.InventoryServiceGrpc;
+import com.inventario.grpc.v1.MovementSummary;
+import com.inventario.grpc.v1.MovementType;
+import com.inventario.grpc.v1.Product;
+import com.inventario.grpc.v1.ProductKey;
+import com.inventario.grpc.v1.ProductKeys;
+import com.inventario.grpc.v1.StockMovement;
+
+import io.grpc.ManagedChannel;
+import io.grpc.ManagedChannelBuilder;
+import io.grpc.stub.StreamObserver;
+
+/**
+ * Same operations through the REST API and the gRPC API of a running instance (usually the
+ * perf profile, which disables admission control). Each scenario runs closed-loop with the
+ * given clients, first over REST and then over gRPC, and reports throughput, latency and the
+ * average response payload (body bytes only: HTTP headers and gRPC framing are not counted).
+ * The full catalog sync is timed once per transport.
+ *
+ * Options (exec.args): url=http://localhost:8080 grpc=localhost:9090 clients=32 duration=20
+ * warmup=5 products=10000 batch=100 movements=20
+ */
+public class GrpcRestBenchmark {
+
+    private static final long MAX_LATENCY_MICROS = TimeUnit.SECONDS.toMicros(60);
+    private static final int CATALOG_PAGE_SIZE = 500;
+
+    @FunctionalInterface
+    private interface Operation {
+        // Returns the response payload in bytes
+        long call(ThreadLocalRandom random) throws Exception;
+    }
+
+    private final String baseUrl;
+    private final int clients;
+    private final Duration duration;
+    private final Duration warmup;
+    private final int products;
+    private final int batch;
+    private final int movements;
+    private final HttpClient httpClient;
+    private final ManagedChannel channel;
+    private final InventoryServiceGrpc.InventoryServiceBlockingStub blockingStub;
+    private final InventoryServiceGrpc.InventoryServiceStub asyncStub;
+
+    public GrpcRestBenchmark(String baseUrl, String grpcTarget, int clients, Duration duration, Duration warmup,
+            int products, int batch, int movements) {
+        this.baseUrl = baseUrl;
+        this.clients = clients;
+        this.duration = duration;
+        this.warmup = warmup;
+        this.products = products;
+        this.batch = batch;
+        this.movements = movements;
+        this.httpClient = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        this.channel = ManagedChannelBuilder.forTarget(grpcTarget).usePlaintext().build();
+        this.blockingStub = InventoryServiceGrpc.newBlockingStub(channel);
+        this.asyncStub = InventoryServiceGrpc.newStub(channel);
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new LinkedHashMap<>();
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            if (eq > 0)
+                options.put(arg.substring(0, eq), arg.substring(eq + 1));
+        }
+        GrpcRestBenchmark benchmark = new GrpcRestBenchmark(
+                options.getOrDefault("url", "http://localhost:8080"),
+                options.getOrDefault("grpc", "localhost:9090"),
+                Integer.parseInt(options.getOrDefault("clients", "32")),
+                Duration.ofSeconds(Long.parseLong(options.getOrDefault("duration", "20"))),
+                Duration.ofSeconds(Long.parseLong(options.getOrDefault("warmup", "5"))),
+                Integer.parseInt(options.getOrDefault("products", "10000")),
+                Integer.parseInt(options.getOrDefault("batch", "100")),
+                Integer.parseInt(options.getOrDefault("movements", "20")));
+        try {
+            benchmark.run();
+        } finally {
+            benchmark.channel.shutdownNow();
+        }
+    }
+
+    public void run() throws Exception {
+        System.out.printf("%n%d clients, %d s per scenario and transport%n", clients, duration.toSeconds());
+        System.out.printf("%-22s %-5s %10s %10s %9s %9s %9s %12s %8s%n",
+                "scenario", "api", "ops", "ops/s", "p50 ms", "p99 ms", "max ms", "bytes/op", "errors");
+
+        measure("getProduct", "REST", random -> restGet("/api/products/" + randomId(random)));
+        measure("getProduct", "gRPC", random -> blockingStub
+                .getProduct(ProductKey.newBuilder().setId(randomId(random)).build())
+                .getSerializedSize());
+
+        measure("getProducts x" + batch, "REST", random -> restGet("/api/products/batch?ids="
+                + randomIds(random).stream().map(String::valueOf).collect(Collectors.joining(","))));
+        measure("getProducts x" + batch, "gRPC", random -> blockingStub
+                .getProducts(ProductKeys.newBuilder().addAllIds(randomIds(random)).build())
+                .getSerializedSize());
+
+        measure("getProductBySku", "REST", random -> restGet("/api/products/sku/" + PerfDataSeeder.skuOf(randomId(random))));
+        measure("getProductBySku", "gRPC", random -> blockingStub
+                .getProduct(ProductKey.newBuilder().setSku(PerfDataSeeder.skuOf(randomId(random))).build())
+                .getSerializedSize());
+
+        // Pairs of +1/-1 so the stock levels stay where the seeder left them
+        measure("movements x" + movements, "REST", this::restMovements);
+        measure("movements x" + movements, "gRPC", this::grpcMovements);
+
+        catalog();
+    }
+
+    private void measure(String scenario, String api, Operation operation) throws InterruptedException {
+        ConcurrentHistogram latency = new ConcurrentHistogram(MAX_LATENCY_MICROS, 3);
+        LongAdder bytes = new LongAdder();
+        LongAdder errors = new LongAdder();
+        long measureStart = System.nanoTime() + warmup.toNanos();
+        long end = measureStart + duration.toNanos();
+
+        ExecutorService executor = LoadGenerator.newClientExecutor(clients);
+        for (int i = 0; i < clients; i++) {
+            executor.submit(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                while (System.nanoTime() < end) {
+                    long start = System.nanoTime();
+                    long size = -1;
+                    try {
+                        size = operation.call(random);
+                    } catch (Exception ex) {
+                        // Counted below
+                    }
+                    if (start < measureStart)
+                        continue;
+                    latency.recordValue(Math.min(MAX_LATENCY_MICROS, (System.nanoTime() - start) / 1_000));
+                    if (size < 0)
+                        errors.increment();
+                    else
+                        bytes.add(size);
+                }
+            });
+        }
+        executor.shutdown();
+        executor.awaitTermination(warmup.toSeconds() + duration.toSeconds() + 60, TimeUnit.SECONDS);
+
+        long ops = latency.getTotalCount();
+        System.out.printf("%-22s %-5s %10d %10.1f %9.2f %9.2f %9.2f %12d %8d%n",
+                scenario, api, ops, ops / (double) duration.toSeconds(),
+                latency.getValueAtPercentile(50) / 1000.0, latency.getValueAtPercentile(99) / 1000.0,
+                latency.getMaxValue() / 1000.0, ops == 0 ? 0 : bytes.sum() / Math.max(1, ops - errors.sum()),
+                errors.sum());
+    }
+
+    // One full sync per transport, on an idle server
+    private void catalog() throws Exception {
+        int pages = (products + CATALOG_PAGE_SIZE - 1) / CATALOG_PAGE_SIZE;
+        long start = System.nanoTime();
+        long restBytes = 0;
+        for (int page = 0; page < pages; page++)
+            restBytes += restGet("/api/products?sort=id&size=" + CATALOG_PAGE_SIZE + "&page=" + page);
+        double restSeconds = (System.nanoTime() - start) / 1_000_000_000.0;
+
+        start = System.nanoTime();
+        long grpcBytes = 0;
+        int count = 0;
+        Iterator<Product> stream = blockingStub.syncCatalog(CatalogRequest.newBuilder()
+                .setPageSize(CATALOG_PAGE_SIZE)
+                .build());
+        while (stream.hasNext()) {
+            grpcBytes += stream.next().getSerializedSize();
+            count++;
+        }
+        double grpcSeconds = (System.nanoTime() - start) / 1_000_000_000.0;
+
+        System.out.printf("%n%-22s %-5s %10s %12s %14s%n", "catalog sync", "api", "seconds", "bytes", "bytes/product");
+        System.out.printf("%-22s %-5s %10.2f %12d %14d%n", "", "REST", restSeconds, restBytes, restBytes / Math.max(1, products));
+        System.out.printf("%-22s %-5s %10.2f %12d %14d%n", "", "gRPC", grpcSeconds, grpcBytes, grpcBytes / Math.max(1, count));
+    }
+
+    private long restGet(String path) throws Exception {
+        HttpResponse<byte[]> response = httpClient.send(HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofSeconds(30))
+                .GET()
+                .build(), HttpResponse.BodyHandlers.ofByteArray());
+        if (response.statusCode() >= 400)
+            throw new IllegalStateException("HTTP " + response.statusCode());
+        return response.body().length;
+    }
+
+    private long restMovements(ThreadLocalRandom random) throws Exception {
+        long bytes = 0;
+        long productId = randomId(random);
+        for (int i = 0; i < movements; i++) {
+            if (i % 2 == 0)
+                productId = randomId(random);
+            String direction = i % 2 == 0 ? "increase" : "decrease";
+            HttpResponse<byte[]> response = httpClient.send(HttpRequest.newBuilder(
+                    URI.create(baseUrl + "/api/products/" + productId + "/stock/" + direction))
+                    .timeout(Duration.ofSeconds(30))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString("{\"amount\":1,\"motive\":\"benchmark\"}"))
+                    .build(), HttpResponse.BodyHandlers.ofByteArray());
+            if (response.statusCode() >= 400)
+                throw new IllegalStateException("HTTP " + response.statusCode());
+            bytes += response.body().length;
+        }
+        return bytes;
+    }
+
+    private long grpcMovements(ThreadLocalRandom random) throws Exception {
+        CompletableFuture<MovementSummary> result = new CompletableFuture<>();
+        StreamObserver<StockMovement> requests = asyncStub.recordMovements(new StreamObserver<>() {
+            @Override
+            public void onNext(MovementSummary summary) {
+                result.complete(summary);
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                result.completeExceptionally(t);
+            }
+
+            @Override
+            public void onCompleted() {
+            }
+        });
+        long productId = randomId(random);
+        for (int i = 0; i < movements; i++) {
+            if (i % 2 == 0)
+                productId = randomId(random);
+            requests.onNext(StockMovement.newBuilder()
+                    .setProductId(productId)
+                    .setType(i % 2 == 0 ? MovementType.ENTRADA : MovementType.SALIDA)
+                    .setQuantity(1)
+                    .setReason("benchmark")
+                    .build());
+        }
+        requests.onCompleted();
+        MovementSummary summary = result.get(30, TimeUnit.SECONDS);
+        if (summary.getRejectedCount() > 0)
+            throw new IllegalStateException(summary.getRejectedCount() + " movements rejected");
+        return summary.getSerializedSize();
+    }
+
+    private long randomId(ThreadLocalRandom random) {
+        return 1 + random.nextInt(products);
+    }
+
+    private List<Long> randomIds(ThreadLocalRandom random) {
+        List<Long> ids = new ArrayList<>(batch);
+        for (int i = 0; i < batch; i++)
+            ids.add(randomId(random));
+        return ids;
+    }
+}
@@ -0,0 +1,168 @@
+package com.inventario.perf;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import com.inventario.config.PerfDataSeeder;
+
+/**
+ * Closed-loop load generator for a running instance (usually started with the perf profile:
+ * {@code ./mvnw spring-boot:run -Dspring-boot.run.profiles=perf}).
+ *
+ * Mix: 70% point reads (getProductById / getProductBySku), 20% decreaseStock and 10%
+ * search / stock history. Reports throughput and latency percentiles per endpoint.
+ *
+ * Options (exec.args): url=http://localhost:8080 clients=64 duration=60 warmup=10 products=10000
+ */
+public class LoadGenerator {
+
+    private static final long MAX_LATENCY_MICROS = TimeUnit.SECONDS.toMicros(60);
+
+    private final String baseUrl;
+    private final int clients;
+    private final Duration duration;
+    private final Duration warmup;
+    private final int products;
+    private final HttpClient httpClient;
+    private final Map<String, EndpointStats> stats = new LinkedHashMap<>();
+
+    private volatile boolean recording;
+
+    public LoadGenerator(String baseUrl, int clients, Duration duration, Duration warmup, int products) {
+        this.baseUrl = baseUrl;
+        this.clients = clients;
+        this.duration = duration;
+        this.warmup = warmup;
+        this.products = products;
+        this.httpClient = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        for (String endpoint : new String[] { "getProductById", "getProductBySku", "decreaseStock", "searchByName",
+                "stockHistory" })
+            stats.put(endpoint, new EndpointStats());
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new LinkedHashMap<>();
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            if (eq > 0)
+                options.put(arg.substring(0, eq), arg.substring(eq + 1));
+        }
+        LoadGenerator generator = new LoadGenerator(
+                options.getOrDefault("url", "http://localhost:8080"),
+                Integer.parseInt(options.getOrDefault("clients", "64")),
+                Duration.ofSeconds(Long.parseLong(options.getOrDefault("duration", "60"))),
+                Duration.ofSeconds(Long.parseLong(options.getOrDefault("warmup", "10"))),
+                Integer.parseInt(options.getOrDefault("products", "10000")));
+        generator.run();
+    }
+
+    public void run() throws InterruptedException {
+        long end = System.nanoTime() + warmup.toNanos() + duration.toNanos();
+        ExecutorService executor = newClientExecutor(clients);
+        for (int i = 0; i < clients; i++)
+            executor.submit(() -> clientLoop(end));
+
+        Thread.sleep(warmup.toMillis());
+        recording = true;
+        long measureStart = System.nanoTime();
+        executor.shutdown();
+        executor.awaitTermination(duration.toSeconds() + 60, TimeUnit.SECONDS);
+        double seconds = (System.nanoTime() - measureStart) / 1_000_000_000.0;
+        report(seconds);
+    }
+
+    /**
+     * One virtual thread per client when the runtime supports it (Java 21+), otherwise a
+     * platform thread per client.
+     */
+    static ExecutorService newClientExecutor(int clients) {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException ex) {
+            return Executors.newFixedThreadPool(clients);
+        }
+    }
+
+    private void clientLoop(long end) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        while (System.nanoTime() < end) {
+            long id = 1 + random.nextInt(products);
+            int roll = random.nextInt(100);
+            if (roll < 35)
+                call("getProductById", HttpRequest.newBuilder(uri("/api/products/" + id)).GET());
+            else if (roll < 70)
+                call("getProductBySku", HttpRequest.newBuilder(uri("/api/products/sku/" + PerfDataSeeder.skuOf(id))).GET());
+            else if (roll < 90)
+                call("decreaseStock", HttpRequest.newBuilder(uri("/api/products/" + id + "/stock/decrease"))
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString("{\"amount\":1,\"motive\":\"load-test\"}")));
+            else if (roll < 95)
+                call("searchByName", HttpRequest.newBuilder(uri("/api/products/search?size=20&name="
+                        + URLEncoder.encode("Producto " + random.nextInt(1_000), StandardCharsets.UTF_8))).GET());
+            else
+                call("stockHistory", HttpRequest.newBuilder(uri("/api/stock/product/" + id + "?size=20")).GET());
+        }
+    }
+
+    private void call(String endpoint, HttpRequest.Builder request) {
+        long start = System.nanoTime();
+        boolean ok;
+        try {
+            HttpResponse<Void> response = httpClient.send(request.timeout(Duration.ofSeconds(30)).build(),
+                    HttpResponse.BodyHandlers.discarding());
+            ok = response.statusCode() < 400;
+        } catch (Exception ex) {
+            ok = false;
+        }
+        if (!recording)
+            return;
+        EndpointStats endpointStats = stats.get(endpoint);
+        long micros = Math.min(MAX_LATENCY_MICROS, (System.nanoTime() - start) / 1_000);
+        endpointStats.latency.recordValue(micros);
+        if (!ok)
+            endpointStats.errors.increment();
+    }
+
+    private URI uri(String path) {
+        return URI.create(baseUrl + path);
+    }
+
+    private void report(double seconds) {
+        System.out.printf("%n%d clients, %.1f s measured%n", clients, seconds);
+        System.out.printf("%-16s %10s %10s %9s %9s %9s %9s %9s %8s%n",
+                "endpoint", "requests", "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms", "errors");
+        long total = 0;
+        for (Map.Entry<String, EndpointStats> entry : stats.entrySet()) {
+            Histogram h = entry.getValue().latency;
+            total += h.getTotalCount();
+            System.out.printf("%-16s %10d %10.1f %9.2f %9.2f %9.2f %9.2f %9.2f %8d%n",
+                    entry.getKey(), h.getTotalCount(), h.getTotalCount() / seconds,
+                    h.getValueAtPercentile(50) / 1000.0, h.getValueAtPercentile(90) / 1000.0,
+                    h.getValueAtPercentile(99) / 1000.0, h.getValueAtPercentile(99.9) / 1000.0,
+                    h.getMaxValue() / 1000.0, entry.getValue().errors.sum());
+        }
+        System.out.printf("%-16s %10d %10.1f%n", "total", total, total / seconds);
+    }
+
+    private static final class EndpointStats {
+        private final ConcurrentHistogram latency = new ConcurrentHistogram(MAX_LATENCY_MICROS, 3);
+        private final LongAdder errors = new LongAdder();
+    }
+}
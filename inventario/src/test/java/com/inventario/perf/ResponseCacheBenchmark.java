@@ -0,0 +1,124 @@
+package com.inventario.perf;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.HdrHistogram.Histogram;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.inventario.config.PerfDataSeeder;
+import com.inventario.config.RedisConfig;
+import com.inventario.dtos.ProductDTO;
+import com.inventario.enums.Category;
+
+/**
+ * Cost of one cache hit on the server, without the network: the bytes Redis returns are turned
+ * into the response body either through the objects (Redis serializer -> ProductDTO -> MVC
+ * ObjectMapper, the {@code @Cacheable} path) or as they are (the response-bytes path). Reports
+ * bytes allocated and latency per hit for a product and for a page of 20.
+ *
+ * Options (exec.args): iterations=200000 warmup=50000
+ */
+public class ResponseCacheBenchmark {
+
+    @FunctionalInterface
+    private interface Hit {
+        void serve(ByteArrayOutputStream response) throws IOException;
+    }
+
+    private final int iterations;
+    private final int warmup;
+    private final RedisCacheConfiguration cacheConfiguration = new RedisConfig().cacheConfiguration();
+    private final ObjectMapper mvcMapper = Jackson2ObjectMapperBuilder.json().build();
+    private final com.sun.management.ThreadMXBean threads =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    public ResponseCacheBenchmark(int iterations, int warmup) {
+        this.iterations = iterations;
+        this.warmup = warmup;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new LinkedHashMap<>();
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            if (eq > 0)
+                options.put(arg.substring(0, eq), arg.substring(eq + 1));
+        }
+        new ResponseCacheBenchmark(
+                Integer.parseInt(options.getOrDefault("iterations", "200000")),
+                Integer.parseInt(options.getOrDefault("warmup", "50000"))).run();
+    }
+
+    public void run() throws IOException {
+        ProductDTO product = product(1);
+        List<ProductDTO> content = new ArrayList<>();
+        for (int i = 1; i <= 20; i++)
+            content.add(product(i));
+        PageImpl<ProductDTO> page = new PageImpl<>(content, PageRequest.of(0, 20), 10_000);
+
+        // What Redis hands back on a hit for each path
+        byte[] productEntry = redisValue(product);
+        byte[] pageEntry = redisValue(page);
+        byte[] productBody = mvcMapper.writeValueAsBytes(product);
+        byte[] pageBody = mvcMapper.writeValueAsBytes(page);
+
+        System.out.printf("%n%-22s %12s %12s %10s %10s %10s%n", "hit", "body bytes", "alloc B/hit", "p50 us",
+                "p99 us", "max us");
+        measure("product / objects", productBody.length, response -> mvcMapper.writeValue(response,
+                cacheConfiguration.getValueSerializationPair().read(ByteBuffer.wrap(productEntry))));
+        measure("product / bytes", productBody.length, response -> response.write(productBody));
+        measure("page 20 / objects", pageBody.length, response -> mvcMapper.writeValue(response,
+                cacheConfiguration.getValueSerializationPair().read(ByteBuffer.wrap(pageEntry))));
+        measure("page 20 / bytes", pageBody.length, response -> response.write(pageBody));
+    }
+
+    private void measure(String name, int bodySize, Hit hit) throws IOException {
+        // Reused like a servlet output buffer, so only the hit itself allocates
+        ByteArrayOutputStream response = new ByteArrayOutputStream(64 * 1024);
+        for (int i = 0; i < warmup; i++) {
+            response.reset();
+            hit.serve(response);
+        }
+
+        Histogram latency = new Histogram(TimeUnit.SECONDS.toNanos(1), 3);
+        long thread = Thread.currentThread().getId();
+        long allocatedBefore = threads.getThreadAllocatedBytes(thread);
+        for (int i = 0; i < iterations; i++) {
+            response.reset();
+            long start = System.nanoTime();
+            hit.serve(response);
+            latency.recordValue(Math.min(TimeUnit.SECONDS.toNanos(1), System.nanoTime() - start));
+        }
+        long allocated = threads.getThreadAllocatedBytes(thread) - allocatedBefore;
+
+        System.out.printf("%-22s %12d %12d %10.2f %10.2f %10.2f%n", name, bodySize, allocated / iterations,
+                latency.getValueAtPercentile(50) / 1000.0, latency.getValueAtPercentile(99) / 1000.0,
+                latency.getMaxValue() / 1000.0);
+    }
+
+    private byte[] redisValue(Object value) {
+        ByteBuffer buffer = cacheConfiguration.getValueSerializationPair().write(value);
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.get(bytes);
+        return bytes;
+    }
+
+    private static ProductDTO product(long id) {
+        return new ProductDTO(id, "Producto " + id, "Descripción del producto " + id, new BigDecimal("1234.50"), 10,
+                250, PerfDataSeeder.skuOf(id), Category.ALMACÉN_Y_ABARROTES, LocalDateTime.now());
+    }
+}
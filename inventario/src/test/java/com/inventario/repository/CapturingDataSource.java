@@ -0,0 +1,123 @@
+package com.inventario.repository;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+/**
+ * Records the prepared statements run on the calling thread while {@link #capture} is active,
+ * with their bound parameters, so the plan tests EXPLAIN the SQL Hibernate actually sends and
+ * not a hand-written copy of it.
+ */
+class CapturingDataSource extends DelegatingDataSource {
+    private static final ClassLoader CLASS_LOADER = CapturingDataSource.class.getClassLoader();
+    private static final ThreadLocal<List<Statement>> CAPTURED = new ThreadLocal<>();
+
+    record Statement(String sql, List<Object> parameters) {
+    }
+
+    CapturingDataSource(DataSource target) {
+        super(target);
+    }
+
+    static List<Statement> capture(Runnable action) {
+        List<Statement> statements = new ArrayList<>();
+        CAPTURED.set(statements);
+        try {
+            action.run();
+        } finally {
+            CAPTURED.remove();
+        }
+        return statements;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return wrap(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return wrap(super.getConnection(username, password));
+    }
+
+    private static Connection wrap(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(CLASS_LOADER, new Class<?>[] { Connection.class },
+                (proxy, method, args) -> {
+                    Object result = invokeTarget(connection, method, args);
+                    if (result instanceof PreparedStatement statement && method.getName().equals("prepareStatement"))
+                        return Proxy.newProxyInstance(CLASS_LOADER, new Class<?>[] { PreparedStatement.class },
+                                new StatementHandler(statement, (String) args[0]));
+                    return result;
+                });
+    }
+
+    private static Object invokeTarget(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException ex) {
+            throw ex.getTargetException();
+        }
+    }
+
+    private static final class StatementHandler implements InvocationHandler {
+        private final PreparedStatement target;
+        private final String sql;
+        private final Map<Integer, Object> parameters = new TreeMap<>();
+        private List<Object> firstBatch;
+
+        private StatementHandler(PreparedStatement target, String sql) {
+            this.target = target;
+            this.sql = sql;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer index)
+                parameters.put(index, name.equals("setNull") ? null : args[1]);
+            else if (name.equals("clearParameters"))
+                parameters.clear();
+            else if (name.equals("addBatch") && firstBatch == null)
+                firstBatch = new ArrayList<>(parameters.values());
+            else if (name.startsWith("execute") && (args == null || args.length == 0)) {
+                List<Statement> captured = CAPTURED.get();
+                if (captured != null)
+                    captured.add(new Statement(sql, firstBatch != null ? firstBatch : new ArrayList<>(parameters.values())));
+            }
+            return invokeTarget(target, method, args);
+        }
+    }
+
+    // Wraps the test DataSource, so Hibernate, Flyway and JdbcTemplate all go through it
+    @TestConfiguration(proxyBeanMethods = false)
+    static class Configuration {
+
+        @Bean
+        static BeanPostProcessor capturingDataSourcePostProcessor() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    return bean instanceof DataSource dataSource && !(bean instanceof CapturingDataSource)
+                            ? new CapturingDataSource(dataSource)
+                            : bean;
+                }
+            };
+        }
+    }
+}
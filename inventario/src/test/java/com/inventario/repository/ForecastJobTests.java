@@ -0,0 +1,55 @@
+package com.inventario.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.inventario.forecast.ForecastJob;
+import com.inventario.forecast.ForecastProperties;
+
+class ForecastJobTests extends QueryPlanTestSupport {
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    @DisplayName("Las transferencias entre depósitos no cuentan como demanda")
+    void transfersAreNotDemand() {
+        jdbcTemplate.update("INSERT INTO products (name, amount, stock_min, price, sku, date_of_creation, deleted, category) "
+                + "VALUES ('Pronosticado', 997, 0, 1.00, 'FCT-0001', ?, 0, 'MASCOTAS')", now());
+        long productId = jdbcTemplate.queryForObject("SELECT id FROM products WHERE sku = 'FCT-0001'", Long.class);
+        movement(productId, 1L, 3, "SALIDA", null);
+        movement(productId, 1L, 400, "SALIDA", "11111111-1111-1111-1111-111111111111");
+        movement(productId, 2L, 400, "ENTRADA", "11111111-1111-1111-1111-111111111111");
+
+        new ForecastJob(dataSource, new TransactionTemplate(transactionManager),
+                new ForecastProperties(60, 7, 14, 1.65, 0.3, 2000, 1000, 0)).run();
+
+        assertEquals(3.0, jdbcTemplate.queryForObject(
+                "SELECT avg_daily_demand FROM product_forecasts WHERE product_id = ?", Double.class, productId), 1e-9);
+        assertEquals(21, jdbcTemplate.queryForObject(
+                "SELECT reorder_point FROM product_forecasts WHERE product_id = ?", Integer.class, productId));
+    }
+
+    private void movement(long productId, long warehouseId, int amount, String type, String transferId) {
+        jdbcTemplate.update("INSERT INTO stock_manager (product_id, warehouse_id, amount, movement_type, reason, "
+                + "created_at, transfer_id) VALUES (?, ?, ?, ?, 'Movimiento', ?, ?)",
+                productId, warehouseId, amount, type, now(), transferId);
+    }
+
+    private static Timestamp now() {
+        return Timestamp.valueOf(LocalDateTime.now());
+    }
+}
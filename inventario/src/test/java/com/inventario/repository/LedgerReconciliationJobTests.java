@@ -0,0 +1,103 @@
+package com.inventario.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.inventario.dtos.StockDiscrepancyDTO;
+import com.inventario.enums.DiscrepancyType;
+import com.inventario.maintenance.ConnectionPressure;
+import com.inventario.maintenance.LedgerReconciliationJob;
+import com.inventario.maintenance.ReconciliationProperties;
+import com.inventario.warehouse.StockTotalsRollup;
+
+class LedgerReconciliationJobTests extends QueryPlanTestSupport {
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    @DisplayName("La conciliación detecta stock sin movimientos y totales desfasados, y los corrige con un AJUSTE")
+    void reportsAndRepairsDrift() throws InterruptedException {
+        long withoutLedger = product("REC-0001", 10);
+        jdbcTemplate.update("INSERT INTO warehouse_stock (product_id, warehouse_id, amount, updated_at) VALUES (?, 1, 10, ?)",
+                withoutLedger, now());
+
+        // Movimientos previos a los depósitos: warehouse_id NULL cuenta para el depósito por defecto
+        long consistent = product("REC-0002", 5);
+        jdbcTemplate.update("INSERT INTO warehouse_stock (product_id, warehouse_id, amount, updated_at) VALUES (?, 1, 5, ?)",
+                consistent, now());
+        movement(consistent, 7, "ENTRADA");
+        movement(consistent, 2, "SALIDA");
+
+        long staleTotal = product("REC-0003", 8);
+        jdbcTemplate.update("INSERT INTO warehouse_stock (product_id, warehouse_id, amount, updated_at) VALUES (?, 1, 5, ?)",
+                staleTotal, now());
+        movement(staleTotal, 5, "ENTRADA");
+
+        StockTotalsRollup rollup = mock(StockTotalsRollup.class);
+        LedgerReconciliationJob job = new LedgerReconciliationJob(dataSource, new TransactionTemplate(transactionManager),
+                rollup, new ReconciliationProperties(2, 2, 1.0, Duration.ofSeconds(1), 10), mock(ConnectionPressure.class));
+
+        LedgerReconciliationJob.Result report = job.run(false, withoutLedger, staleTotal, ids -> { });
+
+        assertEquals(3, report.products());
+        assertEquals(1, report.ledgerDiscrepancies());
+        assertEquals(1, report.totalDiscrepancies());
+        assertEquals(List.of(
+                new StockDiscrepancyDTO(withoutLedger, 1L, DiscrepancyType.LEDGER, 0, 10, 10),
+                new StockDiscrepancyDTO(staleTotal, null, DiscrepancyType.TOTAL, 5, 8, 3)), report.discrepancies());
+        assertEquals(0, ajustes(withoutLedger));
+
+        List<Long> adjusted = new ArrayList<>();
+        LedgerReconciliationJob.Result repaired = job.run(true, withoutLedger, staleTotal, adjusted::addAll);
+
+        assertEquals(1, repaired.adjustments());
+        assertEquals(1, repaired.totalsResynced());
+        assertEquals(List.of(withoutLedger), adjusted);
+        assertEquals(10, jdbcTemplate.queryForObject(
+                "SELECT amount FROM stock_manager WHERE product_id = ? AND movement_type = 'AJUSTE'", Integer.class,
+                withoutLedger));
+        verify(rollup).resync(List.of(staleTotal));
+
+        assertEquals(0, job.run(false, withoutLedger, staleTotal, ids -> { }).ledgerDiscrepancies());
+    }
+
+    private long product(String sku, int amount) {
+        jdbcTemplate.update("INSERT INTO products (name, amount, stock_min, price, sku, date_of_creation, deleted, category) "
+                + "VALUES ('Conciliado', ?, 0, 1.00, ?, ?, 0, 'MASCOTAS')", amount, sku, now());
+        return jdbcTemplate.queryForObject("SELECT id FROM products WHERE sku = ?", Long.class, sku);
+    }
+
+    private void movement(long productId, int amount, String type) {
+        jdbcTemplate.update("INSERT INTO stock_manager (product_id, amount, movement_type, reason, created_at) "
+                + "VALUES (?, ?, ?, 'Movimiento', ?)", productId, amount, type, now());
+    }
+
+    private int ajustes(long productId) {
+        return jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM stock_manager WHERE product_id = ? AND movement_type = 'AJUSTE'", Integer.class,
+                productId);
+    }
+
+    private static Timestamp now() {
+        return Timestamp.valueOf(LocalDateTime.now());
+    }
+}
@@ -0,0 +1,62 @@
+package com.inventario.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.inventario.changes.ProductChangeProperties;
+import com.inventario.maintenance.ProductChangeCompactionJob;
+
+class ProductChangeCompactionJobTests extends QueryPlanTestSupport {
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private long change(long productId, String sku, String type, LocalDateTime changedAt) {
+        jdbcTemplate.update("INSERT INTO product_changes (product_id, sku, change_type, changed_at) VALUES (?, ?, ?, ?)",
+                productId, sku, type, Timestamp.valueOf(changedAt));
+        return jdbcTemplate.queryForObject("SELECT MAX(id) FROM product_changes", Long.class);
+    }
+
+    @Test
+    @DisplayName("La compactación deja un cambio por producto y mueve el horizonte al borrar tombstones vencidos")
+    void keepsLatestChangePerProductAndDropsExpiredTombstones() {
+        LocalDateTime now = LocalDateTime.now();
+        long created = change(900_001, "CMP-0001", "CREATED", now.minusHours(2));
+        long stock = change(900_001, "CMP-0001", "STOCK", now.minusHours(1));
+        long updated = change(900_001, "CMP-0001", "UPDATED", now);
+        long oldTombstone = change(900_002, "CMP-0002", "DELETED", now.minusDays(60));
+        long recentTombstone = change(900_003, "CMP-0003", "DELETED", now.minusDays(1));
+
+        ProductChangeProperties properties = new ProductChangeProperties(Duration.ofSeconds(5), 500, 5000,
+                Duration.ofDays(30), 1000);
+        ProductChangeCompactionJob job = new ProductChangeCompactionJob(dataSource,
+                new TransactionTemplate(transactionManager), properties);
+
+        ProductChangeCompactionJob.Result result = job.run();
+
+        List<Long> left = jdbcTemplate.queryForList(
+                "SELECT id FROM product_changes WHERE product_id IN (900001, 900002, 900003) ORDER BY id", Long.class);
+        assertEquals(List.of(updated, recentTombstone), left);
+        assertTrue(result.superseded() >= 2, "created " + created + " and stock " + stock + " are superseded");
+        assertTrue(result.tombstones() >= 1);
+        Long horizon = jdbcTemplate.queryForObject("SELECT compacted_through FROM product_change_horizon WHERE id = 1",
+                Long.class);
+        assertTrue(horizon >= oldTombstone && horizon < recentTombstone, "horizon " + horizon);
+    }
+}
@@ -0,0 +1,71 @@
+package com.inventario.repository;
+
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+
+import com.inventario.dtos.ProductQueryDTO;
+import com.inventario.enums.Category;
+import com.inventario.repository.CapturingDataSource.Statement;
+
+/**
+ * Runs every filter combination supported by GET /api/products/query through
+ * {@link ProductSpecifications#fromQuery}, EXPLAINs the statements Hibernate sends for the page
+ * (the count included) and fails when MariaDB falls back to a full table scan.
+ *
+ * A name-only filter is not listed: a leading-wildcard LIKE cannot use a B-tree index, so it
+ * is covered by the bounded-scan checks of {@link RepositoryQueryPlanTests}.
+ */
+class ProductQueryPlanTests extends QueryPlanTestSupport {
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    static List<Arguments> combinations() {
+        BigDecimal ten = new BigDecimal("10.00");
+        return List.of(
+                Arguments.of("category", new ProductQueryDTO(null, Category.LÁCTEOS, null, null, null, null, null)),
+                Arguments.of("category + price range",
+                        new ProductQueryDTO(null, Category.LÁCTEOS, ten, new BigDecimal("50.00"), null, null, null)),
+                Arguments.of("price range",
+                        new ProductQueryDTO(null, null, ten, new BigDecimal("20.00"), null, null, null)),
+                Arguments.of("min price",
+                        new ProductQueryDTO(null, null, new BigDecimal("990.00"), null, null, null, null)),
+                Arguments.of("max amount", new ProductQueryDTO(null, null, null, null, null, 5, null)),
+                Arguments.of("min amount", new ProductQueryDTO(null, null, null, null, 995, null, null)),
+                Arguments.of("amount range", new ProductQueryDTO(null, null, null, null, 0, 3, null)),
+                Arguments.of("low stock", new ProductQueryDTO(null, null, null, null, null, null, true)),
+                Arguments.of("category + low stock",
+                        new ProductQueryDTO(null, Category.LÁCTEOS, null, null, null, null, true)),
+                Arguments.of("category + name",
+                        new ProductQueryDTO("producto 1", Category.LÁCTEOS, null, null, null, null, null)),
+                Arguments.of("category + amount range",
+                        new ProductQueryDTO(null, Category.LÁCTEOS, null, null, null, 10, null)),
+                Arguments.of("low amount + low stock", new ProductQueryDTO(null, null, null, null, null, 5, true)));
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("combinations")
+    @DisplayName("Ninguna combinación soportada debe hacer un full scan")
+    void combinationUsesAnIndex(String combination, ProductQueryDTO criteria) {
+        List<Statement> statements = statementsOf(combination,
+                () -> productRepository.findAll(ProductSpecifications.fromQuery(criteria), PageRequest.of(0, 20)));
+        for (Statement statement : statements) {
+            Map<String, Object> row = explain(statement);
+            String name = combination + " [" + statement.sql() + "]";
+            assertNotEquals("ALL", row.get("type"), name + " does a full scan: " + row);
+            assertNotEquals("index", row.get("type"), name + " does a full index scan: " + row);
+            assertNotNull(row.get("key"), name + " does not use an index: " + row);
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package com.inventario.repository;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.MariaDBContainer;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import com.inventario.enums.Category;
+import com.inventario.enums.MovementType;
+import com.inventario.repository.CapturingDataSource.Statement;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Shared MariaDB for the EXPLAIN tests. The schema comes from the Flyway migrations, so the
+ * plans checked here are the ones production gets. Data is seeded once, with enough rows and
+ * fresh statistics for the optimizer to prefer indexes where they exist. Repository calls go
+ * through {@link #statementsOf}, which returns the statements Hibernate sent for them.
+ */
+@DataJpaTest
+@Import(CapturingDataSource.Configuration.class)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Testcontainers(disabledWithoutDocker = true)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+abstract class QueryPlanTestSupport {
+
+    static final int PRODUCTS = 20_000;
+    static final int MOVEMENTS = 100_000;
+
+    // Started once for every test class; Ryuk removes it when the JVM exits
+    @ServiceConnection
+    static final MariaDBContainer<?> MARIADB = new MariaDBContainer<>("mariadb:11");
+
+    static {
+        MARIADB.start();
+    }
+
+    @Autowired
+    protected JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    protected PlatformTransactionManager transactionManager;
+
+    @Autowired
+    protected EntityManagerFactory entityManagerFactory;
+
+    @BeforeAll
+    void seed() {
+        Integer existing = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM products", Integer.class);
+        if (existing != null && existing > 0)
+            return;
+
+        Random random = new Random(42);
+        Category[] categories = Category.values();
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO products (name, description, amount, stock_min, price, sku, date_of_creation, deleted, category) "
+                        + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)",
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        ps.setString(1, "Producto " + i);
+                        ps.setString(2, "Descripcion del producto " + i);
+                        ps.setInt(3, random.nextInt(1_000));
+                        ps.setInt(4, random.nextInt(20));
+                        ps.setBigDecimal(5, BigDecimal.valueOf(100 + random.nextInt(100_000), 2));
+                        ps.setString(6, String.format("%c%c%c-%04d", 'A' + i % 26, 'A' + (i / 26) % 26,
+                                'A' + (i / 676) % 26, i % 10_000));
+                        ps.setTimestamp(7, now);
+                        ps.setBoolean(8, random.nextInt(50) == 0);
+                        ps.setString(9, categories[random.nextInt(categories.length)].name());
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return PRODUCTS;
+                    }
+                });
+
+        MovementType[] types = MovementType.values();
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO stock_manager (product_id, amount, movement_type, reason, created_at) VALUES (?, ?, ?, ?, ?)",
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        ps.setLong(1, 1 + random.nextInt(PRODUCTS));
+                        ps.setInt(2, 1 + random.nextInt(10));
+                        ps.setString(3, types[random.nextInt(types.length)].name());
+                        ps.setString(4, "Movimiento " + i);
+                        ps.setTimestamp(5, Timestamp.valueOf(LocalDateTime.now().minusMinutes(i)));
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return MOVEMENTS;
+                    }
+                });
+        jdbcTemplate.update("INSERT INTO warehouse_stock (product_id, warehouse_id, amount, updated_at) "
+                + "SELECT id, 1, amount, ? FROM products", now);
+        // Change log of a catalog loaded in one go and then partly edited or deleted
+        jdbcTemplate.update("INSERT INTO product_changes (product_id, sku, change_type, changed_at) "
+                + "SELECT id, sku, 'CREATED', ? FROM products", now);
+        jdbcTemplate.update("INSERT INTO product_changes (product_id, sku, change_type, changed_at) "
+                + "SELECT id, sku, CASE WHEN deleted = 1 THEN 'DELETED' ELSE 'STOCK' END, ? FROM products "
+                + "WHERE deleted = 1 OR MOD(id, 5) = 0", now);
+        jdbcTemplate.execute("ANALYZE TABLE products, stock_manager, warehouse_stock, product_changes");
+    }
+
+    /**
+     * Runs the call in a transaction that is rolled back, with the second-level cache empty so
+     * that every read reaches the database, and returns the statements it sent.
+     */
+    protected List<Statement> statementsOf(String name, Runnable call) {
+        entityManagerFactory.unwrap(SessionFactoryImplementor.class).getCache().evictAllRegions();
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        List<Statement> statements = CapturingDataSource.capture(() -> transaction.executeWithoutResult(status -> {
+            status.setRollbackOnly();
+            call.run();
+        }));
+        assertFalse(statements.isEmpty(), name + " sent no SQL");
+        return statements;
+    }
+
+    protected Map<String, Object> explain(String sql, Object... parameters) {
+        List<Map<String, Object>> plan = jdbcTemplate.queryForList("EXPLAIN " + sql, parameters);
+        return plan.get(0);
+    }
+
+    protected Map<String, Object> explain(Statement statement) {
+        return explain(statement.sql(), statement.parameters().toArray());
+    }
+
+    protected void assertUsesIndex(String name, String sql) {
+        assertUsesIndex(name, explain(sql));
+    }
+
+    protected void assertUsesIndex(String name, Statement statement) {
+        assertUsesIndex(name + " [" + statement.sql() + "]", explain(statement));
+    }
+
+    private static void assertUsesIndex(String name, Map<String, Object> row) {
+        assertNotEquals("ALL", row.get("type"), name + " does a full scan: " + row);
+        assertNotNull(row.get("key"), name + " does not use an index: " + row);
+    }
+}
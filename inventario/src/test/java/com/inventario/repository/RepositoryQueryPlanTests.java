@@ -0,0 +1,208 @@
+package com.inventario.repository;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import com.inventario.enums.Category;
+import com.inventario.enums.MovementType;
+import com.inventario.model.WarehouseStockId;
+import com.inventario.repository.CapturingDataSource.Statement;
+
+/**
+ * Calls every query method of {@link ProductRepository}, {@link StockManagerRepository},
+ * {@link WarehouseStockRepository} and {@link ProductChangeRepository} and EXPLAINs each
+ * statement Hibernate sent for it, count queries of pages included. A new repository method
+ * must be added here together with the migration of the index it needs.
+ */
+class RepositoryQueryPlanTests extends QueryPlanTestSupport {
+
+    /**
+     * Scans that no B-tree index can avoid. They are bounded by the page size (LIMIT) and are
+     * still explained, so a broken statement fails the test anyway.
+     */
+    private static final Set<String> BOUNDED_SCANS = Set.of(
+            "ProductRepository.findByNameContainingIgnoreCaseAndDeletedFalse",
+            "ProductRepository.findSliceByNameContainingIgnoreCaseAndDeletedFalse",
+            "StockManagerRepository.findAll(Pageable)");
+
+    /**
+     * Full scans that only run off the request path: the count of a name search is refreshed in
+     * the background for count=estimate (and is the COUNT that count=none avoids).
+     */
+    private static final Set<String> BACKGROUND_SCANS = Set.of(
+            "ProductRepository.countByNameContainingIgnoreCaseAndDeletedFalse");
+
+    private static final Pageable PAGE = PageRequest.of(0, 20);
+    private static final Pageable BY_NAME = PageRequest.of(0, 20, Sort.by("name"));
+    // One row per page: a full first page makes Spring Data run the count query as well
+    private static final Pageable COUNTED_PAGE = PageRequest.of(0, 1);
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private StockManagerRepository stockManagerRepository;
+
+    @Autowired
+    private WarehouseStockRepository warehouseStockRepository;
+
+    @Autowired
+    private ProductChangeRepository productChangeRepository;
+
+    List<Arguments> repositoryCalls() {
+        LocalDateTime now = LocalDateTime.now();
+        BigDecimal min = new BigDecimal("10.00");
+        BigDecimal max = new BigDecimal("20.00");
+        List<Long> ids = List.of(1L, 20L, 300L, 4000L);
+        List<String> skus = List.of("AAA-0001", "BAA-0001");
+        return List.of(
+                call("ProductRepository.existsBySkuAndDeletedFalse",
+                        () -> productRepository.existsBySkuAndDeletedFalse("AAA-0001")),
+                call("ProductRepository.findByIdAndDeletedFalse",
+                        () -> productRepository.findByIdAndDeletedFalse(10L)),
+                call("ProductRepository.findActiveById",
+                        () -> productRepository.findActiveById(10L)),
+                call("ProductRepository.findOptionalBySkuAndDeletedFalse",
+                        () -> productRepository.findOptionalBySkuAndDeletedFalse("AAA-0001")),
+                call("ProductRepository.findByIdInAndDeletedFalse",
+                        () -> productRepository.findByIdInAndDeletedFalse(ids)),
+                call("ProductRepository.findBySkuInAndDeletedFalse",
+                        () -> productRepository.findBySkuInAndDeletedFalse(skus)),
+                call("ProductRepository.findByNameContainingIgnoreCaseAndDeletedFalse",
+                        () -> productRepository.findByNameContainingIgnoreCaseAndDeletedFalse("producto 1", PAGE)),
+                call("ProductRepository.findByPriceBetweenAndDeletedFalse",
+                        () -> productRepository.findByPriceBetweenAndDeletedFalse(min, max, PAGE)),
+                call("ProductRepository.findAllActive",
+                        () -> productRepository.findAllActive(BY_NAME)),
+                call("ProductRepository.findSliceByNameContainingIgnoreCaseAndDeletedFalse",
+                        () -> productRepository.findSliceByNameContainingIgnoreCaseAndDeletedFalse("producto 1", PAGE)),
+                call("ProductRepository.findSliceByPriceBetweenAndDeletedFalse",
+                        () -> productRepository.findSliceByPriceBetweenAndDeletedFalse(min, max, PAGE)),
+                call("ProductRepository.findActiveSlice",
+                        () -> productRepository.findActiveSlice(BY_NAME)),
+                call("ProductRepository.findActiveAfter",
+                        () -> productRepository.findActiveAfter(10_000L, PageRequest.ofSize(500))),
+                call("ProductRepository.countByDeletedFalse",
+                        () -> productRepository.countByDeletedFalse()),
+                call("ProductRepository.countByNameContainingIgnoreCaseAndDeletedFalse",
+                        () -> productRepository.countByNameContainingIgnoreCaseAndDeletedFalse("producto 1")),
+                call("ProductRepository.countByPriceBetweenAndDeletedFalse",
+                        () -> productRepository.countByPriceBetweenAndDeletedFalse(min, max)),
+                call("ProductRepository.findProductsWithLowStock",
+                        () -> productRepository.findProductsWithLowStock()),
+                call("ProductRepository.findSkusByIdIn",
+                        () -> productRepository.findSkusByIdIn(ids)),
+                call("ProductBulkRepository.findActiveIdBounds",
+                        () -> productRepository.findActiveIdBounds(Category.MASCOTAS)),
+                call("ProductBulkRepository.findActiveKeys",
+                        () -> productRepository.findActiveKeys(Category.MASCOTAS, 1L, 500L)),
+                call("ProductBulkRepository.findActiveKeysBySku",
+                        () -> productRepository.findActiveKeysBySku(skus)),
+                call("StockManagerRepository.findByProductIdOrderByCreatedAtDesc",
+                        () -> stockManagerRepository.findByProductIdOrderByCreatedAtDesc(10L, COUNTED_PAGE)),
+                call("StockManagerRepository.findByArchivedProductIdOrderByCreatedAtDesc",
+                        () -> stockManagerRepository.findByArchivedProductIdOrderByCreatedAtDesc(10L, PAGE)),
+                call("StockManagerRepository.getHistoryByMovementType",
+                        () -> stockManagerRepository.getHistoryByMovementType(MovementType.AJUSTE, PAGE)),
+                call("StockManagerRepository.findAll(Pageable)",
+                        () -> stockManagerRepository.findAll(PAGE)),
+                call("WarehouseStockRepository.decrease",
+                        () -> warehouseStockRepository.decrease(10L, 1L, 1, now)),
+                call("WarehouseStockRepository.increase",
+                        () -> warehouseStockRepository.increase(10L, 1L, 1, now)),
+                call("WarehouseStockRepository.applyDelta",
+                        () -> warehouseStockRepository.applyDelta(10L, 1L, -1, now)),
+                call("WarehouseStockRepository.findHot",
+                        () -> warehouseStockRepository.findHot(10L, 1L)),
+                call("WarehouseStockRepository.findLocked",
+                        () -> warehouseStockRepository.findLocked(new WarehouseStockId(10L, 1L))),
+                call("WarehouseStockRepository.setHot",
+                        () -> warehouseStockRepository.setHot(10L, 1L, false)),
+                call("WarehouseStockRepository.findHotProductIds",
+                        () -> warehouseStockRepository.findHotProductIds(1L)),
+                call("WarehouseStockRepository.sumAmount",
+                        () -> warehouseStockRepository.sumAmount(10L)),
+                call("WarehouseStockRepository.sumAmountOutside",
+                        () -> warehouseStockRepository.sumAmountOutside(10L, 1L)),
+                call("WarehouseStockRepository.findByIdProductIdOrderByIdWarehouseId",
+                        () -> warehouseStockRepository.findByIdProductIdOrderByIdWarehouseId(10L)),
+                call("WarehouseStockRepository.findTotalsPending",
+                        () -> warehouseStockRepository.findTotalsPending(0L, PageRequest.ofSize(500))),
+                call("WarehouseStockRepository.clearTotalsPending",
+                        () -> warehouseStockRepository.clearTotalsPending(ids)),
+                call("WarehouseStockRepository.syncProductTotals",
+                        () -> warehouseStockRepository.syncProductTotals(ids)),
+                call("ProductChangeRepository.findByIdGreaterThanOrderByIdAsc",
+                        () -> productChangeRepository.findByIdGreaterThanOrderByIdAsc(20_000L, PageRequest.ofSize(500))),
+                call("ProductChangeRepository.findFirstByChangedAtBeforeOrderByIdDesc",
+                        () -> productChangeRepository.findFirstByChangedAtBeforeOrderByIdDesc(now)),
+                call("ProductChangeRepository.findCompactedThrough",
+                        () -> productChangeRepository.findCompactedThrough()));
+    }
+
+    /**
+     * Statements the jobs send through JdbcTemplate, outside any repository. They are copied
+     * from the job and must be kept in step with it.
+     */
+    static List<Arguments> jobQueries() {
+        return List.of(
+                Arguments.of("HotStockWriteBehind (applied entries)",
+                        "SELECT stream_entry_id FROM stock_manager WHERE stream_entry_id IN ('1-0', '2-0')"),
+                Arguments.of("SoftDeletePurgeJob (candidates)",
+                        "SELECT id, sku FROM products WHERE deleted = 1 AND deleted_at < '2020-01-01' "
+                                + "ORDER BY deleted_at LIMIT 200"),
+                Arguments.of("LedgerReconciliationJob (stock rows)",
+                        "SELECT product_id, warehouse_id, amount, totals_pending FROM warehouse_stock "
+                                + "WHERE product_id BETWEEN 1 AND 1000"),
+                Arguments.of("LedgerReconciliationJob (ledger sums)",
+                        "SELECT product_id, COALESCE(warehouse_id, 1), "
+                                + "SUM(CASE WHEN movement_type = 'SALIDA' THEN -amount ELSE amount END) FROM stock_manager "
+                                + "WHERE product_id BETWEEN 1 AND 1000 GROUP BY product_id, COALESCE(warehouse_id, 1)"),
+                Arguments.of("ProductChangeCompactionJob (superseded)",
+                        "SELECT c.id FROM product_changes c WHERE c.id > 0 AND c.id <= 1000 AND EXISTS "
+                                + "(SELECT 1 FROM product_changes n WHERE n.product_id = c.product_id AND n.id > c.id)"),
+                Arguments.of("ProductChangeCompactionJob (expired tombstones)",
+                        "SELECT id FROM product_changes WHERE change_type = 'DELETED' AND changed_at < '2020-01-01' "
+                                + "ORDER BY changed_at LIMIT 1000"));
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("repositoryCalls")
+    @DisplayName("Las consultas de los repositorios no deben hacer full scans")
+    void repositoryQueryUsesAnIndex(String query, Runnable call) {
+        boolean scans = BOUNDED_SCANS.contains(query) || BACKGROUND_SCANS.contains(query);
+        for (Statement statement : statementsOf(query, call)) {
+            if (scans) {
+                Map<String, Object> row = explain(statement);
+                assertNotNull(row.get("type"), query + " cannot be explained: " + statement.sql());
+            } else {
+                assertUsesIndex(query, statement);
+            }
+        }
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("jobQueries")
+    @DisplayName("Las consultas de los jobs no deben hacer full scans")
+    void jobQueryUsesAnIndex(String query, String sql) {
+        assertUsesIndex(query, sql);
+    }
+
+    private static Arguments call(String query, Runnable call) {
+        return Arguments.of(query, call);
+    }
+}
@@ -0,0 +1,89 @@
+package com.inventario.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.inventario.maintenance.ConnectionPressure;
+import com.inventario.maintenance.PurgeProperties;
+import com.inventario.maintenance.SoftDeletePurgeJob;
+
+class SoftDeletePurgeJobTests extends QueryPlanTestSupport {
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    @DisplayName("La purga archiva los eliminados vencidos, conserva su historial y libera el SKU")
+    void archivesExpiredSoftDeletedProducts() throws InterruptedException {
+        Timestamp longAgo = Timestamp.valueOf(LocalDateTime.now().minusDays(90));
+        jdbcTemplate.update("INSERT INTO products (name, amount, stock_min, price, sku, date_of_creation, deleted, deleted_at, category) "
+                + "VALUES ('Purgado', 0, 0, 1.00, 'QQQ-9999', ?, 1, ?, 'MASCOTAS')", longAgo, longAgo);
+        Long id = jdbcTemplate.queryForObject("SELECT id FROM products WHERE sku = 'QQQ-9999'", Long.class);
+        jdbcTemplate.update("INSERT INTO stock_manager (product_id, amount, movement_type, reason, created_at) "
+                + "VALUES (?, 5, 'SALIDA', 'Venta', ?)", id, longAgo);
+        jdbcTemplate.update("INSERT INTO warehouse_stock (product_id, warehouse_id, amount, updated_at) VALUES (?, 1, 0, ?)",
+                id, longAgo);
+
+        PurgeProperties properties = new PurgeProperties(Duration.ofDays(30), 50, 10, 1.0,
+                Duration.ofSeconds(5), Duration.ofSeconds(1));
+        SoftDeletePurgeJob job = new SoftDeletePurgeJob(dataSource, new TransactionTemplate(transactionManager), properties,
+                pressure(false));
+        List<Map<Long, String>> batches = new ArrayList<>();
+
+        SoftDeletePurgeJob.Result result = job.run(batches::add);
+
+        assertEquals(1, result.archived());
+        assertEquals("QQQ-9999", batches.get(0).get(id));
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM products WHERE sku = 'QQQ-9999'", Integer.class));
+        assertEquals(1, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM products_archive WHERE id = ?", Integer.class, id));
+        assertEquals(1, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM stock_manager WHERE archived_product_id = ? AND product_id IS NULL", Integer.class, id));
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM warehouse_stock WHERE product_id = ?",
+                Integer.class, id));
+    }
+
+    @Test
+    @DisplayName("Con requests esperando conexión la purga reduce el lote a la mitad en cada vuelta hasta el mínimo")
+    void halvesTheBatchWhileRequestsWait() throws InterruptedException {
+        Timestamp longAgo = Timestamp.valueOf(LocalDateTime.now().minusDays(90));
+        for (int i = 0; i < 70; i++)
+            jdbcTemplate.update("INSERT INTO products (name, amount, stock_min, price, sku, date_of_creation, deleted, deleted_at, category) "
+                    + "VALUES ('Purgado', 0, 0, 1.00, ?, ?, 1, ?, 'MASCOTAS')", String.format("QQP-%04d", i), longAgo, longAgo);
+
+        PurgeProperties properties = new PurgeProperties(Duration.ofDays(30), 40, 10, 1.0,
+                Duration.ofSeconds(5), Duration.ofMillis(10));
+        SoftDeletePurgeJob job = new SoftDeletePurgeJob(dataSource, new TransactionTemplate(transactionManager), properties,
+                pressure(true));
+        List<Integer> sizes = new ArrayList<>();
+
+        SoftDeletePurgeJob.Result result = job.run(batch -> sizes.add(batch.size()));
+
+        assertEquals(70, result.archived());
+        assertEquals(List.of(40, 20, 10), sizes);
+    }
+
+    private static ConnectionPressure pressure(boolean requestsWaiting) {
+        ConnectionPressure pressure = mock(ConnectionPressure.class);
+        when(pressure.requestsWaiting()).thenReturn(requestsWaiting);
+        return pressure;
+    }
+}
@@ -0,0 +1,129 @@
+package com.inventario.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+class WarehouseStockRepositoryTests extends QueryPlanTestSupport {
+
+    @Autowired
+    private WarehouseStockRepository warehouseStockRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Long newProduct(String sku, int amount) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.update("INSERT INTO products (name, amount, stock_min, price, sku, date_of_creation, deleted, category) "
+                + "VALUES ('Multi deposito', ?, 0, 1.00, ?, ?, 0, 'MASCOTAS')", amount, sku, now);
+        Long id = jdbcTemplate.queryForObject("SELECT id FROM products WHERE sku = ?", Long.class, sku);
+        jdbcTemplate.update("INSERT INTO warehouse_stock (product_id, warehouse_id, amount, updated_at) VALUES (?, 1, ?, ?)",
+                id, amount, now);
+        return id;
+    }
+
+    private Long newWarehouse(String code) {
+        jdbcTemplate.update("INSERT INTO warehouses (code, name, active, created_at) VALUES (?, ?, 1, ?)",
+                code, "Depósito " + code, Timestamp.valueOf(LocalDateTime.now()));
+        return jdbcTemplate.queryForObject("SELECT id FROM warehouses WHERE code = ?", Long.class, code);
+    }
+
+    @Test
+    @DisplayName("Las salidas concurrentes sobre un depósito nunca dejan stock negativo")
+    void concurrentDecreasesNeverOversell() throws Exception {
+        Long productId = newProduct("WWW-0001", 100);
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        AtomicInteger applied = new AtomicInteger();
+
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < 160; i++) {
+            futures.add(executor.submit(() -> {
+                Integer updated = transactionTemplate.execute(status ->
+                        warehouseStockRepository.decrease(productId, 1L, 1, LocalDateTime.now()));
+                applied.addAndGet(updated);
+            }));
+        }
+        for (Future<?> future : futures)
+            future.get();
+        executor.shutdown();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+
+        assertEquals(100, applied.get());
+        assertEquals(0, warehouseStockRepository.sumAmount(productId));
+    }
+
+    @Test
+    @DisplayName("Una fila hot no acepta movimientos SQL pero sí los deltas del write-behind")
+    void hotRowsOnlyTakeWriteBehindDeltas() {
+        Long productId = newProduct("WWW-0003", 30);
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+
+        transactionTemplate.execute(status -> warehouseStockRepository.setHot(productId, 1L, true));
+        Integer rejected = transactionTemplate.execute(status ->
+                warehouseStockRepository.decrease(productId, 1L, 5, LocalDateTime.now())
+                        + warehouseStockRepository.increase(productId, 1L, 5, LocalDateTime.now()));
+        transactionTemplate.execute(status -> warehouseStockRepository.applyDelta(productId, 1L, -12, LocalDateTime.now()));
+
+        assertEquals(0, rejected);
+        assertEquals(18, warehouseStockRepository.sumAmount(productId));
+        assertEquals(true, warehouseStockRepository.findHot(productId, 1L).orElseThrow());
+    }
+
+    @Test
+    @DisplayName("La primera entrada a un depósito crea la fila y el total suma todas las ubicaciones")
+    void increaseCreatesTheLocationAndTotalsAddUp() {
+        Long productId = newProduct("WWW-0002", 40);
+        Long north = newWarehouse("NORTE");
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+
+        transactionTemplate.execute(status -> {
+            assertEquals(0, warehouseStockRepository.increase(productId, north, 15, LocalDateTime.now()));
+            warehouseStockRepository.insert(productId, north, 15, LocalDateTime.now());
+            warehouseStockRepository.increase(productId, north, 5, LocalDateTime.now());
+            return warehouseStockRepository.decrease(productId, 1L, 10, LocalDateTime.now());
+        });
+
+        assertEquals(50, warehouseStockRepository.sumAmount(productId));
+        assertEquals(2, warehouseStockRepository.findByIdProductIdOrderByIdWarehouseId(productId).size());
+        assertEquals(20, jdbcTemplate.queryForObject(
+                "SELECT amount FROM warehouse_stock WHERE product_id = ? AND warehouse_id = ?", Integer.class,
+                productId, north));
+
+        transactionTemplate.execute(status -> warehouseStockRepository.syncProductTotals(List.of(productId)));
+        assertEquals(50, jdbcTemplate.queryForObject("SELECT amount FROM products WHERE id = ?", Integer.class, productId));
+    }
+
+    @Test
+    @DisplayName("Cada movimiento deja el total pendiente en su fila hasta que el rollup lo recalcula")
+    void movementsMarkTheTotalPendingUntilTheRollup() {
+        Long productId = newProduct("WWW-0004", 30);
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        assertEquals(List.of(), warehouseStockRepository.findTotalsPending(productId - 1, PageRequest.ofSize(10)));
+
+        transactionTemplate.execute(status -> warehouseStockRepository.decrease(productId, 1L, 5, LocalDateTime.now()));
+        assertEquals(List.of(productId), warehouseStockRepository.findTotalsPending(productId - 1, PageRequest.ofSize(10)));
+
+        transactionTemplate.execute(status -> {
+            warehouseStockRepository.clearTotalsPending(List.of(productId));
+            return warehouseStockRepository.syncProductTotals(List.of(productId));
+        });
+        assertEquals(List.of(), warehouseStockRepository.findTotalsPending(productId - 1, PageRequest.ofSize(10)));
+        assertEquals(25, jdbcTemplate.queryForObject("SELECT amount FROM products WHERE id = ?", Integer.class, productId));
+    }
+}
@@ -0,0 +1,103 @@
+package com.inventario.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.inventario.cache.ProductCacheInvalidator;
+import com.inventario.changes.ProductChangeLog;
+import com.inventario.dtos.BulkUpdateDTO;
+import com.inventario.dtos.BulkUpdateResultDTO;
+import com.inventario.enums.Category;
+import com.inventario.enums.ProductChangeType;
+import com.inventario.repository.ProductRepository;
+
+@ExtendWith(MockitoExtension.class)
+class ProductBulkUpdateServiceTests {
+
+	@Mock
+	private ProductRepository productRepository;
+
+	@Mock
+	private ProductCacheInvalidator cacheInvalidator;
+
+	@Mock
+	private ProductChangeLog changeLog;
+
+	private ProductBulkUpdateServiceImpl service;
+
+	@BeforeEach
+	void setUp() {
+		PlatformTransactionManager noTransactions = new PlatformTransactionManager() {
+			@Override
+			public TransactionStatus getTransaction(TransactionDefinition definition) {
+				return new SimpleTransactionStatus();
+			}
+
+			@Override
+			public void commit(TransactionStatus status) {
+			}
+
+			@Override
+			public void rollback(TransactionStatus status) {
+			}
+		};
+		service = new ProductBulkUpdateServiceImpl(productRepository, new TransactionTemplate(noTransactions),
+				cacheInvalidator, changeLog, 2);
+	}
+
+	@Test
+	@DisplayName("Actualiza por SKU en bloques, invalida cada bloque y reporta los SKU inexistentes")
+	void updatesSkusInChunks() {
+		BulkUpdateDTO request = new BulkUpdateDTO(null, List.of("AAA-0001", "AAA-0002", "ZZZ-9999"),
+				BigDecimal.valueOf(5), null, null, null);
+		when(productRepository.findActiveKeysBySku(List.of("AAA-0001", "AAA-0002")))
+				.thenReturn(Map.of(1L, "AAA-0001", 2L, "AAA-0002"));
+		when(productRepository.findActiveKeysBySku(List.of("ZZZ-9999"))).thenReturn(Map.of());
+		when(productRepository.bulkUpdate(eq(Set.of(1L, 2L)), eq(request), any())).thenReturn(2);
+
+		BulkUpdateResultDTO result = service.bulkUpdate(request);
+
+		assertEquals(2, result.updated());
+		assertEquals(2, result.chunks());
+		assertEquals(List.of("ZZZ-9999"), result.unknownSkus());
+		verify(productRepository, times(1)).bulkUpdate(any(), any(), any());
+		verify(cacheInvalidator, times(2)).evictProducts(any(), any());
+		verify(cacheInvalidator, times(1)).evictLists();
+		verify(changeLog, times(1)).recordAll(Set.of(1L, 2L), ProductChangeType.UPDATED);
+	}
+
+	@Test
+	@DisplayName("Debe elegirse exactamente un selector y al menos un cambio")
+	void rejectsInvalidRequests() {
+		assertThrows(IllegalArgumentException.class, () -> service.bulkUpdate(
+				new BulkUpdateDTO(Category.MASCOTAS, List.of("AAA-0001"), BigDecimal.ONE, null, null, null)));
+		assertThrows(IllegalArgumentException.class, () -> service.bulkUpdate(
+				new BulkUpdateDTO(Category.MASCOTAS, null, null, null, null, null)));
+		assertThrows(IllegalArgumentException.class, () -> service.bulkUpdate(
+				new BulkUpdateDTO(Category.MASCOTAS, null, BigDecimal.valueOf(-100), null, null, null)));
+		verify(productRepository, never()).bulkUpdate(any(), any(), any());
+	}
+}
@@ -0,0 +1,163 @@
+package com.inventario.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
+
+import com.inventario.changes.ProductChangeProperties;
+import com.inventario.dtos.ProductChangesDTO;
+import com.inventario.dtos.ProductDTO;
+import com.inventario.enums.ProductChangeType;
+import com.inventario.exceptions.ChangeTokenExpiredException;
+import com.inventario.maintenance.ProductChangeCompactionJob;
+import com.inventario.mappers.ProductMapper;
+import com.inventario.model.Product;
+import com.inventario.model.ProductChange;
+import com.inventario.repository.ProductChangeRepository;
+import com.inventario.repository.ProductRepository;
+
+@ExtendWith(MockitoExtension.class)
+class ProductChangeServiceTests {
+
+	@Mock
+	private ProductChangeRepository changeRepository;
+
+	@Mock
+	private ProductRepository productRepository;
+
+	@Mock
+	private ProductMapper productMapper;
+
+	@Mock
+	private ProductChangeCompactionJob compactionJob;
+
+	private ProductChangeServiceImpl service;
+
+	@BeforeEach
+	void setUp() {
+		service = new ProductChangeServiceImpl(changeRepository, productRepository, productMapper, compactionJob,
+				new ProductChangeProperties(Duration.ofSeconds(5), 500, 5000, Duration.ofDays(30), 1000));
+	}
+
+	private static ProductChange change(long token, long productId, ProductChangeType type) {
+		ProductChange change = new ProductChange();
+		change.setId(token);
+		change.setProductId(productId);
+		change.setSku("SKU-" + productId);
+		change.setChangeType(type);
+		change.setChangedAt(LocalDateTime.now().minusMinutes(1));
+		return change;
+	}
+
+	private static Product product(long id, boolean deleted) {
+		Product product = new Product();
+		product.setId(id);
+		product.setSku("SKU-" + id);
+		product.setDeleted(deleted);
+		return product;
+	}
+
+	@Test
+	@DisplayName("Cada producto aparece una vez con su último token y los eliminados como tombstone")
+	void foldsChangesPerProductAndReturnsTombstones() {
+		when(changeRepository.findCompactedThrough()).thenReturn(Optional.of(0L));
+		when(changeRepository.findByIdGreaterThanOrderByIdAsc(10L, PageRequest.of(0, 3)))
+				.thenReturn(new SliceImpl<>(List.of(change(11, 1, ProductChangeType.STOCK),
+						change(12, 2, ProductChangeType.UPDATED), change(13, 1, ProductChangeType.UPDATED)),
+						PageRequest.of(0, 3), true));
+		Product live = product(1, false);
+		when(productRepository.findAllById(Set.of(1L, 2L))).thenReturn(List.of(live, product(2, true)));
+		when(productMapper.toDTO(live)).thenReturn(new ProductDTO());
+
+		ProductChangesDTO result = service.getChanges(10L, 3);
+
+		assertEquals(2, result.changes().size());
+		assertEquals(2L, result.changes().get(0).productId());
+		assertEquals(ProductChangeType.DELETED, result.changes().get(0).type());
+		assertNull(result.changes().get(0).product());
+		assertEquals(13L, result.changes().get(1).token());
+		assertEquals(ProductChangeType.UPDATED, result.changes().get(1).type());
+		assertEquals(13L, result.nextToken());
+		assertTrue(result.hasMore());
+	}
+
+	@Test
+	@DisplayName("La página termina en el primer cambio sin asentar aunque le sigan tokens ya asentados")
+	void unsettledChangeEndsThePage() {
+		when(changeRepository.findCompactedThrough()).thenReturn(Optional.of(0L));
+		// 12 took its changed_at before waiting on a lock, so it carries a later changed_at than 13
+		ProductChange waited = change(12, 2, ProductChangeType.STOCK);
+		waited.setChangedAt(LocalDateTime.now());
+		when(changeRepository.findByIdGreaterThanOrderByIdAsc(10L, PageRequest.of(0, 3)))
+				.thenReturn(new SliceImpl<>(List.of(change(11, 1, ProductChangeType.STOCK), waited,
+						change(13, 3, ProductChangeType.STOCK)), PageRequest.of(0, 3), true));
+		Product product = product(1, false);
+		when(productRepository.findAllById(Set.of(1L))).thenReturn(List.of(product));
+		when(productMapper.toDTO(product)).thenReturn(new ProductDTO());
+
+		ProductChangesDTO result = service.getChanges(10L, 3);
+
+		assertEquals(1, result.changes().size());
+		assertEquals(1L, result.changes().get(0).productId());
+		assertEquals(11L, result.nextToken());
+		assertFalse(result.hasMore());
+	}
+
+	@Test
+	@DisplayName("Un token anterior a los tombstones compactados exige resincronizar")
+	void rejectsTokensBehindTheHorizon() {
+		when(changeRepository.findCompactedThrough()).thenReturn(Optional.of(500L));
+
+		assertThrows(ChangeTokenExpiredException.class, () -> service.getChanges(499L, null));
+		verify(changeRepository, never()).findByIdGreaterThanOrderByIdAsc(anyLong(), any());
+	}
+
+	@Test
+	@DisplayName("Sin since solo devuelve el token actual para arrancar después de la descarga completa")
+	void bootstrapReturnsHeadToken() {
+		when(changeRepository.findFirstByChangedAtBeforeOrderByIdDesc(any()))
+				.thenReturn(Optional.of(change(42, 7, ProductChangeType.CREATED)));
+
+		ProductChangesDTO result = service.getChanges(null, null);
+
+		assertTrue(result.changes().isEmpty());
+		assertEquals(42L, result.nextToken());
+		assertFalse(result.hasMore());
+	}
+
+	@Test
+	@DisplayName("Sin cambios nuevos el token no avanza")
+	void emptyDeltaKeepsToken() {
+		when(changeRepository.findCompactedThrough()).thenReturn(Optional.empty());
+		when(changeRepository.findByIdGreaterThanOrderByIdAsc(eq(42L), any()))
+				.thenReturn(new SliceImpl<>(List.of(), PageRequest.of(0, 500), false));
+
+		ProductChangesDTO result = service.getChanges(42L, null);
+
+		assertEquals(42L, result.nextToken());
+		assertThrows(IllegalArgumentException.class, () -> service.getChanges(42L, 0));
+	}
+}
@@ -0,0 +1,81 @@
+package com.inventario.warehouse;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.inventario.cache.ProductCacheInvalidator;
+import com.inventario.cache.ProductCacheStore;
+import com.inventario.cache.ProductEntityCache;
+import com.inventario.cache.ProductResponseCache;
+import com.inventario.changes.ProductChangeLog;
+import com.inventario.dtos.ProductDTO;
+import com.inventario.enums.Category;
+import com.inventario.repository.ProductRepository;
+import com.inventario.repository.WarehouseStockRepository;
+
+class StockTotalsRollupTests {
+
+    @Test
+    @DisplayName("Tras el rollup las páginas cacheadas muestran el nuevo total, y no antes del commit")
+    void listPagesShowTheTotalAfterTheFlush() {
+        AtomicInteger amount = new AtomicInteger(1_000_000);
+        ConcurrentMapCacheManager cacheManager = new ConcurrentMapCacheManager();
+        Cache lists = cacheManager.getCache("productLists");
+        lists.put("page-0", List.of(product(amount.get())));
+
+        WarehouseStockRepository warehouseStockRepository = mock(WarehouseStockRepository.class);
+        when(warehouseStockRepository.findTotalsPending(anyLong(), any(Pageable.class))).thenReturn(List.of(1L));
+        // The rollup writes products.amount from the locations: 7 units were sold
+        when(warehouseStockRepository.syncProductTotals(List.of(1L))).thenAnswer(invocation -> {
+            amount.set(999_993);
+            return 1;
+        });
+        ProductRepository productRepository = mock(ProductRepository.class);
+        when(productRepository.findSkusByIdIn(List.of(1L))).thenReturn(List.of("AAA-0001"));
+
+        // Until commit other readers still see the old total, so the page must not be reloaded yet
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        doAnswer(invocation -> {
+            assertNotNull(lists.get("page-0"));
+            return null;
+        }).when(transactionManager).commit(any());
+
+        ProductCacheInvalidator cacheInvalidator = new ProductCacheInvalidator(mock(ProductCacheStore.class),
+                cacheManager, mock(ProductResponseCache.class),
+                new StaticListableBeanFactory().getBeanProvider(ProductEntityCache.class));
+        StockTotalsRollup rollup = new StockTotalsRollup(warehouseStockRepository, productRepository, cacheInvalidator,
+                mock(ProductChangeLog.class), new TransactionTemplate(transactionManager),
+                new WarehouseProperties(Duration.ofSeconds(2), 500));
+
+        assertEquals(1, rollup.flush());
+
+        List<?> page = lists.get("page-0", () -> List.of(product(amount.get())));
+        assertEquals(999_993, ((ProductDTO) page.get(0)).getAmount());
+    }
+
+    private static ProductDTO product(int amount) {
+        return new ProductDTO(1L, "Producto 1", null, new BigDecimal("10.50"), 5, amount, "AAA-0001",
+                Category.MASCOTAS, null);
+    }
+}